@@ -0,0 +1,97 @@
+package com.payan.demo.benchmark;
+
+import com.payan.demo.entity.Transaction;
+import com.payan.demo.entity.TransactionStatus;
+import com.payan.demo.entity.TransactionType;
+import com.payan.demo.service.TransactionSummaryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summing transaction amounts as BigDecimal versus as long minor units, and feeding rows through the
+ * incremental summary. Run with {@code -prof gc} to see the allocation per row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AmountAggregationBenchmark {
+
+    private static final String[] CATEGORIES = {"Food & Dining", "Shopping", "Utilities", "Salary", "Transportation"};
+
+    @Param({"100000"})
+    private int rowCount;
+
+    private Transaction[] rows;
+    private BigDecimal[] decimalAmounts;
+    private TransactionSummaryService summary;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        rows = new Transaction[rowCount];
+        decimalAmounts = new BigDecimal[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setId((long) i);
+            transaction.setAmount(BigDecimal.valueOf(random.nextLong(1, 500_000), 2));
+            transaction.setType(i % 5 == 0 ? TransactionType.CREDIT : TransactionType.DEBIT);
+            transaction.setStatus(i % 10 == 0 ? TransactionStatus.PENDING : TransactionStatus.COMPLETED);
+            transaction.setCategory(CATEGORIES[i % CATEGORIES.length]);
+            transaction.setTransactionDate(start.plusMinutes(i));
+            rows[i] = transaction;
+            decimalAmounts[i] = transaction.getAmount();
+        }
+        summary = new TransactionSummaryService();
+        for (Transaction row : rows) {
+            summary.onCreated(row);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal sumDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal amount : decimalAmounts) {
+            total = total.add(amount);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long sumMinorUnits() {
+        long total = 0;
+        for (Transaction row : rows) {
+            total = Math.addExact(total, row.getAmountMinor());
+        }
+        return total;
+    }
+
+    /**
+     * Remove and re-add every row, as a stream of updates would
+     */
+    @Benchmark
+    public long summaryUpdates() {
+        for (Transaction row : rows) {
+            summary.onUpdated(row, row);
+        }
+        return summary.getTotalCount();
+    }
+}
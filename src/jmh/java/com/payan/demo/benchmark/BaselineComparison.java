@@ -0,0 +1,109 @@
+package com.payan.demo.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result file with a stored baseline and exits with status 1 when any benchmark
+ * got slower than the allowed threshold. Benchmarks missing from either file are reported and skipped.
+ * <p>
+ * Usage: {@code BaselineComparison <result.json> <baseline.json> [threshold, default 0.10]}
+ */
+public final class BaselineComparison {
+
+    private BaselineComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineComparison <result.json> <baseline.json> [threshold]");
+            System.exit(2);
+        }
+        File resultFile = new File(args[0]);
+        File baselineFile = new File(args[1]);
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 0.10;
+        if (!baselineFile.isFile()) {
+            System.err.println("No baseline at " + baselineFile + "; copy " + resultFile + " there to create one");
+            System.exit(2);
+        }
+
+        Map<String, JsonNode> results = read(resultFile);
+        Map<String, JsonNode> baseline = read(baselineFile);
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, JsonNode> entry : results.entrySet()) {
+            JsonNode expected = baseline.get(entry.getKey());
+            if (expected == null) {
+                System.out.printf("NEW        %s%n", entry.getKey());
+                continue;
+            }
+            double change = relativeChange(entry.getValue(), expected);
+            String verdict = change > threshold ? "REGRESSED" : change < -threshold ? "IMPROVED" : "OK";
+            System.out.printf("%-10s %s: %.3f -> %.3f %s (%+.1f%%)%n", verdict, entry.getKey(),
+                    score(expected), score(entry.getValue()), unit(entry.getValue()), change * 100);
+            if (change > threshold) {
+                regressions.add(entry.getKey());
+            }
+        }
+        baseline.keySet().stream()
+                .filter(key -> !results.containsKey(key))
+                .forEach(key -> System.out.printf("MISSING    %s%n", key));
+
+        if (!regressions.isEmpty()) {
+            System.err.printf("%d benchmark(s) regressed by more than %.0f%%: %s%n",
+                    regressions.size(), threshold * 100, regressions);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * How much worse the result is than the baseline, as a fraction: positive means slower
+     */
+    static double relativeChange(JsonNode result, JsonNode baseline) {
+        double change = (score(result) - score(baseline)) / score(baseline);
+        // Throughput: higher is better, so a drop is the regression
+        return "thrpt".equals(result.path("mode").asText()) ? -change : change;
+    }
+
+    private static double score(JsonNode benchmark) {
+        return benchmark.path("primaryMetric").path("score").asDouble();
+    }
+
+    private static String unit(JsonNode benchmark) {
+        return benchmark.path("primaryMetric").path("scoreUnit").asText();
+    }
+
+    private static Map<String, JsonNode> read(File file) throws IOException {
+        Map<String, JsonNode> benchmarks = new LinkedHashMap<>();
+        for (JsonNode benchmark : new ObjectMapper().readTree(file)) {
+            benchmarks.put(key(benchmark), benchmark);
+        }
+        return benchmarks;
+    }
+
+    /**
+     * Benchmark name, mode, thread count and sorted parameters, e.g.
+     * {@code TransactionServiceBenchmark.getAllTransactions avgt t1 {rowCount=10000}}
+     */
+    private static String key(JsonNode benchmark) {
+        String name = benchmark.path("benchmark").asText();
+        Map<String, String> params = new TreeMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = benchmark.path("params").fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            params.put(field.getKey(), field.getValue().asText());
+        }
+        return name.substring(name.lastIndexOf('.', name.lastIndexOf('.') - 1) + 1)
+                + " " + benchmark.path("mode").asText()
+                + " t" + benchmark.path("threads").asInt()
+                + (params.isEmpty() ? "" : " " + params);
+    }
+}
@@ -0,0 +1,95 @@
+package com.payan.demo.benchmark;
+
+import com.payan.demo.dto.BatchIngestResult;
+import com.payan.demo.entity.Transaction;
+import com.payan.demo.entity.TransactionStatus;
+import com.payan.demo.entity.TransactionType;
+import com.payan.demo.service.TransactionBatchService;
+import com.payan.demo.service.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rows per second through the bulk ingest path versus one createTransaction call per row
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchIngestBenchmark {
+
+    private static final int ROWS_PER_CALL = 1_000;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private TransactionBatchService transactionBatchService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("batch-ingest-benchmark");
+        transactionService = context.getBean(TransactionService.class);
+        transactionBatchService = context.getBean(TransactionBatchService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS_PER_CALL)
+    public BatchIngestResult ingest_batch() {
+        return transactionBatchService.ingest(newTransactions());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS_PER_CALL)
+    public Transaction ingest_oneByOne() {
+        Transaction last = null;
+        for (Transaction transaction : newTransactions()) {
+            last = transactionService.createTransaction(transaction);
+        }
+        return last;
+    }
+
+    private List<Transaction> newTransactions() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Transaction> transactions = new ArrayList<>(ROWS_PER_CALL);
+        for (int i = 0; i < ROWS_PER_CALL; i++) {
+            long n = sequence.incrementAndGet();
+            Transaction transaction = new Transaction();
+            transaction.setTransactionId("INGEST-" + n);
+            transaction.setDescription("Ingested transaction " + n);
+            transaction.setAmount(BigDecimal.valueOf(100 + n % 10_000, 2));
+            transaction.setType(n % 2 == 0 ? TransactionType.DEBIT : TransactionType.CREDIT);
+            transaction.setStatus(TransactionStatus.COMPLETED);
+            transaction.setCategory("Shopping");
+            transaction.setTransactionDate(now);
+            transactions.add(transaction);
+        }
+        return transactions;
+    }
+}
@@ -0,0 +1,76 @@
+package com.payan.demo.benchmark;
+
+import com.payan.demo.PayanDemoApplication;
+import com.payan.demo.entity.Transaction;
+import com.payan.demo.entity.TransactionStatus;
+import com.payan.demo.entity.TransactionType;
+import com.payan.demo.repository.TransactionRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the application without a web server for in-process benchmarks
+ */
+final class BenchmarkApplication {
+
+    private static final TransactionType[] TYPES = {TransactionType.DEBIT, TransactionType.CREDIT};
+    private static final TransactionStatus[] STATUSES = {
+            TransactionStatus.COMPLETED, TransactionStatus.PENDING, TransactionStatus.FAILED};
+    private static final String[] CATEGORIES = {"Food & Dining", "Utilities", "Shopping", "Salary", "Housing"};
+
+    private BenchmarkApplication() {
+    }
+
+    /**
+     * Start the application on a private in-memory database with SQL logging switched off
+     */
+    static ConfigurableApplicationContext start(String databaseName) {
+        // Command-line arguments, unlike default properties, take precedence over application.properties
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        return new SpringApplicationBuilder(PayanDemoApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:" + databaseName,
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.format_sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.payan.demo=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        "--logging.level.org.springframework.security=WARN",
+                        "--payan.query-plan-check.mode=off");
+    }
+
+    /**
+     * Insert {@code count} synthetic transactions spread over the last year
+     */
+    static void seedTransactions(ConfigurableApplicationContext context, int count) {
+        TransactionRepository repository = context.getBean(TransactionRepository.class);
+        LocalDateTime now = LocalDateTime.now();
+        List<Transaction> batch = new ArrayList<>(1_000);
+        for (int i = 0; i < count; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setTransactionId("BENCH-" + i);
+            transaction.setDescription("Benchmark transaction " + i);
+            transaction.setAmount(BigDecimal.valueOf(100 + i % 10_000, 2));
+            transaction.setType(TYPES[i % TYPES.length]);
+            transaction.setStatus(STATUSES[i % STATUSES.length]);
+            transaction.setCategory(CATEGORIES[i % CATEGORIES.length]);
+            transaction.setReference("REF-" + i);
+            transaction.setTransactionDate(now.minusMinutes(i % 525_600));
+            batch.add(transaction);
+            if (batch.size() == 1_000) {
+                repository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        repository.saveAll(batch);
+    }
+}
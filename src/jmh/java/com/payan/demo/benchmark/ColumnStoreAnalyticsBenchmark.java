@@ -0,0 +1,86 @@
+package com.payan.demo.benchmark;
+
+import com.payan.demo.dto.TransactionAggregate;
+import com.payan.demo.dto.TransactionAnalyticsGroup;
+import com.payan.demo.entity.Transaction;
+import com.payan.demo.repository.TransactionRepository;
+import com.payan.demo.service.TransactionColumnStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Totals per category over the last 90 days: from the column store, from a GROUP BY in H2, and by loading
+ * the entities and adding them up, which is what reporting code did before the store existed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ColumnStoreAnalyticsBenchmark {
+
+    @Param({"100000"})
+    private int rowCount;
+
+    private ConfigurableApplicationContext context;
+    private TransactionColumnStore transactionColumnStore;
+    private TransactionRepository transactionRepository;
+    private LocalDateTime from;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("column-store-benchmark");
+        BenchmarkApplication.seedTransactions(context, rowCount);
+        transactionColumnStore = context.getBean(TransactionColumnStore.class);
+        transactionRepository = context.getBean(TransactionRepository.class);
+        // Seeded through the repository, which does not feed the store
+        transactionColumnStore.rebuild();
+        from = LocalDateTime.now().minusDays(90);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<TransactionAnalyticsGroup> columnStore() {
+        return transactionColumnStore.aggregate(TransactionColumnStore.Dimension.CATEGORY, from, null, null, null);
+    }
+
+    @Benchmark
+    public List<TransactionAggregate> databaseGroupBy() {
+        return transactionRepository.aggregateByTypeStatusCategoryAndDay();
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> loadEntities() {
+        Map<String, BigDecimal> totals = new HashMap<>();
+        for (Transaction transaction : transactionRepository.findAll()) {
+            if (!transaction.getTransactionDate().isBefore(from)) {
+                totals.merge(transaction.getCategory(), transaction.getAmount(), BigDecimal::add);
+            }
+        }
+        return totals;
+    }
+}
@@ -0,0 +1,70 @@
+package com.payan.demo.benchmark;
+
+import com.payan.demo.dto.TransactionStatsPoint;
+import com.payan.demo.entity.RollupGranularity;
+import com.payan.demo.repository.TransactionRollupRepository;
+import com.payan.demo.service.TransactionRollupService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hourly counts and totals over the last 30 days: read from the rollup table, and computed from the
+ * transactions with the same GROUP BY compaction uses. The range moves with the clock, so H2 cannot
+ * answer either query from its result cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RollupStatsBenchmark {
+
+    @Param({"1000000"})
+    private int rowCount;
+
+    private ConfigurableApplicationContext context;
+    private TransactionRollupService transactionRollupService;
+    private TransactionRollupRepository transactionRollupRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("rollup-benchmark");
+        BenchmarkApplication.seedTransactions(context, rowCount);
+        transactionRollupService = context.getBean(TransactionRollupService.class);
+        transactionRollupRepository = context.getBean(TransactionRollupRepository.class);
+        // Seeded through the repository, which does not report to the rollups
+        transactionRollupService.rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<TransactionStatsPoint> rollups() {
+        return transactionRollupService.getStats(RollupGranularity.HOUR, LocalDateTime.now().minusDays(30), null, null, null, null);
+    }
+
+    @Benchmark
+    public List<TransactionRollupRepository.Row> rawGroupBy() {
+        return transactionRollupRepository.aggregateTransactions(RollupGranularity.HOUR, LocalDateTime.now().minusDays(30));
+    }
+}
@@ -0,0 +1,54 @@
+package com.payan.demo.benchmark;
+
+import com.payan.demo.service.SnowflakeTransactionIdGenerator;
+import com.payan.demo.service.TransactionIdGenerator;
+import com.payan.demo.service.UuidTransactionIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transaction ID generation, single-threaded and with four threads sharing one generator
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionIdGeneratorBenchmark {
+
+    private final TransactionIdGenerator uuid = new UuidTransactionIdGenerator();
+    private final TransactionIdGenerator snowflake = new SnowflakeTransactionIdGenerator(1);
+
+    @Benchmark
+    public String uuid() {
+        return uuid.nextId();
+    }
+
+    @Benchmark
+    public String snowflake() {
+        return snowflake.nextId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String uuid_contended() {
+        return uuid.nextId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String snowflake_contended() {
+        return snowflake.nextId();
+    }
+}
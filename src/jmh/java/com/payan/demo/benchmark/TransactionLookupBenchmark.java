@@ -0,0 +1,87 @@
+package com.payan.demo.benchmark;
+
+import com.payan.demo.entity.Transaction;
+import com.payan.demo.entity.TransactionStatus;
+import com.payan.demo.repository.TransactionRepository;
+import com.payan.demo.service.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cached TransactionService lookups versus going to H2 through the repository every time.
+ * The id working set is sized to fit the cache, as it would for hot, mostly-COMPLETED rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionLookupBenchmark {
+
+    @Param({"10000"})
+    private int rowCount;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private TransactionRepository transactionRepository;
+    private Long[] hotIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("lookup-benchmark");
+        BenchmarkApplication.seedTransactions(context, rowCount);
+        transactionService = context.getBean(TransactionService.class);
+        transactionRepository = context.getBean(TransactionRepository.class);
+        hotIds = transactionRepository.findFirstPage(PageRequest.of(0, 1_000)).stream()
+                .map(Transaction::getId)
+                .toArray(Long[]::new);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Transaction> getById_cached() {
+        return transactionService.getTransactionById(nextId());
+    }
+
+    @Benchmark
+    public Optional<Transaction> getById_repository() {
+        return transactionRepository.findById(nextId());
+    }
+
+    @Benchmark
+    public List<Transaction> getByStatus_cached() {
+        return transactionService.getTransactionsByStatus(TransactionStatus.FAILED);
+    }
+
+    @Benchmark
+    public List<Transaction> getByStatus_repository() {
+        return transactionRepository.findByStatus(TransactionStatus.FAILED);
+    }
+
+    private Long nextId() {
+        return hotIds[ThreadLocalRandom.current().nextInt(hotIds.length)];
+    }
+}
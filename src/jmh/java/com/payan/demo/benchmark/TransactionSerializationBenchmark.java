@@ -0,0 +1,79 @@
+package com.payan.demo.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.payan.demo.entity.Transaction;
+import com.payan.demo.entity.TransactionStatus;
+import com.payan.demo.entity.TransactionType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialisation of {@code List<Transaction>} as returned by the list endpoints,
+ * with the same module setup Spring Boot applies to its ObjectMapper
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionSerializationBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int listSize;
+
+    private ObjectWriter listWriter;
+    private List<Transaction> transactions;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+        listWriter = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, Transaction.class));
+        LocalDateTime now = LocalDateTime.now();
+        transactions = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setId((long) i);
+            transaction.setTransactionId("TXN-" + i);
+            transaction.setDescription("Serialised transaction " + i);
+            transaction.setAmount(BigDecimal.valueOf(100 + i, 2));
+            transaction.setType(i % 2 == 0 ? TransactionType.DEBIT : TransactionType.CREDIT);
+            transaction.setStatus(TransactionStatus.COMPLETED);
+            transaction.setCategory("Shopping");
+            transaction.setReference("REF-" + i);
+            transaction.setTransactionDate(now.minusMinutes(i));
+            transactions.add(transaction);
+        }
+    }
+
+    @Benchmark
+    public byte[] toBytes() throws IOException {
+        return listWriter.writeValueAsBytes(transactions);
+    }
+
+    @Benchmark
+    public void toStream() throws IOException {
+        // What the HTTP message converter does: write straight to the response stream
+        listWriter.writeValue(OutputStream.nullOutputStream(), transactions);
+    }
+}
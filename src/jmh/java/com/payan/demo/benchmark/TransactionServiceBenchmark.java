@@ -0,0 +1,71 @@
+package com.payan.demo.benchmark;
+
+import com.payan.demo.entity.Transaction;
+import com.payan.demo.entity.TransactionStatus;
+import com.payan.demo.entity.TransactionType;
+import com.payan.demo.service.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TransactionService hot paths against H2 holding {@code rowCount} transactions.
+ * The 1M row case needs a few GB of heap because getAllTransactions materialises every row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class TransactionServiceBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int rowCount;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("service-benchmark-" + rowCount);
+        BenchmarkApplication.seedTransactions(context, rowCount);
+        transactionService = context.getBean(TransactionService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Transaction createTransaction() {
+        Transaction transaction = new Transaction();
+        transaction.setDescription("Benchmark create");
+        transaction.setAmount(new BigDecimal("42.50"));
+        transaction.setType(TransactionType.DEBIT);
+        transaction.setStatus(TransactionStatus.COMPLETED);
+        transaction.setCategory("Shopping");
+        return transactionService.createTransaction(transaction);
+    }
+
+    @Benchmark
+    public List<Transaction> getAllTransactions() {
+        return transactionService.getAllTransactions();
+    }
+}
@@ -0,0 +1,81 @@
+package com.payan.demo.benchmark;
+
+import com.payan.demo.service.CustomUserDetailsService;
+import com.payan.demo.service.UserDetailsCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What one HTTP Basic request costs: loading the user and verifying the password,
+ * through the caches and with the caches bypassed
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserAuthenticationBenchmark {
+
+    private static final String USERNAME = "user1";
+    private static final String PASSWORD = "password123";
+
+    private ConfigurableApplicationContext context;
+    private CustomUserDetailsService userDetailsService;
+    private UserDetailsCache userDetailsCache;
+    private PasswordEncoder cachingPasswordEncoder;
+    private PasswordEncoder bcrypt;
+    private String encodedPassword;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("authentication-benchmark");
+        userDetailsService = context.getBean(CustomUserDetailsService.class);
+        userDetailsCache = context.getBean(UserDetailsCache.class);
+        cachingPasswordEncoder = context.getBean(PasswordEncoder.class);
+        bcrypt = new BCryptPasswordEncoder();
+        encodedPassword = userDetailsService.loadUserByUsername(USERNAME).getPassword();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserDetails loadUserByUsername_cached() {
+        return userDetailsService.loadUserByUsername(USERNAME);
+    }
+
+    @Benchmark
+    public UserDetails loadUserByUsername_uncached() {
+        userDetailsCache.evict(USERNAME);
+        return userDetailsService.loadUserByUsername(USERNAME);
+    }
+
+    @Benchmark
+    public boolean passwordMatches_cached() {
+        return cachingPasswordEncoder.matches(PASSWORD, encodedPassword);
+    }
+
+    @Benchmark
+    public boolean passwordMatches_bcrypt() {
+        return bcrypt.matches(PASSWORD, encodedPassword);
+    }
+}
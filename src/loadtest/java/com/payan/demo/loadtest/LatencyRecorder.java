@@ -0,0 +1,57 @@
+package com.payan.demo.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Latencies and error count of one operation. Keeps every sample so percentiles are exact;
+ * a run of a few minutes at a few thousand requests per second fits comfortably in memory.
+ */
+final class LatencyRecorder {
+
+    private long[] latencies = new long[1024];
+    private int count;
+    private int errors;
+
+    synchronized void record(long latencyNanos, boolean success) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+        if (!success) {
+            errors++;
+        }
+    }
+
+    synchronized void mergeInto(LatencyRecorder total) {
+        for (int i = 0; i < count; i++) {
+            total.record(latencies[i], true);
+        }
+        synchronized (total) {
+            total.errors += errors;
+        }
+    }
+
+    synchronized Result result(String name, double seconds) {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        return new Result(name, count, errors, count / seconds,
+                percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                count == 0 ? 0 : sorted[count - 1] / 1_000_000.0);
+    }
+
+    // Nearest-rank percentile in milliseconds
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(rank - 1, 0)] / 1_000_000.0;
+    }
+
+    /**
+     * Summary of one operation; latencies in milliseconds
+     */
+    record Result(String operation, int requests, int errors, double throughput,
+                  double p50, double p99, double p999, double max) {
+    }
+}
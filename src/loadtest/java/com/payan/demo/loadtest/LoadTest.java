@@ -0,0 +1,264 @@
+package com.payan.demo.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.payan.demo.PayanDemoApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop HTTP load test. Requests are issued on a fixed schedule at the target rate, each on its own
+ * virtual thread, and latency is measured from the scheduled start, so a slow server shows up as latency
+ * instead of silently lowering the request rate.
+ * <p>
+ * Without {@code --base-url} the application is booted in-process on a random port; any option not listed
+ * below is passed on to it, e.g. {@code --payan.seed.transactions=100000 --payan.seed.users=1000}.
+ * <pre>
+ * --base-url=http://host:8080   test a running instance instead
+ * --rps=200                     target requests per second
+ * --duration=60s --warmup=10s   measured time and unrecorded warm-up before it
+ * --username=admin --password=admin123
+ * --mix=PAGE:30,BY_ID:20,...    operation weights (see Operation), others keep their defaults
+ * --output=target/loadtest-result.json
+ * </pre>
+ */
+public final class LoadTest {
+
+    private final String baseUrl;
+    private final int rps;
+    private final Duration duration;
+    private final Duration warmup;
+    private final String authorization;
+    private final Map<Operation, Integer> weights;
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+    private List<Long> transactionIds = List.of();
+
+    LoadTest(String baseUrl, int rps, Duration duration, Duration warmup,
+             String username, String password, Map<Operation, Integer> weights) {
+        this.baseUrl = baseUrl;
+        this.rps = rps;
+        this.duration = duration;
+        this.warmup = warmup;
+        this.authorization = "Basic " + Base64.getEncoder()
+                .encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+        this.weights = weights;
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new LatencyRecorder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        List<String> applicationArgs = new ArrayList<>();
+        for (String arg : args) {
+            String[] pair = arg.replaceFirst("^--", "").split("=", 2);
+            switch (pair[0]) {
+                case "base-url", "rps", "duration", "warmup", "username", "password", "mix", "output" ->
+                        options.put(pair[0], pair.length > 1 ? pair[1] : "");
+                default -> applicationArgs.add(arg);
+            }
+        }
+
+        ConfigurableApplicationContext context = null;
+        String baseUrl = options.get("base-url");
+        if (baseUrl == null) {
+            context = boot(applicationArgs.toArray(String[]::new));
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+        try {
+            LoadTest loadTest = new LoadTest(baseUrl,
+                    Integer.parseInt(options.getOrDefault("rps", "200")),
+                    parseDuration(options.getOrDefault("duration", "60s")),
+                    parseDuration(options.getOrDefault("warmup", "10s")),
+                    options.getOrDefault("username", "admin"),
+                    options.getOrDefault("password", "admin123"),
+                    parseMix(options.get("mix")));
+            List<LatencyRecorder.Result> results = loadTest.run();
+            print(results);
+            write(new File(options.getOrDefault("output", "target/loadtest-result.json")), loadTest, results);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    /**
+     * Warm up, then measure; returns one result per operation, then combined "READS", "WRITES" and "ALL" rows
+     */
+    List<LatencyRecorder.Result> run() throws Exception {
+        transactionIds = loadTransactionIds();
+        System.out.printf("Target %d req/s against %s: %s warm-up, %s measured, %d known transaction ids%n",
+                rps, baseUrl, warmup, duration, transactionIds.size());
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rps;
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        int totalWeight = weights.values().stream().mapToInt(Integer::intValue).sum();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long scheduled = start + i * intervalNanos;
+                if (scheduled >= end) {
+                    break;
+                }
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Operation operation = pick(totalWeight);
+                boolean recorded = scheduled >= measureFrom;
+                executor.execute(() -> execute(operation, scheduled, recorded));
+            }
+        }
+
+        double seconds = duration.toNanos() / 1e9;
+        List<LatencyRecorder.Result> results = new ArrayList<>();
+        LatencyRecorder reads = new LatencyRecorder();
+        LatencyRecorder writes = new LatencyRecorder();
+        LatencyRecorder all = new LatencyRecorder();
+        for (Map.Entry<Operation, LatencyRecorder> entry : recorders.entrySet()) {
+            if (weights.getOrDefault(entry.getKey(), 0) > 0) {
+                results.add(entry.getValue().result(entry.getKey().label(), seconds));
+                entry.getValue().mergeInto(entry.getKey().isWrite() ? writes : reads);
+                entry.getValue().mergeInto(all);
+            }
+        }
+        results.add(reads.result("READS", seconds));
+        results.add(writes.result("WRITES", seconds));
+        results.add(all.result("ALL", seconds));
+        return results;
+    }
+
+    private void execute(Operation operation, long scheduled, boolean recorded) {
+        boolean success;
+        try {
+            HttpRequest request = operation.request(baseUrl, transactionIds, ThreadLocalRandom.current())
+                    .header("Authorization", authorization)
+                    .timeout(Duration.ofSeconds(30))
+                    .build();
+            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            success = operation.succeeded(status);
+        } catch (IOException e) {
+            success = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (recorded) {
+            recorders.get(operation).record(System.nanoTime() - scheduled, success);
+        }
+    }
+
+    private Operation pick(int totalWeight) {
+        int roll = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Map.Entry<Operation, Integer> entry : weights.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        return Operation.PAGE;
+    }
+
+    private List<Long> loadTransactionIds() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/transactions/page?size=500"))
+                .header("Authorization", authorization)
+                .GET()
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Cannot list transactions: HTTP " + response.statusCode()
+                    + "; check --username/--password");
+        }
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode item : new ObjectMapper().readTree(response.body()).path("items")) {
+            ids.add(item.path("id").asLong());
+        }
+        return ids;
+    }
+
+    private static ConfigurableApplicationContext boot(String[] applicationArgs) {
+        // Passed as arguments, not default properties, so they override application.properties;
+        // the caller's own arguments come last and win
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--logging.level.com.payan.demo=INFO",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                "--logging.level.org.springframework.security=WARN"));
+        args.addAll(List.of(applicationArgs));
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        return new SpringApplicationBuilder(PayanDemoApplication.class).run(args.toArray(String[]::new));
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            weights.put(operation, operation.defaultWeight());
+        }
+        if (mix != null && !mix.isBlank()) {
+            for (String entry : mix.split(",")) {
+                String[] pair = entry.split(":");
+                weights.put(Operation.valueOf(pair[0].trim().toUpperCase()), Integer.parseInt(pair[1].trim()));
+            }
+        }
+        return weights;
+    }
+
+    private static Duration parseDuration(String value) {
+        return Duration.parse("PT" + value.toUpperCase());
+    }
+
+    private static void print(List<LatencyRecorder.Result> results) {
+        System.out.printf("%n%-38s %9s %7s %10s %9s %9s %9s %9s%n",
+                "Operation", "Requests", "Errors", "Req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (LatencyRecorder.Result result : results) {
+            System.out.printf("%-38s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    result.operation(), result.requests(), result.errors(), result.throughput(),
+                    result.p50(), result.p99(), result.p999(), result.max());
+        }
+    }
+
+    private static void write(File file, LoadTest loadTest, List<LatencyRecorder.Result> results) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("baseUrl", loadTest.baseUrl);
+        report.put("targetRps", loadTest.rps);
+        report.put("durationSeconds", loadTest.duration.toSeconds());
+        report.put("weights", loadTest.weights);
+        report.put("results", results);
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, report);
+        System.out.println("\nResults written to " + file);
+    }
+}
@@ -0,0 +1,90 @@
+package com.payan.demo.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * One request type of the workload mix
+ */
+enum Operation {
+
+    PAGE("GET /api/transactions/page", 30, false),
+    BY_ID("GET /api/transactions/{id}", 20, false),
+    SEARCH("GET /api/transactions/search", 10, false),
+    SUMMARY("GET /api/transactions/summary", 10, false),
+    USERS("GET /api/users", 5, false),
+    DASHBOARD("GET /dashboard", 5, false),
+    CREATE("POST /api/transactions", 15, true),
+    UPDATE_STATUS("PATCH /api/transactions/{id}/status", 5, true);
+
+    private static final String[] STATUSES = {"COMPLETED", "PENDING", "FAILED"};
+    private static final String[] SETTLED_STATUSES = {"COMPLETED", "FAILED"};
+    private static final String[] CATEGORIES = {"Food & Dining", "Shopping", "Utilities", "Transportation"};
+
+    private final String label;
+    private final int defaultWeight;
+    private final boolean write;
+
+    Operation(String label, int defaultWeight, boolean write) {
+        this.label = label;
+        this.defaultWeight = defaultWeight;
+        this.write = write;
+    }
+
+    String label() {
+        return label;
+    }
+
+    int defaultWeight() {
+        return defaultWeight;
+    }
+
+    boolean isWrite() {
+        return write;
+    }
+
+    /**
+     * Whether a response is the expected outcome. A status update is refused with 409 when the row is
+     * already settled, which the random workload cannot avoid and is not a failure.
+     */
+    boolean succeeded(int statusCode) {
+        return statusCode < 400 || (this == UPDATE_STATUS && statusCode == 409);
+    }
+
+    /**
+     * Build a request against {@code baseUrl}; {@code ids} are existing transaction ids to read and update
+     */
+    HttpRequest.Builder request(String baseUrl, List<Long> ids, Random random) {
+        return switch (this) {
+            case PAGE -> get(baseUrl + "/api/transactions/page?size=50");
+            case BY_ID -> get(baseUrl + "/api/transactions/" + pick(ids, random));
+            case SEARCH -> get(baseUrl + "/api/transactions/search?status=" + STATUSES[random.nextInt(3)]
+                    + "&size=20&sort=transactionDate,desc");
+            case SUMMARY -> get(baseUrl + "/api/transactions/summary");
+            case USERS -> get(baseUrl + "/api/users");
+            case DASHBOARD -> get(baseUrl + "/dashboard");
+            case CREATE -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/transactions"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(newTransactionJson(random)));
+            case UPDATE_STATUS -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/transactions/"
+                            + pick(ids, random) + "/status?status=" + SETTLED_STATUSES[random.nextInt(2)]))
+                    .method("PATCH", HttpRequest.BodyPublishers.noBody());
+        };
+    }
+
+    private static HttpRequest.Builder get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).GET();
+    }
+
+    private static long pick(List<Long> ids, Random random) {
+        return ids.isEmpty() ? 1L : ids.get(random.nextInt(ids.size()));
+    }
+
+    private static String newTransactionJson(Random random) {
+        return "{\"description\":\"Load test\",\"amount\":" + (1 + random.nextInt(50_000)) / 100.0
+                + ",\"type\":\"" + (random.nextInt(5) == 0 ? "CREDIT" : "DEBIT")
+                + "\",\"status\":\"COMPLETED\",\"category\":\"" + CATEGORIES[random.nextInt(CATEGORIES.length)] + "\"}";
+    }
+}
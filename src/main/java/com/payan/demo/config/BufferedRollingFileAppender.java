@@ -0,0 +1,59 @@
+package com.payan.demo.config;
+
+import ch.qos.logback.core.rolling.RollingFileAppender;
+import ch.qos.logback.core.util.Duration;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rolling file appender that writes events into its buffer ({@code bufferSize}) instead of flushing
+ * each one, and flushes every {@code flushInterval} (default 1 second) so a quiet log is never more
+ * than that far behind. The buffer is also flushed when it fills and when logging stops.
+ */
+public class BufferedRollingFileAppender<E> extends RollingFileAppender<E> {
+
+    private Duration flushInterval = Duration.buildBySeconds(1);
+    private ScheduledFuture<?> flusher;
+
+    public void setFlushInterval(Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    @Override
+    public void start() {
+        setImmediateFlush(false);
+        super.start();
+        if (isStarted()) {
+            long millis = flushInterval.getMilliseconds();
+            flusher = getContext().getScheduledExecutorService()
+                    .scheduleAtFixedRate(this::flush, millis, millis, TimeUnit.MILLISECONDS);
+            getContext().addScheduledFuture(flusher);
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (flusher != null) {
+            flusher.cancel(false);
+            flusher = null;
+        }
+        super.stop();
+    }
+
+    private void flush() {
+        streamWriteLock.lock();
+        try {
+            OutputStream outputStream = getOutputStream();
+            if (outputStream != null) {
+                outputStream.flush();
+            }
+        } catch (IOException e) {
+            addError("Failed to flush " + getFile(), e);
+        } finally {
+            streamWriteLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.payan.demo.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * PasswordEncoder decorator that remembers recently verified credentials for a short time,
+ * so clients re-sending the same credentials on every call pay the BCrypt cost once per TTL.
+ * <p>
+ * Only successful matches are cached, keyed by an HMAC of (raw password, stored hash) under a
+ * random per-process key; raw passwords are never kept. Because the stored hash is part of the
+ * key, a password change invalidates the entry. Failed attempts always pay the full cost.
+ */
+public class CachingPasswordEncoder implements PasswordEncoder {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final PasswordEncoder delegate;
+    private final Cache<String, Boolean> verifiedCredentials;
+    private final SecretKeySpec key;
+
+    public CachingPasswordEncoder(PasswordEncoder delegate, long maximumSize, Duration ttl) {
+        this.delegate = delegate;
+        this.verifiedCredentials = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.key = new SecretKeySpec(secret, HMAC_ALGORITHM);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null || encodedPassword.isEmpty()) {
+            return delegate.matches(rawPassword, encodedPassword);
+        }
+
+        String credentialKey = credentialKey(rawPassword, encodedPassword);
+        if (verifiedCredentials.getIfPresent(credentialKey) != null) {
+            return true;
+        }
+
+        boolean matches = delegate.matches(rawPassword, encodedPassword);
+        if (matches) {
+            verifiedCredentials.put(credentialKey, Boolean.TRUE);
+        }
+        return matches;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private String credentialKey(CharSequence rawPassword, String encodedPassword) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            mac.update(rawPassword.toString().getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            mac.update(encodedPassword.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(mac.doFinal());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+}
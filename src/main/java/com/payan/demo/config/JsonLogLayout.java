@@ -0,0 +1,74 @@
+package com.payan.demo.config;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import ch.qos.logback.core.CoreConstants;
+import ch.qos.logback.core.LayoutBase;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Renders each log event as one JSON object per line: timestamp, level, thread, logger, message,
+ * MDC entries and the stack trace if any. Used by the prod profile in logback-spring.xml.
+ */
+public class JsonLogLayout extends LayoutBase<ILoggingEvent> {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    @Override
+    public String doLayout(ILoggingEvent event) {
+        StringBuilder json = new StringBuilder(256);
+        json.append('{');
+        field(json, "timestamp", Instant.ofEpochMilli(event.getTimeStamp()).toString());
+        field(json, "level", event.getLevel().toString());
+        field(json, "thread", event.getThreadName());
+        field(json, "logger", event.getLoggerName());
+        field(json, "message", event.getFormattedMessage());
+        Map<String, String> mdc = event.getMDCPropertyMap();
+        if (mdc != null) {
+            mdc.forEach((key, value) -> field(json, key, value));
+        }
+        IThrowableProxy throwable = event.getThrowableProxy();
+        if (throwable != null) {
+            field(json, "exception", ThrowableProxyUtil.asString(throwable));
+        }
+        json.setCharAt(json.length() - 1, '}');
+        return json.append(CoreConstants.LINE_SEPARATOR).toString();
+    }
+
+    private static void field(StringBuilder json, String name, String value) {
+        json.append('"');
+        escape(json, name);
+        json.append("\":");
+        if (value == null) {
+            json.append("null");
+        } else {
+            json.append('"');
+            escape(json, value);
+            json.append('"');
+        }
+        json.append(',');
+    }
+
+    private static void escape(StringBuilder json, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+    }
+}
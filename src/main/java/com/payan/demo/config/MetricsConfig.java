@@ -0,0 +1,85 @@
+package com.payan.demo.config;
+
+import com.payan.demo.repository.UserRepository;
+import com.payan.demo.service.TransactionEventPublisher;
+import com.payan.demo.service.TransactionSummaryService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+
+/**
+ * Application metrics on top of what Spring Boot records itself: HTTP endpoints
+ * ({@code http.server.requests}), repository calls ({@code spring.data.repository.invocations})
+ * and the Hikari pool ({@code hikaricp.*}).
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Times every public method of every {@code @Service} as {@code payan.service.invocations}.
+     * Infrastructure role so the auto-proxy creator Spring already uses for transactions applies it too.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor serviceTimingAdvisor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new DefaultPointcutAdvisor(new AnnotationMatchingPointcut(Service.class, true),
+                new MethodTimingInterceptor(meterRegistry::getObject, "payan.service.invocations"));
+    }
+
+    /**
+     * Row counts per table. Transactions come from the in-memory running totals; users from a
+     * COUNT(*) on a small table at scrape time.
+     */
+    @Bean
+    public MeterBinder tableRowGauges(TransactionSummaryService transactionSummaryService,
+                                      UserRepository userRepository) {
+        return registry -> {
+            Gauge.builder("payan.table.rows", transactionSummaryService, TransactionSummaryService::getTotalCount)
+                    .tag("table", "transactions")
+                    .register(registry);
+            Gauge.builder("payan.table.rows", userRepository, UserRepository::count)
+                    .tag("table", "users")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Open Server-Sent Events streams on /api/transactions/stream
+     */
+    @Bean
+    public MeterBinder transactionStreamGauges(TransactionEventPublisher transactionEventPublisher) {
+        return registry -> Gauge.builder("payan.transactions.stream.subscribers", transactionEventPublisher,
+                TransactionEventPublisher::getSubscriberCount).register(registry);
+    }
+
+    /**
+     * Connections held and callers queued at the virtual-thread connection guard, when it is active
+     */
+    @Bean
+    public MeterBinder connectionGuardGauges(ObjectProvider<DataSource> dataSource) {
+        return registry -> {
+            DataSource candidate = dataSource.getIfUnique();
+            while (candidate instanceof DelegatingDataSource delegating && !(candidate instanceof ConnectionPoolGuard)) {
+                candidate = delegating.getTargetDataSource();
+            }
+            if (candidate instanceof ConnectionPoolGuard guard) {
+                Gauge.builder("payan.datasource.guard.active", guard, ConnectionPoolGuard::getActiveConnections)
+                        .register(registry);
+                Gauge.builder("payan.datasource.guard.queued", guard, ConnectionPoolGuard::getQueueLength)
+                        .register(registry);
+            }
+        };
+    }
+}
@@ -0,0 +1,217 @@
+package com.payan.demo.config;
+
+import com.payan.demo.dto.TransactionSearchCriteria;
+import com.payan.demo.entity.TransactionStatus;
+import com.payan.demo.entity.TransactionType;
+import com.payan.demo.repository.TransactionRepository;
+import com.payan.demo.repository.TransactionRollupRepository;
+import com.payan.demo.repository.TransactionSpecifications;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Runs EXPLAIN on the SQL behind the hot repository queries at startup and reports any
+ * that would fall back to a full table scan, e.g. because an index was dropped or renamed.
+ * <p>
+ * The SQL is what Hibernate generates for each repository method: the method is called with sample
+ * arguments while {@link SqlCapture} records its statement and stops it before it reaches the database.
+ * Parameters are left unbound, which H2 accepts for EXPLAIN.
+ * <p>
+ * {@code payan.query-plan-check.mode} controls the outcome: {@code warn} (default) logs,
+ * {@code fail} aborts startup, {@code off} skips the check.
+ */
+@Component
+public class QueryPlanVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryPlanVerifier.class);
+
+    /**
+     * Plan fragments that mean a table is read without an index (H2, PostgreSQL)
+     */
+    private static final List<String> FULL_SCAN_MARKERS = List.of(".tableScan", "Seq Scan");
+
+    /**
+     * Sample call of each hot TransactionRepository query, keyed by repository method
+     */
+    static final Map<String, Consumer<TransactionRepository>> REPOSITORY_QUERIES = new LinkedHashMap<>();
+
+    /**
+     * SQL of each hot query run through JdbcTemplate, keyed by repository class and method
+     */
+    static final Map<String, String> JDBC_QUERIES = new LinkedHashMap<>();
+
+    /**
+     * Values bound when explaining a query. Only needed for a LIKE pattern, which H2 matches
+     * against an index only once it knows the pattern is a prefix.
+     */
+    private static final Map<String, Object[]> EXPLAIN_PARAMETERS = Map.of(
+            "findAll(referencePrefix)", new Object[]{"REF%"});
+
+    static {
+        LocalDateTime date = LocalDateTime.of(2000, 1, 1, 0, 0);
+        PageRequest page = PageRequest.of(0, 50);
+        REPOSITORY_QUERIES.put("findAllByOrderByTransactionDateDesc",
+                TransactionRepository::findAllByOrderByTransactionDateDesc);
+        REPOSITORY_QUERIES.put("findFirstPage", repository -> repository.findFirstPage(page));
+        REPOSITORY_QUERIES.put("findPageAfter", repository -> repository.findPageAfter(date, 1L, page));
+        REPOSITORY_QUERIES.put("streamAllForExport", repository -> {
+            try (Stream<?> rows = repository.streamAllForExport()) {
+                rows.findFirst();
+            }
+        });
+        REPOSITORY_QUERIES.put("findFields", repository -> repository.findFields(List.of("id", "transactionDate"),
+                null, Sort.by(Sort.Direction.DESC, "transactionDate"), 0, 50));
+        REPOSITORY_QUERIES.put("findByStatus", repository -> repository.findByStatus(TransactionStatus.PENDING));
+        REPOSITORY_QUERIES.put("findByType", repository -> repository.findByType(TransactionType.DEBIT));
+        REPOSITORY_QUERIES.put("findByCategory", repository -> repository.findByCategory("Shopping"));
+        REPOSITORY_QUERIES.put("findByTransactionId", repository -> repository.findByTransactionId("TXN-0"));
+        REPOSITORY_QUERIES.put("findExistingTransactionIds",
+                repository -> repository.findExistingTransactionIds(List.of("TXN-0", "TXN-1")));
+        REPOSITORY_QUERIES.put("findAll(referencePrefix)", repository -> {
+            TransactionSearchCriteria criteria = new TransactionSearchCriteria();
+            criteria.setReferencePrefix("REF");
+            repository.findAll(TransactionSpecifications.matching(criteria));
+        });
+        // The chunk scan of a status transition, without its row lock
+        REPOSITORY_QUERIES.put("findAll(statusIn, idAfter)", repository -> repository.findAll(
+                TransactionSpecifications.statusIn(Set.of(TransactionStatus.PENDING))
+                        .and(TransactionSpecifications.idAfter(0)),
+                PageRequest.of(0, 1000, Sort.by("id"))));
+        REPOSITORY_QUERIES.put("updateStatus", repository -> repository.updateStatus(List.of(1L, 2L),
+                Set.of(TransactionStatus.PENDING), TransactionStatus.COMPLETED));
+
+        JDBC_QUERIES.put("TransactionRollupRepository.findSeries",
+                TransactionRollupRepository.seriesSql(false, false, false));
+    }
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${payan.query-plan-check.mode:warn}")
+    private String mode = "warn";
+
+    /**
+     * Static so Hibernate can be configured before this component and its repositories exist
+     */
+    @Bean
+    static HibernatePropertiesCustomizer queryPlanSqlCapture() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlCapture());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyOnStartup() {
+        if ("off".equalsIgnoreCase(mode)) {
+            return;
+        }
+
+        List<String> unindexed = findUnindexedQueries();
+        if (unindexed.isEmpty()) {
+            log.info("Query plan check passed for {} hot queries",
+                    REPOSITORY_QUERIES.size() + JDBC_QUERIES.size());
+            return;
+        }
+
+        String message = "Hot queries not using an index: " + String.join(", ", unindexed);
+        if ("fail".equalsIgnoreCase(mode)) {
+            throw new IllegalStateException(message);
+        }
+        log.warn(message);
+    }
+
+    /**
+     * EXPLAIN every hot query and return the names of those whose plan contains a full scan
+     */
+    public List<String> findUnindexedQueries() {
+        Map<String, String> queries = new LinkedHashMap<>();
+        REPOSITORY_QUERIES.forEach((name, call) -> queries.put(name, captureSql(name, call)));
+        queries.putAll(JDBC_QUERIES);
+
+        List<String> unindexed = new ArrayList<>();
+        for (Map.Entry<String, String> query : queries.entrySet()) {
+            Object[] parameters = EXPLAIN_PARAMETERS.getOrDefault(query.getKey(), new Object[0]);
+            String plan = String.join("\n",
+                    jdbcTemplate.queryForList("EXPLAIN " + query.getValue(), String.class, parameters));
+            log.debug("Plan for {}: {}", query.getKey(), plan);
+            if (FULL_SCAN_MARKERS.stream().anyMatch(plan::contains)) {
+                unindexed.add(query.getKey());
+            }
+        }
+        return unindexed;
+    }
+
+    /**
+     * SQL Hibernate generates for a repository call; nothing is executed
+     */
+    private String captureSql(String name, Consumer<TransactionRepository> call) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        List<String> captured = new ArrayList<>();
+        SqlCapture.CAPTURED.set(captured);
+        try {
+            template.executeWithoutResult(status -> call.accept(transactionRepository));
+        } catch (SqlCapture.Captured e) {
+            // Expected: the statement was recorded and stopped
+        } finally {
+            SqlCapture.CAPTURED.remove();
+        }
+        if (captured.isEmpty()) {
+            throw new IllegalStateException("Repository query " + name + " issued no SQL");
+        }
+        return captured.get(0);
+    }
+
+    /**
+     * Records the SQL Hibernate prepares on a thread that is capturing, and aborts the statement so it
+     * never runs. Every other statement passes through unchanged.
+     */
+    static class SqlCapture implements StatementInspector {
+
+        private static final ThreadLocal<List<String>> CAPTURED = new ThreadLocal<>();
+
+        @Override
+        public String inspect(String sql) {
+            List<String> captured = CAPTURED.get();
+            if (captured == null) {
+                return sql;
+            }
+            captured.add(sql);
+            throw new Captured();
+        }
+
+        private static final class Captured extends RuntimeException {
+            private Captured() {
+                super(null, null, false, false);
+            }
+        }
+    }
+}
@@ -0,0 +1,542 @@
+package com.payan.demo.config;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.BrotliOutputStream;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses responses with brotli or gzip, whichever the client prefers in Accept-Encoding (brotli on
+ * a tie). Only listed content types of at least {@code min-response-size} bytes are compressed: the
+ * first bytes are held back until the threshold is crossed, so small responses go out as-is with a
+ * Content-Length.
+ *
+ * <p>Tomcat's own compression is not used because it skips every response with a strong ETag, which
+ * is all of the cached listings. Here a compressed response gets its own strong ETag instead
+ * ({@code "v"} becomes {@code "v-gzip"} or {@code "v-br"}), and the suffix is removed from
+ * If-None-Match and If-Match before the request reaches the controllers, so revalidation still
+ * answers 304 for a compressed copy.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(name = "payan.compression.enabled", havingValue = "true", matchIfMissing = true)
+public class ResponseCompressionFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ResponseCompressionFilter.class);
+
+    private static final String WRAPPER_ATTRIBUTE = ResponseCompressionFilter.class.getName() + ".response";
+    private static final Pattern ENCODING_SUFFIX = Pattern.compile("-(gzip|br)\"");
+    private static final boolean BROTLI_AVAILABLE = loadBrotli();
+
+    @Value("${payan.compression.min-response-size:2KB}")
+    private DataSize minResponseSize = DataSize.ofKilobytes(2);
+
+    @Value("${payan.compression.mime-types:application/json,application/x-ndjson,text/csv,text/html,text/plain}")
+    private List<String> mimeTypes = List.of("application/json", "application/x-ndjson", "text/csv", "text/html", "text/plain");
+
+    @Value("${payan.compression.brotli-quality:4}")
+    private int brotliQuality = 4;
+
+    @Value("${payan.compression.gzip-level:6}")
+    private int gzipLevel = 6;
+
+    private List<MediaType> compressibleTypes;
+
+    @Override
+    protected void initFilterBean() {
+        compressibleTypes = MediaType.parseMediaTypes(mimeTypes);
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        // Streaming exports finish on an async dispatch; the encoder is closed there
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        CompressingResponse compressing = (CompressingResponse) request.getAttribute(WRAPPER_ATTRIBUTE);
+        if (compressing == null) {
+            ContentEncoding encoding = negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+            if (encoding == null || "HEAD".equals(request.getMethod())) {
+                chain.doFilter(request, response);
+                return;
+            }
+            ValidatorRequest validatorRequest = new ValidatorRequest(request);
+            compressing = new CompressingResponse(response, encoding, validatorRequest.strippedSuffix);
+            request.setAttribute(WRAPPER_ATTRIBUTE, compressing);
+            chain.doFilter(validatorRequest, compressing);
+        } else {
+            chain.doFilter(request, response);
+        }
+        if (!request.isAsyncStarted()) {
+            compressing.finish();
+        }
+    }
+
+    /**
+     * Pick the encoding with the highest q-value the client accepts, or null for identity
+     */
+    static ContentEncoding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+            return null;
+        }
+        double gzip = -1;
+        double brotli = -1;
+        double any = 0;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.split(";");
+            String coding = tokens[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1;
+            for (int i = 1; i < tokens.length; i++) {
+                String parameter = tokens[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            switch (coding) {
+                case "gzip", "x-gzip" -> gzip = quality;
+                case "br" -> brotli = quality;
+                case "*" -> any = quality;
+                default -> {
+                }
+            }
+        }
+        // Codings not listed by name get the q-value of "*", if any
+        gzip = gzip < 0 ? any : gzip;
+        brotli = brotli < 0 ? any : brotli;
+        if (BROTLI_AVAILABLE && brotli > 0 && brotli >= gzip) {
+            return ContentEncoding.BROTLI;
+        }
+        return gzip > 0 ? ContentEncoding.GZIP : null;
+    }
+
+    static boolean isBrotliAvailable() {
+        return BROTLI_AVAILABLE;
+    }
+
+    private static boolean loadBrotli() {
+        try {
+            Brotli4jLoader.ensureAvailability();
+            return true;
+        } catch (Throwable e) {
+            log.info("Brotli encoder not available on this platform, compressing with gzip only: {}", e.toString());
+            return false;
+        }
+    }
+
+    private boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        MediaType mediaType;
+        try {
+            mediaType = MediaType.parseMediaType(contentType);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        for (MediaType compressible : compressibleTypes) {
+            if (compressible.includes(mediaType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    enum ContentEncoding {
+
+        GZIP("gzip"),
+        BROTLI("br");
+
+        private final String token;
+
+        ContentEncoding(String token) {
+            this.token = token;
+        }
+
+        String token() {
+            return token;
+        }
+    }
+
+    /**
+     * Removes encoding suffixes this filter added to ETags from the validators the client sends back,
+     * and remembers which one it saw so a 304 can repeat the client's tag
+     */
+    private static final class ValidatorRequest extends HttpServletRequestWrapper {
+
+        private String strippedSuffix;
+
+        private ValidatorRequest(HttpServletRequest request) {
+            super(request);
+            String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+            if (ifNoneMatch != null) {
+                Matcher matcher = ENCODING_SUFFIX.matcher(ifNoneMatch);
+                if (matcher.find()) {
+                    strippedSuffix = "-" + matcher.group(1);
+                }
+            }
+        }
+
+        @Override
+        public String getHeader(String name) {
+            String value = super.getHeader(name);
+            return isValidator(name) && value != null ? strip(value) : value;
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            Enumeration<String> values = super.getHeaders(name);
+            if (!isValidator(name) || values == null) {
+                return values;
+            }
+            List<String> stripped = new ArrayList<>();
+            while (values.hasMoreElements()) {
+                stripped.add(strip(values.nextElement()));
+            }
+            return Collections.enumeration(stripped);
+        }
+
+        private static boolean isValidator(String name) {
+            return HttpHeaders.IF_NONE_MATCH.equalsIgnoreCase(name) || HttpHeaders.IF_MATCH.equalsIgnoreCase(name);
+        }
+
+        private static String strip(String value) {
+            return ENCODING_SUFFIX.matcher(value).replaceAll("\"");
+        }
+    }
+
+    /**
+     * Buffers up to the threshold, then either switches to the encoder or writes through unchanged
+     */
+    private final class CompressingResponse extends HttpServletResponseWrapper {
+
+        private final ContentEncoding encoding;
+        private final String requestSuffix;
+        private final byte[] buffer;
+        private int buffered;
+        /**
+         * Null until it is decided whether to compress; then the encoder or the servlet stream
+         */
+        private OutputStream target;
+        private boolean compressing;
+        private String etag;
+        private long contentLength = -1;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+        /**
+         * Set once the application registers a WriteListener; writes then go straight to this stream
+         */
+        private ServletOutputStream nonBlocking;
+
+        private CompressingResponse(HttpServletResponse response, ContentEncoding encoding, String requestSuffix) {
+            super(response);
+            this.encoding = encoding;
+            this.requestSuffix = requestSuffix;
+            this.buffer = new byte[(int) Math.max(0, minResponseSize.toBytes())];
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (writer != null) {
+                throw new IllegalStateException("getWriter() has already been called");
+            }
+            if (outputStream == null) {
+                outputStream = new BufferingOutputStream();
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (outputStream != null && writer == null) {
+                throw new IllegalStateException("getOutputStream() has already been called");
+            }
+            if (writer == null) {
+                outputStream = new BufferingOutputStream();
+                writer = new PrintWriter(new OutputStreamWriter(outputStream, getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void setContentLength(int length) {
+            setContentLengthLong(length);
+        }
+
+        @Override
+        public void setContentLengthLong(long length) {
+            if (target == null) {
+                contentLength = length;
+            } else if (!compressing) {
+                super.setContentLengthLong(length);
+            }
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (intercept(name, value)) {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (intercept(name, value)) {
+                super.addHeader(name, value);
+            }
+        }
+
+        /**
+         * Hold back Content-Length and track the ETag; returns whether the header should be passed on now
+         */
+        private boolean intercept(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(value == null ? -1 : Long.parseLong(value));
+                return false;
+            }
+            if (HttpHeaders.ETAG.equalsIgnoreCase(name)) {
+                etag = value;
+                if (compressing) {
+                    super.setHeader(HttpHeaders.ETAG, withSuffix(value, "-" + encoding.token()));
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public void sendError(int status) throws IOException {
+            passThroughForError();
+            super.sendError(status);
+        }
+
+        @Override
+        public void sendError(int status, String message) throws IOException {
+            passThroughForError();
+            super.sendError(status, message);
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            buffered = 0;
+            etag = null;
+            contentLength = -1;
+        }
+
+        @Override
+        public void resetBuffer() {
+            super.resetBuffer();
+            buffered = 0;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (target == null) {
+                if (isCompressible(getContentType()) && isCompressibleStatus()) {
+                    // Keep holding back until the threshold tells us whether to compress
+                    return;
+                }
+                start(false);
+            }
+            target.flush();
+            super.flushBuffer();
+        }
+
+        private void write(byte[] bytes, int offset, int length) throws IOException {
+            if (target == null) {
+                if (buffered + length <= buffer.length) {
+                    System.arraycopy(bytes, offset, buffer, buffered, length);
+                    buffered += length;
+                    return;
+                }
+                start(shouldCompress());
+            }
+            target.write(bytes, offset, length);
+        }
+
+        private boolean shouldCompress() {
+            return isCompressibleStatus()
+                    && getHeader(HttpHeaders.CONTENT_ENCODING) == null
+                    && isCompressible(getContentType());
+        }
+
+        private boolean isCompressibleStatus() {
+            int status = getStatus();
+            return status >= 200 && status < 300 && status != HttpServletResponse.SC_NO_CONTENT
+                    && status != HttpServletResponse.SC_PARTIAL_CONTENT;
+        }
+
+        /**
+         * Decide once whether to compress, set the headers that depend on it and release the held-back bytes
+         */
+        private void start(boolean compress) throws IOException {
+            if (isCompressible(getContentType())) {
+                super.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+            if (compress) {
+                compressing = true;
+                super.setHeader(HttpHeaders.CONTENT_ENCODING, encoding.token());
+                if (etag != null) {
+                    super.setHeader(HttpHeaders.ETAG, withSuffix(etag, "-" + encoding.token()));
+                }
+                target = encoding == ContentEncoding.BROTLI
+                        ? new BrotliOutputStream(super.getOutputStream(), new Encoder.Parameters().setQuality(brotliQuality))
+                        : new LeveledGzipOutputStream(super.getOutputStream(), gzipLevel);
+            } else {
+                if (contentLength >= 0) {
+                    super.setContentLengthLong(contentLength);
+                }
+                target = super.getOutputStream();
+            }
+            if (buffered > 0) {
+                target.write(buffer, 0, buffered);
+                buffered = 0;
+            }
+        }
+
+        private void passThroughForError() {
+            buffered = 0;
+            if (target == null) {
+                target = OutputStream.nullOutputStream();
+            }
+        }
+
+        /**
+         * Complete the response: decide if nothing crossed the threshold, and close the encoder
+         */
+        private void finish() throws IOException {
+            if (nonBlocking != null) {
+                // The application writes and completes the response itself, as the container allows
+                return;
+            }
+            if (writer != null) {
+                writer.flush();
+            }
+            if (target == null) {
+                if (getStatus() == HttpServletResponse.SC_NOT_MODIFIED && requestSuffix != null && etag != null) {
+                    // Repeat the tag of the compressed copy the client is revalidating
+                    super.setHeader(HttpHeaders.ETAG, withSuffix(etag, requestSuffix));
+                }
+                if (contentLength < 0 && buffered > 0 && !isCommitted()) {
+                    contentLength = buffered;
+                }
+                start(false);
+            }
+            if (compressing) {
+                target.close();
+            } else {
+                target.flush();
+            }
+        }
+
+        private static String withSuffix(String etag, String suffix) {
+            if (etag.startsWith("W/") || !etag.endsWith("\"") || etag.length() < 2) {
+                return etag;
+            }
+            return etag.substring(0, etag.length() - 1) + suffix + "\"";
+        }
+
+        private final class BufferingOutputStream extends ServletOutputStream {
+
+            private final byte[] single = new byte[1];
+
+            @Override
+            public void write(int b) throws IOException {
+                single[0] = (byte) b;
+                CompressingResponse.this.write(single, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException {
+                CompressingResponse.this.write(bytes, offset, length);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                flushBuffer();
+            }
+
+            @Override
+            public boolean isReady() {
+                return nonBlocking == null || nonBlocking.isReady();
+            }
+
+            /**
+             * Non-blocking writes go out uncompressed: the encoder cannot hold its output back until the
+             * container is ready for more. Anything written before this is released first, while writes
+             * still block.
+             *
+             * @throws IllegalStateException if compression has already started
+             */
+            @Override
+            public void setWriteListener(WriteListener listener) {
+                try {
+                    if (target == null) {
+                        start(false);
+                    }
+                    if (compressing) {
+                        throw new IllegalStateException("Cannot switch a compressed response to non-blocking writes");
+                    }
+                    nonBlocking = CompressingResponse.super.getOutputStream();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                nonBlocking.setWriteListener(listener);
+            }
+        }
+    }
+
+    /**
+     * Gzip stream with a configurable level that flushes compressed data on {@code flush()},
+     * so streamed exports keep moving
+     */
+    private static final class LeveledGzipOutputStream extends GZIPOutputStream {
+
+        private LeveledGzipOutputStream(OutputStream out, int level) throws IOException {
+            super(out, 8192, true);
+            def.setLevel(level);
+        }
+    }
+}
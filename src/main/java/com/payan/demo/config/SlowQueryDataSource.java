@@ -0,0 +1,167 @@
+package com.payan.demo.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.temporal.Temporal;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Logs JDBC statements that take at least {@code threshold} to execute, with their bind values, at WARN.
+ * Fast statements cost two {@code nanoTime()} reads and an array store per bound parameter; nothing is
+ * formatted unless the statement is slow and picked by {@code sampleRate} (0.0 to 1.0).
+ */
+public class SlowQueryDataSource extends DelegatingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryDataSource.class);
+
+    /**
+     * Longer bind values (text, blobs) are cut to this many characters in the log
+     */
+    private static final int MAX_VALUE_LENGTH = 100;
+
+    private final long thresholdNanos;
+    private final double sampleRate;
+
+    public SlowQueryDataSource(DataSource target, Duration threshold, double sampleRate) {
+        super(target);
+        this.thresholdNanos = threshold.toNanos();
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (result instanceof Statement statement) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                return wrap(statement, sql);
+            }
+            return result;
+        };
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, handler);
+    }
+
+    private Statement wrap(Statement statement, String preparedSql) {
+        Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class
+                : Statement.class;
+        StatementHandler handler = new StatementHandler(statement, preparedSql);
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement statement;
+        private final String preparedSql;
+        private Object[] binds = new Object[0];
+        private int bindCount;
+        private int batchSize;
+
+        private StatementHandler(Statement statement, String preparedSql) {
+            this.statement = statement;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                long start = System.nanoTime();
+                try {
+                    return SlowQueryDataSource.invoke(statement, method, args);
+                } finally {
+                    long elapsed = System.nanoTime() - start;
+                    if (elapsed >= thresholdNanos) {
+                        String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+                        logSlow(sql, elapsed, "executeBatch".equals(name) || "executeLargeBatch".equals(name));
+                    }
+                    if (name.endsWith("Batch")) {
+                        batchSize = 0;
+                    }
+                }
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                bind(index, "setNull".equals(name) ? null : args[1]);
+            } else if ("addBatch".equals(name)) {
+                batchSize++;
+            } else if ("clearParameters".equals(name)) {
+                Arrays.fill(binds, null);
+            }
+            return SlowQueryDataSource.invoke(statement, method, args);
+        }
+
+        private void bind(int index, Object value) {
+            if (index > binds.length) {
+                binds = Arrays.copyOf(binds, Math.max(index, binds.length * 2));
+            }
+            binds[index - 1] = value;
+            bindCount = Math.max(bindCount, index);
+        }
+
+        private void logSlow(String sql, long elapsedNanos, boolean batch) {
+            if (!log.isWarnEnabled() || (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+                return;
+            }
+            StringBuilder message = new StringBuilder(128)
+                    .append("Slow statement (").append(elapsedNanos / 1_000_000).append(" ms");
+            if (batch) {
+                message.append(", batch of ").append(batchSize);
+            }
+            message.append("): ").append(sql);
+            if (preparedSql != null) {
+                message.append(" | binds").append(batch ? " (last row)" : "").append(": [");
+                for (int i = 0; i < bindCount; i++) {
+                    if (i > 0) {
+                        message.append(", ");
+                    }
+                    message.append(i + 1).append('=').append(format(binds[i]));
+                }
+                message.append(']');
+            }
+            log.warn(message.toString());
+        }
+
+        private String format(Object value) {
+            if (value == null) {
+                return "NULL";
+            }
+            String text = String.valueOf(value);
+            if (text.length() > MAX_VALUE_LENGTH) {
+                text = text.substring(0, MAX_VALUE_LENGTH) + "...";
+            }
+            return value instanceof CharSequence || value instanceof Temporal ? "'" + text + "'" : text;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.payan.demo.config;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Wraps the application DataSource in a {@link SlowQueryDataSource} when
+ * {@code payan.logging.slow-query.enabled=true} (on in the prod profile).
+ */
+@Configuration
+@ConditionalOnProperty(name = "payan.logging.slow-query.enabled", havingValue = "true")
+public class SlowQueryLogConfig {
+
+    @Bean
+    public static BeanPostProcessor slowQueryLogPostProcessor(Environment environment) {
+        Duration threshold = environment.getProperty(
+                "payan.logging.slow-query.threshold", Duration.class, Duration.ofMillis(200));
+        double sampleRate = environment.getProperty("payan.logging.slow-query.sample-rate", Double.class, 1.0);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof DataSource dataSource && !(bean instanceof SlowQueryDataSource)) {
+                    return new SlowQueryDataSource(dataSource, threshold, sampleRate);
+                }
+                return bean;
+            }
+        };
+    }
+}
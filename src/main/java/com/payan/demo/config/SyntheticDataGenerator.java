@@ -0,0 +1,137 @@
+package com.payan.demo.config;
+
+import com.payan.demo.entity.Transaction;
+import com.payan.demo.entity.TransactionStatus;
+import com.payan.demo.entity.TransactionType;
+import com.payan.demo.entity.User;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds realistic-looking users and transactions for seeding and load tests. Categories, statuses and
+ * amounts follow a fixed skew (many small food and shopping debits, few large salary credits, ~90%
+ * COMPLETED) and the output is reproducible for a given seed.
+ */
+public class SyntheticDataGenerator {
+
+    private record CategoryProfile(String name, TransactionType type, int weight, String typicalAmount, String description) {
+    }
+
+    private static final List<CategoryProfile> CATEGORIES = List.of(
+            new CategoryProfile("Food & Dining", TransactionType.DEBIT, 30, "25.00", "Restaurant"),
+            new CategoryProfile("Shopping", TransactionType.DEBIT, 18, "60.00", "Online order"),
+            new CategoryProfile("Transportation", TransactionType.DEBIT, 12, "35.00", "Fuel"),
+            new CategoryProfile("Utilities", TransactionType.DEBIT, 10, "90.00", "Utility bill"),
+            new CategoryProfile("Health & Fitness", TransactionType.DEBIT, 5, "50.00", "Gym membership"),
+            new CategoryProfile("Insurance", TransactionType.DEBIT, 3, "200.00", "Insurance premium"),
+            new CategoryProfile("Housing", TransactionType.DEBIT, 3, "1500.00", "Rent payment"),
+            new CategoryProfile("Salary", TransactionType.CREDIT, 4, "5000.00", "Salary deposit"),
+            new CategoryProfile("Income", TransactionType.CREDIT, 3, "800.00", "Freelance payment"),
+            new CategoryProfile("Refund", TransactionType.CREDIT, 5, "45.00", "Refund"),
+            new CategoryProfile("Investment", TransactionType.CREDIT, 2, "150.00", "Stock dividend"),
+            new CategoryProfile("Interest", TransactionType.CREDIT, 5, "20.00", "Bank interest"));
+
+    private static final TransactionStatus[] STATUSES = {
+            TransactionStatus.COMPLETED, TransactionStatus.PENDING, TransactionStatus.FAILED};
+    private static final int[] STATUS_WEIGHTS = {90, 7, 3};
+
+    private final Random random;
+    private final int days;
+    private final LocalDateTime now;
+    private final int totalCategoryWeight;
+
+    public SyntheticDataGenerator(long seed, int days) {
+        this(seed, days, LocalDateTime.now());
+    }
+
+    SyntheticDataGenerator(long seed, int days, LocalDateTime now) {
+        this.random = new Random(seed);
+        this.days = days;
+        this.now = now;
+        this.totalCategoryWeight = CATEGORIES.stream().mapToInt(CategoryProfile::weight).sum();
+    }
+
+    /**
+     * {@code count} enabled USER accounts named loaduser1..loaduserN, all sharing one encoded password
+     * so seeding does not pay for a BCrypt hash per user
+     */
+    public List<User> users(int count, String encodedPassword) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            User user = new User();
+            user.setUsername("loaduser" + i);
+            user.setPassword(encodedPassword);
+            user.setFullName("Load User " + i);
+            user.setEmail("loaduser" + i + "@example.com");
+            user.setRole("USER");
+            user.setEnabled(true);
+            users.add(user);
+        }
+        return users;
+    }
+
+    /**
+     * {@code count} transactions dated within the last {@code days} days. Transaction IDs are left
+     * empty so the configured generator assigns them on insert.
+     */
+    public List<Transaction> transactions(int count) {
+        List<Transaction> transactions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            transactions.add(transaction());
+        }
+        return transactions;
+    }
+
+    private Transaction transaction() {
+        CategoryProfile category = pickCategory();
+        TransactionStatus status = pickStatus();
+
+        Transaction transaction = new Transaction();
+        transaction.setDescription(category.description());
+        transaction.setAmount(amount(category));
+        transaction.setType(category.type());
+        transaction.setStatus(status);
+        transaction.setCategory(category.name());
+        if (status != TransactionStatus.PENDING) {
+            transaction.setReference("REF-" + Long.toString(random.nextLong() & Long.MAX_VALUE, 36).toUpperCase());
+        }
+        transaction.setTransactionDate(now.minusSeconds((long) (random.nextDouble() * days * 86_400L)));
+        return transaction;
+    }
+
+    private CategoryProfile pickCategory() {
+        int roll = random.nextInt(totalCategoryWeight);
+        for (CategoryProfile category : CATEGORIES) {
+            roll -= category.weight();
+            if (roll < 0) {
+                return category;
+            }
+        }
+        return CATEGORIES.get(0);
+    }
+
+    private TransactionStatus pickStatus() {
+        int roll = random.nextInt(100);
+        for (int i = 0; i < STATUSES.length; i++) {
+            roll -= STATUS_WEIGHTS[i];
+            if (roll < 0) {
+                return STATUSES[i];
+            }
+        }
+        return STATUSES[0];
+    }
+
+    // Log-normal around the category's typical amount: mostly close to it, with a long tail of larger ones
+    private BigDecimal amount(CategoryProfile category) {
+        double factor = Math.exp(random.nextGaussian() * 0.5);
+        BigDecimal amount = new BigDecimal(category.typicalAmount())
+                .multiply(BigDecimal.valueOf(factor))
+                .setScale(2, RoundingMode.HALF_UP);
+        return amount.signum() > 0 ? amount : new BigDecimal("0.01");
+    }
+}
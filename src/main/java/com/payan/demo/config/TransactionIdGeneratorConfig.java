@@ -0,0 +1,27 @@
+package com.payan.demo.config;
+
+import com.payan.demo.service.SnowflakeTransactionIdGenerator;
+import com.payan.demo.service.TransactionIdGenerator;
+import com.payan.demo.service.UuidTransactionIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class TransactionIdGeneratorConfig {
+
+    /**
+     * Generator selected by {@code payan.transactions.id-generator.type}: snowflake (default) or uuid.
+     * Every instance writing to the same database needs its own node id.
+     */
+    @Bean
+    public TransactionIdGenerator transactionIdGenerator(
+            @Value("${payan.transactions.id-generator.type:snowflake}") String type,
+            @Value("${payan.transactions.id-generator.node-id:0}") long nodeId) {
+        return switch (type.toLowerCase()) {
+            case "snowflake" -> new SnowflakeTransactionIdGenerator(nodeId);
+            case "uuid" -> new UuidTransactionIdGenerator();
+            default -> throw new IllegalStateException("Unknown transaction id generator: " + type);
+        };
+    }
+}
@@ -0,0 +1,59 @@
+package com.payan.demo.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Extra wiring for {@code spring.threads.virtual.enabled=true}. Spring Boot already runs Tomcat requests,
+ * {@code @Async}/MVC async tasks and scheduled tasks on virtual threads in that mode; this adds the
+ * connection guard so unbounded request concurrency queues in front of the Hikari pool.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    /**
+     * Hikari's own default, applied when the pool starts if maximum-pool-size was not set
+     */
+    private static final int HIKARI_DEFAULT_POOL_SIZE = 10;
+
+    @Bean
+    @ConditionalOnProperty(name = "payan.datasource.connection-guard.enabled", matchIfMissing = true)
+    public static BeanPostProcessor connectionPoolGuardPostProcessor(Environment environment) {
+        Duration acquireTimeout = environment.getProperty(
+                "payan.datasource.connection-guard.acquire-timeout", Duration.class, Duration.ofSeconds(30));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                // Unwrap rather than match the type: the slow query log may already have wrapped the pool
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConnectionPoolGuard)) {
+                    HikariDataSource hikari = unwrapHikari(dataSource);
+                    if (hikari != null) {
+                        int poolSize = hikari.getMaximumPoolSize() > 0 ? hikari.getMaximumPoolSize() : HIKARI_DEFAULT_POOL_SIZE;
+                        return new ConnectionPoolGuard(dataSource, poolSize, acquireTimeout);
+                    }
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static HikariDataSource unwrapHikari(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.payan.demo.controller;
+
+import com.payan.demo.service.TableVersion;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Conditional GET handling for listings validated by a {@link TableVersion}, and the version tags
+ * behind conditional updates of single rows
+ */
+final class ConditionalRequests {
+
+    /**
+     * Let browsers keep the response but revalidate it on every use; without this Spring Security's
+     * default no-store means they never send If-None-Match
+     */
+    private static final String CACHE_CONTROL = "private, no-cache";
+
+    private ConditionalRequests() {
+    }
+
+    /**
+     * Set ETag, Last-Modified and Cache-Control, and answer 304 if the client's copy is current.
+     * Returns true when the handler should return without producing a body.
+     *
+     * <p>Last-Modified has one-second resolution, so it is left out while the table's last write is
+     * in the current second: a second write in that second would otherwise look unmodified to a
+     * client that only sends If-Modified-Since.
+     */
+    static boolean notModified(ServletWebRequest request, TableVersion.Stamp stamp) {
+        HttpServletResponse response = request.getResponse();
+        if (response != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        }
+        long lastModified = stamp.lastModified() / 1000 < System.currentTimeMillis() / 1000 ? stamp.lastModified() : -1;
+        return request.checkNotModified(stamp.etag(), lastModified);
+    }
+
+    /**
+     * Strong ETag for one row at the given entity version, or null for a row that has none yet
+     */
+    static String versionTag(Long version) {
+        return version == null ? null : "\"" + version + "\"";
+    }
+
+    /**
+     * The entity version an If-Match header names, or null when the header is absent or {@code *}
+     *
+     * @throws IllegalArgumentException if the header is not a single strong version tag
+     */
+    static Long ifMatchVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+            throw new IllegalArgumentException("If-Match must be a single version tag: " + ifMatch);
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("If-Match must be a single version tag: " + ifMatch);
+        }
+    }
+}
@@ -2,7 +2,9 @@ package com.payan.demo.controller;
 
 import com.payan.demo.entity.Transaction;
 import com.payan.demo.service.TransactionService;
+import com.payan.demo.service.TransactionSummaryService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
@@ -17,6 +19,12 @@ public class DashboardController {
     @Autowired
     private TransactionService transactionService;
 
+    @Autowired
+    private TransactionSummaryService transactionSummaryService;
+
+    @Value("${payan.dashboard.recent-transactions:20}")
+    private int recentTransactions;
+
     @GetMapping("/dashboard")
     public String dashboard(Model model) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -24,11 +32,12 @@ public class DashboardController {
         boolean isAdmin = authentication.getAuthorities().stream()
                 .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
         
-        List<Transaction> transactions = transactionService.getAllTransactions();
+        List<Transaction> transactions = transactionService.getRecentTransactions(recentTransactions);
         
         model.addAttribute("username", username);
         model.addAttribute("isAdmin", isAdmin);
         model.addAttribute("transactions", transactions);
+        model.addAttribute("summary", transactionSummaryService.getSummary());
         
         return "dashboard";
     }
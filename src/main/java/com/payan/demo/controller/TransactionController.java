@@ -1,13 +1,53 @@
 package com.payan.demo.controller;
 
+import com.payan.demo.dto.BatchIngestResult;
+import com.payan.demo.dto.CacheStatistics;
+import com.payan.demo.dto.CursorPage;
+import com.payan.demo.dto.StatusTransitionProgress;
+import com.payan.demo.dto.StatusTransitionRequest;
+import com.payan.demo.dto.TransactionAnalyticsGroup;
+import com.payan.demo.dto.TransactionExportFormat;
+import com.payan.demo.dto.TransactionFields;
+import com.payan.demo.dto.TransactionIngestStatus;
+import com.payan.demo.dto.TransactionSearchCriteria;
+import com.payan.demo.dto.TransactionStatsPoint;
+import com.payan.demo.dto.TransactionSummary;
+import com.payan.demo.entity.RollupGranularity;
 import com.payan.demo.entity.Transaction;
+import com.payan.demo.entity.TransactionStatus;
+import com.payan.demo.entity.TransactionType;
+import com.payan.demo.service.TableVersions;
+import com.payan.demo.service.TransactionBatchService;
+import com.payan.demo.service.TransactionCache;
+import com.payan.demo.service.TransactionColumnStore;
+import com.payan.demo.service.TransactionEventPublisher;
+import com.payan.demo.service.TransactionIngestQueueFullException;
+import com.payan.demo.service.TransactionIngestService;
+import com.payan.demo.service.TransactionRollupService;
 import com.payan.demo.service.TransactionService;
+import com.payan.demo.service.TransactionStatusConflictException;
+import com.payan.demo.service.TransactionStatusTransitionService;
+import com.payan.demo.service.TransactionSummaryService;
+import com.payan.demo.service.TransactionVersionConflictException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/transactions")
@@ -16,6 +56,33 @@ public class TransactionController {
     @Autowired
     private TransactionService transactionService;
 
+    @Autowired
+    private TransactionBatchService transactionBatchService;
+
+    @Autowired
+    private TransactionIngestService transactionIngestService;
+
+    @Autowired
+    private TransactionSummaryService transactionSummaryService;
+
+    @Autowired
+    private TransactionColumnStore transactionColumnStore;
+
+    @Autowired
+    private TransactionRollupService transactionRollupService;
+
+    @Autowired
+    private TransactionCache transactionCache;
+
+    @Autowired
+    private TransactionEventPublisher transactionEventPublisher;
+
+    @Autowired
+    private TransactionStatusTransitionService transactionStatusTransitionService;
+
+    @Autowired
+    private TableVersions tableVersions;
+
     /**
      * Create a new transaction
      */
@@ -30,10 +97,102 @@ public class TransactionController {
     }
 
     /**
-     * Get all transactions
+     * Create many transactions in one call. Returns 201 when every item was stored,
+     * otherwise 200 with per-item results saying which items were rejected or failed.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchIngestResult> createTransactions(@RequestBody List<Transaction> transactions) {
+        try {
+            BatchIngestResult result = transactionBatchService.ingest(transactions);
+            HttpStatus status = result.created() == result.received() ? HttpStatus.CREATED : HttpStatus.OK;
+            return new ResponseEntity<>(result, status);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Accept a transaction for asynchronous creation (when payan.transactions.async-ingest.enabled is set).
+     * Returns 202 with a Location to poll once it is validated and journaled, without waiting for the
+     * database; 429 with Retry-After while the write queue is full.
+     */
+    @PostMapping("/ingest")
+    public ResponseEntity<TransactionIngestStatus> ingestTransaction(@RequestBody Transaction transaction) {
+        if (!transactionIngestService.isEnabled()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        try {
+            TransactionIngestStatus status = transactionIngestService.accept(transaction);
+            HttpHeaders headers = new HttpHeaders();
+            headers.setLocation(ServletUriComponentsBuilder.fromCurrentRequest()
+                    .path("/{transactionId}")
+                    .buildAndExpand(status.transactionId())
+                    .toUri());
+            return new ResponseEntity<>(status, headers, HttpStatus.ACCEPTED);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (TransactionIngestQueueFullException e) {
+            HttpHeaders headers = new HttpHeaders();
+            headers.set(HttpHeaders.RETRY_AFTER, "1");
+            return new ResponseEntity<>(headers, HttpStatus.TOO_MANY_REQUESTS);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Get whether a transaction accepted for asynchronous creation is still queued, was created, or failed
+     */
+    @GetMapping("/ingest/{transactionId}")
+    public ResponseEntity<TransactionIngestStatus> getIngestStatus(@PathVariable("transactionId") String transactionId) {
+        return transactionIngestService.getStatus(transactionId)
+                .map(status -> new ResponseEntity<>(status, HttpStatus.OK))
+                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Start moving many transactions to a new status, e.g. a settlement run completing PENDING rows.
+     * Returns 202 with a Location to poll for progress; only legal transitions are applied.
+     */
+    @PostMapping("/status-transitions")
+    public ResponseEntity<StatusTransitionProgress> startStatusTransition(@RequestBody StatusTransitionRequest request) {
+        try {
+            StatusTransitionProgress progress = transactionStatusTransitionService.start(request);
+            HttpHeaders headers = new HttpHeaders();
+            headers.setLocation(ServletUriComponentsBuilder.fromCurrentRequest()
+                    .path("/{id}")
+                    .buildAndExpand(progress.id())
+                    .toUri());
+            return new ResponseEntity<>(progress, headers, HttpStatus.ACCEPTED);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Get the progress of a bulk status transition
+     */
+    @GetMapping("/status-transitions/{id}")
+    public ResponseEntity<StatusTransitionProgress> getStatusTransition(@PathVariable("id") String id) {
+        return transactionStatusTransitionService.getProgress(id)
+                .map(progress -> new ResponseEntity<>(progress, HttpStatus.OK))
+                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Get all transactions. Answers 304 without querying when the client's ETag or date is current.
      */
     @GetMapping
-    public ResponseEntity<List<Transaction>> getAllTransactions() {
+    public ResponseEntity<List<Transaction>> getAllTransactions(ServletWebRequest request) {
+        if (ConditionalRequests.notModified(request, tableVersions.transactions().current())) {
+            return null;
+        }
         try {
             List<Transaction> transactions = transactionService.getAllTransactions();
             if (transactions.isEmpty()) {
@@ -46,12 +205,210 @@ public class TransactionController {
     }
 
     /**
-     * Get transaction by ID
+     * Get only the selected fields of all transactions, e.g. {@code ?fields=id,amount,status}
+     */
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getAllTransactionFields(
+            @RequestParam("fields") String fields, ServletWebRequest request) {
+        if (ConditionalRequests.notModified(request, tableVersions.transactions().current())) {
+            return null;
+        }
+        try {
+            List<Map<String, Object>> transactions = transactionService.getAllTransactions(TransactionFields.parse(fields));
+            if (transactions.isEmpty()) {
+                return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+            }
+            return new ResponseEntity<>(transactions, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Get one keyset page of transactions, newest first
+     */
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<Transaction>> getTransactionPage(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size,
+            ServletWebRequest request) {
+        if (ConditionalRequests.notModified(request, tableVersions.transactions().current())) {
+            return null;
+        }
+        try {
+            CursorPage<Transaction> page = transactionService.getTransactionPage(cursor, size);
+            return new ResponseEntity<>(page, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Get one keyset page holding only the selected fields of each transaction
+     */
+    @GetMapping(value = "/page", params = "fields")
+    public ResponseEntity<CursorPage<Map<String, Object>>> getTransactionFieldPage(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam("fields") String fields,
+            ServletWebRequest request) {
+        if (ConditionalRequests.notModified(request, tableVersions.transactions().current())) {
+            return null;
+        }
+        try {
+            CursorPage<Map<String, Object>> page =
+                    transactionService.getTransactionPage(cursor, size, TransactionFields.parse(fields));
+            return new ResponseEntity<>(page, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Get pre-aggregated totals: credits, debits, net balance, counts per status, sums per category and day
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<TransactionSummary> getTransactionSummary(ServletWebRequest request) {
+        if (ConditionalRequests.notModified(request, tableVersions.transactions().current())) {
+            return null;
+        }
+        return new ResponseEntity<>(transactionSummaryService.getSummary(), HttpStatus.OK);
+    }
+
+    /**
+     * Count, total, min and max amount grouped by type, status, category or day, over transactions dated
+     * in [from, to), e.g. {@code ?groupBy=CATEGORY&from=2024-01-01T00:00:00&type=DEBIT}. Answered from the
+     * in-memory column store, not the database.
+     */
+    @GetMapping("/analytics")
+    public ResponseEntity<List<TransactionAnalyticsGroup>> getTransactionAnalytics(
+            @RequestParam(defaultValue = "NONE") TransactionColumnStore.Dimension groupBy,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) TransactionType type,
+            @RequestParam(required = false) TransactionStatus status,
+            ServletWebRequest request) {
+        if (ConditionalRequests.notModified(request, tableVersions.transactions().current())) {
+            return null;
+        }
+        return new ResponseEntity<>(transactionColumnStore.aggregate(groupBy, from, to, type, status), HttpStatus.OK);
+    }
+
+    /**
+     * Time series of transaction count and total per minute, hour or day over [from, to), e.g.
+     * {@code ?granularity=HOUR&from=2024-01-01T00:00:00&category=Shopping}. Answered from the rollup
+     * table, not the transactions; minute buckets only reach back a few days and hour buckets a few months.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<List<TransactionStatsPoint>> getTransactionStats(
+            @RequestParam(defaultValue = "HOUR") RollupGranularity granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) TransactionType type,
+            @RequestParam(required = false) TransactionStatus status,
+            @RequestParam(required = false) String category) {
+        try {
+            return new ResponseEntity<>(
+                    transactionRollupService.getStats(granularity, from, to, type, status, category), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Get hit, miss and eviction counters of the transaction lookup caches
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, CacheStatistics>> getCacheStatistics() {
+        return new ResponseEntity<>(transactionCache.getStatistics(), HttpStatus.OK);
+    }
+
+    /**
+     * Live feed of transaction changes as Server-Sent Events: CREATED, UPDATED, STATUS_CHANGED and
+     * DELETED, plus RESYNC when this client fell too far behind and should reload
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTransactions() {
+        return transactionEventPublisher.subscribe();
+    }
+
+    /**
+     * Search transactions by any mix of status, type, category, amount range, date range and reference prefix
+     */
+    @GetMapping("/search")
+    public ResponseEntity<Page<Transaction>> searchTransactions(@ModelAttribute TransactionSearchCriteria criteria,
+                                                                Pageable pageable, ServletWebRequest request) {
+        if (ConditionalRequests.notModified(request, tableVersions.transactions().current())) {
+            return null;
+        }
+        try {
+            Page<Transaction> page = transactionService.searchTransactions(criteria, pageable);
+            return new ResponseEntity<>(page, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Search transactions, returning only the selected fields of each match
+     */
+    @GetMapping(value = "/search", params = "fields")
+    public ResponseEntity<Page<Map<String, Object>>> searchTransactionFields(
+            @ModelAttribute TransactionSearchCriteria criteria, Pageable pageable,
+            @RequestParam("fields") String fields, ServletWebRequest request) {
+        if (ConditionalRequests.notModified(request, tableVersions.transactions().current())) {
+            return null;
+        }
+        try {
+            Page<Map<String, Object>> page =
+                    transactionService.searchTransactions(criteria, pageable, TransactionFields.parse(fields));
+            return new ResponseEntity<>(page, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Stream all transactions as NDJSON or CSV without buffering them in memory
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @RequestParam(value = "format", defaultValue = "ndjson") String format) {
+        TransactionExportFormat exportFormat;
+        try {
+            exportFormat = TransactionExportFormat.fromParameter(format);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        StreamingResponseBody body = out -> transactionService.exportTransactions(exportFormat, out);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(exportFormat.getMediaType());
+        headers.setContentDisposition(ContentDisposition.attachment()
+                .filename("transactions." + exportFormat.getFileExtension())
+                .build());
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    /**
+     * Get transaction by ID, with its version as the ETag to send back in If-Match
      */
     @GetMapping("/{id}")
     public ResponseEntity<Transaction> getTransactionById(@PathVariable("id") Long id) {
         return transactionService.getTransactionById(id)
-                .map(transaction -> new ResponseEntity<>(transaction, HttpStatus.OK))
+                .map(transaction -> ResponseEntity.ok()
+                        .eTag(ConditionalRequests.versionTag(transaction.getVersion()))
+                        .body(transaction))
                 .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
@@ -59,7 +416,7 @@ public class TransactionController {
      * Get transactions by status
      */
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Transaction>> getTransactionsByStatus(@PathVariable("status") String status) {
+    public ResponseEntity<List<Transaction>> getTransactionsByStatus(@PathVariable("status") TransactionStatus status) {
         try {
             List<Transaction> transactions = transactionService.getTransactionsByStatus(status);
             if (transactions.isEmpty()) {
@@ -75,7 +432,7 @@ public class TransactionController {
      * Get transactions by type
      */
     @GetMapping("/type/{type}")
-    public ResponseEntity<List<Transaction>> getTransactionsByType(@PathVariable("type") String type) {
+    public ResponseEntity<List<Transaction>> getTransactionsByType(@PathVariable("type") TransactionType type) {
         try {
             List<Transaction> transactions = transactionService.getTransactionsByType(type);
             if (transactions.isEmpty()) {
@@ -104,13 +461,26 @@ public class TransactionController {
     }
 
     /**
-     * Update transaction
+     * Update transaction. With If-Match the update only applies to that version (412 otherwise);
+     * without it, concurrent writers are retried and 409 means they kept colliding.
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Transaction> updateTransaction(@PathVariable("id") Long id, @RequestBody Transaction transaction) {
+    public ResponseEntity<Transaction> updateTransaction(
+            @PathVariable("id") Long id,
+            @RequestBody Transaction transaction,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            Transaction updatedTransaction = transactionService.updateTransaction(id, transaction);
-            return new ResponseEntity<>(updatedTransaction, HttpStatus.OK);
+            Transaction updatedTransaction = transactionService.updateTransaction(id, transaction,
+                    ConditionalRequests.ifMatchVersion(ifMatch));
+            return ResponseEntity.ok()
+                    .eTag(ConditionalRequests.versionTag(updatedTransaction.getVersion()))
+                    .body(updatedTransaction);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (TransactionVersionConflictException e) {
+            return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+        } catch (TransactionStatusConflictException | OptimisticLockingFailureException e) {
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
         } catch (RuntimeException e) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         } catch (Exception e) {
@@ -119,15 +489,25 @@ public class TransactionController {
     }
 
     /**
-     * Update transaction status
+     * Update transaction status; If-Match works as for a full update
      */
     @PatchMapping("/{id}/status")
     public ResponseEntity<Transaction> updateTransactionStatus(
             @PathVariable("id") Long id, 
-            @RequestParam String status) {
+            @RequestParam TransactionStatus status,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            Transaction transaction = transactionService.updateTransactionStatus(id, status);
-            return new ResponseEntity<>(transaction, HttpStatus.OK);
+            Transaction transaction = transactionService.updateTransactionStatus(id, status,
+                    ConditionalRequests.ifMatchVersion(ifMatch));
+            return ResponseEntity.ok()
+                    .eTag(ConditionalRequests.versionTag(transaction.getVersion()))
+                    .body(transaction);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (TransactionVersionConflictException e) {
+            return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+        } catch (TransactionStatusConflictException | OptimisticLockingFailureException e) {
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
         } catch (RuntimeException e) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         } catch (Exception e) {
@@ -1,11 +1,13 @@
 package com.payan.demo.controller;
 
 import com.payan.demo.entity.User;
+import com.payan.demo.service.TableVersions;
 import com.payan.demo.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 
@@ -16,6 +18,9 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private TableVersions tableVersions;
+
     /**
      * Create a new user
      */
@@ -30,10 +35,13 @@ public class UserController {
     }
 
     /**
-     * Get all users
+     * Get all users. Answers 304 without querying when the client's ETag or date is current.
      */
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
+    public ResponseEntity<List<User>> getAllUsers(ServletWebRequest request) {
+        if (ConditionalRequests.notModified(request, tableVersions.users().current())) {
+            return null;
+        }
         try {
             List<User> users = userService.getAllUsers();
             if (users.isEmpty()) {
@@ -0,0 +1,24 @@
+package com.payan.demo.dto;
+
+import java.util.List;
+
+/**
+ * Totals and per-item results of a bulk ingest request. Rejected items failed validation;
+ * failed items were valid but could not be stored (e.g. a duplicate transaction ID).
+ */
+public record BatchIngestResult(int received, int created, int rejected, int failed, List<BatchItemResult> items) {
+
+    public static BatchIngestResult of(List<BatchItemResult> items) {
+        int created = 0;
+        int rejected = 0;
+        int failed = 0;
+        for (BatchItemResult item : items) {
+            switch (item.status()) {
+                case CREATED -> created++;
+                case REJECTED -> rejected++;
+                case FAILED -> failed++;
+            }
+        }
+        return new BatchIngestResult(items.size(), created, rejected, failed, items);
+    }
+}
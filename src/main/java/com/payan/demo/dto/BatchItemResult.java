@@ -0,0 +1,23 @@
+package com.payan.demo.dto;
+
+/**
+ * Outcome of one item of a bulk ingest request. {@code index} is the item's position in the request.
+ */
+public record BatchItemResult(int index, Status status, Long id, String transactionId, String error) {
+
+    public enum Status {
+        CREATED, REJECTED, FAILED
+    }
+
+    public static BatchItemResult created(int index, Long id, String transactionId) {
+        return new BatchItemResult(index, Status.CREATED, id, transactionId, null);
+    }
+
+    public static BatchItemResult rejected(int index, String transactionId, String error) {
+        return new BatchItemResult(index, Status.REJECTED, null, transactionId, error);
+    }
+
+    public static BatchItemResult failed(int index, String transactionId, String error) {
+        return new BatchItemResult(index, Status.FAILED, null, transactionId, error);
+    }
+}
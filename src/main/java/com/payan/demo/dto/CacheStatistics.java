@@ -0,0 +1,7 @@
+package com.payan.demo.dto;
+
+/**
+ * Counters of one in-process cache
+ */
+public record CacheStatistics(long hitCount, long missCount, long evictionCount, double hitRate, long size) {
+}
@@ -0,0 +1,20 @@
+package com.payan.demo.dto;
+
+import com.payan.demo.entity.TransactionStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a bulk status transition. {@code total} is the number of ids requested, or the number
+ * of matching rows counted when the run started. {@code processed} rows or ids were examined so far,
+ * of which {@code updated} changed status and {@code skipped} did not (missing, or not in a status
+ * that may move to the target).
+ */
+public record StatusTransitionProgress(String id, State state, TransactionStatus targetStatus, long total, long processed,
+                                       long updated, long skipped, int chunks, LocalDateTime startedAt,
+                                       LocalDateTime finishedAt, String error) {
+
+    public enum State {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+}
@@ -0,0 +1,13 @@
+package com.payan.demo.dto;
+
+import com.payan.demo.entity.TransactionStatus;
+
+import java.util.List;
+
+/**
+ * Bulk status change: move the listed transactions, or those matching the filter (or both, ANDed),
+ * to {@code targetStatus}. Only rows whose current status may legally move there are changed.
+ */
+public record StatusTransitionRequest(List<Long> ids, TransactionSearchCriteria filter,
+                                      TransactionStatus targetStatus) {
+}
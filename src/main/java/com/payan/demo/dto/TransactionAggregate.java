@@ -0,0 +1,13 @@
+package com.payan.demo.dto;
+
+import com.payan.demo.entity.TransactionStatus;
+import com.payan.demo.entity.TransactionType;
+
+import java.time.LocalDate;
+
+/**
+ * Row count and amount sum, in minor units at {@code scale}, for one (type, status, category, day) group
+ */
+public record TransactionAggregate(TransactionType type, TransactionStatus status, String category, LocalDate day,
+                                   long count, long totalMinor, int scale) {
+}
@@ -0,0 +1,15 @@
+package com.payan.demo.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Count and amount statistics of one group of an analytics query; {@code key} is the type, status,
+ * category or ISO day the group stands for, or "ALL" when nothing is grouped
+ */
+public record TransactionAnalyticsGroup(
+        String key,
+        long count,
+        BigDecimal total,
+        BigDecimal min,
+        BigDecimal max) {
+}
@@ -0,0 +1,63 @@
+package com.payan.demo.dto;
+
+import com.payan.demo.entity.Transaction;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a transaction page, as the pair (transactionDate, id).
+ * Clients only ever see it as an opaque, URL-safe token.
+ */
+public record TransactionCursor(LocalDateTime transactionDate, Long id) {
+
+    private static final byte VERSION = 1;
+    private static final int TOKEN_LENGTH = 1 + Long.BYTES + Integer.BYTES + Long.BYTES;
+
+    /**
+     * Build the cursor pointing just past the given row
+     */
+    public static TransactionCursor of(Transaction transaction) {
+        return new TransactionCursor(transaction.getTransactionDate(), transaction.getId());
+    }
+
+    /**
+     * Encode this cursor as an opaque token
+     */
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(TOKEN_LENGTH);
+        buffer.put(VERSION);
+        buffer.putLong(transactionDate.toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(transactionDate.getNano());
+        buffer.putLong(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * Decode a token produced by {@link #encode()}
+     *
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static TransactionCursor decode(String token) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token.getBytes(StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+        if (bytes.length != TOKEN_LENGTH || bytes[0] != VERSION) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, bytes.length - 1);
+        long epochSecond = buffer.getLong();
+        int nano = buffer.getInt();
+        long id = buffer.getLong();
+        if (nano < 0 || nano > 999_999_999) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+        return new TransactionCursor(LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC), id);
+    }
+}
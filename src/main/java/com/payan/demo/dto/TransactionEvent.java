@@ -0,0 +1,14 @@
+package com.payan.demo.dto;
+
+import com.payan.demo.entity.Transaction;
+
+/**
+ * A change pushed to /api/transactions/stream subscribers. {@code transaction} is the new state,
+ * null for DELETED. RESYNC tells a client it missed events and should reload.
+ */
+public record TransactionEvent(long sequence, Type type, Long id, Transaction transaction) {
+
+    public enum Type {
+        CREATED, UPDATED, STATUS_CHANGED, DELETED, RESYNC
+    }
+}
@@ -0,0 +1,42 @@
+package com.payan.demo.dto;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Output formats supported by the streaming transaction export
+ */
+public enum TransactionExportFormat {
+
+    NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+    CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv");
+
+    private final MediaType mediaType;
+    private final String fileExtension;
+
+    TransactionExportFormat(MediaType mediaType, String fileExtension) {
+        this.mediaType = mediaType;
+        this.fileExtension = fileExtension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    /**
+     * Resolve the {@code format} request parameter, case-insensitively
+     *
+     * @throws IllegalArgumentException if the format is not supported
+     */
+    public static TransactionExportFormat fromParameter(String format) {
+        for (TransactionExportFormat candidate : values()) {
+            if (candidate.fileExtension.equalsIgnoreCase(format)) {
+                return candidate;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported export format: " + format);
+    }
+}
@@ -0,0 +1,49 @@
+package com.payan.demo.dto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Transaction properties a client asked for with {@code ?fields=}, in request order without duplicates
+ */
+public record TransactionFields(List<String> names) {
+
+    /**
+     * Properties that can be selected, in the entity's declaration order
+     */
+    public static final List<String> SELECTABLE = List.of(
+            "id", "transactionId", "description", "amount", "type", "status", "transactionDate", "category", "reference");
+
+    public TransactionFields {
+        names = List.copyOf(names);
+    }
+
+    /**
+     * Parse a comma-separated list such as {@code id,amount,status}; blanks around names are ignored
+     *
+     * @throws IllegalArgumentException if the list is empty or names an unknown property
+     */
+    public static TransactionFields parse(String fields) {
+        Set<String> names = new LinkedHashSet<>();
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (!SELECTABLE.contains(trimmed)) {
+                throw new IllegalArgumentException("Unknown field: " + trimmed);
+            }
+            names.add(trimmed);
+        }
+        if (names.isEmpty()) {
+            throw new IllegalArgumentException("No fields selected");
+        }
+        return new TransactionFields(new ArrayList<>(names));
+    }
+
+    public boolean contains(String name) {
+        return names.contains(name);
+    }
+}
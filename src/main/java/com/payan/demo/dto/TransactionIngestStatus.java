@@ -0,0 +1,16 @@
+package com.payan.demo.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Where a transaction accepted for asynchronous ingest stands. {@code id} is set once it is CREATED,
+ * {@code error} if it FAILED (e.g. a duplicate transaction ID). {@code acceptedAt} is unknown for
+ * transactions looked up in the database after their status was forgotten.
+ */
+public record TransactionIngestStatus(String transactionId, State state, Long id, String error,
+                                      LocalDateTime acceptedAt, LocalDateTime finishedAt) {
+
+    public enum State {
+        QUEUED, CREATED, FAILED
+    }
+}
@@ -0,0 +1,38 @@
+package com.payan.demo.dto;
+
+import com.payan.demo.entity.TransactionStatus;
+import com.payan.demo.entity.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Optional filters for the transaction search. Null fields are ignored; the rest are ANDed together.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionSearchCriteria {
+
+    private TransactionStatus status;
+
+    private TransactionType type;
+
+    private String category;
+
+    private BigDecimal minAmount; // inclusive
+
+    private BigDecimal maxAmount; // inclusive
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime fromDate; // inclusive
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime toDate; // exclusive
+
+    private String referencePrefix;
+}
@@ -0,0 +1,14 @@
+package com.payan.demo.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Number and total amount of the transactions dated within the minute, hour or day starting at
+ * {@code bucketStart}
+ */
+public record TransactionStatsPoint(
+        LocalDateTime bucketStart,
+        long count,
+        BigDecimal total) {
+}
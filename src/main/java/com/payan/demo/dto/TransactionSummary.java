@@ -0,0 +1,20 @@
+package com.payan.demo.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Point-in-time totals over all transactions, maintained incrementally by TransactionSummaryService
+ */
+public record TransactionSummary(
+        long totalCount,
+        long creditCount,
+        long debitCount,
+        BigDecimal creditTotal,
+        BigDecimal debitTotal,
+        BigDecimal netBalance,
+        Map<String, Long> countsByStatus,
+        Map<String, BigDecimal> totalsByCategory,
+        Map<LocalDate, BigDecimal> totalsByDay) {
+}
@@ -0,0 +1,79 @@
+package com.payan.demo.entity;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Conversions between decimal amounts and whole counts of a currency's minor unit (cents at scale 2).
+ * Amounts are stored and summed as longs; BigDecimal only appears where they enter or leave the application.
+ */
+public final class MinorUnits {
+
+    /**
+     * Scale of the application's currency: amounts are whole cents
+     */
+    public static final int DEFAULT_SCALE = 2;
+
+    /**
+     * Largest amount one transaction may carry, 10^15 minor units at the default scale. Totals are kept as
+     * longs, which then hold the sum of over nine thousand maximum amounts, and of any realistic number of
+     * ordinary ones, without overflowing.
+     */
+    public static final BigDecimal MAX_TRANSACTION_AMOUNT = BigDecimal.valueOf(1_000_000_000_000_000L, DEFAULT_SCALE);
+
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L
+    };
+
+    private MinorUnits() {
+    }
+
+    /**
+     * Exact number of minor units in {@code amount}
+     *
+     * @throws IllegalArgumentException if the amount has more fraction digits than {@code scale} or does not fit a long
+     */
+    public static long fromDecimal(BigDecimal amount, int scale) {
+        try {
+            return amount.setScale(scale, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount " + amount.toPlainString() + " is not a whole number of "
+                    + "minor units at scale " + scale);
+        }
+    }
+
+    /**
+     * Minor units in {@code amount}, rounded in the given direction; for range bounds finer than a minor unit
+     *
+     * @throws IllegalArgumentException if the amount does not fit a long
+     */
+    public static long fromDecimal(BigDecimal amount, int scale, RoundingMode rounding) {
+        return fromDecimal(amount.setScale(scale, rounding), scale);
+    }
+
+    /**
+     * The decimal amount of {@code minorUnits} at {@code scale}
+     */
+    public static BigDecimal toDecimal(long minorUnits, int scale) {
+        return BigDecimal.valueOf(minorUnits, scale);
+    }
+
+    /**
+     * Convert a count of minor units at one scale to another without allocating
+     *
+     * @throws ArithmeticException if the conversion would lose digits or overflow
+     */
+    public static long rescale(long minorUnits, int fromScale, int toScale) {
+        if (fromScale == toScale) {
+            return minorUnits;
+        }
+        if (fromScale > toScale) {
+            long divisor = POWERS_OF_TEN[fromScale - toScale];
+            if (minorUnits % divisor != 0) {
+                throw new ArithmeticException("Cannot rescale " + minorUnits + " from " + fromScale + " to " + toScale);
+            }
+            return minorUnits / divisor;
+        }
+        return Math.multiplyExact(minorUnits, POWERS_OF_TEN[toScale - fromScale]);
+    }
+}
@@ -0,0 +1,33 @@
+package com.payan.demo.entity;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Bucket width of a transaction rollup. Stored as its {@link #code()}, so a code must never be reused.
+ */
+public enum RollupGranularity {
+
+    MINUTE(1, ChronoUnit.MINUTES),
+    HOUR(2, ChronoUnit.HOURS),
+    DAY(3, ChronoUnit.DAYS);
+
+    private final short code;
+    private final ChronoUnit unit;
+
+    RollupGranularity(int code, ChronoUnit unit) {
+        this.code = (short) code;
+        this.unit = unit;
+    }
+
+    public short code() {
+        return code;
+    }
+
+    /**
+     * Start of the bucket this instant falls into
+     */
+    public LocalDateTime truncate(LocalDateTime dateTime) {
+        return dateTime.truncatedTo(unit);
+    }
+}
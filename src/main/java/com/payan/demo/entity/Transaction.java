@@ -1,5 +1,9 @@
 package com.payan.demo.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.payan.demo.repository.TransactionCategoryConverter;
+import com.payan.demo.repository.TransactionCategoryListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -9,14 +13,26 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "ux_transactions_transaction_id", columnList = "transactionId", unique = true),
+        @Index(name = "idx_transactions_date_id", columnList = "transactionDate DESC, id DESC"),
+        @Index(name = "idx_transactions_status_date", columnList = "status, transactionDate DESC"),
+        @Index(name = "idx_transactions_type_date", columnList = "type, transactionDate DESC"),
+        @Index(name = "idx_transactions_category_date", columnList = "category_id, transactionDate DESC"),
+        @Index(name = "idx_transactions_reference", columnList = "reference")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@EntityListeners(TransactionCategoryListener.class)
+@JsonPropertyOrder({"id", "transactionId", "description", "amount", "type", "status", "transactionDate",
+        "category", "reference", "version"})
 public class Transaction {
     
+    // Sequence with a pooled optimizer: ids are known before INSERT, so Hibernate can batch them
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -25,20 +41,64 @@ public class Transaction {
     @Column(nullable = false)
     private String description;
     
+    // Whole minor units (cents), so totals are long additions; see getAmount()/setAmount() for the decimal view
+    @JsonIgnore
     @Column(nullable = false)
-    private BigDecimal amount;
+    private Long amountMinor;
+
+    // Fraction digits of the currency, i.e. amount = amountMinor / 10^amountScale
+    @JsonIgnore
+    @Column(nullable = false)
+    private int amountScale = MinorUnits.DEFAULT_SCALE;
     
+    // Stored as smallint codes, see TransactionTypeConverter and TransactionStatusConverter
     @Column(nullable = false)
-    private String type; // DEBIT or CREDIT
+    private TransactionType type;
     
     @Column(nullable = false)
-    private String status; // PENDING, COMPLETED, FAILED
+    private TransactionStatus status;
     
     @Column(nullable = false)
     private LocalDateTime transactionDate;
     
-    @Column(nullable = false)
+    // Stored as an id into transaction_categories
+    @Convert(converter = TransactionCategoryConverter.class)
+    @Column(name = "category_id", nullable = false)
     private String category;
     
     private String reference;
+
+    // Checked and incremented by every UPDATE, so concurrent read-modify-writes cannot overwrite each other
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    /**
+     * Amount as an exact decimal, e.g. {@code 12.50}; what JSON and the templates see
+     */
+    public BigDecimal getAmount() {
+        return amountMinor == null ? null : MinorUnits.toDecimal(amountMinor, amountScale);
+    }
+
+    /**
+     * Detached copy with the same field values, amount scale included
+     */
+    public Transaction copy() {
+        return new Transaction(id, transactionId, description, amountMinor, amountScale, type, status,
+                transactionDate, category, reference, version);
+    }
+
+    /**
+     * Set the amount from a decimal
+     *
+     * @throws IllegalArgumentException if it has more fraction digits than the currency allows, or is larger
+     *                                  than {@link MinorUnits#MAX_TRANSACTION_AMOUNT}
+     */
+    public void setAmount(BigDecimal amount) {
+        if (amount != null && amount.abs().compareTo(MinorUnits.MAX_TRANSACTION_AMOUNT) > 0) {
+            throw new IllegalArgumentException("Amount " + amount.toPlainString() + " exceeds the maximum of "
+                    + MinorUnits.MAX_TRANSACTION_AMOUNT.toPlainString());
+        }
+        this.amountMinor = amount == null ? null : MinorUnits.fromDecimal(amount, amountScale);
+    }
 }
@@ -0,0 +1,25 @@
+package com.payan.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One entry of the category dictionary: transactions store the id, the name is stored once here.
+ * Rows are only ever added, so an id keeps its name for good.
+ */
+@Entity
+@Table(name = "transaction_categories")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionCategory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false, unique = true)
+    private String name;
+}
@@ -0,0 +1,51 @@
+package com.payan.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Count and total of the transactions of one (type, status, category) in one minute, hour or day.
+ * Derived data: maintained by TransactionRollupService and recomputable from the transactions table.
+ */
+@Entity
+@Table(name = "transaction_rollups", indexes = {
+        @Index(name = "ux_transaction_rollups_bucket",
+                columnList = "granularity, bucketStart, type, status, category_id", unique = true)
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Code of a RollupGranularity
+    @Column(nullable = false)
+    private short granularity;
+
+    @Column(nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(nullable = false)
+    private TransactionType type;
+
+    @Column(nullable = false)
+    private TransactionStatus status;
+
+    // Id in transaction_categories
+    @Column(name = "category_id", nullable = false)
+    private int categoryId;
+
+    @Column(nullable = false)
+    private long rowCount;
+
+    // In minor units at MinorUnits.DEFAULT_SCALE
+    @Column(nullable = false)
+    private long totalMinor;
+}
@@ -0,0 +1,34 @@
+package com.payan.demo.entity;
+
+/**
+ * Processing state of a transaction. Stored as its {@link #code()}, so constants may be reordered or
+ * added but a code must never be reused.
+ */
+public enum TransactionStatus {
+
+    PENDING(1),
+    COMPLETED(2),
+    FAILED(3);
+
+    private final short code;
+
+    TransactionStatus(int code) {
+        this.code = (short) code;
+    }
+
+    public short code() {
+        return code;
+    }
+
+    /**
+     * @throws IllegalArgumentException if no status has this code
+     */
+    public static TransactionStatus fromCode(short code) {
+        for (TransactionStatus status : values()) {
+            if (status.code == code) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Unknown transaction status code: " + code);
+    }
+}
@@ -0,0 +1,21 @@
+package com.payan.demo.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Persists {@link TransactionStatus} as its smallint code
+ */
+@Converter(autoApply = true)
+public class TransactionStatusConverter implements AttributeConverter<TransactionStatus, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(TransactionStatus status) {
+        return status == null ? null : status.code();
+    }
+
+    @Override
+    public TransactionStatus convertToEntityAttribute(Short code) {
+        return code == null ? null : TransactionStatus.fromCode(code);
+    }
+}
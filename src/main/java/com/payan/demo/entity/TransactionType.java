@@ -0,0 +1,33 @@
+package com.payan.demo.entity;
+
+/**
+ * Direction of a transaction. Stored as its {@link #code()}, so constants may be reordered or added
+ * but a code must never be reused.
+ */
+public enum TransactionType {
+
+    DEBIT(1),
+    CREDIT(2);
+
+    private final short code;
+
+    TransactionType(int code) {
+        this.code = (short) code;
+    }
+
+    public short code() {
+        return code;
+    }
+
+    /**
+     * @throws IllegalArgumentException if no type has this code
+     */
+    public static TransactionType fromCode(short code) {
+        for (TransactionType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown transaction type code: " + code);
+    }
+}
@@ -0,0 +1,21 @@
+package com.payan.demo.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Persists {@link TransactionType} as its smallint code
+ */
+@Converter(autoApply = true)
+public class TransactionTypeConverter implements AttributeConverter<TransactionType, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(TransactionType type) {
+        return type == null ? null : type.code();
+    }
+
+    @Override
+    public TransactionType convertToEntityAttribute(Short code) {
+        return code == null ? null : TransactionType.fromCode(code);
+    }
+}
@@ -1,5 +1,6 @@
 package com.payan.demo.entity;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -19,6 +20,10 @@ public class User {
     @Column(nullable = false, unique = true)
     private String username;
     
+    /**
+     * Accepted on create and update but never written to responses
+     */
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     @Column(nullable = false)
     private String password;
     
@@ -0,0 +1,36 @@
+package com.payan.demo.repository;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Stores a transaction's category as its dictionary id. Only looks names up: a query for a category
+ * nobody has used matches nothing instead of adding it. Writes register their category beforehand,
+ * see {@link TransactionCategoryListener}.
+ */
+@Converter
+public class TransactionCategoryConverter implements AttributeConverter<String, Integer> {
+
+    /**
+     * Id no category has; compared against, it matches no row
+     */
+    static final int UNKNOWN_ID = -1;
+
+    @Autowired
+    private TransactionCategoryDictionary transactionCategoryDictionary;
+
+    @Override
+    public Integer convertToDatabaseColumn(String category) {
+        if (category == null) {
+            return null;
+        }
+        Integer id = transactionCategoryDictionary.findId(category);
+        return id == null ? UNKNOWN_ID : id;
+    }
+
+    @Override
+    public String convertToEntityAttribute(Integer id) {
+        return id == null ? null : transactionCategoryDictionary.getName(id);
+    }
+}
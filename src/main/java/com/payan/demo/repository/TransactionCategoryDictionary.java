@@ -0,0 +1,161 @@
+package com.payan.demo.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Two-way cache over the transaction_categories table, so transactions can store a category as an int
+ * while everything above the persistence layer keeps working with names. Entries are never changed or
+ * removed, so a cached entry never goes stale; a miss falls through to the table, which may have been
+ * extended by another instance.
+ *
+ * <p>New names are added by {@link #register(String)} on a connection of its own that commits right
+ * away, outside whatever transaction the caller is in: a rolled-back write must not leave an id in the
+ * cache that the table does not have. Writers therefore register a transaction's category before they
+ * open their own transaction; registering while holding a pooled connection would need a second one,
+ * and with the pool exhausted every such writer would wait on the others forever.
+ */
+@Repository
+public class TransactionCategoryDictionary {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Map<String, Integer> idsByName = new ConcurrentHashMap<>();
+
+    /**
+     * Serialises inserts of new names; a lock rather than a monitor, so a virtual thread waiting on the
+     * insert's I/O does not pin its carrier
+     */
+    private final ReentrantLock registerLock = new ReentrantLock();
+
+    /**
+     * Serialises replacing {@link #namesById}
+     */
+    private final ReentrantLock rememberLock = new ReentrantLock();
+
+    /**
+     * Names indexed by id; replaced, never modified in place, when a new id does not fit
+     */
+    private volatile String[] namesById = new String[64];
+
+    /**
+     * Id of a known category, or null if the name has never been registered
+     */
+    public Integer findId(String name) {
+        Integer id = idsByName.get(name);
+        if (id != null) {
+            return id;
+        }
+        List<Integer> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM transaction_categories WHERE name = ?", Integer.class, name);
+        if (ids.isEmpty()) {
+            return null;
+        }
+        remember(ids.get(0), name);
+        return ids.get(0);
+    }
+
+    /**
+     * Name of the category with this id
+     *
+     * @throws IllegalStateException if no category has this id
+     */
+    public String getName(int id) {
+        String[] names = namesById;
+        if (id >= 0 && id < names.length && names[id] != null) {
+            return names[id];
+        }
+        List<String> found = jdbcTemplate.queryForList(
+                "SELECT name FROM transaction_categories WHERE id = ?", String.class, id);
+        if (found.isEmpty()) {
+            throw new IllegalStateException("Unknown transaction category id: " + id);
+        }
+        remember(id, found.get(0));
+        return found.get(0);
+    }
+
+    /**
+     * Id of the category, adding it to the dictionary first if it is new
+     */
+    public int register(String name) {
+        Integer id = findId(name);
+        if (id != null) {
+            return id;
+        }
+        registerLock.lock();
+        try {
+            id = findId(name);
+            if (id == null) {
+                id = insert(name);
+                remember(id, name);
+            }
+            return id;
+        } finally {
+            registerLock.unlock();
+        }
+    }
+
+    private int insert(String name) {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO transaction_categories (name) VALUES (?)", Statement.RETURN_GENERATED_KEYS)) {
+                insert.setString(1, name);
+                insert.executeUpdate();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                    return keys.getInt(1);
+                }
+            } catch (SQLException e) {
+                // Another instance added it first
+                try (PreparedStatement select = connection.prepareStatement(
+                        "SELECT id FROM transaction_categories WHERE name = ?")) {
+                    select.setString(1, name);
+                    try (ResultSet rows = select.executeQuery()) {
+                        if (rows.next()) {
+                            return rows.getInt(1);
+                        }
+                    }
+                }
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new DataAccessResourceFailureException("Could not register transaction category " + name, e);
+        }
+    }
+
+    private void remember(int id, String name) {
+        rememberLock.lock();
+        try {
+            idsByName.put(name, id);
+            String[] names = namesById;
+            if (id >= names.length) {
+                names = Arrays.copyOf(names, Math.max(id + 1, names.length * 2));
+            } else {
+                names = names.clone();
+            }
+            names[id] = name;
+            namesById = names;
+        } finally {
+            rememberLock.unlock();
+        }
+    }
+}
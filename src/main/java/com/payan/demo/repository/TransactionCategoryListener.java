@@ -0,0 +1,26 @@
+package com.payan.demo.repository;
+
+import com.payan.demo.entity.Transaction;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Makes sure a transaction's category is in the dictionary before the row is written, so
+ * {@link TransactionCategoryConverter} can encode it. The services register categories before opening
+ * their transaction, so for them this only hits the cache; it still registers for anything that saves
+ * through the repository directly.
+ */
+public class TransactionCategoryListener {
+
+    @Autowired
+    private TransactionCategoryDictionary transactionCategoryDictionary;
+
+    @PrePersist
+    @PreUpdate
+    void registerCategory(Transaction transaction) {
+        if (transaction.getCategory() != null) {
+            transactionCategoryDictionary.register(transaction.getCategory());
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.payan.demo.repository;
+
+import com.payan.demo.entity.Transaction;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Queries that read only some columns of a transaction instead of whole entities
+ */
+public interface TransactionProjectionRepository {
+
+    /**
+     * Select the given properties of the matching rows, one map per row keyed by property name
+     * in the order given. Nothing is loaded into the persistence context.
+     *
+     * @param specification filter, or null for every row
+     * @param limit          maximum rows to return, or 0 for no limit
+     */
+    List<Map<String, Object>> findFields(List<String> fields, Specification<Transaction> specification,
+                                         Sort sort, long offset, int limit);
+}
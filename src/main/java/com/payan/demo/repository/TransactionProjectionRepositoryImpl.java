@@ -0,0 +1,81 @@
+package com.payan.demo.repository;
+
+import com.payan.demo.entity.MinorUnits;
+import com.payan.demo.entity.Transaction;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Criteria tuple queries behind {@link TransactionProjectionRepository}; the generated SELECT lists
+ * only the requested columns
+ */
+class TransactionProjectionRepositoryImpl implements TransactionProjectionRepository {
+
+    /**
+     * Field backed by two columns, minor units and scale, combined into one decimal per row
+     */
+    private static final String AMOUNT = "amount";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findFields(List<String> fields, Specification<Transaction> specification,
+                                                Sort sort, long offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Transaction> root = query.from(Transaction.class);
+
+        List<Selection<?>> selections = new ArrayList<>(fields.size() + 1);
+        for (String field : fields) {
+            if (AMOUNT.equals(field)) {
+                selections.add(root.get("amountMinor"));
+                selections.add(root.get("amountScale"));
+            } else {
+                selections.add(root.get(field));
+            }
+        }
+        query.multiselect(selections);
+        if (specification != null) {
+            query.where(specification.toPredicate(root, query, cb));
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        typedQuery.setFirstResult(Math.toIntExact(offset));
+        if (limit > 0) {
+            typedQuery.setMaxResults(limit);
+        }
+
+        List<Tuple> tuples = typedQuery.getResultList();
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>(fields.size() * 2);
+            int column = 0;
+            for (String field : fields) {
+                if (AMOUNT.equals(field)) {
+                    row.put(field, MinorUnits.toDecimal((Long) tuple.get(column), (Integer) tuple.get(column + 1)));
+                    column += 2;
+                } else {
+                    row.put(field, tuple.get(column++));
+                }
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -1,19 +1,100 @@
 package com.payan.demo.repository;
 
+import com.payan.demo.dto.TransactionAggregate;
 import com.payan.demo.entity.Transaction;
+import com.payan.demo.entity.TransactionStatus;
+import com.payan.demo.entity.TransactionType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, JpaSpecificationExecutor<Transaction>,
+        TransactionProjectionRepository {
     
     List<Transaction> findAllByOrderByTransactionDateDesc();
+
+    Optional<Transaction> findByTransactionId(String transactionId);
+
+    /**
+     * Those of the given transaction IDs that are already stored
+     */
+    @Query("SELECT t.transactionId FROM Transaction t WHERE t.transactionId IN :transactionIds")
+    List<String> findExistingTransactionIds(@Param("transactionIds") Collection<String> transactionIds);
     
-    List<Transaction> findByStatus(String status);
+    List<Transaction> findByStatus(TransactionStatus status);
     
-    List<Transaction> findByType(String type);
+    List<Transaction> findByType(TransactionType type);
     
     List<Transaction> findByCategory(String category);
+
+    /**
+     * First keyset page, newest first. Only the page size of {@code pageable} is used.
+     */
+    @Query("SELECT t FROM Transaction t ORDER BY t.transactionDate DESC, t.id DESC")
+    List<Transaction> findFirstPage(Pageable pageable);
+
+    /**
+     * Keyset page of the rows strictly after the cursor (transactionDate, id), newest first.
+     * Only the page size of {@code pageable} is used, so no OFFSET is ever generated.
+     * The leading {@code <=} bound lets the (transactionDate, id) index seek straight to the cursor.
+     */
+    @Query("SELECT t FROM Transaction t " +
+            "WHERE t.transactionDate <= :transactionDate " +
+            "AND (t.transactionDate < :transactionDate OR t.id < :id) " +
+            "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<Transaction> findPageAfter(@Param("transactionDate") LocalDateTime transactionDate,
+                                    @Param("id") Long id,
+                                    Pageable pageable);
+
+    /**
+     * Stream every transaction, newest first, for exports. Must be consumed inside a
+     * transaction and closed afterwards; rows are read from the JDBC cursor in fetch-size batches.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT t FROM Transaction t ORDER BY t.transactionDate DESC, t.id DESC")
+    Stream<Transaction> streamAllForExport();
+
+    /**
+     * Count and sum of minor units per (type, status, category, day), used to seed the in-memory summary.
+     * Grouped by scale as well, since minor units of different scales cannot be added.
+     */
+    @Query("SELECT new com.payan.demo.dto.TransactionAggregate(" +
+            "t.type, t.status, t.category, cast(t.transactionDate as LocalDate), count(t), sum(t.amountMinor), t.amountScale) " +
+            "FROM Transaction t " +
+            "GROUP BY t.type, t.status, t.category, cast(t.transactionDate as LocalDate), t.amountScale")
+    List<TransactionAggregate> aggregateByTypeStatusCategoryAndDay();
+
+    /**
+     * Set the status of the given rows in one statement, but only of those still in one of
+     * {@code fromStatuses}; the WHERE clause is what keeps a transition legal under concurrent changes.
+     * Each changed row's version is bumped so stale optimistic writers fail instead of undoing the move.
+     *
+     * @return the number of rows changed
+     */
+    @Modifying
+    @Query("UPDATE Transaction t SET t.status = :toStatus, t.version = t.version + 1 WHERE t.id IN :ids AND t.status IN :fromStatuses")
+    int updateStatus(@Param("ids") Collection<Long> ids,
+                     @Param("fromStatuses") Collection<TransactionStatus> fromStatuses,
+                     @Param("toStatus") TransactionStatus toStatus);
 }
@@ -0,0 +1,162 @@
+package com.payan.demo.repository;
+
+import com.payan.demo.dto.TransactionStatsPoint;
+import com.payan.demo.entity.MinorUnits;
+import com.payan.demo.entity.RollupGranularity;
+import com.payan.demo.entity.TransactionStatus;
+import com.payan.demo.entity.TransactionType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes the transaction_rollups table with plain SQL: rollups are updated by adding deltas to
+ * existing rows, which JPA cannot express without loading them first.
+ */
+@Repository
+public class TransactionRollupRepository {
+
+    /**
+     * Adds a delta to its bucket, creating the bucket if it does not exist yet
+     */
+    private static final String MERGE_SQL = """
+            MERGE INTO transaction_rollups r
+            USING (SELECT CAST(? AS SMALLINT) granularity, CAST(? AS TIMESTAMP) bucket_start,
+                          CAST(? AS SMALLINT) type, CAST(? AS SMALLINT) status, CAST(? AS INTEGER) category_id,
+                          CAST(? AS BIGINT) row_count, CAST(? AS BIGINT) total_minor) d
+            ON r.granularity = d.granularity AND r.bucket_start = d.bucket_start AND r.type = d.type
+               AND r.status = d.status AND r.category_id = d.category_id
+            WHEN MATCHED THEN UPDATE SET row_count = r.row_count + d.row_count,
+                                         total_minor = r.total_minor + d.total_minor
+            WHEN NOT MATCHED THEN INSERT (granularity, bucket_start, type, status, category_id, row_count, total_minor)
+                 VALUES (d.granularity, d.bucket_start, d.type, d.status, d.category_id, d.row_count, d.total_minor)
+            """;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO transaction_rollups (granularity, bucket_start, type, status, category_id, row_count, total_minor)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    /**
+     * Count and total of one bucket, or the change to apply to it
+     */
+    public record Row(RollupGranularity granularity, LocalDateTime bucketStart, TransactionType type,
+                      TransactionStatus status, int categoryId, long count, long totalMinor) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Add each row's count and total to its bucket, in one transaction
+     */
+    @Transactional
+    public void merge(List<Row> deltas) {
+        jdbcTemplate.batchUpdate(MERGE_SQL, deltas.stream().map(TransactionRollupRepository::parameters).toList());
+    }
+
+    /**
+     * Replace every bucket of this granularity starting at or after {@code since} (all of them if null)
+     * with the given rows, in one transaction
+     */
+    @Transactional
+    public void replaceFrom(RollupGranularity granularity, LocalDateTime since, List<Row> rows) {
+        if (since == null) {
+            jdbcTemplate.update("DELETE FROM transaction_rollups WHERE granularity = ?", granularity.code());
+        } else {
+            jdbcTemplate.update("DELETE FROM transaction_rollups WHERE granularity = ? AND bucket_start >= ?",
+                    granularity.code(), since);
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows.stream().map(TransactionRollupRepository::parameters).toList());
+    }
+
+    /**
+     * Drop the buckets of this granularity that start before {@code cutoff}
+     */
+    public int deleteBefore(RollupGranularity granularity, LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM transaction_rollups WHERE granularity = ? AND bucket_start < ?",
+                granularity.code(), cutoff);
+    }
+
+    /**
+     * Drop buckets whose transactions have all been deleted or moved elsewhere
+     */
+    public int deleteEmpty() {
+        return jdbcTemplate.update("DELETE FROM transaction_rollups WHERE row_count = 0 AND total_minor = 0");
+    }
+
+    /**
+     * Buckets of this granularity computed from the transactions table, for transactions dated at or after
+     * {@code since} (all of them if null). Totals are at {@link MinorUnits#DEFAULT_SCALE}.
+     */
+    public List<Row> aggregateTransactions(RollupGranularity granularity, LocalDateTime since) {
+        // The unit is an enum constant, never user input
+        String bucketStart = "DATE_TRUNC('" + granularity.name() + "', transaction_date)";
+        String sql = "SELECT " + bucketStart + ", type, status, category_id, amount_scale, COUNT(*), SUM(amount_minor)"
+                + " FROM transactions"
+                + (since == null ? "" : " WHERE transaction_date >= ?")
+                + " GROUP BY " + bucketStart + ", type, status, category_id, amount_scale";
+        Object[] parameters = since == null ? new Object[0] : new Object[]{since};
+        // Rows of the same bucket with different scales are combined once rescaled
+        Map<List<Object>, long[]> buckets = new LinkedHashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            List<Object> key = List.of(rs.getObject(1, LocalDateTime.class), rs.getShort(2), rs.getShort(3), rs.getInt(4));
+            long total = MinorUnits.rescale(rs.getLong(7), rs.getInt(5), MinorUnits.DEFAULT_SCALE);
+            long[] bucket = buckets.computeIfAbsent(key, k -> new long[2]);
+            bucket[0] += rs.getLong(6);
+            bucket[1] += total;
+        }, parameters);
+        List<Row> rows = new ArrayList<>(buckets.size());
+        buckets.forEach((key, bucket) -> rows.add(new Row(granularity, (LocalDateTime) key.get(0),
+                TransactionType.fromCode((Short) key.get(1)), TransactionStatus.fromCode((Short) key.get(2)),
+                (Integer) key.get(3), bucket[0], bucket[1])));
+        return rows;
+    }
+
+    /**
+     * Count and total per bucket in [from, to), oldest first, summed over the (type, status, category)
+     * combinations the filters let through; a null filter lets everything through. Empty buckets are skipped.
+     */
+    public List<TransactionStatsPoint> findSeries(RollupGranularity granularity, LocalDateTime from, LocalDateTime to,
+                                                  TransactionType type, TransactionStatus status, Integer categoryId) {
+        List<Object> parameters = new ArrayList<>(List.of(granularity.code(), from, to));
+        if (type != null) {
+            parameters.add(type.code());
+        }
+        if (status != null) {
+            parameters.add(status.code());
+        }
+        if (categoryId != null) {
+            parameters.add(categoryId);
+        }
+        String sql = seriesSql(type != null, status != null, categoryId != null);
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new TransactionStatsPoint(
+                rs.getObject(1, LocalDateTime.class),
+                rs.getLong(2),
+                MinorUnits.toDecimal(rs.getLong(3), MinorUnits.DEFAULT_SCALE)), parameters.toArray());
+    }
+
+    /**
+     * SQL behind {@link #findSeries}: parameters are granularity, from, to, then each filter that is used
+     */
+    public static String seriesSql(boolean byType, boolean byStatus, boolean byCategory) {
+        return "SELECT bucket_start, SUM(row_count), SUM(total_minor) FROM transaction_rollups"
+                + " WHERE granularity = ? AND bucket_start >= ? AND bucket_start < ?"
+                + (byType ? " AND type = ?" : "")
+                + (byStatus ? " AND status = ?" : "")
+                + (byCategory ? " AND category_id = ?" : "")
+                + " GROUP BY bucket_start HAVING SUM(row_count) > 0 ORDER BY bucket_start";
+    }
+
+    private static Object[] parameters(Row row) {
+        return new Object[]{row.granularity().code(), row.bucketStart(), row.type().code(), row.status().code(),
+                row.categoryId(), row.count(), row.totalMinor()};
+    }
+}
@@ -0,0 +1,121 @@
+package com.payan.demo.repository;
+
+import com.payan.demo.dto.TransactionCursor;
+import com.payan.demo.dto.TransactionSearchCriteria;
+import com.payan.demo.entity.MinorUnits;
+import com.payan.demo.entity.Transaction;
+import com.payan.demo.entity.TransactionStatus;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Builds JPA Specifications for {@link TransactionRepository}
+ */
+public final class TransactionSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private TransactionSpecifications() {
+    }
+
+    /**
+     * Compile the non-null criteria into one conjunction, evaluated as a single SQL WHERE clause.
+     * Only sargable predicates are used (equality, ranges, prefix LIKE) so indexes stay usable.
+     *
+     * @throws IllegalArgumentException if an amount bound is too large to be a number of minor units
+     */
+    public static Specification<Transaction> matching(TransactionSearchCriteria criteria) {
+        // Bounds finer than a cent are rounded inwards, which keeps both ends inclusive
+        Long minAmount = criteria.getMinAmount() == null ? null
+                : MinorUnits.fromDecimal(criteria.getMinAmount(), MinorUnits.DEFAULT_SCALE, RoundingMode.CEILING);
+        Long maxAmount = criteria.getMaxAmount() == null ? null
+                : MinorUnits.fromDecimal(criteria.getMaxAmount(), MinorUnits.DEFAULT_SCALE, RoundingMode.FLOOR);
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (criteria.getStatus() != null) {
+                predicates.add(cb.equal(root.get("status"), criteria.getStatus()));
+            }
+            if (criteria.getType() != null) {
+                predicates.add(cb.equal(root.get("type"), criteria.getType()));
+            }
+            if (hasText(criteria.getCategory())) {
+                predicates.add(cb.equal(root.get("category"), criteria.getCategory()));
+            }
+            if (minAmount != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("amountMinor"), minAmount));
+            }
+            if (maxAmount != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("amountMinor"), maxAmount));
+            }
+            if (criteria.getFromDate() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("transactionDate"), criteria.getFromDate()));
+            }
+            if (criteria.getToDate() != null) {
+                predicates.add(cb.lessThan(root.get("transactionDate"), criteria.getToDate()));
+            }
+            if (hasText(criteria.getReferencePrefix())) {
+                predicates.add(cb.like(root.get("reference"),
+                        escapeLike(criteria.getReferencePrefix()) + "%", LIKE_ESCAPE));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Rows strictly after the cursor in (transactionDate DESC, id DESC) order; the same predicate as
+     * {@link TransactionRepository#findPageAfter}
+     */
+    public static Specification<Transaction> after(TransactionCursor cursor) {
+        return (root, query, cb) -> cb.and(
+                cb.lessThanOrEqualTo(root.get("transactionDate"), cursor.transactionDate()),
+                cb.or(cb.lessThan(root.get("transactionDate"), cursor.transactionDate()),
+                        cb.lessThan(root.get("id"), cursor.id())));
+    }
+
+    /**
+     * Rows whose status is one of the given values
+     */
+    public static Specification<Transaction> statusIn(Collection<TransactionStatus> statuses) {
+        return (root, query, cb) -> root.get("status").in(statuses);
+    }
+
+    /**
+     * Rows with one of the given ids
+     */
+    public static Specification<Transaction> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    /**
+     * Rows with an id greater than the given one, for walking a table in id order
+     */
+    public static Specification<Transaction> idAfter(long id) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), id);
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isEmpty();
+    }
+
+    /**
+     * Escape LIKE wildcards so a user-supplied prefix is matched literally
+     */
+    static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 4);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
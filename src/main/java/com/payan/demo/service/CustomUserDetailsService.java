@@ -17,8 +17,15 @@ public class CustomUserDetailsService implements UserDetailsService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        return userDetailsCache.get(username, this::loadFromRepository);
+    }
+
+    private UserDetails loadFromRepository(String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
 
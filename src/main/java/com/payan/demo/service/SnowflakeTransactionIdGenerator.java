@@ -0,0 +1,77 @@
+package com.payan.demo.service;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free, time-ordered transaction IDs in the Snowflake layout: 41 bits of milliseconds since
+ * 2024-01-01, 10 bits of node id and a 12 bit per-millisecond sequence. The 63-bit value is written as
+ * 13 Crockford base32 characters, so IDs sort as strings in creation order and new rows land at the
+ * right-hand end of the transactionId index.
+ * <p>
+ * IDs are strictly increasing per node. When more than 4096 IDs are asked for in one millisecond,
+ * or the wall clock steps back, the generator keeps counting from its last value instead of waiting.
+ */
+public class SnowflakeTransactionIdGenerator implements TransactionIdGenerator {
+
+    static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+
+    private static final String PREFIX = "TXN-";
+    private static final int ENCODED_LENGTH = 13;
+    private static final char[] CROCKFORD_BASE32 = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private final long nodeId;
+    private final LongSupplier clock;
+
+    // (milliseconds since EPOCH_MILLIS << SEQUENCE_BITS) | sequence of the last issued ID
+    private final AtomicLong lastState = new AtomicLong();
+
+    public SnowflakeTransactionIdGenerator(long nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    SnowflakeTransactionIdGenerator(long nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+
+    @Override
+    public String nextId() {
+        return encode(nextValue());
+    }
+
+    /**
+     * Next raw 63-bit ID
+     */
+    long nextValue() {
+        long now = (clock.getAsLong() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long previous;
+        long next;
+        do {
+            previous = lastState.get();
+            // A sequence overflow carries into the millisecond bits, which keeps IDs increasing
+            next = now > previous ? now : previous + 1;
+        } while (!lastState.compareAndSet(previous, next));
+
+        long millis = next >>> SEQUENCE_BITS;
+        long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+        return (millis << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+    }
+
+    static String encode(long value) {
+        char[] chars = new char[PREFIX.length() + ENCODED_LENGTH];
+        PREFIX.getChars(0, PREFIX.length(), chars, 0);
+        for (int i = chars.length - 1; i >= PREFIX.length(); i--) {
+            chars[i] = CROCKFORD_BASE32[(int) (value & 31)];
+            value >>>= 5;
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,51 @@
+package com.payan.demo.service;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Write counter for one table, used as a validator for conditional GETs. Writers call {@link #bump()}
+ * after their change is committed; readers take {@link #current()} before querying, so a response is
+ * never labelled with a version newer than its data.
+ *
+ * <p>ETags start with a per-instance prefix, so tags handed out before a restart never match.
+ */
+public class TableVersion {
+
+    private final String prefix;
+    private final LongSupplier clock;
+    private final AtomicReference<Stamp> current;
+
+    public TableVersion(String table) {
+        this(table, System::currentTimeMillis);
+    }
+
+    TableVersion(String table, LongSupplier clock) {
+        this.clock = clock;
+        long now = clock.getAsLong();
+        this.prefix = table + "-" + Long.toString(now, 36) + "-";
+        this.current = new AtomicReference<>(stamp(0, now));
+    }
+
+    /**
+     * Record a committed write
+     */
+    public void bump() {
+        long now = clock.getAsLong();
+        current.updateAndGet(previous -> stamp(previous.version() + 1, now));
+    }
+
+    /**
+     * Version, strong ETag and last-modified time (epoch millis) as of now
+     */
+    public Stamp current() {
+        return current.get();
+    }
+
+    private Stamp stamp(long version, long lastModified) {
+        return new Stamp(version, "\"" + prefix + version + "\"", lastModified);
+    }
+
+    public record Stamp(long version, String etag, long lastModified) {
+    }
+}
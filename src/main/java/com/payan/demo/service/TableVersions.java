@@ -0,0 +1,42 @@
+package com.payan.demo.service;
+
+import com.payan.demo.entity.Transaction;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Version counters for the tables behind cacheable listings. The transactions counter is bumped once
+ * per reported change, so a batch counts as one write.
+ */
+@Component
+@Order(5)
+public class TableVersions implements TransactionChangeListener {
+
+    private final TableVersion transactions = new TableVersion("transactions");
+    private final TableVersion users = new TableVersion("users");
+
+    public TableVersion transactions() {
+        return transactions;
+    }
+
+    public TableVersion users() {
+        return users;
+    }
+
+    @Override
+    public void onCreated(List<Transaction> created) {
+        transactions.bump();
+    }
+
+    @Override
+    public void onUpdated(List<Transaction> before, List<Transaction> after) {
+        transactions.bump();
+    }
+
+    @Override
+    public void onDeleted(List<Transaction> deleted) {
+        transactions.bump();
+    }
+}
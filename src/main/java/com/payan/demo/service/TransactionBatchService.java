@@ -0,0 +1,216 @@
+package com.payan.demo.service;
+
+import com.payan.demo.dto.BatchIngestResult;
+import com.payan.demo.dto.BatchItemResult;
+import com.payan.demo.entity.MinorUnits;
+import com.payan.demo.entity.Transaction;
+import com.payan.demo.repository.TransactionCategoryDictionary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Bulk ingest of transactions. Valid items are inserted in chunks, one database transaction per chunk,
+ * so Hibernate can send each chunk as JDBC batches. A chunk that fails is retried row by row to find
+ * the offending items without losing the rest.
+ */
+@Service
+public class TransactionBatchService {
+
+    @Autowired
+    private TransactionIdGenerator transactionIdGenerator;
+
+    @Autowired
+    private TransactionChangeNotifier transactionChangeNotifier;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TransactionCategoryDictionary transactionCategoryDictionary;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${payan.transactions.batch.chunk-size:500}")
+    private int chunkSize = 500;
+
+    @Value("${payan.transactions.batch.max-items:10000}")
+    private int maxItems = 10000;
+
+    /**
+     * Validate and insert the given transactions, returning one result per item in request order
+     */
+    public BatchIngestResult ingest(List<Transaction> transactions) {
+        return ingest(transactions, false);
+    }
+
+    /**
+     * Like {@link #ingest(List)}, but with {@code throwOnOutage} a database outage (no connection, no
+     * transaction, a transient failure) is thrown rather than reported as failed items, so the caller can
+     * retry. Chunks committed before the outage stay committed, with their ids set.
+     */
+    public BatchIngestResult ingest(List<Transaction> transactions, boolean throwOnOutage) {
+        if (transactions == null || transactions.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one transaction");
+        }
+        if (transactions.size() > maxItems) {
+            throw new IllegalArgumentException("Batch size " + transactions.size() + " exceeds maximum of " + maxItems);
+        }
+
+        BatchItemResult[] results = new BatchItemResult[transactions.size()];
+        Set<String> seenTransactionIds = new HashSet<>();
+        List<Integer> chunk = new ArrayList<>(chunkSize);
+        for (int index = 0; index < transactions.size(); index++) {
+            Transaction transaction = transactions.get(index);
+            String error = validate(transaction);
+            if (error == null) {
+                applyDefaults(transaction);
+                if (!seenTransactionIds.add(transaction.getTransactionId())) {
+                    error = "Duplicate transactionId in batch: " + transaction.getTransactionId();
+                }
+            }
+            if (error != null) {
+                results[index] = BatchItemResult.rejected(index,
+                        transaction == null ? null : transaction.getTransactionId(), error);
+                continue;
+            }
+            chunk.add(index);
+            if (chunk.size() == chunkSize) {
+                insertChunk(transactions, chunk, results, throwOnOutage);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            insertChunk(transactions, chunk, results, throwOnOutage);
+        }
+        return BatchIngestResult.of(Arrays.asList(results));
+    }
+
+    private void insertChunk(List<Transaction> transactions, List<Integer> indexes, BatchItemResult[] results,
+                             boolean throwOnOutage) {
+        List<Transaction> chunk = indexes.stream().map(transactions::get).toList();
+        try {
+            insert(chunk);
+            for (int i = 0; i < chunk.size(); i++) {
+                Transaction saved = chunk.get(i);
+                results[indexes.get(i)] = BatchItemResult.created(indexes.get(i), saved.getId(), saved.getTransactionId());
+            }
+        } catch (RuntimeException chunkFailure) {
+            if (throwOnOutage && isOutage(chunkFailure)) {
+                throw chunkFailure;
+            }
+            // Find the offending rows; everything else in the chunk still goes in
+            for (int i = 0; i < chunk.size(); i++) {
+                Transaction transaction = chunk.get(i);
+                int index = indexes.get(i);
+                try {
+                    insert(List.of(transaction));
+                    results[index] = BatchItemResult.created(index, transaction.getId(), transaction.getTransactionId());
+                } catch (RuntimeException e) {
+                    if (throwOnOutage && isOutage(e)) {
+                        throw e;
+                    }
+                    results[index] = BatchItemResult.failed(index, transaction.getTransactionId(),
+                            NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                }
+            }
+        }
+    }
+
+    private void insert(List<Transaction> chunk) {
+        // New categories go in first, so the chunk's transaction never waits for a second connection
+        for (Transaction transaction : chunk) {
+            if (transaction.getCategory() != null) {
+                transactionCategoryDictionary.register(transaction.getCategory());
+            }
+        }
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                for (Transaction transaction : chunk) {
+                    entityManager.persist(transaction);
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+        } catch (RuntimeException e) {
+            chunk.forEach(transaction -> transaction.setId(null));
+            throw e;
+        }
+        transactionChangeNotifier.created(chunk);
+    }
+
+    /**
+     * Fill in what a client may leave out: transaction ID, date and version
+     */
+    void applyDefaults(Transaction transaction) {
+        transaction.setVersion(null);
+        if (transaction.getTransactionId() == null || transaction.getTransactionId().isEmpty()) {
+            transaction.setTransactionId(transactionIdGenerator.nextId());
+        }
+        if (transaction.getTransactionDate() == null) {
+            transaction.setTransactionDate(LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Why the transaction cannot be inserted, or null if it is valid
+     */
+    String validate(Transaction transaction) {
+        if (transaction == null) {
+            return "Transaction must not be null";
+        }
+        if (transaction.getId() != null) {
+            return "id must not be set";
+        }
+        if (isBlank(transaction.getDescription())) {
+            return "description is required";
+        }
+        if (transaction.getAmount() == null || transaction.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+            return "amount must be positive";
+        }
+        if (transaction.getAmount().compareTo(MinorUnits.MAX_TRANSACTION_AMOUNT) > 0) {
+            return "amount must not exceed " + MinorUnits.MAX_TRANSACTION_AMOUNT.toPlainString();
+        }
+        // Unknown names are already rejected when the request body is read
+        if (transaction.getType() == null) {
+            return "type must be DEBIT or CREDIT";
+        }
+        if (transaction.getStatus() == null) {
+            return "status must be PENDING, COMPLETED or FAILED";
+        }
+        if (isBlank(transaction.getCategory())) {
+            return "category is required";
+        }
+        return null;
+    }
+
+    /**
+     * Whether a failure says nothing about the rows, only that the database could not be used
+     */
+    private static boolean isOutage(RuntimeException e) {
+        return e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException
+                || e instanceof TransientDataAccessException;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
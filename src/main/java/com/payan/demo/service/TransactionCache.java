@@ -0,0 +1,136 @@
+package com.payan.demo.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.payan.demo.dto.CacheStatistics;
+import com.payan.demo.entity.Transaction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bounded read-through cache in front of the TransactionService lookups.
+ * <p>
+ * Single rows are cached by id and filtered listings by (field, value). Both caches evict by
+ * size and by time since write. Every write invalidates precisely, through
+ * {@link TransactionChangeListener}: the row's id plus the status/type/category listings of both its old and new values.
+ * <p>
+ * Entries are detached copies, and every read hands out fresh copies of them: callers may modify
+ * what they get without changing what the next caller sees.
+ */
+@Component
+@Order(4)
+public class TransactionCache implements TransactionChangeListener {
+
+    private final Cache<Long, Transaction> transactionsById;
+    private final Cache<FilterKey, List<Transaction>> transactionLists;
+
+    public TransactionCache(
+            @Value("${payan.cache.transactions.maximum-size:10000}") long maximumTransactions,
+            @Value("${payan.cache.transactions.expire-after-write:10m}") Duration transactionTtl,
+            @Value("${payan.cache.transaction-lists.maximum-rows:100000}") long maximumListRows,
+            @Value("${payan.cache.transaction-lists.expire-after-write:1m}") Duration listTtl) {
+        this.transactionsById = Caffeine.newBuilder()
+                .maximumSize(maximumTransactions)
+                .expireAfterWrite(transactionTtl)
+                .recordStats()
+                .build();
+        // Lists are weighed by row count so a few huge listings cannot crowd out the heap
+        this.transactionLists = Caffeine.newBuilder()
+                .maximumWeight(maximumListRows)
+                .<FilterKey, List<Transaction>>weigher((key, rows) -> Math.max(1, rows.size()))
+                .expireAfterWrite(listTtl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Get a transaction by id, loading and caching it on a miss. Absent rows are not cached.
+     */
+    public Optional<Transaction> getTransaction(Long id, Function<Long, Optional<Transaction>> loader) {
+        return Optional.ofNullable(transactionsById.get(id, key -> loader.apply(key).map(Transaction::copy).orElse(null)))
+                .map(Transaction::copy);
+    }
+
+    /**
+     * Get the transactions whose {@code field} equals {@code value}, loading and caching them on a miss
+     */
+    public List<Transaction> getTransactions(String field, Object value, Supplier<List<Transaction>> loader) {
+        List<Transaction> cached = transactionLists.get(new FilterKey(field, value),
+                key -> loader.get().stream().map(Transaction::copy).toList());
+        return cached.stream().map(Transaction::copy).toList();
+    }
+
+    @Override
+    public void onCreated(List<Transaction> created) {
+        invalidate(created.toArray(Transaction[]::new));
+    }
+
+    @Override
+    public void onUpdated(List<Transaction> before, List<Transaction> after) {
+        invalidate(before.toArray(Transaction[]::new));
+        invalidate(after.toArray(Transaction[]::new));
+    }
+
+    @Override
+    public void onDeleted(List<Transaction> deleted) {
+        invalidate(deleted.toArray(Transaction[]::new));
+    }
+
+    /**
+     * Drop every entry that may contain any of the given versions of a row (e.g. before and after an update)
+     */
+    public void invalidate(Transaction... versions) {
+        for (Transaction version : versions) {
+            if (version == null) {
+                continue;
+            }
+            if (version.getId() != null) {
+                transactionsById.invalidate(version.getId());
+            }
+            invalidateList("status", version.getStatus());
+            invalidateList("type", version.getType());
+            invalidateList("category", version.getCategory());
+        }
+    }
+
+    /**
+     * Drop everything
+     */
+    public void invalidateAll() {
+        transactionsById.invalidateAll();
+        transactionLists.invalidateAll();
+    }
+
+    /**
+     * Hit, miss and eviction counters per cache
+     */
+    public Map<String, CacheStatistics> getStatistics() {
+        Map<String, CacheStatistics> statistics = new LinkedHashMap<>();
+        statistics.put("transactionsById", toStatistics(transactionsById.stats(), transactionsById.estimatedSize()));
+        statistics.put("transactionLists", toStatistics(transactionLists.stats(), transactionLists.estimatedSize()));
+        return statistics;
+    }
+
+    private void invalidateList(String field, Object value) {
+        if (value != null) {
+            transactionLists.invalidate(new FilterKey(field, value));
+        }
+    }
+
+    private static CacheStatistics toStatistics(CacheStats stats, long size) {
+        return new CacheStatistics(stats.hitCount(), stats.missCount(), stats.evictionCount(), stats.hitRate(), size);
+    }
+
+    private record FilterKey(String field, Object value) {
+    }
+}
@@ -0,0 +1,36 @@
+package com.payan.demo.service;
+
+import com.payan.demo.entity.Transaction;
+
+import java.util.List;
+
+/**
+ * Something kept in step with the transactions table: a running total, a copy, a cache or a feed.
+ * {@link TransactionChangeNotifier} calls every listener after each committed write, in {@code @Order};
+ * the aggregates come first, then the cache and table version, and the live feed last, so a client
+ * told about a change can already read it everywhere. A batch is reported as one call.
+ */
+public interface TransactionChangeListener {
+
+    /**
+     * Rows just inserted
+     */
+    void onCreated(List<Transaction> created);
+
+    /**
+     * Rows just changed in place; {@code before.get(i)} became {@code after.get(i)}
+     */
+    void onUpdated(List<Transaction> before, List<Transaction> after);
+
+    /**
+     * Rows whose status alone was just changed; handled like any other update unless overridden
+     */
+    default void onStatusChanged(List<Transaction> before, List<Transaction> after) {
+        onUpdated(before, after);
+    }
+
+    /**
+     * Rows just deleted, as they were before
+     */
+    void onDeleted(List<Transaction> deleted);
+}
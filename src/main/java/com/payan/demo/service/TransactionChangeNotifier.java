@@ -0,0 +1,66 @@
+package com.payan.demo.service;
+
+import com.payan.demo.entity.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reports each write to the transactions table to every {@link TransactionChangeListener}. The services
+ * that write transactions call this once the change is committed, instead of updating each subsystem
+ * themselves.
+ * <p>
+ * A listener that throws is logged and skipped: the write is already committed, so its failure must
+ * neither fail the request nor keep the listeners after it, such as the cache and table version, from
+ * hearing about the change.
+ */
+@Component
+public class TransactionChangeNotifier {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionChangeNotifier.class);
+
+    private final List<TransactionChangeListener> listeners;
+
+    public TransactionChangeNotifier(List<TransactionChangeListener> listeners) {
+        this.listeners = List.copyOf(listeners);
+    }
+
+    public void created(Transaction created) {
+        created(List.of(created));
+    }
+
+    public void created(List<Transaction> created) {
+        notify("creation", created, listener -> listener.onCreated(created));
+    }
+
+    public void updated(Transaction before, Transaction after) {
+        notify("update", List.of(after), listener -> listener.onUpdated(List.of(before), List.of(after)));
+    }
+
+    public void statusChanged(Transaction before, Transaction after) {
+        statusChanged(List.of(before), List.of(after));
+    }
+
+    public void statusChanged(List<Transaction> before, List<Transaction> after) {
+        notify("status change", after, listener -> listener.onStatusChanged(before, after));
+    }
+
+    public void deleted(Transaction deleted) {
+        notify("deletion", List.of(deleted), listener -> listener.onDeleted(List.of(deleted)));
+    }
+
+    private void notify(String change, List<Transaction> transactions, Consumer<TransactionChangeListener> call) {
+        for (TransactionChangeListener listener : listeners) {
+            try {
+                call.accept(listener);
+            } catch (RuntimeException e) {
+                log.error("{} failed to apply the {} of {} transactions (first id {})",
+                        listener.getClass().getSimpleName(), change, transactions.size(),
+                        transactions.isEmpty() ? null : transactions.get(0).getId(), e);
+            }
+        }
+    }
+}
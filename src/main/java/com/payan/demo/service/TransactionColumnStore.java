@@ -0,0 +1,527 @@
+package com.payan.demo.service;
+
+import com.payan.demo.dto.TransactionAnalyticsGroup;
+import com.payan.demo.entity.MinorUnits;
+import com.payan.demo.entity.Transaction;
+import com.payan.demo.entity.TransactionStatus;
+import com.payan.demo.entity.TransactionType;
+import com.payan.demo.repository.TransactionCategoryDictionary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Column-oriented copy of the transactions table for reporting. Each column is a primitive array indexed
+ * by row: amount in minor units, date in epoch seconds, and type, status and category as their codes, so
+ * an aggregate is one sequential pass over a few arrays, with no entities, boxing or database round trip.
+ * Loaded at startup with a plain JDBC scan, then kept current through {@link TransactionChangeListener}.
+ *
+ * <p>Rows are keyed by id, so applying the same write twice is harmless. Notifications may arrive out of
+ * order, so each row keeps the version it was stored at and an older version never overwrites a newer one,
+ * and deleted ids are remembered until the next rebuild so a late update cannot bring a row back. A deleted
+ * row is replaced by the last one, which keeps the columns dense but means rows are in no particular order.
+ */
+@Service
+@Order(3)
+public class TransactionColumnStore implements TransactionChangeListener {
+
+    /**
+     * What an analytics query groups by
+     */
+    public enum Dimension {
+        NONE, TYPE, STATUS, CATEGORY, DAY
+    }
+
+    private static final String LOAD_SQL =
+            "SELECT id, version, amount_minor, amount_scale, transaction_date, type, status, category_id FROM transactions";
+
+    /**
+     * Scale all amounts are kept at
+     */
+    private static final int SCALE = MinorUnits.DEFAULT_SCALE;
+
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    /**
+     * Widest day range grouped with one array slot per day; wider ranges, which only a few far-off dates
+     * produce, are grouped by the days that actually occur
+     */
+    static final int MAX_DENSE_DAYS = 4096;
+    private static final int TYPE_GROUPS = Arrays.stream(TransactionType.values())
+            .mapToInt(TransactionType::code).max().orElse(0) + 1;
+    private static final int STATUS_GROUPS = Arrays.stream(TransactionStatus.values())
+            .mapToInt(TransactionStatus::code).max().orElse(0) + 1;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionCategoryDictionary transactionCategoryDictionary;
+
+    @Value("${payan.analytics.rebuild-async:false}")
+    private boolean rebuildAsync;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final IdIndex rowsById = new IdIndex();
+
+    /**
+     * Ids deleted since the last rebuild; ids are never reused, and the rebuild's scan no longer sees them
+     */
+    private final IdIndex deletedIds = new IdIndex();
+
+    private int size;
+    private long[] ids = new long[1024];
+    private long[] versions = new long[1024];
+    private long[] amounts = new long[1024];
+    private long[] epochSeconds = new long[1024];
+    private byte[] types = new byte[1024];
+    private byte[] statuses = new byte[1024];
+    private int[] categories = new int[1024];
+
+    /**
+     * Bounds over every row ever stored; only widened, so a day-grouped query usually needs no first pass
+     */
+    private int maxCategoryId;
+    private long minEpochDay = Long.MAX_VALUE;
+    private long maxEpochDay = Long.MIN_VALUE;
+
+    /**
+     * Number of rows held
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Load the table at startup. With rebuild-async the scan runs on its own thread, so the application
+     * reports ready at once; queries and writes wait on the lock until it finishes.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (!rebuildAsync) {
+            rebuild();
+            return;
+        }
+        CountDownLatch locked = new CountDownLatch(1);
+        Thread.ofPlatform().name("column-store-rebuild").daemon().start(() -> {
+            lock.writeLock().lock();
+            try {
+                locked.countDown();
+                rebuild();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+        // Return only once the rebuild holds the lock, so no query can see the empty columns
+        try {
+            locked.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Reload all rows from the database
+     */
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            size = 0;
+            rowsById.clear();
+            deletedIds.clear();
+            maxCategoryId = 0;
+            minEpochDay = Long.MAX_VALUE;
+            maxEpochDay = Long.MIN_VALUE;
+            jdbcTemplate.query(LOAD_SQL, (RowCallbackHandler) rs -> put(
+                    rs.getLong(1),
+                    rs.getLong(2),
+                    MinorUnits.rescale(rs.getLong(3), rs.getInt(4), SCALE),
+                    epochSecond(rs.getObject(5, LocalDateTime.class)),
+                    rs.getByte(6),
+                    rs.getByte(7),
+                    rs.getInt(8)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onCreated(List<Transaction> created) {
+        created.forEach(this::onSaved);
+    }
+
+    @Override
+    public void onUpdated(List<Transaction> before, List<Transaction> after) {
+        after.forEach(this::onSaved);
+    }
+
+    @Override
+    public void onDeleted(List<Transaction> deleted) {
+        deleted.forEach(this::onDeleted);
+    }
+
+    /**
+     * Add a created transaction, or replace the row of an updated one unless the row already holds a
+     * later version or the transaction has been deleted
+     */
+    public void onSaved(Transaction transaction) {
+        if (transaction.getId() == null) {
+            return;
+        }
+        long amount = MinorUnits.rescale(transaction.getAmountMinor(), transaction.getAmountScale(), SCALE);
+        Integer categoryId = transactionCategoryDictionary.findId(transaction.getCategory());
+        lock.writeLock().lock();
+        try {
+            put(transaction.getId(), transaction.getVersion() == null ? 0 : transaction.getVersion(),
+                    amount, epochSecond(transaction.getTransactionDate()),
+                    transaction.getType() == null ? 0 : (byte) transaction.getType().code(),
+                    transaction.getStatus() == null ? 0 : (byte) transaction.getStatus().code(),
+                    categoryId == null ? 0 : categoryId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drop the row of a deleted transaction, and ignore any notification for it from now on
+     */
+    public void onDeleted(Transaction transaction) {
+        if (transaction.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            deletedIds.put(transaction.getId(), 0);
+            int row = rowsById.remove(transaction.getId());
+            if (row < 0) {
+                return;
+            }
+            int last = --size;
+            if (row != last) {
+                ids[row] = ids[last];
+                versions[row] = versions[last];
+                amounts[row] = amounts[last];
+                epochSeconds[row] = epochSeconds[last];
+                types[row] = types[last];
+                statuses[row] = statuses[last];
+                categories[row] = categories[last];
+                rowsById.put(ids[row], row);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Count, total, smallest and largest amount per group, over the transactions dated in
+     * [{@code from}, {@code to}) with the given type and status. A null bound or filter means any.
+     * Groups without rows are left out; categories are ordered by name, everything else by code or day.
+     */
+    public List<TransactionAnalyticsGroup> aggregate(Dimension groupBy, LocalDateTime from, LocalDateTime to,
+                                                     TransactionType type, TransactionStatus status) {
+        long fromSecond = from == null ? Long.MIN_VALUE : epochSecond(from);
+        long toSecond = to == null ? Long.MAX_VALUE : epochSecond(to);
+        byte typeCode = type == null ? 0 : (byte) type.code();
+        byte statusCode = status == null ? 0 : (byte) status.code();
+
+        List<TransactionAnalyticsGroup> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            long firstDay = 0;
+            int groups;
+            switch (groupBy) {
+                case TYPE -> groups = TYPE_GROUPS;
+                case STATUS -> groups = STATUS_GROUPS;
+                case CATEGORY -> groups = maxCategoryId + 1;
+                case DAY -> {
+                    firstDay = Math.max(minEpochDay, Math.floorDiv(fromSecond, SECONDS_PER_DAY));
+                    long lastDay = Math.min(maxEpochDay, Math.floorDiv(toSecond - 1, SECONDS_PER_DAY));
+                    if (size == 0 || lastDay < firstDay) {
+                        return result;
+                    }
+                    if (lastDay - firstDay >= MAX_DENSE_DAYS) {
+                        // The stored bounds are stretched by an outlier, or by rows since deleted:
+                        // narrow them to the rows this query matches
+                        firstDay = Long.MAX_VALUE;
+                        lastDay = Long.MIN_VALUE;
+                        for (int row = 0; row < size; row++) {
+                            if (matches(row, fromSecond, toSecond, typeCode, statusCode)) {
+                                long day = Math.floorDiv(epochSeconds[row], SECONDS_PER_DAY);
+                                firstDay = Math.min(firstDay, day);
+                                lastDay = Math.max(lastDay, day);
+                            }
+                        }
+                        if (lastDay < firstDay) {
+                            return result;
+                        }
+                        if (lastDay - firstDay >= MAX_DENSE_DAYS) {
+                            return aggregateDaysSparsely(fromSecond, toSecond, typeCode, statusCode);
+                        }
+                    }
+                    groups = (int) (lastDay - firstDay + 1);
+                }
+                default -> groups = 1;
+            }
+            long[] counts = new long[groups];
+            long[] totals = new long[groups];
+            long[] mins = new long[groups];
+            long[] maxs = new long[groups];
+            Arrays.fill(mins, Long.MAX_VALUE);
+            Arrays.fill(maxs, Long.MIN_VALUE);
+
+            for (int row = 0; row < size; row++) {
+                if (!matches(row, fromSecond, toSecond, typeCode, statusCode)) {
+                    continue;
+                }
+                long at = epochSeconds[row];
+                int group = switch (groupBy) {
+                    case TYPE -> types[row];
+                    case STATUS -> statuses[row];
+                    case CATEGORY -> categories[row];
+                    case DAY -> (int) (Math.floorDiv(at, SECONDS_PER_DAY) - firstDay);
+                    default -> 0;
+                };
+                long amount = amounts[row];
+                counts[group]++;
+                totals[group] = Math.addExact(totals[group], amount);
+                mins[group] = Math.min(mins[group], amount);
+                maxs[group] = Math.max(maxs[group], amount);
+            }
+
+            for (int group = 0; group < groups; group++) {
+                if (counts[group] > 0) {
+                    result.add(new TransactionAnalyticsGroup(key(groupBy, group, firstDay), counts[group],
+                            MinorUnits.toDecimal(totals[group], SCALE),
+                            MinorUnits.toDecimal(mins[group], SCALE),
+                            MinorUnits.toDecimal(maxs[group], SCALE)));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (groupBy == Dimension.CATEGORY) {
+            result.sort(Comparator.comparing(TransactionAnalyticsGroup::key));
+        }
+        return result;
+    }
+
+    /**
+     * Day groups keyed by the days that occur, for matching rows spread over too many days for an
+     * array per day; caller holds the read lock
+     */
+    private List<TransactionAnalyticsGroup> aggregateDaysSparsely(long fromSecond, long toSecond,
+                                                                  byte typeCode, byte statusCode) {
+        // count, total, min, max per day
+        TreeMap<Long, long[]> days = new TreeMap<>();
+        for (int row = 0; row < size; row++) {
+            if (!matches(row, fromSecond, toSecond, typeCode, statusCode)) {
+                continue;
+            }
+            long[] day = days.computeIfAbsent(Math.floorDiv(epochSeconds[row], SECONDS_PER_DAY),
+                    key -> new long[]{0, 0, Long.MAX_VALUE, Long.MIN_VALUE});
+            long amount = amounts[row];
+            day[0]++;
+            day[1] = Math.addExact(day[1], amount);
+            day[2] = Math.min(day[2], amount);
+            day[3] = Math.max(day[3], amount);
+        }
+        List<TransactionAnalyticsGroup> result = new ArrayList<>(days.size());
+        days.forEach((epochDay, day) -> result.add(new TransactionAnalyticsGroup(
+                LocalDate.ofEpochDay(epochDay).toString(), day[0],
+                MinorUnits.toDecimal(day[1], SCALE),
+                MinorUnits.toDecimal(day[2], SCALE),
+                MinorUnits.toDecimal(day[3], SCALE))));
+        return result;
+    }
+
+    /**
+     * Whether a row is dated in [fromSecond, toSecond) and has the given type and status (0 for any)
+     */
+    private boolean matches(int row, long fromSecond, long toSecond, byte typeCode, byte statusCode) {
+        long at = epochSeconds[row];
+        return at >= fromSecond && at < toSecond
+                && (typeCode == 0 || types[row] == typeCode)
+                && (statusCode == 0 || statuses[row] == statusCode);
+    }
+
+    private String key(Dimension groupBy, int group, long firstDay) {
+        return switch (groupBy) {
+            case TYPE -> TransactionType.fromCode((short) group).name();
+            case STATUS -> TransactionStatus.fromCode((short) group).name();
+            case CATEGORY -> group == 0 ? "UNKNOWN" : transactionCategoryDictionary.getName(group);
+            case DAY -> LocalDate.ofEpochDay(firstDay + group).toString();
+            default -> "ALL";
+        };
+    }
+
+    /**
+     * Insert or overwrite the row of {@code id}, unless it was deleted or is held at a later version;
+     * caller holds the write lock
+     */
+    private void put(long id, long version, long amount, long epochSecond, byte type, byte status, int category) {
+        if (deletedIds.get(id) >= 0) {
+            return;
+        }
+        int row = rowsById.get(id);
+        if (row >= 0 && versions[row] > version) {
+            return;
+        }
+        if (row < 0) {
+            if (size == ids.length) {
+                grow();
+            }
+            row = size++;
+            ids[row] = id;
+            rowsById.put(id, row);
+        }
+        versions[row] = version;
+        amounts[row] = amount;
+        epochSeconds[row] = epochSecond;
+        types[row] = type;
+        statuses[row] = status;
+        categories[row] = category;
+        maxCategoryId = Math.max(maxCategoryId, category);
+        long epochDay = Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+        minEpochDay = Math.min(minEpochDay, epochDay);
+        maxEpochDay = Math.max(maxEpochDay, epochDay);
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        versions = Arrays.copyOf(versions, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        epochSeconds = Arrays.copyOf(epochSeconds, capacity);
+        types = Arrays.copyOf(types, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        categories = Arrays.copyOf(categories, capacity);
+    }
+
+    /**
+     * The local date-time read as UTC, so whole days line up with {@link LocalDateTime#toLocalDate()}
+     */
+    private static long epochSecond(LocalDateTime at) {
+        return at.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * Id to row map with open addressing over primitive arrays, so ten million rows do not cost ten
+     * million boxed entries
+     */
+    static final class IdIndex {
+
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        private long[] keys;
+        private int[] rows;
+        private int size;
+
+        IdIndex() {
+            clear();
+        }
+
+        void clear() {
+            keys = new long[2048];
+            rows = new int[2048];
+            Arrays.fill(keys, EMPTY);
+            size = 0;
+        }
+
+        /**
+         * Row of {@code id}, or -1
+         */
+        int get(long id) {
+            int mask = keys.length - 1;
+            for (int slot = slot(id, mask); keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+                if (keys[slot] == id) {
+                    return rows[slot];
+                }
+            }
+            return -1;
+        }
+
+        void put(long id, int row) {
+            if (size * 2 >= keys.length) {
+                resize();
+            }
+            int mask = keys.length - 1;
+            int slot = slot(id, mask);
+            while (keys[slot] != EMPTY && keys[slot] != id) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == EMPTY) {
+                keys[slot] = id;
+                size++;
+            }
+            rows[slot] = row;
+        }
+
+        /**
+         * Remove {@code id}, shifting back the entries probed past it
+         *
+         * @return its row, or -1 if absent
+         */
+        int remove(long id) {
+            int mask = keys.length - 1;
+            int hole = slot(id, mask);
+            while (keys[hole] != id) {
+                if (keys[hole] == EMPTY) {
+                    return -1;
+                }
+                hole = (hole + 1) & mask;
+            }
+            int row = rows[hole];
+            for (int next = (hole + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+                int home = slot(keys[next], mask);
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    keys[hole] = keys[next];
+                    rows[hole] = rows[next];
+                    hole = next;
+                }
+            }
+            keys[hole] = EMPTY;
+            size--;
+            return row;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            int[] oldRows = rows;
+            keys = new long[oldKeys.length * 2];
+            rows = new int[oldKeys.length * 2];
+            Arrays.fill(keys, EMPTY);
+            size = 0;
+            for (int slot = 0; slot < oldKeys.length; slot++) {
+                if (oldKeys[slot] != EMPTY) {
+                    put(oldKeys[slot], oldRows[slot]);
+                }
+            }
+        }
+
+        private static int slot(long id, int mask) {
+            long hash = id * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.payan.demo.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.payan.demo.dto.TransactionEvent;
+import com.payan.demo.entity.Transaction;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans transaction changes out to Server-Sent Events subscribers. Each event is serialized and
+ * framed once, then queued by reference on every subscriber.
+ *
+ * <p>Each subscriber has its own bounded buffer, drained by a virtual thread, so a slow client
+ * only delays itself. Pending events for the same transaction coalesce to the latest one. When a
+ * buffer overflows its events are dropped and the client gets a single RESYNC event instead.
+ */
+@Service
+@Order(6)
+public class TransactionEventPublisher implements TransactionChangeListener {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionEventPublisher.class);
+
+    /**
+     * Buffer key for heartbeat frames, which are not about any one transaction
+     */
+    private static final Long HEARTBEAT_KEY = Long.MIN_VALUE;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${payan.transactions.stream.buffer-size:256}")
+    private int bufferSize = 256;
+
+    @Value("${payan.transactions.stream.timeout:30m}")
+    private Duration timeout = Duration.ofMinutes(30);
+
+    @Value("${payan.transactions.stream.heartbeat-interval:15s}")
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "transaction-stream-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Set<DataWithMediaType> heartbeatFrame = SseEmitter.event().comment("heartbeat").build();
+    private volatile boolean heartbeatScheduled;
+
+    /**
+     * Open a new stream. The first frame is a heartbeat so the client sees the connection open at once.
+     */
+    public SseEmitter subscribe() {
+        scheduleHeartbeats();
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscriber.close());
+        emitter.onTimeout(() -> subscriber.close());
+        emitter.onError(error -> subscriber.close());
+        subscribers.add(subscriber);
+        subscriber.offerHeartbeat();
+        return emitter;
+    }
+
+    public void publishCreated(Transaction transaction) {
+        publish(TransactionEvent.Type.CREATED, transaction.getId(), transaction);
+    }
+
+    public void publishUpdated(Transaction transaction) {
+        publish(TransactionEvent.Type.UPDATED, transaction.getId(), transaction);
+    }
+
+    public void publishStatusChanged(Transaction transaction) {
+        publish(TransactionEvent.Type.STATUS_CHANGED, transaction.getId(), transaction);
+    }
+
+    public void publishDeleted(Long id) {
+        publish(TransactionEvent.Type.DELETED, id, null);
+    }
+
+    @Override
+    public void onCreated(List<Transaction> created) {
+        created.forEach(this::publishCreated);
+    }
+
+    @Override
+    public void onUpdated(List<Transaction> before, List<Transaction> after) {
+        after.forEach(this::publishUpdated);
+    }
+
+    @Override
+    public void onStatusChanged(List<Transaction> before, List<Transaction> after) {
+        after.forEach(this::publishStatusChanged);
+    }
+
+    @Override
+    public void onDeleted(List<Transaction> deleted) {
+        deleted.forEach(transaction -> publishDeleted(transaction.getId()));
+    }
+
+    /**
+     * Open streams
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        senders.shutdown();
+    }
+
+    private void publish(TransactionEvent.Type type, Long id, Transaction transaction) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Set<DataWithMediaType> frame = frame(type, id, transaction);
+        if (frame == null) {
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(id, frame);
+        }
+    }
+
+    private Set<DataWithMediaType> frame(TransactionEvent.Type type, Long id, Transaction transaction) {
+        long eventSequence = sequence.incrementAndGet();
+        try {
+            String json = objectMapper.writeValueAsString(new TransactionEvent(eventSequence, type, id, transaction));
+            return SseEmitter.event()
+                    .id(Long.toString(eventSequence))
+                    .name(type.name())
+                    .data(json, MediaType.APPLICATION_JSON)
+                    .build();
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize {} event for transaction {}", type, id, e);
+            return null;
+        }
+    }
+
+    private void scheduleHeartbeats() {
+        if (heartbeatScheduled) {
+            return;
+        }
+        synchronized (this) {
+            if (!heartbeatScheduled) {
+                long millis = heartbeatInterval.toMillis();
+                heartbeats.scheduleAtFixedRate(() -> subscribers.forEach(Subscriber::offerHeartbeat),
+                        millis, millis, TimeUnit.MILLISECONDS);
+                heartbeatScheduled = true;
+            }
+        }
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+
+        /**
+         * Frames waiting to be sent, by transaction id; guarded by this
+         */
+        private final Map<Long, Set<DataWithMediaType>> pending = new LinkedHashMap<>();
+        private boolean overflowed;
+        private boolean draining;
+        private boolean closed;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(Long id, Set<DataWithMediaType> frame) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (pending.containsKey(id)) {
+                    // Coalesce: keep the position, send only the latest state
+                    pending.put(id, frame);
+                } else if (pending.size() >= bufferSize) {
+                    pending.clear();
+                    overflowed = true;
+                } else {
+                    pending.put(id, frame);
+                }
+                if (!startDraining()) {
+                    return;
+                }
+            }
+            senders.execute(this::drain);
+        }
+
+        void offerHeartbeat() {
+            synchronized (this) {
+                if (closed || overflowed || !pending.isEmpty()) {
+                    return;
+                }
+                pending.put(HEARTBEAT_KEY, heartbeatFrame);
+                if (!startDraining()) {
+                    return;
+                }
+            }
+            senders.execute(this::drain);
+        }
+
+        private boolean startDraining() {
+            if (draining) {
+                return false;
+            }
+            draining = true;
+            return true;
+        }
+
+        private void drain() {
+            while (true) {
+                List<Set<DataWithMediaType>> frames;
+                boolean resync;
+                synchronized (this) {
+                    if (closed || (pending.isEmpty() && !overflowed)) {
+                        draining = false;
+                        return;
+                    }
+                    resync = overflowed;
+                    overflowed = false;
+                    frames = new ArrayList<>(pending.values());
+                    pending.clear();
+                }
+                try {
+                    Set<DataWithMediaType> resyncFrame = resync ? frame(TransactionEvent.Type.RESYNC, null, null) : null;
+                    if (resyncFrame != null) {
+                        emitter.send(resyncFrame);
+                    }
+                    for (Set<DataWithMediaType> frame : frames) {
+                        emitter.send(frame);
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away; the container completes the emitter
+                    close();
+                }
+            }
+        }
+
+        void close() {
+            synchronized (this) {
+                closed = true;
+                pending.clear();
+            }
+            subscribers.remove(this);
+        }
+    }
+}
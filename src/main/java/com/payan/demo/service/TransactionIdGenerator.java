@@ -0,0 +1,10 @@
+package com.payan.demo.service;
+
+/**
+ * Source of business transaction IDs ({@code Transaction.transactionId}) for new transactions.
+ * Implementations must be thread-safe.
+ */
+public interface TransactionIdGenerator {
+
+    String nextId();
+}
@@ -0,0 +1,238 @@
+package com.payan.demo.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Append-only log of accepted transactions that have not been written to the database yet, so they
+ * survive a crash. Each record is one line, {@code <sequence>\t<json>}, in segment files named after
+ * their first sequence. A segment is deleted once it is full and every record in it has been released.
+ * With fsync on, the directory is forced after a segment is created or deleted, so the file's entry in the
+ * directory survives a crash along with its contents.
+ *
+ * <p>{@link #sync(long)} is a group commit: one fsync makes everything appended before it durable, so
+ * callers that arrive while an fsync is running share the next one instead of each forcing the file.
+ */
+final class TransactionIngestJournal implements AutoCloseable {
+
+    private static final String PREFIX = "ingest-";
+    private static final String SUFFIX = ".journal";
+
+    /**
+     * One record read back from the journal
+     */
+    record Entry(long sequence, String json) {
+    }
+
+    private record Segment(Path path, long firstSequence, long lastSequence) {
+    }
+
+    private final Path directory;
+    private final int segmentEntries;
+    private final boolean fsync;
+
+    /**
+     * Full segments, oldest first; guarded by this
+     */
+    private final Deque<Segment> closedSegments = new ArrayDeque<>();
+    private FileChannel current;
+    private long currentFirstSequence;
+    private int currentEntries;
+    private long lastSequence;
+
+    private final Object syncLock = new Object();
+
+    /**
+     * Last record made durable; written under syncLock
+     */
+    private volatile long syncedSequence;
+
+    TransactionIngestJournal(Path directory, int segmentEntries, boolean fsync) {
+        this.directory = directory;
+        this.segmentEntries = segmentEntries;
+        this.fsync = fsync;
+    }
+
+    /**
+     * Read the records left by a previous run, oldest first, and get ready to append after them. A record
+     * cut short by a crash is the last one written and was never acknowledged, so it is dropped.
+     */
+    synchronized List<Entry> open() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> paths = new ArrayList<>();
+        try (DirectoryStream<Path> segments = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            segments.forEach(paths::add);
+        }
+        // Sequences are zero-padded, so names sort in sequence order
+        paths.sort(null);
+        List<Entry> entries = new ArrayList<>();
+        for (Path path : paths) {
+            long first = -1;
+            long last = -1;
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    int tab = line.indexOf('\t');
+                    if (tab < 0 || !line.endsWith("}")) {
+                        break;
+                    }
+                    long sequence = Long.parseLong(line.substring(0, tab));
+                    entries.add(new Entry(sequence, line.substring(tab + 1)));
+                    first = first < 0 ? sequence : first;
+                    last = sequence;
+                }
+            }
+            if (last < 0) {
+                Files.delete(path);
+            } else {
+                closedSegments.add(new Segment(path, first, last));
+                lastSequence = Math.max(lastSequence, last);
+            }
+        }
+        syncedSequence = lastSequence;
+        startSegment();
+        return entries;
+    }
+
+    /**
+     * Append a record, starting a new segment first if the current one is full. The record is handed to
+     * the operating system at once but only durable after {@link #sync(long)}.
+     *
+     * @return the record's sequence
+     */
+    synchronized long append(String json) throws IOException {
+        if (currentEntries == segmentEntries) {
+            rollSegment();
+        }
+        long sequence = ++lastSequence;
+        ByteBuffer record = ByteBuffer.wrap((sequence + "\t" + json + "\n").getBytes(StandardCharsets.UTF_8));
+        while (record.hasRemaining()) {
+            current.write(record);
+        }
+        currentEntries++;
+        return sequence;
+    }
+
+    /**
+     * Make every record up to {@code sequence} durable
+     */
+    void sync(long sequence) throws IOException {
+        if (!fsync) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (syncedSequence >= sequence) {
+                return;
+            }
+            long upTo;
+            FileChannel channel;
+            synchronized (this) {
+                upTo = lastSequence;
+                channel = current;
+            }
+            try {
+                channel.force(false);
+            } catch (ClosedChannelException e) {
+                // Rolled over meanwhile; a segment is forced before it is closed
+            }
+            syncedSequence = upTo;
+        }
+    }
+
+    /**
+     * Sequence of the last durable record; with fsync off, of the last record appended
+     */
+    long syncedSequence() {
+        if (!fsync) {
+            synchronized (this) {
+                return lastSequence;
+            }
+        }
+        return syncedSequence;
+    }
+
+    /**
+     * Whether {@link #release(long)} with this sequence would delete a segment
+     */
+    synchronized boolean isReleasable(long sequence) {
+        return !closedSegments.isEmpty() && closedSegments.peekFirst().lastSequence() <= sequence;
+    }
+
+    /**
+     * Every record up to {@code sequence} is in the database: delete the full segments that hold nothing else
+     */
+    synchronized void release(long sequence) throws IOException {
+        boolean deleted = false;
+        while (!closedSegments.isEmpty() && closedSegments.peekFirst().lastSequence() <= sequence) {
+            deleted |= Files.deleteIfExists(closedSegments.pollFirst().path());
+        }
+        if (deleted) {
+            syncDirectory();
+        }
+    }
+
+    /**
+     * Number of segment files, the one being appended to included
+     */
+    synchronized int segmentCount() {
+        return closedSegments.size() + 1;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (current != null) {
+            current.force(false);
+            current.close();
+        }
+    }
+
+    private void rollSegment() throws IOException {
+        current.force(false);
+        current.close();
+        closedSegments.add(new Segment(segmentPath(currentFirstSequence), currentFirstSequence, lastSequence));
+        startSegment();
+    }
+
+    private void startSegment() throws IOException {
+        currentFirstSequence = lastSequence + 1;
+        currentEntries = 0;
+        current = FileChannel.open(segmentPath(currentFirstSequence),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        syncDirectory();
+    }
+
+    /**
+     * Make the directory's list of segments durable
+     */
+    private void syncDirectory() throws IOException {
+        if (!fsync) {
+            return;
+        }
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException e) {
+            // Directories cannot be opened on every platform (Windows); there the file system keeps entries itself
+            return;
+        }
+        try (channel) {
+            channel.force(true);
+        }
+    }
+
+    private Path segmentPath(long firstSequence) {
+        return directory.resolve(PREFIX + String.format("%020d", firstSequence) + SUFFIX);
+    }
+}
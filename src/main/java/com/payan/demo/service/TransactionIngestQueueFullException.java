@@ -0,0 +1,18 @@
+package com.payan.demo.service;
+
+/**
+ * Thrown when the asynchronous ingest queue has no room left; the client should retry later
+ */
+public class TransactionIngestQueueFullException extends RuntimeException {
+
+    private final int capacity;
+
+    public TransactionIngestQueueFullException(int capacity) {
+        super("Ingest queue is full (" + capacity + " transactions waiting)");
+        this.capacity = capacity;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+}
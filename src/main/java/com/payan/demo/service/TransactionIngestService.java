@@ -0,0 +1,396 @@
+package com.payan.demo.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.payan.demo.dto.BatchIngestResult;
+import com.payan.demo.dto.BatchItemResult;
+import com.payan.demo.dto.TransactionIngestStatus;
+import com.payan.demo.entity.Transaction;
+import com.payan.demo.repository.TransactionRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous, write-behind creation of transactions. {@link #accept(Transaction)} validates the
+ * transaction, gives it a transaction ID, records it in the journal and queues it, so the request returns
+ * without waiting for the database. A single writer thread drains the queue in batches through
+ * TransactionBatchService, which inserts each batch in one database transaction and keeps the summary,
+ * caches and live feed current. The writer only takes records once they are durable in the journal, so
+ * a transaction is never written unless accept has been able to acknowledge it. Records stay in the journal until every transaction in their batch is
+ * created or has failed for a reason of its own, and are written at the next startup if the process stops
+ * first. While the database is unreachable the batch is retried, not failed. If the journal cannot be
+ * synced, no more transactions are accepted until restart.
+ *
+ * <p>The queue is lock-free and bounded by a counter: when queue-capacity transactions are waiting or
+ * being written, new ones are refused rather than piling up in memory.
+ */
+@Service
+public class TransactionIngestService {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionIngestService.class);
+
+    @Autowired
+    private TransactionBatchService transactionBatchService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${payan.transactions.async-ingest.enabled:false}")
+    private boolean enabled;
+
+    @Value("${payan.transactions.async-ingest.queue-capacity:10000}")
+    private int queueCapacity = 10000;
+
+    @Value("${payan.transactions.async-ingest.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${payan.transactions.async-ingest.journal-dir:./data/ingest-journal}")
+    private Path journalDir = Path.of("./data/ingest-journal");
+
+    @Value("${payan.transactions.async-ingest.journal-fsync:true}")
+    private boolean journalFsync = true;
+
+    @Value("${payan.transactions.async-ingest.journal-segment-entries:10000}")
+    private int journalSegmentEntries = 10000;
+
+    @Value("${payan.transactions.async-ingest.retained-results:10000}")
+    private int retainedResults = 10000;
+
+    @Value("${payan.transactions.async-ingest.retry-backoff:1s}")
+    private Duration retryBackoff = Duration.ofSeconds(1);
+
+    /**
+     * Statement that makes committed rows durable, run before journal records are deleted; needed when the
+     * database acknowledges commits before they reach the disk (H2's WRITE_DELAY)
+     */
+    @Value("${payan.transactions.async-ingest.release-sync-sql:}")
+    private String releaseSyncSql = "";
+
+    @Value("${payan.transactions.async-ingest.shutdown-timeout:10s}")
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+
+    private record Pending(long sequence, Transaction transaction) {
+    }
+
+    private final ConcurrentLinkedQueue<Pending> queue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Transactions queued or being written; what the capacity is checked against
+     */
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * Status of each transaction waiting to be written, by transaction ID; guarded by statusLock
+     */
+    private final Map<String, TransactionIngestStatus> queuedStatuses = new HashMap<>();
+
+    /**
+     * Outcome of the last retained-results transactions written, oldest first; guarded by statusLock
+     */
+    private final Map<String, TransactionIngestStatus> finishedStatuses = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, TransactionIngestStatus> eldest) {
+            return size() > retainedResults;
+        }
+    };
+
+    private final Object statusLock = new Object();
+
+    /**
+     * Lowest sequence whose sync failed, or Long.MAX_VALUE; the writer stops short of it
+     */
+    private final AtomicLong failedSequence = new AtomicLong(Long.MAX_VALUE);
+
+    private TransactionIngestJournal journal;
+    private Thread writer;
+    private volatile boolean running;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Open the journal, queue whatever a previous run accepted but did not write, and start the writer
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() throws IOException {
+        if (!enabled || running) {
+            return;
+        }
+        journal = new TransactionIngestJournal(journalDir, journalSegmentEntries, journalFsync);
+        recover(journal.open());
+        running = true;
+        writer = Thread.ofPlatform().name("transaction-ingest-writer").daemon().start(this::writeLoop);
+    }
+
+    /**
+     * Let the writer finish what is queued, for up to shutdown-timeout; anything left stays in the journal
+     */
+    @PreDestroy
+    public synchronized void shutdown() throws IOException, InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(shutdownTimeout.toMillis());
+        journal.close();
+    }
+
+    /**
+     * Validate the transaction, fill in its transaction ID and date, and queue it for writing. Returns once
+     * the transaction is durable in the journal.
+     *
+     * @throws IllegalArgumentException            if the transaction is invalid, or its transaction ID is
+     *                                             already queued
+     * @throws TransactionIngestQueueFullException if the queue is full
+     * @throws IllegalStateException               if asynchronous ingest is disabled, starting or stopped,
+     *                                             or the journal could not be synced
+     */
+    public TransactionIngestStatus accept(Transaction transaction) {
+        if (!running) {
+            throw new IllegalStateException("Asynchronous ingest is not running");
+        }
+        if (failedSequence.get() != Long.MAX_VALUE) {
+            throw new IllegalStateException("Asynchronous ingest stopped after the journal could not be synced");
+        }
+        String error = transactionBatchService.validate(transaction);
+        if (error != null) {
+            throw new IllegalArgumentException(error);
+        }
+        transactionBatchService.applyDefaults(transaction);
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(transaction);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Transaction cannot be serialized", e);
+        }
+        if (inFlight.incrementAndGet() > queueCapacity) {
+            inFlight.decrementAndGet();
+            throw new TransactionIngestQueueFullException(queueCapacity);
+        }
+        TransactionIngestStatus queued = new TransactionIngestStatus(transaction.getTransactionId(),
+                TransactionIngestStatus.State.QUEUED, null, null, LocalDateTime.now(), null);
+        synchronized (statusLock) {
+            if (queuedStatuses.putIfAbsent(transaction.getTransactionId(), queued) != null) {
+                inFlight.decrementAndGet();
+                throw new IllegalArgumentException("Transaction " + transaction.getTransactionId() + " is already queued");
+            }
+        }
+        long sequence;
+        try {
+            // Queue in journal order, so the writer releases records in the order they were appended
+            synchronized (journal) {
+                sequence = journal.append(json);
+                queue.add(new Pending(sequence, transaction));
+            }
+        } catch (IOException e) {
+            inFlight.decrementAndGet();
+            synchronized (statusLock) {
+                queuedStatuses.remove(transaction.getTransactionId());
+            }
+            throw new UncheckedIOException("Could not journal transaction " + transaction.getTransactionId(), e);
+        }
+        try {
+            journal.sync(sequence);
+        } catch (IOException e) {
+            // Whether the record reached the disk is unknown. The writer leaves it, and everything after
+            // it, in the journal, so it is written only if the next startup finds it there.
+            failedSequence.accumulateAndGet(sequence, Math::min);
+            log.error("Could not sync the ingest journal; no more transactions are accepted", e);
+            throw new IllegalStateException("Could not sync journal", e);
+        }
+        LockSupport.unpark(writer);
+        return queued;
+    }
+
+    /**
+     * Status of a transaction accepted recently, or of a stored transaction with this transaction ID
+     */
+    public Optional<TransactionIngestStatus> getStatus(String transactionId) {
+        synchronized (statusLock) {
+            TransactionIngestStatus status = queuedStatuses.get(transactionId);
+            if (status == null) {
+                status = finishedStatuses.get(transactionId);
+            }
+            if (status != null) {
+                return Optional.of(status);
+            }
+        }
+        return transactionRepository.findByTransactionId(transactionId)
+                .map(stored -> new TransactionIngestStatus(transactionId, TransactionIngestStatus.State.CREATED,
+                        stored.getId(), null, null, null));
+    }
+
+    /**
+     * Transactions queued or being written
+     */
+    public int getQueueSize() {
+        return inFlight.get();
+    }
+
+    private void recover(List<TransactionIngestJournal.Entry> entries) throws IOException {
+        if (entries.isEmpty()) {
+            return;
+        }
+        List<Pending> recovered = new ArrayList<>(entries.size());
+        for (TransactionIngestJournal.Entry entry : entries) {
+            try {
+                recovered.add(new Pending(entry.sequence(), objectMapper.readValue(entry.json(), Transaction.class)));
+            } catch (JsonProcessingException e) {
+                log.warn("Skipping unreadable ingest journal record {}", entry.sequence(), e);
+            }
+        }
+        // A record whose batch was written just before the process stopped is already in the table
+        Set<String> stored = new HashSet<>();
+        for (int start = 0; start < recovered.size(); start += batchSize) {
+            stored.addAll(transactionRepository.findExistingTransactionIds(recovered
+                    .subList(start, Math.min(start + batchSize, recovered.size())).stream()
+                    .map(pending -> pending.transaction().getTransactionId())
+                    .toList()));
+        }
+        int requeued = 0;
+        for (Pending pending : recovered) {
+            if (!stored.contains(pending.transaction().getTransactionId())) {
+                queue.add(pending);
+                inFlight.incrementAndGet();
+                synchronized (statusLock) {
+                    queuedStatuses.put(pending.transaction().getTransactionId(), new TransactionIngestStatus(
+                            pending.transaction().getTransactionId(), TransactionIngestStatus.State.QUEUED,
+                            null, null, null, null));
+                }
+                requeued++;
+            }
+        }
+        if (requeued == 0) {
+            release(entries.get(entries.size() - 1).sequence());
+        }
+        log.info("Recovered {} journaled transactions, {} of them not yet written", entries.size(), requeued);
+    }
+
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        boolean retry = false;
+        while (true) {
+            // Only records already durable in the journal; the queue is in journal order
+            long durable = Math.min(journal.syncedSequence(), failedSequence.get() - 1);
+            Pending next;
+            while (batch.size() < batchSize && (next = queue.peek()) != null && next.sequence() <= durable) {
+                batch.add(queue.poll());
+            }
+            if (batch.isEmpty()) {
+                if (!running) {
+                    return;
+                }
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100));
+                continue;
+            }
+            try {
+                write(batch, retry);
+                batch.clear();
+                retry = false;
+            } catch (RuntimeException | IOException e) {
+                retry = true;
+                if (!running) {
+                    return;
+                }
+                // The batch is kept and retried; its records are still in the journal
+                log.warn("Writing {} queued transactions failed, retrying in {}", batch.size(), retryBackoff, e);
+                LockSupport.parkNanos(retryBackoff.toNanos());
+            }
+        }
+    }
+
+    /**
+     * Write a batch and record each outcome. A database outage is thrown, with the batch left queued and
+     * journaled; on the retry the transactions stored before the outage are not written again.
+     */
+    private void write(List<Pending> batch, boolean retry) throws IOException {
+        List<Pending> unwritten = batch;
+        if (retry) {
+            Set<String> stored = new HashSet<>(transactionRepository.findExistingTransactionIds(batch.stream()
+                    .map(pending -> pending.transaction().getTransactionId())
+                    .toList()));
+            unwritten = new ArrayList<>(batch.size());
+            for (Pending pending : batch) {
+                if (stored.contains(pending.transaction().getTransactionId())) {
+                    // Found by getStatus in the table, with its id
+                    synchronized (statusLock) {
+                        queuedStatuses.remove(pending.transaction().getTransactionId());
+                    }
+                } else {
+                    unwritten.add(pending);
+                }
+            }
+        }
+        if (!unwritten.isEmpty()) {
+            record(unwritten, transactionBatchService.ingest(
+                    unwritten.stream().map(Pending::transaction).toList(), true));
+        }
+        inFlight.addAndGet(-batch.size());
+        release(batch.get(batch.size() - 1).sequence());
+    }
+
+    /**
+     * Delete the journal segments written up to {@code sequence}, once the rows they hold are on disk
+     */
+    private void release(long sequence) throws IOException {
+        if (!journal.isReleasable(sequence)) {
+            return;
+        }
+        if (!releaseSyncSql.isBlank()) {
+            jdbcTemplate.execute(releaseSyncSql);
+        }
+        journal.release(sequence);
+    }
+
+    private void record(List<Pending> written, BatchIngestResult result) {
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (statusLock) {
+            for (int i = 0; i < written.size(); i++) {
+                BatchItemResult item = result.items().get(i);
+                String transactionId = written.get(i).transaction().getTransactionId();
+                TransactionIngestStatus queued = queuedStatuses.remove(transactionId);
+                LocalDateTime acceptedAt = queued == null ? null : queued.acceptedAt();
+                finishedStatuses.remove(transactionId);
+                finishedStatuses.put(transactionId, item.status() == BatchItemResult.Status.CREATED
+                        ? new TransactionIngestStatus(transactionId, TransactionIngestStatus.State.CREATED,
+                                item.id(), null, acceptedAt, now)
+                        : new TransactionIngestStatus(transactionId, TransactionIngestStatus.State.FAILED,
+                                null, item.error(), acceptedAt, now));
+            }
+        }
+    }
+}
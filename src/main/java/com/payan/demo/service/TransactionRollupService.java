@@ -0,0 +1,346 @@
+package com.payan.demo.service;
+
+import com.payan.demo.dto.TransactionStatsPoint;
+import com.payan.demo.entity.MinorUnits;
+import com.payan.demo.entity.RollupGranularity;
+import com.payan.demo.entity.Transaction;
+import com.payan.demo.entity.TransactionStatus;
+import com.payan.demo.entity.TransactionType;
+import com.payan.demo.repository.TransactionCategoryDictionary;
+import com.payan.demo.repository.TransactionRollupRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Minute, hour and day buckets of transaction counts and totals per (type, status, category), kept in
+ * the transaction_rollups table so time-series reads never touch the transactions themselves.
+ *
+ * <p>Writes are applied incrementally: each change is reported through {@link TransactionChangeListener}, the change is added to
+ * an in-memory delta per bucket, and the deltas are merged into the table in one batch every
+ * flush-interval (and before every read). A periodic compaction recomputes the buckets of the last
+ * recompute-window from the transactions table, which corrects anything the deltas got wrong (a write
+ * rolled back after it was reported, rows written without going through the services), and drops minute
+ * and hour buckets older than their retention. Day buckets are kept for good.
+ */
+@Service
+@Order(2)
+public class TransactionRollupService implements TransactionChangeListener {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionRollupService.class);
+
+    /**
+     * Scale all totals are kept at
+     */
+    private static final int SCALE = MinorUnits.DEFAULT_SCALE;
+
+    @Autowired
+    private TransactionRollupRepository transactionRollupRepository;
+
+    @Autowired
+    private TransactionCategoryDictionary transactionCategoryDictionary;
+
+    @Value("${payan.rollups.rebuild-async:false}")
+    private boolean rebuildAsync;
+
+    @Value("${payan.rollups.flush-interval:1s}")
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    @Value("${payan.rollups.compaction-interval:10m}")
+    private Duration compactionInterval = Duration.ofMinutes(10);
+
+    @Value("${payan.rollups.recompute-window:1d}")
+    private Duration recomputeWindow = Duration.ofDays(1);
+
+    @Value("${payan.rollups.minute-retention:2d}")
+    private Duration minuteRetention = Duration.ofDays(2);
+
+    @Value("${payan.rollups.hour-retention:90d}")
+    private Duration hourRetention = Duration.ofDays(90);
+
+    private record Key(RollupGranularity granularity, LocalDateTime bucketStart, TransactionType type,
+                       TransactionStatus status, int categoryId) {
+    }
+
+    /**
+     * Writers share the read lock while adding to {@link #pending}; a flush takes the write lock only to
+     * swap in an empty map, so no delta lands in a map that is already being written out
+     */
+    private final ReentrantReadWriteLock pendingLock = new ReentrantReadWriteLock();
+
+    /**
+     * Count and total (minor units) not yet merged into the table, by bucket
+     */
+    private volatile Map<Key, long[]> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Serializes flushes. Separate from the monitor held by compaction and rebuild, so a read that
+     * flushes first never waits for a recompute to finish.
+     */
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "transaction-rollups");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Recompute the rollups at startup, then start flushing and compacting in the background. With
+     * rebuild-async the recompute runs in the background too; until it finishes, reads see the buckets
+     * left by the previous run, which are at most one flush-interval behind.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (rebuildAsync) {
+            scheduler.execute(() -> runLogged("rebuild", this::rebuild));
+        } else {
+            rebuild();
+        }
+        long flushMillis = flushInterval.toMillis();
+        long compactionMillis = compactionInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(() -> runLogged("flush", this::flush),
+                flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(() -> runLogged("compaction", this::compact),
+                compactionMillis, compactionMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        runLogged("flush", this::flush);
+    }
+
+    /**
+     * Add a newly created transaction to its buckets
+     */
+    public void onCreated(Transaction transaction) {
+        apply(transaction, 1);
+    }
+
+    /**
+     * Move a transaction's contribution from the buckets of its previous state to those of its new state
+     */
+    public void onUpdated(Transaction before, Transaction after) {
+        apply(before, -1);
+        apply(after, 1);
+    }
+
+    /**
+     * Remove a deleted transaction from its buckets
+     */
+    public void onDeleted(Transaction transaction) {
+        apply(transaction, -1);
+    }
+
+    @Override
+    public void onCreated(List<Transaction> created) {
+        created.forEach(this::onCreated);
+    }
+
+    @Override
+    public void onUpdated(List<Transaction> before, List<Transaction> after) {
+        for (int i = 0; i < before.size(); i++) {
+            onUpdated(before.get(i), after.get(i));
+        }
+    }
+
+    @Override
+    public void onDeleted(List<Transaction> deleted) {
+        deleted.forEach(this::onDeleted);
+    }
+
+    /**
+     * Count and total per bucket in [from, to), oldest first; empty buckets are left out. {@code to}
+     * defaults to now and {@code from} to one hour, day or month before {@code to}. A filter left null
+     * matches everything; an unknown category matches nothing.
+     *
+     * @throws IllegalArgumentException if from is after to
+     */
+    public List<TransactionStatsPoint> getStats(RollupGranularity granularity, LocalDateTime from, LocalDateTime to,
+                                                TransactionType type, TransactionStatus status, String category) {
+        if (to == null) {
+            to = LocalDateTime.now();
+        }
+        if (from == null) {
+            from = to.minus(defaultSpan(granularity));
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        Integer categoryId = null;
+        if (category != null) {
+            categoryId = transactionCategoryDictionary.findId(category);
+            if (categoryId == null) {
+                return List.of();
+            }
+        }
+        // Read your own writes: nothing reported before this call stays in memory
+        flush();
+        return transactionRollupRepository.findSeries(granularity, granularity.truncate(from), to, type, status, categoryId);
+    }
+
+    /**
+     * Merge the pending deltas into the table. If that fails they are kept for the next attempt.
+     * Does not touch the database when nothing is pending.
+     */
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushPending() {
+        Map<Key, long[]> drained;
+        pendingLock.writeLock().lock();
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+            drained = pending;
+            pending = new ConcurrentHashMap<>();
+        } finally {
+            pendingLock.writeLock().unlock();
+        }
+        List<TransactionRollupRepository.Row> deltas = new ArrayList<>(drained.size());
+        drained.forEach((key, delta) -> {
+            if (delta[0] != 0 || delta[1] != 0) {
+                deltas.add(new TransactionRollupRepository.Row(key.granularity(), key.bucketStart(), key.type(),
+                        key.status(), key.categoryId(), delta[0], delta[1]));
+            }
+        });
+        try {
+            transactionRollupRepository.merge(deltas);
+        } catch (RuntimeException e) {
+            drained.forEach((key, delta) -> add(key, delta[0], delta[1]));
+            throw e;
+        }
+    }
+
+    /**
+     * Recompute the buckets of the last recompute-window from the transactions table and drop buckets
+     * past their retention
+     */
+    public synchronized void compact() {
+        recompute(recomputeWindow);
+    }
+
+    /**
+     * Recompute every retained bucket from the transactions table
+     */
+    public synchronized void rebuild() {
+        recompute(null);
+    }
+
+    private void recompute(Duration window) {
+        // Deltas reported so far are for rows the recompute is about to count; merge them first so they
+        // are replaced rather than added on top. A write reported, and flushed by a read or the scheduler,
+        // while this runs may be counted twice until the next compaction.
+        flush();
+        LocalDateTime now = LocalDateTime.now();
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            LocalDateTime retentionStart = retentionStart(granularity, now);
+            if (retentionStart != null) {
+                transactionRollupRepository.deleteBefore(granularity, retentionStart);
+            }
+            LocalDateTime since = window == null ? null : granularity.truncate(now.minus(window));
+            if (retentionStart != null && (since == null || since.isBefore(retentionStart))) {
+                since = retentionStart;
+            }
+            transactionRollupRepository.replaceFrom(granularity, since,
+                    transactionRollupRepository.aggregateTransactions(granularity, since));
+        }
+        transactionRollupRepository.deleteEmpty();
+    }
+
+    private void apply(Transaction transaction, int sign) {
+        if (transaction.getTransactionDate() == null || transaction.getType() == null
+                || transaction.getStatus() == null || transaction.getAmountMinor() == null
+                || transaction.getCategory() == null) {
+            return;
+        }
+        Integer categoryId = transactionCategoryDictionary.findId(transaction.getCategory());
+        if (categoryId == null) {
+            // Never stored under this name, so no bucket counts it
+            return;
+        }
+        long amount = MinorUnits.rescale(transaction.getAmountMinor(), transaction.getAmountScale(), SCALE);
+        LocalDateTime now = LocalDateTime.now();
+        pendingLock.readLock().lock();
+        try {
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                LocalDateTime bucketStart = granularity.truncate(transaction.getTransactionDate());
+                LocalDateTime retentionStart = retentionStart(granularity, now);
+                if (retentionStart != null && bucketStart.isBefore(retentionStart)) {
+                    continue;
+                }
+                add(new Key(granularity, bucketStart, transaction.getType(), transaction.getStatus(), categoryId),
+                        sign, sign * amount);
+            }
+        } finally {
+            pendingLock.readLock().unlock();
+        }
+    }
+
+    private void add(Key key, long count, long totalMinor) {
+        pending.compute(key, (k, delta) -> {
+            if (delta == null) {
+                delta = new long[2];
+            }
+            delta[0] += count;
+            delta[1] += totalMinor;
+            return delta;
+        });
+    }
+
+    /**
+     * Start of the oldest bucket of this granularity that is kept, or null if none expire
+     */
+    private LocalDateTime retentionStart(RollupGranularity granularity, LocalDateTime now) {
+        return switch (granularity) {
+            case MINUTE -> granularity.truncate(now.minus(minuteRetention));
+            case HOUR -> granularity.truncate(now.minus(hourRetention));
+            case DAY -> null;
+        };
+    }
+
+    private static Duration defaultSpan(RollupGranularity granularity) {
+        return switch (granularity) {
+            case MINUTE -> Duration.ofHours(1);
+            case HOUR -> Duration.ofDays(1);
+            case DAY -> Duration.ofDays(30);
+        };
+    }
+
+    private static void runLogged(String task, Runnable runnable) {
+        try {
+            runnable.run();
+        } catch (RuntimeException e) {
+            log.warn("Transaction rollup {} failed", task, e);
+        }
+    }
+}
@@ -1,21 +1,99 @@
 package com.payan.demo.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.payan.demo.dto.CursorPage;
+import com.payan.demo.dto.TransactionCursor;
+import com.payan.demo.dto.TransactionExportFormat;
+import com.payan.demo.dto.TransactionFields;
+import com.payan.demo.dto.TransactionSearchCriteria;
 import com.payan.demo.entity.Transaction;
+import com.payan.demo.entity.TransactionStatus;
+import com.payan.demo.entity.TransactionType;
+import com.payan.demo.repository.TransactionCategoryDictionary;
 import com.payan.demo.repository.TransactionRepository;
+import com.payan.demo.repository.TransactionSpecifications;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class TransactionService {
 
+    /**
+     * Columns clients may sort search results by
+     */
+    private static final Set<String> SORTABLE_PROPERTIES =
+            Set.of("id", "transactionDate", "amount", "status", "type", "category");
+
+    /**
+     * Sort keys of keyset pages, most significant first
+     */
+    private static final List<String> KEYSET_PROPERTIES = List.of("transactionDate", "id");
+
     @Autowired
     private TransactionRepository transactionRepository;
 
+    @Autowired
+    private TransactionCache transactionCache;
+
+    @Autowired
+    private TransactionIdGenerator transactionIdGenerator;
+
+    @Autowired
+    private TransactionChangeNotifier transactionChangeNotifier;
+
+    @Autowired
+    private TransactionCategoryDictionary transactionCategoryDictionary;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${payan.transactions.page.default-size:50}")
+    private int defaultPageSize = 50;
+
+    @Value("${payan.transactions.page.max-size:500}")
+    private int maxPageSize = 500;
+
+    @Value("${payan.transactions.update.max-attempts:3}")
+    private int maxUpdateAttempts = 3;
+
+    @Value("${payan.transactions.update.retry-backoff-ms:5}")
+    private long updateRetryBackoffMs = 5;
+
     /**
      * Create a new transaction
      */
@@ -28,7 +106,12 @@ public class TransactionService {
         if (transaction.getTransactionDate() == null) {
             transaction.setTransactionDate(LocalDateTime.now());
         }
-        return transactionRepository.save(transaction);
+        // A new row always starts at version 0, whatever the client sent
+        transaction.setVersion(null);
+        registerCategory(transaction.getCategory());
+        Transaction saved = transactionRepository.save(transaction);
+        transactionChangeNotifier.created(saved);
+        return saved;
     }
 
     /**
@@ -38,82 +121,432 @@ public class TransactionService {
         return transactionRepository.findAllByOrderByTransactionDateDesc();
     }
 
+    /**
+     * Get the selected fields of all transactions ordered by date
+     */
+    public List<Map<String, Object>> getAllTransactions(TransactionFields fields) {
+        return transactionRepository.findFields(fields.names(), null,
+                Sort.by(Sort.Direction.DESC, "transactionDate"), 0, 0);
+    }
+
+    /**
+     * Get the most recent transactions, newest first
+     */
+    public List<Transaction> getRecentTransactions(int limit) {
+        return transactionRepository.findFirstPage(PageRequest.of(0, resolvePageSize(limit)));
+    }
+
+    /**
+     * Get one keyset page of transactions ordered by date, newest first.
+     * Pass a null cursor for the first page and the returned nextCursor for the following ones.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public CursorPage<Transaction> getTransactionPage(String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        // Fetch one extra row to learn whether another page follows
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<Transaction> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = transactionRepository.findFirstPage(limit);
+        } else {
+            TransactionCursor position = TransactionCursor.decode(cursor);
+            rows = transactionRepository.findPageAfter(position.transactionDate(), position.id(), limit);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<Transaction> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? TransactionCursor.of(items.get(items.size() - 1)).encode() : null;
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+
+    /**
+     * Keyset page like {@link #getTransactionPage(String, Integer)} holding only the selected fields.
+     * transactionDate and id are always read to build the next cursor, but only returned if selected.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public CursorPage<Map<String, Object>> getTransactionPage(String cursor, Integer size, TransactionFields fields) {
+        int pageSize = resolvePageSize(size);
+        List<String> columns = new ArrayList<>(fields.names());
+        for (String key : KEYSET_PROPERTIES) {
+            if (!columns.contains(key)) {
+                columns.add(key);
+            }
+        }
+        Specification<Transaction> position = cursor == null || cursor.isEmpty()
+                ? null
+                : TransactionSpecifications.after(TransactionCursor.decode(cursor));
+        Sort order = Sort.by(Sort.Direction.DESC, KEYSET_PROPERTIES.toArray(String[]::new));
+
+        List<Map<String, Object>> rows = transactionRepository.findFields(columns, position, order, 0, pageSize + 1);
+
+        boolean hasMore = rows.size() > pageSize;
+        List<Map<String, Object>> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            Map<String, Object> last = items.get(items.size() - 1);
+            nextCursor = new TransactionCursor((LocalDateTime) last.get("transactionDate"), (Long) last.get("id")).encode();
+        }
+        for (Map<String, Object> item : items) {
+            item.keySet().retainAll(fields.names());
+        }
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+
+    /**
+     * Search transactions by any combination of filters, sorted and paginated in the database.
+     * Results default to newest first; id is always appended as a tie-breaker so pages are stable.
+     *
+     * @throws IllegalArgumentException if the sort references a column that is not sortable
+     */
+    public Page<Transaction> searchTransactions(TransactionSearchCriteria criteria, Pageable pageable) {
+        return transactionRepository.findAll(TransactionSpecifications.matching(criteria), resolveSearchPage(pageable));
+    }
+
+    /**
+     * Search like {@link #searchTransactions(TransactionSearchCriteria, Pageable)}, returning only the
+     * selected fields. The total is counted only when the page does not already reveal it.
+     *
+     * @throws IllegalArgumentException if the sort references a column that is not sortable
+     */
+    public Page<Map<String, Object>> searchTransactions(TransactionSearchCriteria criteria, Pageable pageable,
+                                                        TransactionFields fields) {
+        Pageable page = resolveSearchPage(pageable);
+        Specification<Transaction> specification = TransactionSpecifications.matching(criteria);
+        List<Map<String, Object>> content = transactionRepository.findFields(
+                fields.names(), specification, page.getSort(), page.getOffset(), page.getPageSize());
+        return PageableExecutionUtils.getPage(content, page, () -> transactionRepository.count(specification));
+    }
+
+    /**
+     * Validate the requested sort, default it to newest first, append id as a tie-breaker and map
+     * amount to its stored column
+     */
+    private Pageable resolveSearchPage(Pageable pageable) {
+        Sort sort = pageable.getSort().isSorted()
+                ? pageable.getSort()
+                : Sort.by(Sort.Direction.DESC, "transactionDate");
+        for (Sort.Order order : sort) {
+            if (!SORTABLE_PROPERTIES.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Cannot sort by: " + order.getProperty());
+            }
+        }
+        if (sort.getOrderFor("id") == null) {
+            sort = sort.and(Sort.by(Sort.Direction.DESC, "id"));
+        }
+        // Amounts are stored as minor units of a single scale, so they sort the same as the decimals
+        sort = Sort.by(sort.stream()
+                .map(order -> order.getProperty().equals("amount") ? order.withProperty("amountMinor") : order)
+                .toList());
+
+        return PageRequest.of(pageable.getPageNumber(), resolvePageSize(pageable.getPageSize()), sort);
+    }
+
+    /**
+     * Stream every transaction, newest first, to the given output in the requested format.
+     * Rows are written as they are read and detached right away, so memory stays flat
+     * regardless of table size.
+     *
+     * @return the number of rows written
+     */
+    @Transactional(readOnly = true)
+    public long exportTransactions(TransactionExportFormat format, OutputStream out) throws IOException {
+        try (Stream<Transaction> rows = transactionRepository.streamAllForExport()) {
+            return switch (format) {
+                case NDJSON -> writeNdjson(rows.iterator(), out);
+                case CSV -> writeCsv(rows.iterator(), out);
+            };
+        }
+    }
+
     /**
      * Get transaction by ID
      */
     public Optional<Transaction> getTransactionById(Long id) {
-        return transactionRepository.findById(id);
+        return transactionCache.getTransaction(id, transactionRepository::findById);
     }
 
     /**
      * Get transactions by status
      */
-    public List<Transaction> getTransactionsByStatus(String status) {
-        return transactionRepository.findByStatus(status);
+    public List<Transaction> getTransactionsByStatus(TransactionStatus status) {
+        return transactionCache.getTransactions("status", status, () -> transactionRepository.findByStatus(status));
     }
 
     /**
      * Get transactions by type
      */
-    public List<Transaction> getTransactionsByType(String type) {
-        return transactionRepository.findByType(type);
+    public List<Transaction> getTransactionsByType(TransactionType type) {
+        return transactionCache.getTransactions("type", type, () -> transactionRepository.findByType(type));
     }
 
     /**
      * Get transactions by category
      */
     public List<Transaction> getTransactionsByCategory(String category) {
-        return transactionRepository.findByCategory(category);
+        return transactionCache.getTransactions("category", category,
+                () -> transactionRepository.findByCategory(category));
     }
 
     /**
      * Update an existing transaction
      */
     public Transaction updateTransaction(Long id, Transaction transactionDetails) {
-        Transaction transaction = transactionRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Transaction not found with id: " + id));
-
-        transaction.setDescription(transactionDetails.getDescription());
-        transaction.setAmount(transactionDetails.getAmount());
-        transaction.setType(transactionDetails.getType());
-        transaction.setStatus(transactionDetails.getStatus());
-        transaction.setCategory(transactionDetails.getCategory());
-        transaction.setReference(transactionDetails.getReference());
+        return updateTransaction(id, transactionDetails, null);
+    }
 
-        return transactionRepository.save(transaction);
+    /**
+     * Update an existing transaction if it is still at {@code expectedVersion}; a null version updates
+     * whatever is current. A status change must be legal from the status read on each attempt, as for
+     * {@link #updateTransactionStatus(Long, TransactionStatus, Long)}.
+     *
+     * @throws TransactionVersionConflictException if the transaction has moved past {@code expectedVersion}
+     * @throws TransactionStatusConflictException  if the current status may not move to the requested one
+     */
+    public Transaction updateTransaction(Long id, Transaction transactionDetails, Long expectedVersion) {
+        registerCategory(transactionDetails.getCategory());
+        Modification modification = modify(id, expectedVersion, transaction -> {
+            if (transactionDetails.getStatus() != null) {
+                checkTransition(id, transaction.getStatus(), transactionDetails.getStatus());
+            }
+            transaction.setDescription(transactionDetails.getDescription());
+            transaction.setAmount(transactionDetails.getAmount());
+            transaction.setType(transactionDetails.getType());
+            transaction.setStatus(transactionDetails.getStatus());
+            transaction.setCategory(transactionDetails.getCategory());
+            transaction.setReference(transactionDetails.getReference());
+        });
+        Transaction saved = modification.saved();
+        transactionChangeNotifier.updated(modification.before(), saved);
+        return saved;
     }
 
     /**
      * Save or update a transaction
      */
     public Transaction saveTransaction(Transaction transaction) {
-        return transactionRepository.save(transaction);
+        Transaction before = transaction.getId() == null
+                ? null
+                : transactionRepository.findById(transaction.getId()).map(this::snapshot).orElse(null);
+        if (before != null && transaction.getVersion() == null) {
+            // No version given: overwrite whatever is current rather than being taken for a new row
+            transaction.setVersion(before.getVersion());
+        }
+        registerCategory(transaction.getCategory());
+        Transaction saved = transactionRepository.save(transaction);
+        if (before == null) {
+            transactionChangeNotifier.created(saved);
+        } else {
+            transactionChangeNotifier.updated(before, saved);
+        }
+        return saved;
     }
 
     /**
      * Delete transaction by ID
      */
     public void deleteTransaction(Long id) {
-        if (!transactionRepository.existsById(id)) {
-            throw new RuntimeException("Transaction not found with id: " + id);
-        }
-        transactionRepository.deleteById(id);
+        Transaction transaction = transactionRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Transaction not found with id: " + id));
+        transactionRepository.delete(transaction);
+        transactionChangeNotifier.deleted(transaction);
     }
 
     /**
      * Update transaction status
      */
-    public Transaction updateTransactionStatus(Long id, String status) {
-        Transaction transaction = transactionRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Transaction not found with id: " + id));
-        transaction.setStatus(status);
-        return transactionRepository.save(transaction);
+    public Transaction updateTransactionStatus(Long id, TransactionStatus status) {
+        return updateTransactionStatus(id, status, null);
+    }
+
+    /**
+     * Update transaction status if the transaction is still at {@code expectedVersion}; a null version
+     * updates whatever is current. Only the moves a settlement run may make are allowed (see
+     * {@link TransactionStatusTransitionService#LEGAL_TRANSITIONS}), checked against the status read
+     * on each attempt, so a retry after losing a race never undoes a concurrent settlement.
+     *
+     * @throws TransactionVersionConflictException if the transaction has moved past {@code expectedVersion}
+     * @throws TransactionStatusConflictException  if the current status may not move to {@code status}
+     */
+    public Transaction updateTransactionStatus(Long id, TransactionStatus status, Long expectedVersion) {
+        Modification modification = modify(id, expectedVersion, transaction -> {
+            checkTransition(id, transaction.getStatus(), status);
+            transaction.setStatus(status);
+        });
+        Transaction saved = modification.saved();
+        transactionChangeNotifier.statusChanged(modification.before(), saved);
+        return saved;
+    }
+
+    /**
+     * Reject a status change a settlement run could not make; keeping the status is always allowed
+     */
+    private static void checkTransition(Long id, TransactionStatus current, TransactionStatus requested) {
+        if (current != requested && !TransactionStatusTransitionService.LEGAL_TRANSITIONS
+                .getOrDefault(current, Set.of()).contains(requested)) {
+            throw new TransactionStatusConflictException(id, current, requested);
+        }
+    }
+
+    /**
+     * Add a new category to the dictionary before the write opens its transaction, so registering it
+     * never needs a second connection while the write holds one
+     */
+    private void registerCategory(String category) {
+        if (category != null) {
+            transactionCategoryDictionary.register(category);
+        }
+    }
+
+    /**
+     * A transaction as it was before a change, and as saved after it
+     */
+    private record Modification(Transaction before, Transaction saved) {
+    }
+
+    /**
+     * Read, change and save one transaction. The save only succeeds if nobody else has written the row
+     * since it was read. When the caller named a version, losing that race is their conflict to resolve;
+     * otherwise the change is re-applied to a fresh read, up to {@code maxUpdateAttempts} times.
+     */
+    private Modification modify(Long id, Long expectedVersion, Consumer<Transaction> change) {
+        for (int attempt = 1; ; attempt++) {
+            Transaction transaction = transactionRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Transaction not found with id: " + id));
+            if (expectedVersion != null && !expectedVersion.equals(transaction.getVersion())) {
+                throw new TransactionVersionConflictException(id, expectedVersion);
+            }
+            Transaction before = snapshot(transaction);
+            change.accept(transaction);
+            try {
+                return new Modification(before, transactionRepository.save(transaction));
+            } catch (OptimisticLockingFailureException e) {
+                if (expectedVersion != null) {
+                    throw new TransactionVersionConflictException(id, expectedVersion);
+                }
+                if (attempt >= maxUpdateAttempts) {
+                    throw e;
+                }
+                backOff(attempt);
+            }
+        }
+    }
+
+    /**
+     * Sleep a random interval that grows with the attempt number, so writers that collided do not
+     * collide again in lockstep
+     */
+    private void backOff(int attempt) {
+        long bound = updateRetryBackoffMs * attempt;
+        if (bound <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying update", e);
+        }
+    }
+
+    private long writeNdjson(Iterator<Transaction> rows, OutputStream out) throws IOException {
+        long count = 0;
+        ObjectWriter rowWriter = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n");
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            while (rows.hasNext()) {
+                Transaction transaction = rows.next();
+                rowWriter.writeValue(generator, transaction);
+                entityManager.detach(transaction);
+                count++;
+            }
+            if (count > 0) {
+                generator.writeRaw('\n');
+            }
+        }
+        out.flush();
+        return count;
+    }
+
+    private long writeCsv(Iterator<Transaction> rows, OutputStream out) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write("id,transactionId,description,amount,type,status,transactionDate,category,reference\n");
+        while (rows.hasNext()) {
+            Transaction transaction = rows.next();
+            writer.write(String.valueOf(transaction.getId()));
+            writer.write(',');
+            writeCsvField(writer, transaction.getTransactionId());
+            writer.write(',');
+            writeCsvField(writer, transaction.getDescription());
+            writer.write(',');
+            writer.write(transaction.getAmount().toPlainString());
+            writer.write(',');
+            writer.write(transaction.getType().name());
+            writer.write(',');
+            writer.write(transaction.getStatus().name());
+            writer.write(',');
+            writer.write(transaction.getTransactionDate().toString());
+            writer.write(',');
+            writeCsvField(writer, transaction.getCategory());
+            writer.write(',');
+            writeCsvField(writer, transaction.getReference());
+            writer.write('\n');
+            entityManager.detach(transaction);
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    /**
+     * Write a CSV field, quoting it (RFC 4180) only when it contains a delimiter, quote or line break
+     */
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean needsQuoting = false;
+        for (int i = 0; i < value.length() && !needsQuoting; i++) {
+            char c = value.charAt(i);
+            needsQuoting = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!needsQuoting) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    /**
+     * Detached copy of a transaction's current field values, taken before it is modified
+     */
+    private Transaction snapshot(Transaction transaction) {
+        Transaction copy = new Transaction();
+        BeanUtils.copyProperties(transaction, copy);
+        return copy;
+    }
+
+    /**
+     * Clamp the requested page size to [1, maxPageSize]
+     */
+    private int resolvePageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return Math.min(defaultPageSize, maxPageSize);
+        }
+        return Math.min(size, maxPageSize);
     }
 
     /**
      * Generate unique transaction ID
      */
     private String generateTransactionId() {
-        return "TXN-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        return transactionIdGenerator.nextId();
     }
 }
@@ -0,0 +1,33 @@
+package com.payan.demo.service;
+
+import com.payan.demo.entity.TransactionStatus;
+
+/**
+ * Thrown when a transaction's current status may not move to the requested one, e.g. a COMPLETED
+ * transaction being set back to PENDING
+ */
+public class TransactionStatusConflictException extends RuntimeException {
+
+    private final Long id;
+    private final TransactionStatus currentStatus;
+    private final TransactionStatus requestedStatus;
+
+    public TransactionStatusConflictException(Long id, TransactionStatus currentStatus, TransactionStatus requestedStatus) {
+        super("Transaction " + id + " cannot move from " + currentStatus + " to " + requestedStatus);
+        this.id = id;
+        this.currentStatus = currentStatus;
+        this.requestedStatus = requestedStatus;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public TransactionStatus getCurrentStatus() {
+        return currentStatus;
+    }
+
+    public TransactionStatus getRequestedStatus() {
+        return requestedStatus;
+    }
+}
@@ -0,0 +1,285 @@
+package com.payan.demo.service;
+
+import com.payan.demo.dto.StatusTransitionProgress;
+import com.payan.demo.dto.StatusTransitionRequest;
+import com.payan.demo.entity.Transaction;
+import com.payan.demo.entity.TransactionStatus;
+import com.payan.demo.repository.TransactionRepository;
+import com.payan.demo.repository.TransactionSpecifications;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Bulk status transitions for settlement runs. A run works through the matching rows in id order, one
+ * database transaction per chunk: the chunk is read with a row lock, then moved with a single UPDATE
+ * whose WHERE clause only accepts rows in a legal source status. Runs execute one at a time in the
+ * background and report their progress by id.
+ */
+@Service
+public class TransactionStatusTransitionService {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionStatusTransitionService.class);
+
+    /**
+     * Statuses a transaction may move to from each status; PENDING is the only non-final one
+     */
+    static final Map<TransactionStatus, Set<TransactionStatus>> LEGAL_TRANSITIONS = Map.of(
+            TransactionStatus.PENDING, Set.of(TransactionStatus.COMPLETED, TransactionStatus.FAILED));
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionChangeNotifier transactionChangeNotifier;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${payan.transactions.status-transition.chunk-size:1000}")
+    private int chunkSize = 1000;
+
+    @Value("${payan.transactions.status-transition.max-ids:100000}")
+    private int maxIds = 100000;
+
+    @Value("${payan.transactions.status-transition.retained-runs:100}")
+    private int retainedRuns = 100;
+
+    private final Map<String, Run> runs = new LinkedHashMap<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "status-transition");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Validate the request and queue the run
+     *
+     * @throws IllegalArgumentException if the target status cannot be reached from any status, there is
+     *                                  neither an id list nor a filter, too many ids are given, or the
+     *                                  filter is invalid
+     */
+    public StatusTransitionProgress start(StatusTransitionRequest request) {
+        if (request == null) {
+            throw new IllegalArgumentException("Request body is required");
+        }
+        Set<TransactionStatus> fromStatuses = sourceStatuses(request.targetStatus());
+        if (fromStatuses.isEmpty()) {
+            throw new IllegalArgumentException("No transaction may move to status: " + request.targetStatus());
+        }
+        boolean hasIds = request.ids() != null && !request.ids().isEmpty();
+        if (!hasIds && request.filter() == null) {
+            throw new IllegalArgumentException("Either ids or filter is required");
+        }
+        if (hasIds && request.ids().size() > maxIds) {
+            throw new IllegalArgumentException("Id list size " + request.ids().size() + " exceeds maximum of " + maxIds);
+        }
+        if (request.filter() != null) {
+            // Compiled again by the run; done here so a bad filter is rejected before the run is queued
+            TransactionSpecifications.matching(request.filter());
+        }
+
+        Run run = new Run(UUID.randomUUID().toString(), request, fromStatuses);
+        synchronized (runs) {
+            runs.put(run.id, run);
+            evictFinishedRuns();
+        }
+        executor.execute(() -> execute(run));
+        return run.progress();
+    }
+
+    /**
+     * Progress of a run started recently, or empty once it has been evicted
+     */
+    public Optional<StatusTransitionProgress> getProgress(String id) {
+        synchronized (runs) {
+            Run run = runs.get(id);
+            return run == null ? Optional.empty() : Optional.of(run.progress());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Statuses from which {@code targetStatus} may be reached
+     */
+    static Set<TransactionStatus> sourceStatuses(TransactionStatus targetStatus) {
+        Set<TransactionStatus> sources = EnumSet.noneOf(TransactionStatus.class);
+        if (targetStatus == null) {
+            return sources;
+        }
+        LEGAL_TRANSITIONS.forEach((from, targets) -> {
+            if (targets.contains(targetStatus)) {
+                sources.add(from);
+            }
+        });
+        return sources;
+    }
+
+    private void execute(Run run) {
+        run.started();
+        try {
+            Specification<Transaction> candidates = TransactionSpecifications.statusIn(run.fromStatuses);
+            if (run.request.filter() != null) {
+                candidates = candidates.and(TransactionSpecifications.matching(run.request.filter()));
+            }
+            List<Long> ids = run.request.ids();
+            if (ids != null && !ids.isEmpty()) {
+                List<Long> sorted = new ArrayList<>(new TreeSet<>(ids));
+                run.total = sorted.size();
+                for (int start = 0; start < sorted.size(); start += chunkSize) {
+                    List<Long> chunk = sorted.subList(start, Math.min(start + chunkSize, sorted.size()));
+                    transitionChunk(run, candidates.and(TransactionSpecifications.idIn(chunk)), chunk.size(), chunk.size());
+                }
+            } else {
+                run.total = transactionRepository.count(candidates);
+                long lastId = Long.MIN_VALUE;
+                List<Transaction> chunk;
+                do {
+                    chunk = transitionChunk(run, candidates.and(TransactionSpecifications.idAfter(lastId)), chunkSize, -1);
+                    if (!chunk.isEmpty()) {
+                        lastId = chunk.get(chunk.size() - 1).getId();
+                    }
+                } while (chunk.size() == chunkSize);
+            }
+            run.finished(null);
+        } catch (RuntimeException e) {
+            log.warn("Status transition {} to {} failed after {} rows", run.id, run.request.targetStatus(), run.updated, e);
+            run.finished(NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+        }
+    }
+
+    /**
+     * Lock and move one chunk, then report the change to every {@link TransactionChangeListener}
+     *
+     * @param examined ids covered by this chunk, or -1 to count the rows read
+     * @return the rows as they were before the change
+     */
+    private List<Transaction> transitionChunk(Run run, Specification<Transaction> specification, int limit, int examined) {
+        TransactionStatus toStatus = run.request.targetStatus();
+        List<Transaction> before = new ArrayList<>();
+        int updated = new TransactionTemplate(transactionManager).execute(status -> {
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Transaction> query = cb.createQuery(Transaction.class);
+            Root<Transaction> root = query.from(Transaction.class);
+            query.where(specification.toPredicate(root, query, cb)).orderBy(cb.asc(root.get("id")));
+            List<Transaction> rows = entityManager.createQuery(query)
+                    .setMaxResults(limit)
+                    .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                    .getResultList();
+            if (rows.isEmpty()) {
+                return 0;
+            }
+            before.addAll(rows);
+            entityManager.clear();
+            return transactionRepository.updateStatus(rows.stream().map(Transaction::getId).toList(),
+                    run.fromStatuses, toStatus);
+        });
+
+        if (!before.isEmpty()) {
+            List<Transaction> after = new ArrayList<>(before.size());
+            for (Transaction row : before) {
+                Transaction changed = new Transaction();
+                BeanUtils.copyProperties(row, changed);
+                changed.setStatus(toStatus);
+                changed.setVersion(row.getVersion() + 1);
+                after.add(changed);
+            }
+            transactionChangeNotifier.statusChanged(before, after);
+        }
+        run.chunkDone(examined < 0 ? before.size() : examined, updated);
+        return before;
+    }
+
+    private void evictFinishedRuns() {
+        var iterator = runs.values().iterator();
+        while (runs.size() > retainedRuns && iterator.hasNext()) {
+            if (iterator.next().isFinished()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Mutable state of one run; written by the run's thread, read by anyone asking for progress
+     */
+    private static final class Run {
+
+        private final String id;
+        private final StatusTransitionRequest request;
+        private final Set<TransactionStatus> fromStatuses;
+        private volatile StatusTransitionProgress.State state = StatusTransitionProgress.State.QUEUED;
+        private volatile long total;
+        private volatile long processed;
+        private volatile long updated;
+        private volatile int chunks;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+
+        private Run(String id, StatusTransitionRequest request, Set<TransactionStatus> fromStatuses) {
+            this.id = id;
+            this.request = request;
+            this.fromStatuses = fromStatuses;
+        }
+
+        private void started() {
+            startedAt = LocalDateTime.now();
+            state = StatusTransitionProgress.State.RUNNING;
+        }
+
+        private void chunkDone(long examined, long changed) {
+            processed += examined;
+            updated += changed;
+            chunks++;
+        }
+
+        private void finished(String failure) {
+            error = failure;
+            finishedAt = LocalDateTime.now();
+            state = failure == null ? StatusTransitionProgress.State.COMPLETED : StatusTransitionProgress.State.FAILED;
+        }
+
+        private boolean isFinished() {
+            return finishedAt != null;
+        }
+
+        private StatusTransitionProgress progress() {
+            return new StatusTransitionProgress(id, state, request.targetStatus(), total, processed, updated,
+                    processed - updated, chunks, startedAt, finishedAt, error);
+        }
+    }
+}
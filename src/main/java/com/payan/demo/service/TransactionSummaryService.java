@@ -0,0 +1,233 @@
+package com.payan.demo.service;
+
+import com.payan.demo.dto.TransactionAggregate;
+import com.payan.demo.dto.TransactionSummary;
+import com.payan.demo.entity.MinorUnits;
+import com.payan.demo.entity.Transaction;
+import com.payan.demo.entity.TransactionStatus;
+import com.payan.demo.entity.TransactionType;
+import com.payan.demo.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Running totals over the transactions table, so the dashboard never has to load the rows.
+ * Seeded once from a GROUP BY query, then kept current through {@link TransactionChangeListener}.
+ * Amounts are summed as long minor units, so a write updates the totals without allocating; they
+ * become decimals only in the snapshot handed to readers.
+ */
+@Service
+@Order(1)
+public class TransactionSummaryService implements TransactionChangeListener {
+
+    /**
+     * Scale all totals are kept at
+     */
+    private static final int SCALE = MinorUnits.DEFAULT_SCALE;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Value("${payan.summary.rebuild-async:false}")
+    private boolean rebuildAsync;
+
+    private long totalCount;
+    private long creditCount;
+    private long debitCount;
+    private long creditTotal;
+    private long debitTotal;
+    private final Map<TransactionStatus, Long> countsByStatus = new EnumMap<>(TransactionStatus.class);
+    private final Map<String, Bucket> bucketsByCategory = new HashMap<>();
+    private final Map<LocalDate, Bucket> bucketsByDay = new HashMap<>();
+
+    /**
+     * Immutable view handed to readers; rebuilt lazily after a write
+     */
+    private TransactionSummary snapshot;
+
+    /**
+     * Get the current summary. Repeated reads between writes return the same cached instance.
+     */
+    public synchronized TransactionSummary getSummary() {
+        if (snapshot == null) {
+            snapshot = buildSnapshot();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Number of transactions, without building a snapshot
+     */
+    public synchronized long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Seed the totals at startup. With rebuild-async the GROUP BY runs on its own thread, so the
+     * application reports ready at once; readers and writers wait on the lock until it finishes.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (!rebuildAsync) {
+            rebuild();
+            return;
+        }
+        CountDownLatch locked = new CountDownLatch(1);
+        Thread.ofPlatform().name("summary-rebuild").daemon().start(() -> {
+            synchronized (this) {
+                locked.countDown();
+                rebuild();
+            }
+        });
+        // Return only once the rebuild holds the lock, so no request can read the empty totals
+        try {
+            locked.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Recompute all totals from the database
+     */
+    public synchronized void rebuild() {
+        reset();
+        for (TransactionAggregate aggregate : transactionRepository.aggregateByTypeStatusCategoryAndDay()) {
+            apply(aggregate.type(), aggregate.status(), aggregate.category(), aggregate.day(),
+                    aggregate.count(), MinorUnits.rescale(aggregate.totalMinor(), aggregate.scale(), SCALE));
+        }
+    }
+
+    /**
+     * Add a newly created transaction to the totals
+     */
+    public synchronized void onCreated(Transaction transaction) {
+        apply(transaction, 1);
+    }
+
+    /**
+     * Replace the contribution of a transaction's previous state with its new state
+     */
+    public synchronized void onUpdated(Transaction before, Transaction after) {
+        apply(before, -1);
+        apply(after, 1);
+    }
+
+    /**
+     * Remove a deleted transaction from the totals
+     */
+    public synchronized void onDeleted(Transaction transaction) {
+        apply(transaction, -1);
+    }
+
+    @Override
+    public synchronized void onCreated(List<Transaction> created) {
+        created.forEach(this::onCreated);
+    }
+
+    @Override
+    public synchronized void onUpdated(List<Transaction> before, List<Transaction> after) {
+        for (int i = 0; i < before.size(); i++) {
+            onUpdated(before.get(i), after.get(i));
+        }
+    }
+
+    @Override
+    public synchronized void onDeleted(List<Transaction> deleted) {
+        deleted.forEach(this::onDeleted);
+    }
+
+    private void apply(Transaction transaction, int sign) {
+        LocalDate day = transaction.getTransactionDate() == null ? null : transaction.getTransactionDate().toLocalDate();
+        long amount = transaction.getAmountMinor() == null
+                ? 0
+                : MinorUnits.rescale(transaction.getAmountMinor(), transaction.getAmountScale(), SCALE);
+        apply(transaction.getType(), transaction.getStatus(), transaction.getCategory(), day,
+                sign, sign < 0 ? -amount : amount);
+    }
+
+    private void apply(TransactionType type, TransactionStatus status, String category, LocalDate day, long count, long total) {
+        totalCount += count;
+        if (type == TransactionType.CREDIT) {
+            creditCount += count;
+            creditTotal = Math.addExact(creditTotal, total);
+        } else if (type == TransactionType.DEBIT) {
+            debitCount += count;
+            debitTotal = Math.addExact(debitTotal, total);
+        }
+        if (status != null) {
+            countsByStatus.merge(status, count, (a, b) -> a + b == 0 ? null : a + b);
+        }
+        if (category != null) {
+            addToBucket(bucketsByCategory, category, count, total);
+        }
+        if (day != null) {
+            addToBucket(bucketsByDay, day, count, total);
+        }
+        snapshot = null;
+    }
+
+    private static <K> void addToBucket(Map<K, Bucket> buckets, K key, long count, long total) {
+        Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket());
+        bucket.count += count;
+        bucket.total = Math.addExact(bucket.total, total);
+        if (bucket.count == 0) {
+            buckets.remove(key);
+        }
+    }
+
+    private void reset() {
+        totalCount = 0;
+        creditCount = 0;
+        debitCount = 0;
+        creditTotal = 0;
+        debitTotal = 0;
+        countsByStatus.clear();
+        bucketsByCategory.clear();
+        bucketsByDay.clear();
+        snapshot = null;
+    }
+
+    private TransactionSummary buildSnapshot() {
+        Map<String, BigDecimal> totalsByCategory = new TreeMap<>();
+        bucketsByCategory.forEach((category, bucket) ->
+                totalsByCategory.put(category, MinorUnits.toDecimal(bucket.total, SCALE)));
+        Map<LocalDate, BigDecimal> totalsByDay = new TreeMap<>();
+        bucketsByDay.forEach((day, bucket) -> totalsByDay.put(day, MinorUnits.toDecimal(bucket.total, SCALE)));
+        Map<String, Long> statusCounts = new TreeMap<>();
+        countsByStatus.forEach((status, count) -> statusCounts.put(status.name(), count));
+
+        return new TransactionSummary(
+                totalCount,
+                creditCount,
+                debitCount,
+                MinorUnits.toDecimal(creditTotal, SCALE),
+                MinorUnits.toDecimal(debitTotal, SCALE),
+                MinorUnits.toDecimal(Math.subtractExact(creditTotal, debitTotal), SCALE),
+                Collections.unmodifiableMap(statusCounts),
+                Collections.unmodifiableMap(totalsByCategory),
+                Collections.unmodifiableMap(totalsByDay));
+    }
+
+    /**
+     * Row count and amount sum, in minor units, of one group
+     */
+    private static final class Bucket {
+        private long count;
+        private long total;
+    }
+}
@@ -0,0 +1,24 @@
+package com.payan.demo.service;
+
+/**
+ * Thrown when a conditional update names a version of a transaction that is no longer current
+ */
+public class TransactionVersionConflictException extends RuntimeException {
+
+    private final Long id;
+    private final Long expectedVersion;
+
+    public TransactionVersionConflictException(Long id, Long expectedVersion) {
+        super("Transaction " + id + " is no longer at version " + expectedVersion);
+        this.id = id;
+        this.expectedVersion = expectedVersion;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getExpectedVersion() {
+        return expectedVersion;
+    }
+}
@@ -0,0 +1,51 @@
+package com.payan.demo.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded, TTL-evicting cache of the UserDetails Spring Security loads on every authentication.
+ * UserService evicts a username whenever that user is updated, toggled or deleted.
+ */
+@Component
+public class UserDetailsCache {
+
+    private final Cache<String, UserDetails> usersByUsername;
+
+    public UserDetailsCache(
+            @Value("${payan.security.user-cache.maximum-size:10000}") long maximumSize,
+            @Value("${payan.security.user-cache.expire-after-write:5m}") Duration ttl) {
+        this.usersByUsername = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Get the user, loading and caching it on a miss. Exceptions from the loader are not cached.
+     * <p>
+     * A fresh copy is returned every time because Spring Security erases the password of the
+     * authenticated principal, which would otherwise wipe it from the cached instance.
+     */
+    public UserDetails get(String username, Function<String, UserDetails> loader) {
+        return User.withUserDetails(usersByUsername.get(username, loader)).build();
+    }
+
+    /**
+     * Drop the given usernames
+     */
+    public void evict(String... usernames) {
+        for (String username : usernames) {
+            if (username != null) {
+                usersByUsername.invalidate(username);
+            }
+        }
+    }
+}
@@ -18,13 +18,21 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private TableVersions tableVersions;
+
     /**
      * Create a new user
      */
     public User createUser(User user) {
         // Encode password before saving
         user.setPassword(passwordEncoder.encode(user.getPassword()));
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        tableVersions.users().bump();
+        return saved;
     }
 
     /**
@@ -54,6 +62,7 @@ public class UserService {
     public User updateUser(Long id, User userDetails) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+        String previousUsername = user.getUsername();
 
         user.setUsername(userDetails.getUsername());
         user.setFullName(userDetails.getFullName());
@@ -66,17 +75,21 @@ public class UserService {
             user.setPassword(passwordEncoder.encode(userDetails.getPassword()));
         }
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userDetailsCache.evict(previousUsername, saved.getUsername());
+        tableVersions.users().bump();
+        return saved;
     }
 
     /**
      * Delete user by ID
      */
     public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new RuntimeException("User not found with id: " + id);
-        }
-        userRepository.deleteById(id);
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+        userRepository.delete(user);
+        userDetailsCache.evict(user.getUsername());
+        tableVersions.users().bump();
     }
 
     /**
@@ -93,6 +106,9 @@ public class UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
         user.setEnabled(!user.isEnabled());
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userDetailsCache.evict(saved.getUsername());
+        tableVersions.users().bump();
+        return saved;
     }
 }
@@ -0,0 +1,16 @@
+package com.payan.demo.service;
+
+import java.util.UUID;
+
+/**
+ * The original generator: 8 hex characters of a random UUID. Only 32 bits, so collisions become
+ * likely after tens of thousands of rows, and every call goes through the shared SecureRandom.
+ * Kept for comparison and for deployments that depend on the old format.
+ */
+public class UuidTransactionIdGenerator implements TransactionIdGenerator {
+
+    @Override
+    public String nextId() {
+        return "TXN-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
+}
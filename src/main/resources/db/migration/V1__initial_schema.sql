@@ -0,0 +1,34 @@
+-- Schema as of the in-memory setup (ddl-auto=create-drop); later changes go in new V<n>__ files
+
+create sequence transactions_seq start with 1 increment by 50;
+
+create table transactions (
+    id bigint not null,
+    transaction_id varchar(255) not null,
+    description varchar(255) not null,
+    amount numeric(38,2) not null,
+    type varchar(255) not null,
+    status varchar(255) not null,
+    transaction_date timestamp(6) not null,
+    category varchar(255) not null,
+    reference varchar(255),
+    primary key (id),
+    constraint ux_transactions_transaction_id unique (transaction_id)
+);
+
+create index idx_transactions_date_id on transactions (transaction_date desc, id desc);
+create index idx_transactions_status_date on transactions (status, transaction_date desc);
+create index idx_transactions_type_date on transactions (type, transaction_date desc);
+create index idx_transactions_category_date on transactions (category, transaction_date desc);
+create index idx_transactions_reference on transactions (reference);
+
+create table users (
+    id bigint generated by default as identity,
+    username varchar(255) not null unique,
+    password varchar(255) not null,
+    full_name varchar(255) not null,
+    email varchar(255) not null,
+    role varchar(255) not null,
+    enabled boolean not null,
+    primary key (id)
+);
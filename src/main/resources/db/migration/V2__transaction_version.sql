@@ -0,0 +1,2 @@
+-- Optimistic locking for transactions; existing rows start at version 0
+alter table transactions add column version bigint default 0 not null;
@@ -0,0 +1,7 @@
+-- Amounts as whole minor units plus the currency's scale, so sums run on bigint instead of numeric.
+-- Every existing amount is numeric(38,2), i.e. cents at scale 2.
+alter table transactions add column amount_minor bigint;
+alter table transactions add column amount_scale integer default 2 not null;
+update transactions set amount_minor = cast(amount * 100 as bigint);
+alter table transactions alter column amount_minor set not null;
+alter table transactions drop column amount;
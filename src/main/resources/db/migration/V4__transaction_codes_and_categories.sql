@@ -0,0 +1,39 @@
+-- Type and status as smallint codes (see TransactionType and TransactionStatus), and category as an id
+-- into a dictionary table, so each row and each of its index entries carries a few bytes, not a string.
+create table transaction_categories (
+    id integer generated by default as identity,
+    name varchar(255) not null,
+    primary key (id),
+    constraint ux_transaction_categories_name unique (name)
+);
+
+insert into transaction_categories (name)
+select distinct category from transactions order by category;
+
+alter table transactions add column type_code smallint;
+alter table transactions add column status_code smallint;
+alter table transactions add column category_id integer;
+
+update transactions set
+    type_code = case type when 'DEBIT' then 1 when 'CREDIT' then 2 end,
+    status_code = case status when 'PENDING' then 1 when 'COMPLETED' then 2 when 'FAILED' then 3 end,
+    category_id = (select c.id from transaction_categories c where c.name = transactions.category);
+
+drop index idx_transactions_status_date;
+drop index idx_transactions_type_date;
+drop index idx_transactions_category_date;
+alter table transactions drop column type;
+alter table transactions drop column status;
+alter table transactions drop column category;
+
+alter table transactions alter column type_code rename to type;
+alter table transactions alter column status_code rename to status;
+alter table transactions alter column type set not null;
+alter table transactions alter column status set not null;
+alter table transactions alter column category_id set not null;
+
+create index idx_transactions_status_date on transactions (status, transaction_date desc);
+create index idx_transactions_type_date on transactions (type, transaction_date desc);
+create index idx_transactions_category_date on transactions (category_id, transaction_date desc);
+alter table transactions add constraint fk_transactions_category
+    foreign key (category_id) references transaction_categories (id);
@@ -0,0 +1,16 @@
+-- Minute, hour and day buckets of transaction counts and totals, so time-series reads scan a few
+-- rollup rows instead of every transaction. Filled by the application at startup.
+create table transaction_rollups (
+    id bigint generated by default as identity,
+    granularity smallint not null,
+    bucket_start timestamp(6) not null,
+    type smallint not null,
+    status smallint not null,
+    category_id integer not null,
+    row_count bigint not null,
+    total_minor bigint not null,
+    primary key (id)
+);
+
+create unique index ux_transaction_rollups_bucket
+    on transaction_rollups (granularity, bucket_start, type, status, category_id);
@@ -0,0 +1,80 @@
+package com.payan.demo.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachingPasswordEncoderTest {
+
+    @Mock
+    private PasswordEncoder delegate;
+
+    private CachingPasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void setUp() {
+        passwordEncoder = new CachingPasswordEncoder(delegate, 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void matches_shouldVerifyWithDelegateOnlyOncePerCredential() {
+        // Given
+        when(delegate.matches("secret", "$2a$10$hash")).thenReturn(true);
+
+        // When
+        boolean first = passwordEncoder.matches("secret", "$2a$10$hash");
+        boolean second = passwordEncoder.matches("secret", "$2a$10$hash");
+
+        // Then
+        assertTrue(first);
+        assertTrue(second);
+        verify(delegate, times(1)).matches("secret", "$2a$10$hash");
+    }
+
+    @Test
+    void matches_shouldNeverCacheFailedAttempts() {
+        // Given
+        when(delegate.matches("wrong", "$2a$10$hash")).thenReturn(false);
+
+        // When
+        passwordEncoder.matches("wrong", "$2a$10$hash");
+        boolean second = passwordEncoder.matches("wrong", "$2a$10$hash");
+
+        // Then
+        assertFalse(second);
+        verify(delegate, times(2)).matches("wrong", "$2a$10$hash");
+    }
+
+    @Test
+    void matches_afterPasswordChange_shouldVerifyAgainstNewHash() {
+        // Given
+        when(delegate.matches("secret", "$2a$10$old")).thenReturn(true);
+        when(delegate.matches("secret", "$2a$10$new")).thenReturn(false);
+        passwordEncoder.matches("secret", "$2a$10$old");
+
+        // When
+        boolean matches = passwordEncoder.matches("secret", "$2a$10$new");
+
+        // Then
+        assertFalse(matches);
+        verify(delegate).matches("secret", "$2a$10$new");
+    }
+
+    @Test
+    void encode_shouldDelegate() {
+        // Given
+        when(delegate.encode("secret")).thenReturn("$2a$10$hash");
+
+        // When & Then
+        assertEquals("$2a$10$hash", passwordEncoder.encode("secret"));
+    }
+}
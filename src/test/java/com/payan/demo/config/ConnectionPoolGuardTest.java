@@ -0,0 +1,92 @@
+package com.payan.demo.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConnectionPoolGuardTest {
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    private ConnectionPoolGuard guard;
+
+    @BeforeEach
+    void setUp() {
+        guard = new ConnectionPoolGuard(dataSource, 1, Duration.ofMillis(50));
+    }
+
+    @Test
+    void getConnection_whenAllPermitsTaken_shouldTimeOut() throws SQLException {
+        // Given
+        when(dataSource.getConnection()).thenReturn(connection);
+        guard.getConnection();
+
+        // When & Then
+        assertThrows(SQLTransientConnectionException.class, () -> guard.getConnection());
+        verify(dataSource, times(1)).getConnection();
+        assertEquals(1, guard.getActiveConnections());
+    }
+
+    @Test
+    void close_shouldReturnPermitOnlyOnce() throws SQLException {
+        // Given
+        when(dataSource.getConnection()).thenReturn(connection);
+        Connection first = guard.getConnection();
+
+        // When
+        first.close();
+        first.close();
+        Connection second = guard.getConnection();
+
+        // Then
+        assertEquals(1, guard.getActiveConnections());
+        assertThrows(SQLTransientConnectionException.class, () -> guard.getConnection());
+        second.close();
+        assertEquals(0, guard.getActiveConnections());
+        verify(connection, times(3)).close();
+    }
+
+    @Test
+    void getConnection_whenPoolFails_shouldReleasePermit() throws SQLException {
+        // Given
+        when(dataSource.getConnection()).thenThrow(new SQLException("pool down")).thenReturn(connection);
+
+        // When
+        assertThrows(SQLException.class, () -> guard.getConnection());
+        Connection connection = guard.getConnection();
+
+        // Then
+        assertNotNull(connection);
+        assertEquals(1, guard.getActiveConnections());
+    }
+
+    @Test
+    void otherCalls_shouldBeDelegated() throws SQLException {
+        // Given
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(true);
+
+        // When
+        Connection guarded = guard.getConnection();
+
+        // Then
+        assertTrue(guarded.getAutoCommit());
+        verify(connection).getAutoCommit();
+    }
+}
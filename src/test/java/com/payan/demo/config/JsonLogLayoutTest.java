@@ -0,0 +1,57 @@
+package com.payan.demo.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonLogLayoutTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final JsonLogLayout layout = new JsonLogLayout();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void doLayout_shouldWriteOneJsonObjectPerLine() throws Exception {
+        // Given
+        LoggingEvent event = new LoggingEvent("fqcn", context.getLogger("com.payan.demo.Test"), Level.WARN,
+                "Quote \" backslash \\ newline \n tab \t bell \u0007 {}", null, new Object[]{42});
+        event.setThreadName("http-nio-8080-exec-1");
+        event.setMDCPropertyMap(Map.of("requestId", "abc"));
+
+        // When
+        String line = layout.doLayout(event);
+
+        // Then
+        assertTrue(line.endsWith(System.lineSeparator()));
+        assertEquals(1, line.strip().lines().count());
+        JsonNode json = objectMapper.readTree(line);
+        assertEquals("WARN", json.get("level").asText());
+        assertEquals("http-nio-8080-exec-1", json.get("thread").asText());
+        assertEquals("com.payan.demo.Test", json.get("logger").asText());
+        assertEquals("Quote \" backslash \\ newline \n tab \t bell \u0007 42", json.get("message").asText());
+        assertEquals("abc", json.get("requestId").asText());
+        assertNotNull(json.get("timestamp"));
+        assertNull(json.get("exception"));
+    }
+
+    @Test
+    void doLayout_withException_shouldIncludeStackTrace() throws Exception {
+        // Given
+        LoggingEvent event = new LoggingEvent("fqcn", context.getLogger("com.payan.demo.Test"), Level.ERROR,
+                "Failed", new IllegalStateException("boom"), null);
+        event.setMDCPropertyMap(Map.of());
+
+        // When
+        JsonNode json = objectMapper.readTree(layout.doLayout(event));
+
+        // Then
+        assertTrue(json.get("exception").asText().contains("java.lang.IllegalStateException: boom"));
+    }
+}
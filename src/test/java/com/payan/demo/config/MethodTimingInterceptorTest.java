@@ -0,0 +1,62 @@
+package com.payan.demo.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MethodTimingInterceptorTest {
+
+    private SimpleMeterRegistry registry;
+    private Calculator calculator;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        ProxyFactory proxyFactory = new ProxyFactory(new Calculator());
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(new MethodTimingInterceptor(() -> registry, "test.invocations"));
+        calculator = (Calculator) proxyFactory.getProxy();
+    }
+
+    @Test
+    void invoke_shouldRecordSuccessfulCallsPerMethod() {
+        // When
+        calculator.add(1, 2);
+        calculator.add(3, 4);
+
+        // Then
+        Timer timer = registry.get("test.invocations")
+                .tags("class", "Calculator", "method", "add", "outcome", "success")
+                .timer();
+        assertEquals(2, timer.count());
+    }
+
+    @Test
+    void invoke_whenMethodThrows_shouldRecordErrorAndRethrow() {
+        // When
+        assertThrows(ArithmeticException.class, () -> calculator.divide(1, 0));
+
+        // Then
+        Timer timer = registry.get("test.invocations")
+                .tags("class", "Calculator", "method", "divide", "outcome", "error")
+                .timer();
+        assertEquals(1, timer.count());
+        assertEquals(0, registry.get("test.invocations").tags("method", "divide", "outcome", "success")
+                .timer().count());
+    }
+
+    static class Calculator {
+
+        public int add(int a, int b) {
+            return a + b;
+        }
+
+        public int divide(int a, int b) {
+            return a / b;
+        }
+    }
+}
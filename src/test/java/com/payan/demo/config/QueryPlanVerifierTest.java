@@ -0,0 +1,104 @@
+package com.payan.demo.config;
+
+import com.payan.demo.repository.TransactionCategoryDictionary;
+import com.payan.demo.repository.TransactionProjectionRepository;
+import com.payan.demo.repository.TransactionRepository;
+import com.payan.demo.repository.TransactionRollupRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({QueryPlanVerifier.class, TransactionCategoryDictionary.class})
+class QueryPlanVerifierTest {
+
+    @Autowired
+    private QueryPlanVerifier queryPlanVerifier;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void restoreIndexes() {
+        // DDL is not rolled back with the test transaction
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_transactions_status_date " +
+                "ON transactions (status, transaction_date DESC)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_transactions_category_date " +
+                "ON transactions (category_id, transaction_date DESC)");
+    }
+
+    @Test
+    void findUnindexedQueries_withSchemaIndexes_shouldReportNothing() {
+        // When
+        List<String> unindexed = queryPlanVerifier.findUnindexedQueries();
+
+        // Then
+        assertTrue(unindexed.isEmpty(), "Unindexed hot queries: " + unindexed);
+    }
+
+    @Test
+    void findUnindexedQueries_whenIndexIsDropped_shouldReportQuery() {
+        // Given
+        jdbcTemplate.execute("DROP INDEX idx_transactions_status_date");
+
+        // When
+        List<String> unindexed = queryPlanVerifier.findUnindexedQueries();
+
+        // Then
+        assertEquals(List.of("findByStatus"), unindexed);
+    }
+
+    @Test
+    void verifyOnStartup_inFailMode_shouldThrowWhenIndexIsMissing() {
+        // Given
+        jdbcTemplate.execute("DROP INDEX idx_transactions_category_date");
+        ReflectionTestUtils.setField(queryPlanVerifier, "mode", "fail");
+
+        // When & Then
+        IllegalStateException e = assertThrows(IllegalStateException.class, queryPlanVerifier::verifyOnStartup);
+        assertTrue(e.getMessage().contains("findByCategory"));
+    }
+
+    @Test
+    void hotQueries_shouldCoverEveryRepositoryQuery() {
+        // Given: queries that read every row by design, or only run in background maintenance
+        Set<String> unchecked = Set.of(
+                "aggregateByTypeStatusCategoryAndDay", // seeds the summary from the whole table at startup
+                "TransactionRollupRepository.merge", // background flush, keyed on the unique bucket index
+                "TransactionRollupRepository.replaceFrom", // background compaction
+                "TransactionRollupRepository.deleteBefore", // background compaction
+                "TransactionRollupRepository.deleteEmpty", // background compaction
+                "TransactionRollupRepository.aggregateTransactions"); // background compaction
+
+        // When
+        Set<String> missing = new TreeSet<>();
+        Stream.of(TransactionRepository.class, TransactionProjectionRepository.class)
+                .flatMap(type -> Arrays.stream(type.getDeclaredMethods()))
+                .map(Method::getName)
+                .filter(name -> !QueryPlanVerifier.REPOSITORY_QUERIES.containsKey(name))
+                .forEach(missing::add);
+        Arrays.stream(TransactionRollupRepository.class.getDeclaredMethods())
+                .filter(method -> Modifier.isPublic(method.getModifiers()) && !Modifier.isStatic(method.getModifiers()))
+                .map(method -> "TransactionRollupRepository." + method.getName())
+                .filter(name -> !QueryPlanVerifier.JDBC_QUERIES.containsKey(name))
+                .forEach(missing::add);
+        missing.removeAll(unchecked);
+
+        // Then
+        assertTrue(missing.isEmpty(), "Repository queries without a query plan check: " + missing);
+    }
+}
@@ -0,0 +1,222 @@
+package com.payan.demo.config;
+
+import com.aayushatharva.brotli4j.decoder.BrotliInputStream;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.mock;
+
+class ResponseCompressionFilterTest {
+
+    private static final String LARGE_BODY = "{\"items\":[" + "{\"id\":1,\"status\":\"COMPLETED\"},".repeat(200) + "{}]}";
+
+    private ResponseCompressionFilter filter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        filter = new ResponseCompressionFilter();
+        filter.afterPropertiesSet();
+    }
+
+    @Test
+    void largeJson_withGzip_shouldBeCompressedWithSuffixedEtag() throws Exception {
+        // Given
+        MockHttpServletRequest request = request("gzip, deflate");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(request, response, writing(MediaType.APPLICATION_JSON_VALUE, "\"table-abc-7\"", LARGE_BODY));
+
+        // Then
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("\"table-abc-7-gzip\"", response.getHeader(HttpHeaders.ETAG));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeader(HttpHeaders.VARY));
+        assertNull(response.getHeader(HttpHeaders.CONTENT_LENGTH));
+        assertTrue(response.getContentAsByteArray().length < LARGE_BODY.length() / 4);
+        assertEquals(LARGE_BODY, decode(new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))));
+    }
+
+    @Test
+    void largeJson_withBrotliPreferred_shouldBeBrotliCompressed() throws Exception {
+        assumeTrue(ResponseCompressionFilter.isBrotliAvailable());
+        // Given
+        MockHttpServletRequest request = request("gzip, deflate, br");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(request, response, writing(MediaType.APPLICATION_JSON_VALUE, "\"table-abc-7\"", LARGE_BODY));
+
+        // Then
+        assertEquals("br", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("\"table-abc-7-br\"", response.getHeader(HttpHeaders.ETAG));
+        assertEquals(LARGE_BODY, decode(new BrotliInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))));
+    }
+
+    @Test
+    void smallJson_shouldBeSentAsIsWithContentLength() throws Exception {
+        // Given
+        MockHttpServletRequest request = request("gzip");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(request, response, writing(MediaType.APPLICATION_JSON_VALUE, "\"table-abc-7\"", "{\"id\":1}"));
+
+        // Then
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("\"table-abc-7\"", response.getHeader(HttpHeaders.ETAG));
+        assertEquals(8, response.getContentLength());
+        assertEquals("{\"id\":1}", response.getContentAsString());
+    }
+
+    @Test
+    void eventStream_shouldNeverBeCompressedOrHeldBack() throws Exception {
+        // Given
+        MockHttpServletRequest request = request("gzip");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> {
+            res.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+            res.getOutputStream().write(":heartbeat\n\n".getBytes(StandardCharsets.UTF_8));
+            res.flushBuffer();
+            // Then, before the request completes
+            assertEquals(":heartbeat\n\n", response.getContentAsString());
+        };
+
+        // When
+        filter.doFilter(request, response, chain);
+
+        // Then
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void withoutAcceptEncoding_shouldPassThrough() throws Exception {
+        // Given
+        MockHttpServletRequest request = request(null);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(request, response, writing(MediaType.APPLICATION_JSON_VALUE, "\"table-abc-7\"", LARGE_BODY));
+
+        // Then
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(LARGE_BODY, response.getContentAsString());
+    }
+
+    @Test
+    void ifNoneMatch_withCompressedTag_shouldReachHandlerWithoutSuffixAndBeRepeatedOn304() throws Exception {
+        // Given
+        MockHttpServletRequest request = request("gzip");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"table-abc-7-gzip\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> {
+            assertEquals("\"table-abc-7\"", ((HttpServletRequest) req).getHeader(HttpHeaders.IF_NONE_MATCH));
+            HttpServletResponse http = (HttpServletResponse) res;
+            http.setHeader(HttpHeaders.ETAG, "\"table-abc-7\"");
+            http.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        };
+
+        // When
+        filter.doFilter(request, response, chain);
+
+        // Then
+        assertEquals(HttpServletResponse.SC_NOT_MODIFIED, response.getStatus());
+        assertEquals("\"table-abc-7-gzip\"", response.getHeader(HttpHeaders.ETAG));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void setWriteListener_shouldPassTheResponseThroughToTheContainerStream() throws Exception {
+        // Given: a container stream that supports non-blocking writes
+        MockHttpServletRequest request = request("gzip");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<WriteListener> registered = new AtomicReference<>();
+        ServletOutputStream containerStream = new ServletOutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                response.getOutputStream().write(b);
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener listener) {
+                registered.set(listener);
+            }
+        };
+        HttpServletResponseWrapper container = new HttpServletResponseWrapper(response) {
+            @Override
+            public ServletOutputStream getOutputStream() {
+                return containerStream;
+            }
+        };
+        WriteListener listener = mock(WriteListener.class);
+        FilterChain chain = (req, res) -> {
+            res.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            ServletOutputStream out = res.getOutputStream();
+            out.write("{\"items\":".getBytes(StandardCharsets.UTF_8));
+            out.setWriteListener(listener);
+            out.write(LARGE_BODY.getBytes(StandardCharsets.UTF_8));
+        };
+
+        // When
+        filter.doFilter(request, container, chain);
+
+        // Then
+        assertSame(listener, registered.get());
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("{\"items\":" + LARGE_BODY, response.getContentAsString());
+    }
+
+    @Test
+    void negotiate_shouldHonourQualityValues() {
+        assertEquals(ResponseCompressionFilter.ContentEncoding.GZIP, ResponseCompressionFilter.negotiate("gzip;q=1.0, br;q=0.5"));
+        assertEquals(ResponseCompressionFilter.ContentEncoding.GZIP, ResponseCompressionFilter.negotiate("br;q=0, *"));
+        assertNull(ResponseCompressionFilter.negotiate("identity"));
+        assertNull(ResponseCompressionFilter.negotiate("gzip;q=0"));
+    }
+
+    private static MockHttpServletRequest request(String acceptEncoding) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/transactions");
+        if (acceptEncoding != null) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        return request;
+    }
+
+    private static FilterChain writing(String contentType, String etag, String body) {
+        return (req, res) -> {
+            HttpServletResponse http = (HttpServletResponse) res;
+            http.setContentType(contentType);
+            http.setHeader(HttpHeaders.ETAG, etag);
+            http.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    private static String decode(InputStream in) throws Exception {
+        try (in) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.payan.demo.config;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlowQueryDataSourceTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(SlowQueryDataSource.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private JdbcDataSource h2;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:slowquery;DB_CLOSE_DELAY=-1");
+        try (Connection connection = h2.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS items (id INT PRIMARY KEY, name VARCHAR(50))");
+            statement.execute("DELETE FROM items");
+        }
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    void preparedStatement_overThreshold_shouldLogSqlAndBindValues() throws SQLException {
+        // Given
+        SlowQueryDataSource dataSource = new SlowQueryDataSource(h2, Duration.ZERO, 1.0);
+
+        // When
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement insert = connection.prepareStatement("INSERT INTO items (id, name) VALUES (?, ?)")) {
+            insert.setInt(1, 7);
+            insert.setString(2, "coffee");
+            insert.executeUpdate();
+        }
+
+        // Then
+        assertEquals(1, appender.list.size());
+        String message = appender.list.get(0).getFormattedMessage();
+        assertTrue(message.contains("INSERT INTO items (id, name) VALUES (?, ?)"), message);
+        assertTrue(message.contains("[1=7, 2='coffee']"), message);
+    }
+
+    @Test
+    void batch_overThreshold_shouldLogBatchSizeAndLastRow() throws SQLException {
+        // Given
+        SlowQueryDataSource dataSource = new SlowQueryDataSource(h2, Duration.ZERO, 1.0);
+
+        // When
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement insert = connection.prepareStatement("INSERT INTO items (id, name) VALUES (?, ?)")) {
+            for (int i = 1; i <= 3; i++) {
+                insert.setInt(1, i);
+                insert.setNull(2, java.sql.Types.VARCHAR);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+
+        // Then
+        String message = appender.list.get(0).getFormattedMessage();
+        assertTrue(message.contains("batch of 3"), message);
+        assertTrue(message.contains("[1=3, 2=NULL]"), message);
+    }
+
+    @Test
+    void statement_underThreshold_shouldNotLog() throws SQLException {
+        // Given
+        SlowQueryDataSource dataSource = new SlowQueryDataSource(h2, Duration.ofMinutes(1), 1.0);
+
+        // When
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM items")) {
+            assertTrue(resultSet.next());
+        }
+
+        // Then
+        assertTrue(appender.list.isEmpty());
+    }
+
+    @Test
+    void statement_withZeroSampleRate_shouldNotLog() throws SQLException {
+        // Given
+        SlowQueryDataSource dataSource = new SlowQueryDataSource(h2, Duration.ZERO, 0.0);
+
+        // When
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("SELECT 1");
+        }
+
+        // Then
+        assertTrue(appender.list.isEmpty());
+    }
+}
@@ -0,0 +1,83 @@
+package com.payan.demo.config;
+
+import com.payan.demo.entity.Transaction;
+import com.payan.demo.entity.TransactionStatus;
+import com.payan.demo.entity.User;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyntheticDataGeneratorTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    @Test
+    void transactions_shouldBeValidAndWithinDateRange() {
+        // Given
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(1, 30, NOW);
+
+        // When
+        List<Transaction> transactions = generator.transactions(1_000);
+
+        // Then
+        assertEquals(1_000, transactions.size());
+        for (Transaction transaction : transactions) {
+            assertNull(transaction.getTransactionId());
+            assertNotNull(transaction.getDescription());
+            assertTrue(transaction.getAmount().compareTo(BigDecimal.ZERO) > 0);
+            assertNotNull(transaction.getType());
+            assertNotNull(transaction.getStatus());
+            assertFalse(transaction.getTransactionDate().isAfter(NOW));
+            assertTrue(transaction.getTransactionDate().isAfter(NOW.minusDays(30)));
+        }
+    }
+
+    @Test
+    void transactions_shouldFollowStatusAndCategorySkew() {
+        // Given
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(7, 30, NOW);
+
+        // When
+        List<Transaction> transactions = generator.transactions(20_000);
+        Map<TransactionStatus, Long> byStatus = transactions.stream()
+                .collect(Collectors.groupingBy(Transaction::getStatus, Collectors.counting()));
+        Map<String, Long> byCategory = transactions.stream()
+                .collect(Collectors.groupingBy(Transaction::getCategory, Collectors.counting()));
+
+        // Then
+        assertEquals(0.90, byStatus.get(TransactionStatus.COMPLETED) / 20_000.0, 0.02);
+        assertEquals(0.03, byStatus.get(TransactionStatus.FAILED) / 20_000.0, 0.01);
+        assertTrue(byCategory.get("Food & Dining") > byCategory.get("Salary") * 5);
+    }
+
+    @Test
+    void transactions_withSameSeed_shouldBeReproducible() {
+        // Given
+        List<Transaction> first = new SyntheticDataGenerator(99, 30, NOW).transactions(50);
+        List<Transaction> second = new SyntheticDataGenerator(99, 30, NOW).transactions(50);
+
+        // Then
+        assertEquals(first, second);
+    }
+
+    @Test
+    void users_shouldShareEncodedPassword() {
+        // Given
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(1, 30, NOW);
+
+        // When
+        List<User> users = generator.users(3, "$2a$10$hash");
+
+        // Then
+        assertEquals(List.of("loaduser1", "loaduser2", "loaduser3"),
+                users.stream().map(User::getUsername).toList());
+        assertTrue(users.stream().allMatch(user -> "$2a$10$hash".equals(user.getPassword())));
+        assertTrue(users.stream().allMatch(user -> "USER".equals(user.getRole()) && user.isEnabled()));
+    }
+}
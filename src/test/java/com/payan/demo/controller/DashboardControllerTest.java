@@ -1,7 +1,11 @@
 package com.payan.demo.controller;
 
 import com.payan.demo.entity.Transaction;
+import com.payan.demo.entity.TransactionStatus;
+import com.payan.demo.entity.TransactionType;
+import com.payan.demo.dto.TransactionSummary;
 import com.payan.demo.service.TransactionService;
+import com.payan.demo.service.TransactionSummaryService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -14,7 +18,11 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -29,22 +37,29 @@ class DashboardControllerTest {
     @MockBean
     private TransactionService transactionService;
 
+    @MockBean
+    private TransactionSummaryService transactionSummaryService;
+
     @Test
     @WithMockUser(username = "admin", roles = {"ADMIN"})
     void whenAuthenticatedUserAccessesDashboard_thenReturnDashboardView() throws Exception {
         // Given
         List<Transaction> mockTransactions = Arrays.asList(
-                createMockTransaction(1L, "TXN001", "Salary Deposit", new BigDecimal("5000.00"), "CREDIT"),
-                createMockTransaction(2L, "TXN002", "Grocery Shopping", new BigDecimal("150.00"), "DEBIT")
+                createMockTransaction(1L, "TXN001", "Salary Deposit", new BigDecimal("5000.00"), TransactionType.CREDIT),
+                createMockTransaction(2L, "TXN002", "Grocery Shopping", new BigDecimal("150.00"), TransactionType.DEBIT)
         );
-        when(transactionService.getAllTransactions()).thenReturn(mockTransactions);
+        when(transactionService.getRecentTransactions(anyInt())).thenReturn(mockTransactions);
+        when(transactionSummaryService.getSummary()).thenReturn(createSummary());
 
         // When & Then
         mockMvc.perform(get("/dashboard"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("dashboard"))
                 .andExpect(model().attributeExists("transactions"))
+                .andExpect(model().attributeExists("summary"))
                 .andExpect(model().attributeExists("username"));
+
+        verify(transactionService, never()).getAllTransactions();
     }
 
     @Test
@@ -58,9 +73,10 @@ class DashboardControllerTest {
     void whenRegularUserAccessesDashboard_thenSuccess() throws Exception {
         // Given
         List<Transaction> mockTransactions = Arrays.asList(
-                createMockTransaction(1L, "TXN001", "Payment", new BigDecimal("100.00"), "DEBIT")
+                createMockTransaction(1L, "TXN001", "Payment", new BigDecimal("100.00"), TransactionType.DEBIT)
         );
-        when(transactionService.getAllTransactions()).thenReturn(mockTransactions);
+        when(transactionService.getRecentTransactions(anyInt())).thenReturn(mockTransactions);
+        when(transactionSummaryService.getSummary()).thenReturn(createSummary());
 
         // When & Then
         mockMvc.perform(get("/dashboard"))
@@ -68,8 +84,14 @@ class DashboardControllerTest {
                 .andExpect(view().name("dashboard"));
     }
 
+    private TransactionSummary createSummary() {
+        return new TransactionSummary(2, 1, 1,
+                new BigDecimal("5000.00"), new BigDecimal("150.00"), new BigDecimal("4850.00"),
+                Map.of("COMPLETED", 2L), Map.of(), Map.of());
+    }
+
     private Transaction createMockTransaction(Long id, String transactionId, String description, 
-                                              BigDecimal amount, String type) {
+                                              BigDecimal amount, TransactionType type) {
         Transaction transaction = new Transaction();
         transaction.setId(id);
         transaction.setTransactionId(transactionId);
@@ -77,7 +99,7 @@ class DashboardControllerTest {
         transaction.setAmount(amount);
         transaction.setType(type);
         transaction.setCategory("Test Category");
-        transaction.setStatus("COMPLETED");
+        transaction.setStatus(TransactionStatus.COMPLETED);
         transaction.setTransactionDate(LocalDateTime.now());
         transaction.setReference("REF" + id);
         return transaction;
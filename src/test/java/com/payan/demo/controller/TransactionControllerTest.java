@@ -1,35 +1,85 @@
 package com.payan.demo.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.payan.demo.dto.BatchIngestResult;
+import com.payan.demo.dto.BatchItemResult;
+import com.payan.demo.dto.CacheStatistics;
+import com.payan.demo.dto.CursorPage;
+import com.payan.demo.dto.StatusTransitionProgress;
+import com.payan.demo.dto.StatusTransitionRequest;
+import com.payan.demo.dto.TransactionAnalyticsGroup;
+import com.payan.demo.dto.TransactionExportFormat;
+import com.payan.demo.dto.TransactionFields;
+import com.payan.demo.dto.TransactionIngestStatus;
+import com.payan.demo.dto.TransactionSearchCriteria;
+import com.payan.demo.dto.TransactionStatsPoint;
+import com.payan.demo.dto.TransactionSummary;
+import com.payan.demo.entity.RollupGranularity;
 import com.payan.demo.entity.Transaction;
+import com.payan.demo.entity.TransactionStatus;
+import com.payan.demo.entity.TransactionType;
+import com.payan.demo.service.TableVersions;
+import com.payan.demo.service.TransactionBatchService;
+import com.payan.demo.service.TransactionCache;
+import com.payan.demo.service.TransactionColumnStore;
+import com.payan.demo.service.TransactionEventPublisher;
+import com.payan.demo.service.TransactionIngestQueueFullException;
+import com.payan.demo.service.TransactionIngestService;
+import com.payan.demo.service.TransactionRollupService;
 import com.payan.demo.service.TransactionService;
+import com.payan.demo.service.TransactionStatusConflictException;
+import com.payan.demo.service.TransactionStatusTransitionService;
+import com.payan.demo.service.TransactionSummaryService;
+import com.payan.demo.service.TransactionVersionConflictException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.zip.GZIPInputStream;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(TransactionController.class)
+@Import(TableVersions.class)
 public class TransactionControllerTest {
 
     @Autowired
@@ -38,9 +88,36 @@ public class TransactionControllerTest {
     @MockBean
     private TransactionService transactionService;
 
+    @MockBean
+    private TransactionBatchService transactionBatchService;
+
+    @MockBean
+    private TransactionSummaryService transactionSummaryService;
+
+    @MockBean
+    private TransactionColumnStore transactionColumnStore;
+
+    @MockBean
+    private TransactionRollupService transactionRollupService;
+
+    @MockBean
+    private TransactionEventPublisher transactionEventPublisher;
+
+    @MockBean
+    private TransactionCache transactionCache;
+
+    @MockBean
+    private TransactionStatusTransitionService transactionStatusTransitionService;
+
+    @MockBean
+    private TransactionIngestService transactionIngestService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private TableVersions tableVersions;
+
     private Transaction testTransaction;
 
     @BeforeEach
@@ -50,8 +127,8 @@ public class TransactionControllerTest {
         testTransaction.setTransactionId("TXN-12345678");
         testTransaction.setDescription("Test Transaction");
         testTransaction.setAmount(new BigDecimal("100.00"));
-        testTransaction.setType("CREDIT");
-        testTransaction.setStatus("COMPLETED");
+        testTransaction.setType(TransactionType.CREDIT);
+        testTransaction.setStatus(TransactionStatus.COMPLETED);
         testTransaction.setTransactionDate(LocalDateTime.now());
         testTransaction.setCategory("Salary");
         testTransaction.setReference("REF-001");
@@ -84,8 +161,8 @@ public class TransactionControllerTest {
         transaction2.setTransactionId("TXN-87654321");
         transaction2.setDescription("Test Transaction 2");
         transaction2.setAmount(new BigDecimal("200.00"));
-        transaction2.setType("DEBIT");
-        transaction2.setStatus("PENDING");
+        transaction2.setType(TransactionType.DEBIT);
+        transaction2.setStatus(TransactionStatus.PENDING);
         transaction2.setTransactionDate(LocalDateTime.now());
         transaction2.setCategory("Shopping");
 
@@ -144,7 +221,7 @@ public class TransactionControllerTest {
     void testGetTransactionsByStatus_Success() throws Exception {
         // Arrange
         List<Transaction> transactions = Arrays.asList(testTransaction);
-        when(transactionService.getTransactionsByStatus("COMPLETED")).thenReturn(transactions);
+        when(transactionService.getTransactionsByStatus(TransactionStatus.COMPLETED)).thenReturn(transactions);
 
         // Act & Assert
         mockMvc.perform(get("/api/transactions/status/COMPLETED")
@@ -158,7 +235,7 @@ public class TransactionControllerTest {
     @WithMockUser(username = "testuser", roles = {"USER"})
     void testGetTransactionsByStatus_NoContent() throws Exception {
         // Arrange
-        when(transactionService.getTransactionsByStatus(anyString())).thenReturn(Arrays.asList());
+        when(transactionService.getTransactionsByStatus(any(TransactionStatus.class))).thenReturn(Arrays.asList());
 
         // Act & Assert
         mockMvc.perform(get("/api/transactions/status/PENDING")
@@ -171,7 +248,7 @@ public class TransactionControllerTest {
     void testGetTransactionsByType_Success() throws Exception {
         // Arrange
         List<Transaction> transactions = Arrays.asList(testTransaction);
-        when(transactionService.getTransactionsByType("CREDIT")).thenReturn(transactions);
+        when(transactionService.getTransactionsByType(TransactionType.CREDIT)).thenReturn(transactions);
 
         // Act & Assert
         mockMvc.perform(get("/api/transactions/type/CREDIT")
@@ -185,7 +262,7 @@ public class TransactionControllerTest {
     @WithMockUser(username = "testuser", roles = {"USER"})
     void testGetTransactionsByType_NoContent() throws Exception {
         // Arrange
-        when(transactionService.getTransactionsByType(anyString())).thenReturn(Arrays.asList());
+        when(transactionService.getTransactionsByType(any(TransactionType.class))).thenReturn(Arrays.asList());
 
         // Act & Assert
         mockMvc.perform(get("/api/transactions/type/DEBIT")
@@ -227,12 +304,12 @@ public class TransactionControllerTest {
         Transaction updatedTransaction = new Transaction();
         updatedTransaction.setDescription("Updated Description");
         updatedTransaction.setAmount(new BigDecimal("150.00"));
-        updatedTransaction.setType("DEBIT");
-        updatedTransaction.setStatus("PENDING");
+        updatedTransaction.setType(TransactionType.DEBIT);
+        updatedTransaction.setStatus(TransactionStatus.PENDING);
         updatedTransaction.setCategory("Shopping");
         updatedTransaction.setReference("REF-002");
 
-        when(transactionService.updateTransaction(eq(1L), any(Transaction.class)))
+        when(transactionService.updateTransaction(eq(1L), any(Transaction.class), isNull()))
                 .thenReturn(updatedTransaction);
 
         // Act & Assert
@@ -249,7 +326,7 @@ public class TransactionControllerTest {
     @WithMockUser(username = "testuser", roles = {"USER"})
     void testUpdateTransaction_NotFound() throws Exception {
         // Arrange
-        when(transactionService.updateTransaction(anyLong(), any(Transaction.class)))
+        when(transactionService.updateTransaction(anyLong(), any(Transaction.class), isNull()))
                 .thenThrow(new RuntimeException("Transaction not found"));
 
         // Act & Assert
@@ -264,8 +341,8 @@ public class TransactionControllerTest {
     @WithMockUser(username = "testuser", roles = {"USER"})
     void testUpdateTransactionStatus_Success() throws Exception {
         // Arrange
-        testTransaction.setStatus("FAILED");
-        when(transactionService.updateTransactionStatus(1L, "FAILED")).thenReturn(testTransaction);
+        testTransaction.setStatus(TransactionStatus.FAILED);
+        when(transactionService.updateTransactionStatus(1L, TransactionStatus.FAILED, null)).thenReturn(testTransaction);
 
         // Act & Assert
         mockMvc.perform(patch("/api/transactions/1/status")
@@ -280,7 +357,7 @@ public class TransactionControllerTest {
     @WithMockUser(username = "testuser", roles = {"USER"})
     void testUpdateTransactionStatus_NotFound() throws Exception {
         // Arrange
-        when(transactionService.updateTransactionStatus(anyLong(), anyString()))
+        when(transactionService.updateTransactionStatus(anyLong(), any(TransactionStatus.class), isNull()))
                 .thenThrow(new RuntimeException("Transaction not found"));
 
         // Act & Assert
@@ -291,6 +368,68 @@ public class TransactionControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testUpdateTransactionStatus_IllegalTransition_Conflict() throws Exception {
+        // Arrange
+        when(transactionService.updateTransactionStatus(1L, TransactionStatus.PENDING, null))
+                .thenThrow(new TransactionStatusConflictException(1L, TransactionStatus.COMPLETED, TransactionStatus.PENDING));
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/transactions/1/status")
+                .with(csrf())
+                .param("status", "PENDING")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testUpdateTransaction_IllegalTransition_Conflict() throws Exception {
+        // Arrange
+        when(transactionService.updateTransaction(eq(1L), any(Transaction.class), isNull()))
+                .thenThrow(new TransactionStatusConflictException(1L, TransactionStatus.COMPLETED, TransactionStatus.PENDING));
+
+        // Act & Assert
+        mockMvc.perform(put("/api/transactions/1")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testTransaction)))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testCreateTransaction_AmountAboveMaximum_BadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/transactions")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"description\":\"Huge\",\"amount\":90000000000000000.00,\"type\":\"CREDIT\",\"status\":\"PENDING\",\"category\":\"Salary\"}"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(transactionService);
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testUnknownStatusOrType_BadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/transactions/status/SETTLED"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/transactions/type/REFUND"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/api/transactions/1/status")
+                .with(csrf())
+                .param("status", "SETTLED"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/transactions")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"transactionId\":\"TXN-X\",\"amount\":10,\"type\":\"REFUND\",\"status\":\"PENDING\"}"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(transactionService);
+    }
+
     @Test
     @WithMockUser(username = "testuser", roles = {"USER"})
     void testDeleteTransaction_Success() throws Exception {
@@ -317,4 +456,619 @@ public class TransactionControllerTest {
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testGetTransactionPage_Success() throws Exception {
+        // Arrange
+        CursorPage<Transaction> page = new CursorPage<>(Arrays.asList(testTransaction), "next-token", true);
+        when(transactionService.getTransactionPage(null, 1)).thenReturn(page);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/transactions/page")
+                .param("size", "1")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].transactionId", is("TXN-12345678")))
+                .andExpect(jsonPath("$.nextCursor", is("next-token")))
+                .andExpect(jsonPath("$.hasMore", is(true)));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testGetTransactionPage_InvalidCursor() throws Exception {
+        // Arrange
+        when(transactionService.getTransactionPage(eq("bogus"), any()))
+                .thenThrow(new IllegalArgumentException("Invalid cursor: bogus"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/transactions/page")
+                .param("cursor", "bogus")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testExportTransactions_Csv() throws Exception {
+        // Arrange
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write("id,transactionId\n1,TXN-12345678\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        }).when(transactionService).exportTransactions(eq(TransactionExportFormat.CSV), any(OutputStream.class));
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/transactions/export")
+                .param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"transactions.csv\""))
+                .andExpect(content().string("id,transactionId\n1,TXN-12345678\n"));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testExportTransactions_UnsupportedFormat() throws Exception {
+        mockMvc.perform(get("/api/transactions/export")
+                .param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testSearchTransactions_Success() throws Exception {
+        // Arrange
+        when(transactionService.searchTransactions(any(TransactionSearchCriteria.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(Arrays.asList(testTransaction), PageRequest.of(0, 10), 1));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/transactions/search")
+                .param("status", "COMPLETED")
+                .param("minAmount", "50")
+                .param("fromDate", "2024-01-01T00:00:00")
+                .param("size", "10")
+                .param("sort", "amount,desc")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].transactionId", is("TXN-12345678")))
+                .andExpect(jsonPath("$.totalElements", is(1)));
+
+        ArgumentCaptor<TransactionSearchCriteria> criteria = ArgumentCaptor.forClass(TransactionSearchCriteria.class);
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(transactionService).searchTransactions(criteria.capture(), pageable.capture());
+        assertEquals(TransactionStatus.COMPLETED, criteria.getValue().getStatus());
+        assertEquals(new BigDecimal("50"), criteria.getValue().getMinAmount());
+        assertEquals(LocalDateTime.of(2024, 1, 1, 0, 0), criteria.getValue().getFromDate());
+        assertEquals(10, pageable.getValue().getPageSize());
+        assertEquals(Sort.Direction.DESC, pageable.getValue().getSort().getOrderFor("amount").getDirection());
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testSearchTransactions_InvalidSort() throws Exception {
+        // Arrange
+        when(transactionService.searchTransactions(any(TransactionSearchCriteria.class), any(Pageable.class)))
+                .thenThrow(new IllegalArgumentException("Cannot sort by: description"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/transactions/search")
+                .param("sort", "description")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testGetTransactionSummary_Success() throws Exception {
+        // Arrange
+        TransactionSummary summary = new TransactionSummary(3, 1, 2,
+                new BigDecimal("100.00"), new BigDecimal("40.00"), new BigDecimal("60.00"),
+                Map.of("COMPLETED", 3L), Map.of("Salary", new BigDecimal("100.00")), Map.of());
+        when(transactionSummaryService.getSummary()).thenReturn(summary);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/transactions/summary")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalCount", is(3)))
+                .andExpect(jsonPath("$.netBalance", is(60.00)))
+                .andExpect(jsonPath("$.countsByStatus.COMPLETED", is(3)))
+                .andExpect(jsonPath("$.totalsByCategory.Salary", is(100.00)));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testGetCacheStatistics_Success() throws Exception {
+        // Arrange
+        when(transactionCache.getStatistics()).thenReturn(
+                Map.of("transactionsById", new CacheStatistics(9, 1, 0, 0.9, 1)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/transactions/cache/stats")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactionsById.hitCount", is(9)))
+                .andExpect(jsonPath("$.transactionsById.missCount", is(1)))
+                .andExpect(jsonPath("$.transactionsById.hitRate", is(0.9)));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testCreateTransactions_AllCreated() throws Exception {
+        // Arrange
+        when(transactionBatchService.ingest(anyList())).thenReturn(BatchIngestResult.of(List.of(
+                BatchItemResult.created(0, 1L, "TXN-12345678"),
+                BatchItemResult.created(1, 2L, "TXN-87654321"))));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/transactions/batch")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(testTransaction, testTransaction))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.received", is(2)))
+                .andExpect(jsonPath("$.created", is(2)))
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[1].id", is(2)))
+                .andExpect(jsonPath("$.items[1].status", is("CREATED")));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testCreateTransactions_PartiallyRejected() throws Exception {
+        // Arrange
+        when(transactionBatchService.ingest(anyList())).thenReturn(BatchIngestResult.of(List.of(
+                BatchItemResult.created(0, 1L, "TXN-12345678"),
+                BatchItemResult.rejected(1, null, "amount must be positive"))));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/transactions/batch")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(testTransaction, new Transaction()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created", is(1)))
+                .andExpect(jsonPath("$.rejected", is(1)))
+                .andExpect(jsonPath("$.items[1].status", is("REJECTED")))
+                .andExpect(jsonPath("$.items[1].error", is("amount must be positive")));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testCreateTransactions_TooLarge() throws Exception {
+        // Arrange
+        when(transactionBatchService.ingest(anyList()))
+                .thenThrow(new IllegalArgumentException("Batch size 20000 exceeds maximum of 10000"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/transactions/batch")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(testTransaction))))
+                .andExpect(status().isBadRequest());
+    }
+
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testGetAllTransactions_ShouldReturnEtagAndLastModified() throws Exception {
+        // Arrange
+        when(transactionService.getAllTransactions()).thenReturn(Arrays.asList(testTransaction));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/transactions"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", tableVersions.transactions().current().etag()))
+                .andExpect(header().string("Cache-Control", "private, no-cache"));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testGetAllTransactions_WithCurrentEtag_ShouldReturnNotModifiedWithoutQuerying() throws Exception {
+        // Arrange
+        String etag = tableVersions.transactions().current().etag();
+
+        // Act & Assert
+        mockMvc.perform(get("/api/transactions").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(transactionService, never()).getAllTransactions();
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testGetAllTransactions_AfterWrite_ShouldReturnFreshBody() throws Exception {
+        // Arrange
+        String etag = tableVersions.transactions().current().etag();
+        tableVersions.transactions().bump();
+        when(transactionService.getAllTransactions()).thenReturn(Arrays.asList(testTransaction));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/transactions").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testGetTransactionSummary_WithCurrentEtag_ShouldReturnNotModified() throws Exception {
+        // Arrange
+        String etag = tableVersions.transactions().current().etag();
+
+        // Act & Assert
+        mockMvc.perform(get("/api/transactions/summary").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        verify(transactionSummaryService, never()).getSummary();
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testGetAllTransactions_WithFields_ShouldReturnOnlySelectedFields() throws Exception {
+        // Arrange
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", 1L);
+        row.put("amount", new BigDecimal("100.00"));
+        when(transactionService.getAllTransactions(new TransactionFields(List.of("id", "amount"))))
+                .thenReturn(List.of(row));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/transactions").param("fields", "id, amount"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(jsonPath("$[0].amount", is(100.00)))
+                .andExpect(jsonPath("$[0].description").doesNotExist());
+        verify(transactionService, never()).getAllTransactions();
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testGetAllTransactions_WithUnknownField_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/transactions").param("fields", "id,password"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testGetTransactionPage_WithFields_ShouldReturnSelectedFieldsAndCursor() throws Exception {
+        // Arrange
+        CursorPage<Map<String, Object>> page = new CursorPage<>(List.of(Map.of("status", "COMPLETED")), "next-token", true);
+        when(transactionService.getTransactionPage(null, 1, new TransactionFields(List.of("status")))).thenReturn(page);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/transactions/page").param("size", "1").param("fields", "status"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].status", is("COMPLETED")))
+                .andExpect(jsonPath("$.items[0].transactionId").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor", is("next-token")));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testSearchTransactions_WithFields_ShouldReturnSelectedFields() throws Exception {
+        // Arrange
+        when(transactionService.searchTransactions(any(TransactionSearchCriteria.class), any(Pageable.class),
+                eq(new TransactionFields(List.of("id", "status")))))
+                .thenReturn(new PageImpl<>(List.of(Map.of("id", 1L, "status", "PENDING")), PageRequest.of(0, 10), 1));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/transactions/search").param("status", "PENDING").param("fields", "id,status"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].status", is("PENDING")))
+                .andExpect(jsonPath("$.content[0].amount").doesNotExist())
+                .andExpect(jsonPath("$.totalElements", is(1)));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testGetAllTransactions_WithGzip_ShouldCompressLargeListingAndTagItSeparately() throws Exception {
+        // Arrange
+        when(transactionService.getAllTransactions()).thenReturn(Collections.nCopies(100, testTransaction));
+        String etag = tableVersions.transactions().current().etag();
+        String gzipEtag = etag.substring(0, etag.length() - 1) + "-gzip\"";
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/transactions").header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("ETag", gzipEtag))
+                .andReturn();
+
+        // Assert
+        byte[] body = new GZIPInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray())).readAllBytes();
+        assertEquals(100, objectMapper.readTree(body).size());
+        mockMvc.perform(get("/api/transactions").header("Accept-Encoding", "gzip").header("If-None-Match", gzipEtag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", gzipEtag));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testStartStatusTransition_Accepted() throws Exception {
+        // Arrange
+        StatusTransitionProgress progress = new StatusTransitionProgress("run-1", StatusTransitionProgress.State.QUEUED,
+                TransactionStatus.COMPLETED, 0, 0, 0, 0, 0, null, null, null);
+        when(transactionStatusTransitionService.start(any(StatusTransitionRequest.class))).thenReturn(progress);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/transactions/status-transitions")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"filter\":{\"toDate\":\"2024-03-15T00:00:00\"},\"targetStatus\":\"COMPLETED\"}"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "http://localhost/api/transactions/status-transitions/run-1"))
+                .andExpect(jsonPath("$.state", is("QUEUED")));
+
+        ArgumentCaptor<StatusTransitionRequest> request = ArgumentCaptor.forClass(StatusTransitionRequest.class);
+        verify(transactionStatusTransitionService).start(request.capture());
+        assertEquals(LocalDateTime.of(2024, 3, 15, 0, 0), request.getValue().filter().getToDate());
+        assertEquals(TransactionStatus.COMPLETED, request.getValue().targetStatus());
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testStartStatusTransition_IllegalTarget() throws Exception {
+        // Arrange
+        when(transactionStatusTransitionService.start(any(StatusTransitionRequest.class)))
+                .thenThrow(new IllegalArgumentException("No transaction may move to status: PENDING"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/transactions/status-transitions")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[1,2],\"targetStatus\":\"PENDING\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testGetStatusTransition_Found() throws Exception {
+        // Arrange
+        StatusTransitionProgress progress = new StatusTransitionProgress("run-1", StatusTransitionProgress.State.RUNNING,
+                TransactionStatus.COMPLETED, 5000, 2000, 2000, 0, 2, LocalDateTime.of(2024, 3, 15, 1, 0), null, null);
+        when(transactionStatusTransitionService.getProgress("run-1")).thenReturn(Optional.of(progress));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/transactions/status-transitions/run-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state", is("RUNNING")))
+                .andExpect(jsonPath("$.total", is(5000)))
+                .andExpect(jsonPath("$.updated", is(2000)));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testGetStatusTransition_NotFound() throws Exception {
+        // Arrange
+        when(transactionStatusTransitionService.getProgress("unknown")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/transactions/status-transitions/unknown"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testGetTransactionById_ShouldReturnVersionAsEtag() throws Exception {
+        // Arrange
+        testTransaction.setVersion(4L);
+        when(transactionService.getTransactionById(1L)).thenReturn(Optional.of(testTransaction));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/transactions/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(jsonPath("$.version", is(4)));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testUpdateTransaction_WithIfMatch_ShouldPassVersionAndReturnNewEtag() throws Exception {
+        // Arrange
+        testTransaction.setVersion(5L);
+        when(transactionService.updateTransaction(eq(1L), any(Transaction.class), eq(4L))).thenReturn(testTransaction);
+
+        // Act & Assert
+        mockMvc.perform(put("/api/transactions/1")
+                .with(csrf())
+                .header(HttpHeaders.IF_MATCH, "\"4\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testTransaction)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"5\""));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testUpdateTransaction_WithStaleIfMatch_ShouldReturnPreconditionFailed() throws Exception {
+        // Arrange
+        when(transactionService.updateTransaction(eq(1L), any(Transaction.class), eq(3L)))
+                .thenThrow(new TransactionVersionConflictException(1L, 3L));
+
+        // Act & Assert
+        mockMvc.perform(put("/api/transactions/1")
+                .with(csrf())
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testTransaction)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testUpdateTransaction_WithMalformedIfMatch_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(put("/api/transactions/1")
+                .with(csrf())
+                .header(HttpHeaders.IF_MATCH, "W/\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testTransaction)))
+                .andExpect(status().isBadRequest());
+        verify(transactionService, never()).updateTransaction(anyLong(), any(Transaction.class), any());
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testUpdateTransactionStatus_WhenRetriesExhausted_ShouldReturnConflict() throws Exception {
+        // Arrange
+        when(transactionService.updateTransactionStatus(1L, TransactionStatus.FAILED, null))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Transaction.class, 1L));
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/transactions/1/status")
+                .with(csrf())
+                .param("status", "FAILED"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testCreateTransaction_WithSubCentAmount_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/transactions")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"description\":\"Coffee\",\"amount\":3.125,\"type\":\"DEBIT\","
+                        + "\"status\":\"COMPLETED\",\"category\":\"Food & Dining\"}"))
+                .andExpect(status().isBadRequest());
+        verify(transactionService, never()).createTransaction(any(Transaction.class));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testGetTransactionById_ShouldSerializeAmountAsDecimalOnly() throws Exception {
+        // Arrange
+        testTransaction.setAmount(new BigDecimal("12.5"));
+        when(transactionService.getTransactionById(1L)).thenReturn(Optional.of(testTransaction));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/transactions/1"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("\"amount\":12.50")))
+                .andExpect(jsonPath("$.amountMinor").doesNotExist())
+                .andExpect(jsonPath("$.amountScale").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testGetTransactionAnalytics_ShouldPassGroupingAndRange() throws Exception {
+        // Arrange
+        when(transactionColumnStore.aggregate(TransactionColumnStore.Dimension.CATEGORY,
+                LocalDateTime.of(2024, 1, 1, 0, 0), null, TransactionType.DEBIT, null))
+                .thenReturn(List.of(new TransactionAnalyticsGroup("Shopping", 2, new BigDecimal("30.00"),
+                        new BigDecimal("10.00"), new BigDecimal("20.00"))));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/transactions/analytics")
+                .param("groupBy", "CATEGORY")
+                .param("from", "2024-01-01T00:00:00")
+                .param("type", "DEBIT"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$[0].key", is("Shopping")))
+                .andExpect(jsonPath("$[0].total", is(30.00)));
+        mockMvc.perform(get("/api/transactions/analytics").param("groupBy", "WEEK"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testGetTransactionStats_ShouldPassGranularityAndFilters() throws Exception {
+        // Arrange
+        when(transactionRollupService.getStats(RollupGranularity.HOUR, LocalDateTime.of(2024, 1, 1, 0, 0), null,
+                null, TransactionStatus.COMPLETED, "Shopping"))
+                .thenReturn(List.of(new TransactionStatsPoint(LocalDateTime.of(2024, 1, 1, 10, 0), 3, new BigDecimal("45.00"))));
+        when(transactionRollupService.getStats(RollupGranularity.DAY, LocalDateTime.of(2024, 2, 1, 0, 0),
+                LocalDateTime.of(2024, 1, 1, 0, 0), null, null, null))
+                .thenThrow(new IllegalArgumentException("from must not be after to"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/transactions/stats")
+                .param("from", "2024-01-01T00:00:00")
+                .param("status", "COMPLETED")
+                .param("category", "Shopping"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].bucketStart", is("2024-01-01T10:00:00")))
+                .andExpect(jsonPath("$[0].count", is(3)))
+                .andExpect(jsonPath("$[0].total", is(45.00)));
+        mockMvc.perform(get("/api/transactions/stats")
+                .param("granularity", "DAY")
+                .param("from", "2024-02-01T00:00:00")
+                .param("to", "2024-01-01T00:00:00"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/transactions/stats").param("granularity", "WEEK"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testIngestTransaction_ShouldAcceptOrPushBack() throws Exception {
+        // Arrange
+        when(transactionIngestService.isEnabled()).thenReturn(true);
+        when(transactionIngestService.accept(any(Transaction.class)))
+                .thenReturn(new TransactionIngestStatus("TXN-12345678", TransactionIngestStatus.State.QUEUED,
+                        null, null, LocalDateTime.of(2024, 1, 1, 10, 0), null))
+                .thenThrow(new TransactionIngestQueueFullException(10000))
+                .thenThrow(new IllegalArgumentException("amount must be positive"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/transactions/ingest")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testTransaction)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, containsString("/api/transactions/ingest/TXN-12345678")))
+                .andExpect(jsonPath("$.state", is("QUEUED")));
+        mockMvc.perform(post("/api/transactions/ingest")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testTransaction)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+        mockMvc.perform(post("/api/transactions/ingest")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testTransaction)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testIngestTransaction_WhenDisabled_ShouldReturnNotFound() throws Exception {
+        // Arrange
+        when(transactionIngestService.isEnabled()).thenReturn(false);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/transactions/ingest")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testTransaction)))
+                .andExpect(status().isNotFound());
+        verify(transactionIngestService, never()).accept(any(Transaction.class));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testGetIngestStatus_ShouldReturnStatusOrNotFound() throws Exception {
+        // Arrange
+        when(transactionIngestService.getStatus("TXN-12345678")).thenReturn(Optional.of(new TransactionIngestStatus(
+                "TXN-12345678", TransactionIngestStatus.State.CREATED, 1L, null,
+                LocalDateTime.of(2024, 1, 1, 10, 0), LocalDateTime.of(2024, 1, 1, 10, 0, 1))));
+        when(transactionIngestService.getStatus("TXN-UNKNOWN")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/transactions/ingest/TXN-12345678"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state", is("CREATED")))
+                .andExpect(jsonPath("$.id", is(1)));
+        mockMvc.perform(get("/api/transactions/ingest/TXN-UNKNOWN"))
+                .andExpect(status().isNotFound());
+    }
 }
@@ -2,12 +2,15 @@ package com.payan.demo.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.payan.demo.entity.User;
+import com.payan.demo.service.TableVersions;
 import com.payan.demo.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -18,15 +21,19 @@ import java.util.Optional;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(UserController.class)
+@Import(TableVersions.class)
 public class UserControllerTest {
 
     @Autowired
@@ -38,6 +45,9 @@ public class UserControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private TableVersions tableVersions;
+
     private User testUser;
 
     @BeforeEach
@@ -272,4 +282,48 @@ public class UserControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string("false"));
     }
+
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void testGetAllUsers_WithCurrentEtag_ShouldReturnNotModifiedWithoutQuerying() throws Exception {
+        // Arrange
+        String etag = tableVersions.users().current().etag();
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        verify(userService, never()).getAllUsers();
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void testCreateUser_ShouldAcceptPasswordButNeverReturnIt() throws Exception {
+        // Arrange
+        when(userService.createUser(any(User.class))).thenReturn(testUser);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/users")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"testuser\",\"password\":\"password123\",\"fullName\":\"Test User\",\"email\":\"test@example.com\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.username", is("testuser")))
+                .andExpect(jsonPath("$.password").doesNotExist());
+        ArgumentCaptor<User> created = ArgumentCaptor.forClass(User.class);
+        verify(userService).createUser(created.capture());
+        assertEquals("password123", created.getValue().getPassword());
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void testGetAllUsers_ShouldNotExposePasswords() throws Exception {
+        // Arrange
+        when(userService.getAllUsers()).thenReturn(List.of(testUser));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].password").doesNotExist());
+    }
 }
@@ -0,0 +1,62 @@
+package com.payan.demo.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MinorUnitsTest {
+
+    @Test
+    void fromDecimal_shouldCountMinorUnitsExactly() {
+        assertEquals(1250, MinorUnits.fromDecimal(new BigDecimal("12.5"), 2));
+        assertEquals(-1, MinorUnits.fromDecimal(new BigDecimal("-0.010"), 2));
+        assertEquals(0, MinorUnits.fromDecimal(BigDecimal.ZERO, 2));
+    }
+
+    @Test
+    void fromDecimal_withFinerAmount_shouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> MinorUnits.fromDecimal(new BigDecimal("0.005"), 2));
+        assertThrows(IllegalArgumentException.class, () -> MinorUnits.fromDecimal(new BigDecimal("1e18"), 2));
+    }
+
+    @Test
+    void fromDecimal_withRounding_shouldRoundInGivenDirection() {
+        assertEquals(1001, MinorUnits.fromDecimal(new BigDecimal("10.001"), 2, RoundingMode.CEILING));
+        assertEquals(1000, MinorUnits.fromDecimal(new BigDecimal("10.009"), 2, RoundingMode.FLOOR));
+    }
+
+    @Test
+    void toDecimal_shouldKeepScale() {
+        assertEquals(new BigDecimal("12.50"), MinorUnits.toDecimal(1250, 2));
+        assertEquals(new BigDecimal("0.00"), MinorUnits.toDecimal(0, 2));
+    }
+
+    @Test
+    void rescale_shouldBeExactOrThrow() {
+        assertEquals(12_500, MinorUnits.rescale(1250, 2, 3));
+        assertEquals(1250, MinorUnits.rescale(12_500, 3, 2));
+        assertEquals(1250, MinorUnits.rescale(1250, 2, 2));
+        assertThrows(ArithmeticException.class, () -> MinorUnits.rescale(12_501, 3, 2));
+        assertThrows(ArithmeticException.class, () -> MinorUnits.rescale(Long.MAX_VALUE / 5, 0, 2));
+    }
+
+    @Test
+    void transactionAmount_shouldRoundTripThroughMinorUnits() {
+        // Given
+        Transaction transaction = new Transaction();
+
+        // When
+        transaction.setAmount(new BigDecimal("99.9"));
+
+        // Then
+        assertEquals(9990L, transaction.getAmountMinor());
+        assertEquals(2, transaction.getAmountScale());
+        assertEquals(new BigDecimal("99.90"), transaction.getAmount());
+        assertThrows(IllegalArgumentException.class, () -> transaction.setAmount(new BigDecimal("1.001")));
+        transaction.setAmount(null);
+        assertNull(transaction.getAmount());
+    }
+}
@@ -0,0 +1,38 @@
+package com.payan.demo.entity;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionCodeConvertersTest {
+
+    private final TransactionTypeConverter typeConverter = new TransactionTypeConverter();
+    private final TransactionStatusConverter statusConverter = new TransactionStatusConverter();
+
+    @Test
+    void codes_shouldBeStableAndNotDependOnDeclarationOrder() {
+        assertEquals((short) 1, typeConverter.convertToDatabaseColumn(TransactionType.DEBIT));
+        assertEquals((short) 2, typeConverter.convertToDatabaseColumn(TransactionType.CREDIT));
+        assertEquals((short) 1, statusConverter.convertToDatabaseColumn(TransactionStatus.PENDING));
+        assertEquals((short) 2, statusConverter.convertToDatabaseColumn(TransactionStatus.COMPLETED));
+        assertEquals((short) 3, statusConverter.convertToDatabaseColumn(TransactionStatus.FAILED));
+    }
+
+    @Test
+    void convertToEntityAttribute_shouldRoundTripEveryValue() {
+        for (TransactionType type : TransactionType.values()) {
+            assertEquals(type, typeConverter.convertToEntityAttribute(typeConverter.convertToDatabaseColumn(type)));
+        }
+        for (TransactionStatus status : TransactionStatus.values()) {
+            assertEquals(status, statusConverter.convertToEntityAttribute(statusConverter.convertToDatabaseColumn(status)));
+        }
+        assertNull(typeConverter.convertToEntityAttribute(null));
+        assertNull(statusConverter.convertToDatabaseColumn(null));
+    }
+
+    @Test
+    void convertToEntityAttribute_withUnknownCode_shouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> typeConverter.convertToEntityAttribute((short) 9));
+        assertThrows(IllegalArgumentException.class, () -> statusConverter.convertToEntityAttribute((short) 0));
+    }
+}
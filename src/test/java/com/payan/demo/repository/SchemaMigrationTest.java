@@ -0,0 +1,37 @@
+package com.payan.demo.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Builds the schema with the Flyway migrations used by the persistent profile; the context only
+ * starts if Hibernate's validation finds every entity mapping matched by the migrated tables.
+ */
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+class SchemaMigrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void migrations_shouldApplyCleanlyAndMatchEntities() {
+        // When
+        Integer failed = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM \"flyway_schema_history\" WHERE \"success\" = FALSE", Integer.class);
+        Integer applied = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM \"flyway_schema_history\"", Integer.class);
+
+        // Then
+        assertEquals(0, failed);
+        assertTrue(applied > 0);
+    }
+}
@@ -1,19 +1,33 @@
 package com.payan.demo.repository;
 
+import com.payan.demo.dto.TransactionAggregate;
+import com.payan.demo.dto.TransactionCursor;
+import com.payan.demo.dto.TransactionSearchCriteria;
 import com.payan.demo.entity.Transaction;
+import com.payan.demo.entity.TransactionStatus;
+import com.payan.demo.entity.TransactionType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @DataJpaTest
+@Import(TransactionCategoryDictionary.class)
 class TransactionRepositoryTest {
 
     @Autowired
@@ -22,6 +36,9 @@ class TransactionRepositoryTest {
     @Autowired
     private TransactionRepository transactionRepository;
 
+    @Autowired
+    private TransactionCategoryDictionary transactionCategoryDictionary;
+
     private Transaction transaction1;
     private Transaction transaction2;
     private Transaction transaction3;
@@ -32,9 +49,9 @@ class TransactionRepositoryTest {
         transaction1.setTransactionId("TXN001");
         transaction1.setDescription("Salary Deposit");
         transaction1.setAmount(new BigDecimal("5000.00"));
-        transaction1.setType("CREDIT");
+        transaction1.setType(TransactionType.CREDIT);
         transaction1.setCategory("Salary");
-        transaction1.setStatus("COMPLETED");
+        transaction1.setStatus(TransactionStatus.COMPLETED);
         transaction1.setTransactionDate(LocalDateTime.now().minusDays(2));
         transaction1.setReference("REF001");
 
@@ -42,9 +59,9 @@ class TransactionRepositoryTest {
         transaction2.setTransactionId("TXN002");
         transaction2.setDescription("Grocery Shopping");
         transaction2.setAmount(new BigDecimal("150.00"));
-        transaction2.setType("DEBIT");
+        transaction2.setType(TransactionType.DEBIT);
         transaction2.setCategory("Food & Dining");
-        transaction2.setStatus("COMPLETED");
+        transaction2.setStatus(TransactionStatus.COMPLETED);
         transaction2.setTransactionDate(LocalDateTime.now().minusDays(1));
         transaction2.setReference("REF002");
 
@@ -52,9 +69,9 @@ class TransactionRepositoryTest {
         transaction3.setTransactionId("TXN003");
         transaction3.setDescription("Online Purchase");
         transaction3.setAmount(new BigDecimal("299.99"));
-        transaction3.setType("DEBIT");
+        transaction3.setType(TransactionType.DEBIT);
         transaction3.setCategory("Shopping");
-        transaction3.setStatus("PENDING");
+        transaction3.setStatus(TransactionStatus.PENDING);
         transaction3.setTransactionDate(LocalDateTime.now());
         transaction3.setReference("REF003");
     }
@@ -100,7 +117,7 @@ class TransactionRepositoryTest {
         assertEquals("TXN001", savedTransaction.getTransactionId());
         assertEquals("Salary Deposit", savedTransaction.getDescription());
         assertEquals(new BigDecimal("5000.00"), savedTransaction.getAmount());
-        assertEquals("CREDIT", savedTransaction.getType());
+        assertEquals(TransactionType.CREDIT, savedTransaction.getType());
     }
 
     @Test
@@ -129,9 +146,9 @@ class TransactionRepositoryTest {
         assertEquals("TXN003", foundTransaction.getTransactionId());
         assertEquals("Online Purchase", foundTransaction.getDescription());
         assertEquals(new BigDecimal("299.99"), foundTransaction.getAmount());
-        assertEquals("DEBIT", foundTransaction.getType());
+        assertEquals(TransactionType.DEBIT, foundTransaction.getType());
         assertEquals("Shopping", foundTransaction.getCategory());
-        assertEquals("PENDING", foundTransaction.getStatus());
+        assertEquals(TransactionStatus.PENDING, foundTransaction.getStatus());
         assertEquals("REF003", foundTransaction.getReference());
         assertNotNull(foundTransaction.getTransactionDate());
     }
@@ -154,4 +171,262 @@ class TransactionRepositoryTest {
         assertNotNull(transactions);
         assertEquals(2, transactions.size());
     }
+
+    @Test
+    void findPageAfter_shouldWalkAllRowsWithoutGapsOrDuplicates() {
+        // Given - two rows share a timestamp so the id tie-breaker matters
+        LocalDateTime sameTime = LocalDateTime.of(2024, 3, 15, 9, 0);
+        transaction1.setTransactionDate(sameTime);
+        transaction2.setTransactionDate(sameTime);
+        transaction3.setTransactionDate(sameTime.plusHours(1));
+        entityManager.persist(transaction1);
+        entityManager.persist(transaction2);
+        entityManager.persist(transaction3);
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        List<Transaction> firstPage = transactionRepository.findFirstPage(PageRequest.of(0, 2));
+        Transaction last = firstPage.get(firstPage.size() - 1);
+        List<Transaction> secondPage = transactionRepository.findPageAfter(
+                last.getTransactionDate(), last.getId(), PageRequest.of(0, 2));
+
+        // Then
+        assertEquals(2, firstPage.size());
+        assertEquals("TXN003", firstPage.get(0).getTransactionId());
+        assertEquals("TXN002", firstPage.get(1).getTransactionId());
+        assertEquals(1, secondPage.size());
+        assertEquals("TXN001", secondPage.get(0).getTransactionId());
+    }
+
+    @Test
+    void streamAllForExport_shouldStreamAllRowsNewestFirst() {
+        // Given
+        entityManager.persist(transaction1);
+        entityManager.persist(transaction2);
+        entityManager.persist(transaction3);
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        List<String> ids;
+        try (Stream<Transaction> rows = transactionRepository.streamAllForExport()) {
+            ids = rows.map(Transaction::getTransactionId).toList();
+        }
+
+        // Then
+        assertEquals(List.of("TXN003", "TXN002", "TXN001"), ids);
+    }
+
+    @Test
+    void findAllWithSpecification_shouldCombineAllCriteria() {
+        // Given
+        entityManager.persist(transaction1);
+        entityManager.persist(transaction2);
+        entityManager.persist(transaction3);
+        entityManager.flush();
+
+        TransactionSearchCriteria criteria = new TransactionSearchCriteria();
+        criteria.setType(TransactionType.DEBIT);
+        criteria.setMinAmount(new BigDecimal("100.00"));
+        criteria.setMaxAmount(new BigDecimal("200.00"));
+        criteria.setFromDate(LocalDateTime.now().minusDays(3));
+        criteria.setReferencePrefix("REF");
+
+        // When
+        Page<Transaction> page = transactionRepository.findAll(TransactionSpecifications.matching(criteria),
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "transactionDate")));
+
+        // Then
+        assertEquals(1, page.getTotalElements());
+        assertEquals("TXN002", page.getContent().get(0).getTransactionId());
+    }
+
+    @Test
+    void findAllWithSpecification_shouldMatchReferencePrefixLiterally() {
+        // Given
+        transaction1.setReference("A_B-1");
+        transaction2.setReference("AXB-2");
+        entityManager.persist(transaction1);
+        entityManager.persist(transaction2);
+        entityManager.flush();
+
+        TransactionSearchCriteria criteria = new TransactionSearchCriteria();
+        criteria.setReferencePrefix("A_B");
+
+        // When
+        List<Transaction> transactions = transactionRepository.findAll(TransactionSpecifications.matching(criteria));
+
+        // Then
+        assertEquals(1, transactions.size());
+        assertEquals("TXN001", transactions.get(0).getTransactionId());
+    }
+
+    @Test
+    void findAllWithSpecification_withNoCriteria_shouldReturnEverything() {
+        // Given
+        entityManager.persist(transaction1);
+        entityManager.persist(transaction2);
+        entityManager.flush();
+
+        // When
+        List<Transaction> transactions = transactionRepository.findAll(
+                TransactionSpecifications.matching(new TransactionSearchCriteria()));
+
+        // Then
+        assertEquals(2, transactions.size());
+    }
+
+    @Test
+    void aggregateByTypeStatusCategoryAndDay_shouldGroupCountsAndSums() {
+        // Given
+        LocalDateTime day = LocalDateTime.of(2024, 3, 15, 9, 0);
+        transaction2.setTransactionDate(day);
+        transaction3.setTransactionDate(day.plusHours(5));
+        transaction3.setCategory("Food & Dining");
+        transaction3.setStatus(TransactionStatus.COMPLETED);
+        entityManager.persist(transaction1);
+        entityManager.persist(transaction2);
+        entityManager.persist(transaction3);
+        entityManager.flush();
+
+        // When
+        List<TransactionAggregate> aggregates = transactionRepository.aggregateByTypeStatusCategoryAndDay();
+
+        // Then
+        assertEquals(2, aggregates.size());
+        TransactionAggregate food = aggregates.stream()
+                .filter(a -> a.category().equals("Food & Dining"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(2, food.count());
+        assertEquals(44_999, food.totalMinor());
+        assertEquals(2, food.scale());
+        assertEquals(day.toLocalDate(), food.day());
+    }
+
+    @Test
+    void findFields_shouldSelectOnlyRequestedColumnsInOrder() {
+        // Given
+        entityManager.persist(transaction1);
+        entityManager.persist(transaction2);
+        entityManager.persist(transaction3);
+        entityManager.flush();
+        entityManager.clear();
+
+        TransactionSearchCriteria criteria = new TransactionSearchCriteria();
+        criteria.setType(TransactionType.DEBIT);
+
+        // When
+        List<Map<String, Object>> rows = transactionRepository.findFields(List.of("transactionId", "amount"),
+                TransactionSpecifications.matching(criteria), Sort.by(Sort.Direction.ASC, "amountMinor"), 0, 1);
+
+        // Then
+        assertEquals(1, rows.size());
+        assertEquals(List.of("transactionId", "amount"), List.copyOf(rows.get(0).keySet()));
+        assertEquals("TXN002", rows.get(0).get("transactionId"));
+        assertEquals(0, new BigDecimal("150.00").compareTo((BigDecimal) rows.get(0).get("amount")));
+    }
+
+    @Test
+    void findFields_afterCursor_shouldMatchFindPageAfter() {
+        // Given
+        LocalDateTime sameTime = LocalDateTime.of(2024, 3, 15, 9, 0);
+        transaction1.setTransactionDate(sameTime);
+        transaction2.setTransactionDate(sameTime);
+        transaction3.setTransactionDate(sameTime.plusHours(1));
+        entityManager.persist(transaction1);
+        entityManager.persist(transaction2);
+        entityManager.persist(transaction3);
+        entityManager.flush();
+        TransactionCursor cursor = TransactionCursor.of(transaction3);
+
+        // When
+        List<Map<String, Object>> rows = transactionRepository.findFields(List.of("id"),
+                TransactionSpecifications.after(cursor), Sort.by(Sort.Direction.DESC, "transactionDate", "id"), 0, 0);
+        List<Transaction> expected = transactionRepository.findPageAfter(cursor.transactionDate(), cursor.id(),
+                PageRequest.of(0, 10));
+
+        // Then
+        assertEquals(expected.stream().map(Transaction::getId).toList(), rows.stream().map(row -> row.get("id")).toList());
+        assertEquals(2, rows.size());
+    }
+
+    @Test
+    void save_withStaleVersion_shouldFailInsteadOfOverwriting() {
+        // Given
+        Transaction current = entityManager.persistFlushFind(transaction3);
+        Transaction stale = new Transaction();
+        BeanUtils.copyProperties(current, stale);
+        current.setStatus(TransactionStatus.COMPLETED);
+        entityManager.flush();
+
+        // When
+        stale.setStatus(TransactionStatus.FAILED);
+
+        // Then
+        assertEquals(0L, stale.getVersion());
+        assertEquals(1L, current.getVersion());
+        assertThrows(OptimisticLockingFailureException.class, () -> transactionRepository.save(stale));
+    }
+
+    @Test
+    void findAll_withSubCentAmountBounds_shouldRoundInwardsAndKeepBoundsInclusive() {
+        // Given
+        entityManager.persist(transaction1);
+        entityManager.persist(transaction2);
+        entityManager.persist(transaction3);
+        entityManager.flush();
+        TransactionSearchCriteria criteria = new TransactionSearchCriteria();
+        criteria.setMinAmount(new BigDecimal("149.999"));
+        criteria.setMaxAmount(new BigDecimal("299.991"));
+
+        // When
+        List<Transaction> results = transactionRepository.findAll(TransactionSpecifications.matching(criteria),
+                Sort.by("amountMinor"));
+
+        // Then
+        assertEquals(List.of("TXN002", "TXN003"), results.stream().map(Transaction::getTransactionId).toList());
+    }
+
+    @Test
+    void save_shouldStoreCodesAndCategoryIdAndReadNamesBack() {
+        // Given
+        transaction3.setCategory("Salary");
+        entityManager.persist(transaction1);
+        entityManager.persist(transaction3);
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        List<?> rows = entityManager.getEntityManager()
+                .createNativeQuery("SELECT type, status, category_id FROM transactions ORDER BY transaction_id")
+                .getResultList();
+        List<Transaction> salary = transactionRepository.findByCategory("Salary");
+
+        // Then
+        Object[] credit = (Object[]) rows.get(0);
+        Object[] pending = (Object[]) rows.get(1);
+        assertEquals(2, ((Number) credit[0]).intValue());
+        assertEquals(2, ((Number) credit[1]).intValue());
+        assertEquals(1, ((Number) pending[1]).intValue());
+        assertEquals(credit[2], pending[2]);
+        assertEquals("Salary", transactionCategoryDictionary.getName(((Number) credit[2]).intValue()));
+        assertEquals(2, salary.size());
+        assertTrue(salary.stream().allMatch(transaction -> "Salary".equals(transaction.getCategory())));
+    }
+
+    @Test
+    void findByCategory_withUnknownCategory_shouldMatchNothingAndNotRegisterIt() {
+        // Given
+        entityManager.persist(transaction1);
+        entityManager.flush();
+
+        // When
+        List<Transaction> results = transactionRepository.findByCategory("Never Used");
+
+        // Then
+        assertTrue(results.isEmpty());
+        assertNull(transactionCategoryDictionary.findId("Never Used"));
+    }
 }
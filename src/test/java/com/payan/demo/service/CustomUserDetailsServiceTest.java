@@ -7,10 +7,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.CredentialsContainer;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
+import java.time.Duration;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -22,6 +25,9 @@ class CustomUserDetailsServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Spy
+    private UserDetailsCache userDetailsCache = new UserDetailsCache(100, Duration.ofMinutes(5));
+
     @InjectMocks
     private CustomUserDetailsService customUserDetailsService;
 
@@ -100,4 +106,49 @@ class CustomUserDetailsServiceTest {
         assertNotNull(userDetails);
         assertFalse(userDetails.isEnabled());
     }
+
+    @Test
+    void loadUserByUsername_shouldServeRepeatedLoadsFromCache() {
+        // Given
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+
+        // When
+        UserDetails first = customUserDetailsService.loadUserByUsername("testuser");
+        UserDetails second = customUserDetailsService.loadUserByUsername("testuser");
+
+        // Then
+        assertEquals(first.getUsername(), second.getUsername());
+        verify(userRepository, times(1)).findByUsername("testuser");
+    }
+
+    @Test
+    void loadUserByUsername_shouldKeepCachedPasswordWhenCallerErasesCredentials() {
+        // Given
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        UserDetails authenticated = customUserDetailsService.loadUserByUsername("testuser");
+
+        // When - Spring Security erases the principal's password after a successful login
+        ((CredentialsContainer) authenticated).eraseCredentials();
+        UserDetails reloaded = customUserDetailsService.loadUserByUsername("testuser");
+
+        // Then
+        assertNull(authenticated.getPassword());
+        assertEquals("$2a$10$encodedPassword", reloaded.getPassword());
+    }
+
+    @Test
+    void loadUserByUsername_afterEviction_shouldReloadFromRepository() {
+        // Given
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        customUserDetailsService.loadUserByUsername("testuser");
+
+        // When
+        userDetailsCache.evict("testuser");
+        testUser.setEnabled(false);
+        UserDetails reloaded = customUserDetailsService.loadUserByUsername("testuser");
+
+        // Then
+        assertFalse(reloaded.isEnabled());
+        verify(userRepository, times(2)).findByUsername("testuser");
+    }
 }
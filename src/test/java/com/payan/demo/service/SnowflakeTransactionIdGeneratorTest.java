@@ -0,0 +1,133 @@
+package com.payan.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnowflakeTransactionIdGeneratorTest {
+
+    private static final long NOW = SnowflakeTransactionIdGenerator.EPOCH_MILLIS + 1_000_000L;
+
+    @Test
+    void nextId_shouldHaveFixedWidthSortableFormat() {
+        // Given
+        SnowflakeTransactionIdGenerator generator = new SnowflakeTransactionIdGenerator(7);
+
+        // When
+        String first = generator.nextId();
+        String second = generator.nextId();
+
+        // Then
+        assertTrue(first.matches("TXN-[0-9A-HJKMNP-TV-Z]{13}"), first);
+        assertTrue(first.compareTo(second) < 0);
+    }
+
+    @Test
+    void nextValue_shouldEncodeTimeNodeAndSequence() {
+        // Given
+        SnowflakeTransactionIdGenerator generator = new SnowflakeTransactionIdGenerator(5, () -> NOW);
+
+        // When
+        long first = generator.nextValue();
+        long second = generator.nextValue();
+
+        // Then
+        assertEquals(1_000_000L, first >>> 22);
+        assertEquals(5, (first >>> 12) & SnowflakeTransactionIdGenerator.MAX_NODE_ID);
+        assertEquals(0, first & 0xFFF);
+        assertEquals(first + 1, second);
+    }
+
+    @Test
+    void nextValue_whenClockStepsBack_shouldStayMonotonic() {
+        // Given
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeTransactionIdGenerator generator = new SnowflakeTransactionIdGenerator(0, clock::get);
+        long before = generator.nextValue();
+
+        // When
+        clock.set(NOW - 5_000);
+        long after = generator.nextValue();
+
+        // Then
+        assertTrue(after > before);
+    }
+
+    @Test
+    void nextValue_whenSequenceOverflows_shouldBorrowNextMillisecond() {
+        // Given
+        SnowflakeTransactionIdGenerator generator = new SnowflakeTransactionIdGenerator(0, () -> NOW);
+        long previous = -1;
+
+        // When
+        for (int i = 0; i < 5_000; i++) {
+            long value = generator.nextValue();
+            assertTrue(value > previous);
+            previous = value;
+        }
+
+        // Then
+        assertEquals(1_000_001L, previous >>> 22);
+    }
+
+    @Test
+    void nextId_fromManyThreads_shouldNeverRepeat() throws Exception {
+        // Given
+        SnowflakeTransactionIdGenerator generator = new SnowflakeTransactionIdGenerator(1);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 25_000; i++) {
+                        ids.add(generator.nextId());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Then
+        assertEquals(200_000, ids.size());
+    }
+
+    @Test
+    void nextId_onDifferentNodes_shouldNotCollide() {
+        // Given
+        SnowflakeTransactionIdGenerator node1 = new SnowflakeTransactionIdGenerator(1, () -> NOW);
+        SnowflakeTransactionIdGenerator node2 = new SnowflakeTransactionIdGenerator(2, () -> NOW);
+        Set<String> ids = new HashSet<>();
+
+        // When
+        for (int i = 0; i < 1_000; i++) {
+            ids.add(node1.nextId());
+            ids.add(node2.nextId());
+        }
+
+        // Then
+        assertEquals(2_000, ids.size());
+    }
+
+    @Test
+    void constructor_withNodeIdOutOfRange_shouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeTransactionIdGenerator(-1));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeTransactionIdGenerator(1024));
+    }
+}
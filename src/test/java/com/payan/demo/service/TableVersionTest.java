@@ -0,0 +1,50 @@
+package com.payan.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TableVersionTest {
+
+    @Test
+    void bump_shouldAdvanceVersionEtagAndLastModified() {
+        // Given
+        AtomicLong clock = new AtomicLong(1_700_000_000_000L);
+        TableVersion tableVersion = new TableVersion("transactions", clock::get);
+        TableVersion.Stamp initial = tableVersion.current();
+
+        // When
+        clock.addAndGet(5_000);
+        tableVersion.bump();
+        TableVersion.Stamp bumped = tableVersion.current();
+
+        // Then
+        assertEquals(0, initial.version());
+        assertEquals(1, bumped.version());
+        assertNotEquals(initial.etag(), bumped.etag());
+        assertTrue(bumped.etag().startsWith("\"transactions-") && bumped.etag().endsWith("-1\""), bumped.etag());
+        assertEquals(1_700_000_005_000L, bumped.lastModified());
+    }
+
+    @Test
+    void current_withoutWrites_shouldReturnSameStamp() {
+        // Given
+        TableVersion tableVersion = new TableVersion("users");
+
+        // When & Then
+        assertSame(tableVersion.current(), tableVersion.current());
+    }
+
+    @Test
+    void etag_afterRestart_shouldNotMatchPreviousInstance() {
+        // Given
+        TableVersion beforeRestart = new TableVersion("users", () -> 1_700_000_000_000L);
+        TableVersion afterRestart = new TableVersion("users", () -> 1_700_000_060_000L);
+
+        // When & Then
+        assertEquals(beforeRestart.current().version(), afterRestart.current().version());
+        assertNotEquals(beforeRestart.current().etag(), afterRestart.current().etag());
+    }
+}
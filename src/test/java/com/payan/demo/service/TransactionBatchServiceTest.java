@@ -0,0 +1,174 @@
+package com.payan.demo.service;
+
+import com.payan.demo.dto.BatchIngestResult;
+import com.payan.demo.dto.BatchItemResult;
+import com.payan.demo.entity.Transaction;
+import com.payan.demo.entity.TransactionStatus;
+import com.payan.demo.entity.TransactionType;
+import com.payan.demo.repository.TransactionCategoryDictionary;
+import com.payan.demo.repository.TransactionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs against H2 because chunking, rollback and the row-by-row retry are database behaviour.
+ * Not wrapped in a test transaction so each chunk commits on its own, as in production.
+ */
+@DataJpaTest
+@Import({TransactionBatchService.class, TransactionChangeNotifier.class, TableVersions.class,
+        TransactionCategoryDictionary.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "payan.transactions.batch.chunk-size=3")
+class TransactionBatchServiceTest {
+
+    @Autowired
+    private TransactionBatchService transactionBatchService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @MockBean
+    private TransactionIdGenerator transactionIdGenerator;
+
+    @MockBean
+    private TransactionSummaryService transactionSummaryService;
+
+    @MockBean
+    private TransactionColumnStore transactionColumnStore;
+
+    @MockBean
+    private TransactionRollupService transactionRollupService;
+
+    @MockBean
+    private TransactionEventPublisher transactionEventPublisher;
+
+    @MockBean
+    private TransactionCache transactionCache;
+
+    @AfterEach
+    void cleanUp() {
+        transactionRepository.deleteAll();
+    }
+
+    @Test
+    void ingest_withValidItems_shouldInsertAllInChunks() {
+        // Given
+        List<Transaction> batch = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            batch.add(createTransaction("BATCH-" + i));
+        }
+
+        // When
+        BatchIngestResult result = transactionBatchService.ingest(batch);
+
+        // Then
+        assertEquals(7, result.received());
+        assertEquals(7, result.created());
+        assertEquals(7, transactionRepository.count());
+        assertTrue(result.items().stream().allMatch(item -> item.id() != null));
+        verify(transactionSummaryService, times(2)).onCreated(argThat((List<Transaction> chunk) -> chunk.size() == 3));
+        verify(transactionSummaryService).onCreated(argThat((List<Transaction> chunk) -> chunk.size() == 1));
+        verify(transactionRollupService, times(3)).onCreated(anyList());
+        verify(transactionCache, times(3)).onCreated(anyList());
+    }
+
+    @Test
+    void ingest_shouldRejectInvalidItemsAndKeepTheRest() {
+        // Given
+        Transaction noAmount = createTransaction("BATCH-1");
+        noAmount.setAmount(null);
+        Transaction badType = createTransaction("BATCH-2");
+        badType.setType(null);
+        Transaction duplicate = createTransaction("BATCH-0");
+
+        // When
+        BatchIngestResult result = transactionBatchService.ingest(
+                List.of(createTransaction("BATCH-0"), noAmount, badType, duplicate, createTransaction("BATCH-4")));
+
+        // Then
+        assertEquals(2, result.created());
+        assertEquals(3, result.rejected());
+        assertEquals(BatchItemResult.Status.REJECTED, result.items().get(1).status());
+        assertEquals("amount must be positive", result.items().get(1).error());
+        assertEquals("type must be DEBIT or CREDIT", result.items().get(2).error());
+        assertEquals(BatchItemResult.Status.REJECTED, result.items().get(3).status());
+        assertEquals(BatchItemResult.Status.CREATED, result.items().get(4).status());
+        assertEquals(2, transactionRepository.count());
+    }
+
+    @Test
+    void ingest_whenRowViolatesConstraint_shouldFailOnlyThatRow() {
+        // Given
+        transactionRepository.save(createTransaction("EXISTING"));
+        List<Transaction> batch = List.of(
+                createTransaction("BATCH-0"), createTransaction("EXISTING"), createTransaction("BATCH-2"));
+
+        // When
+        BatchIngestResult result = transactionBatchService.ingest(batch);
+
+        // Then
+        assertEquals(2, result.created());
+        assertEquals(1, result.failed());
+        assertEquals(BatchItemResult.Status.FAILED, result.items().get(1).status());
+        assertNotNull(result.items().get(1).error());
+        assertEquals(3, transactionRepository.count());
+    }
+
+    @Test
+    void ingest_withoutTransactionId_shouldGenerateOne() {
+        // Given
+        when(transactionIdGenerator.nextId()).thenReturn("TXN-GENERATED");
+        Transaction transaction = createTransaction(null);
+        transaction.setTransactionDate(null);
+
+        // When
+        BatchIngestResult result = transactionBatchService.ingest(List.of(transaction));
+
+        // Then
+        assertEquals("TXN-GENERATED", result.items().get(0).transactionId());
+        assertNotNull(transactionRepository.findAll().get(0).getTransactionDate());
+    }
+
+    @Test
+    void ingest_withTooManyItems_shouldThrow() {
+        // Given
+        ReflectionTestUtils.setField(transactionBatchService, "maxItems", 2);
+
+        // When & Then
+        try {
+            assertThrows(IllegalArgumentException.class, () -> transactionBatchService.ingest(
+                    List.of(createTransaction("A"), createTransaction("B"), createTransaction("C"))));
+            assertThrows(IllegalArgumentException.class, () -> transactionBatchService.ingest(List.of()));
+        } finally {
+            ReflectionTestUtils.setField(transactionBatchService, "maxItems", 10000);
+        }
+    }
+
+    private Transaction createTransaction(String transactionId) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(transactionId);
+        transaction.setDescription("Batch transaction " + transactionId);
+        transaction.setAmount(new BigDecimal("10.00"));
+        transaction.setType(TransactionType.CREDIT);
+        transaction.setStatus(TransactionStatus.COMPLETED);
+        transaction.setCategory("Salary");
+        transaction.setTransactionDate(LocalDateTime.now());
+        return transaction;
+    }
+}
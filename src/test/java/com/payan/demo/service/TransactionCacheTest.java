@@ -0,0 +1,181 @@
+package com.payan.demo.service;
+
+import com.payan.demo.dto.CacheStatistics;
+import com.payan.demo.entity.Transaction;
+import com.payan.demo.entity.TransactionStatus;
+import com.payan.demo.entity.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionCacheTest {
+
+    private TransactionCache transactionCache;
+
+    private Transaction transaction;
+
+    @BeforeEach
+    void setUp() {
+        transactionCache = new TransactionCache(100, Duration.ofMinutes(1), 10, Duration.ofMinutes(1));
+
+        transaction = new Transaction();
+        transaction.setId(1L);
+        transaction.setTransactionId("TXN001");
+        transaction.setDescription("Salary Deposit");
+        transaction.setAmount(new BigDecimal("5000.00"));
+        transaction.setType(TransactionType.CREDIT);
+        transaction.setStatus(TransactionStatus.PENDING);
+        transaction.setCategory("Salary");
+        transaction.setTransactionDate(LocalDateTime.now());
+    }
+
+    @Test
+    void getTransaction_shouldLoadOnceAndCountHitsAndMisses() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            transactionCache.getTransaction(1L, id -> {
+                loads.incrementAndGet();
+                return Optional.of(transaction);
+            });
+        }
+
+        // Then
+        CacheStatistics statistics = transactionCache.getStatistics().get("transactionsById");
+        assertEquals(1, loads.get());
+        assertEquals(1, statistics.missCount());
+        assertEquals(2, statistics.hitCount());
+        assertEquals(1, statistics.size());
+    }
+
+    @Test
+    void getTransaction_shouldNotCacheMissingRows() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        Optional<Transaction> first = transactionCache.getTransaction(9L, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+        transactionCache.getTransaction(9L, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+
+        // Then
+        assertTrue(first.isEmpty());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidate_shouldDropRowAndListingsOfEveryVersion() {
+        // Given
+        Transaction updated = new Transaction();
+        updated.setId(1L);
+        updated.setType(TransactionType.CREDIT);
+        updated.setStatus(TransactionStatus.COMPLETED);
+        updated.setCategory("Salary");
+        AtomicInteger loads = new AtomicInteger();
+        transactionCache.getTransaction(1L, id -> Optional.of(transaction));
+        transactionCache.getTransactions("status", TransactionStatus.PENDING, () -> List.of(transaction));
+        transactionCache.getTransactions("status", TransactionStatus.FAILED, Collections::emptyList);
+
+        // When
+        transactionCache.invalidate(transaction, updated);
+
+        // Then
+        transactionCache.getTransaction(1L, id -> {
+            loads.incrementAndGet();
+            return Optional.of(updated);
+        });
+        transactionCache.getTransactions("status", TransactionStatus.PENDING, () -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+        transactionCache.getTransactions("status", TransactionStatus.FAILED, () -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void getTransactions_shouldReturnImmutableSnapshot() {
+        // Given
+        List<Transaction> rows = new ArrayList<>(List.of(transaction));
+
+        // When
+        List<Transaction> cached = transactionCache.getTransactions("type", TransactionType.CREDIT, () -> rows);
+        rows.clear();
+
+        // Then
+        assertEquals(1, cached.size());
+        assertThrows(UnsupportedOperationException.class, () -> cached.add(transaction));
+    }
+
+    @Test
+    void getTransactions_shouldEvictWhenRowBudgetIsExceeded() {
+        // Given - budget is 10 rows
+        List<Transaction> sixRows = Collections.nCopies(6, transaction);
+
+        // When
+        transactionCache.getTransactions("category", "A", () -> sixRows);
+        transactionCache.getTransactions("category", "B", () -> sixRows);
+        Map<String, CacheStatistics> statistics = awaitEviction();
+
+        // Then
+        assertTrue(statistics.get("transactionLists").evictionCount() >= 1);
+        assertTrue(statistics.get("transactionLists").size() <= 1);
+    }
+
+    private Map<String, CacheStatistics> awaitEviction() {
+        // Caffeine evicts asynchronously on the common pool; wait briefly for it
+        for (int i = 0; i < 100; i++) {
+            Map<String, CacheStatistics> statistics = transactionCache.getStatistics();
+            if (statistics.get("transactionLists").evictionCount() > 0) {
+                return statistics;
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return transactionCache.getStatistics();
+    }
+
+    @Test
+    void reads_shouldHandOutCopiesThatCallersMayModify() {
+        // Given
+        transactionCache.getTransaction(1L, id -> Optional.of(transaction));
+        transactionCache.getTransactions("status", TransactionStatus.PENDING, () -> List.of(transaction));
+
+        // When
+        transaction.setDescription("Changed by the loader's caller");
+        transactionCache.getTransaction(1L, id -> Optional.empty()).orElseThrow().setDescription("Changed by a reader");
+        transactionCache.getTransactions("status", TransactionStatus.PENDING, List::of).get(0).setStatus(TransactionStatus.FAILED);
+
+        // Then
+        Transaction cached = transactionCache.getTransaction(1L, id -> Optional.empty()).orElseThrow();
+        List<Transaction> listed = transactionCache.getTransactions("status", TransactionStatus.PENDING, List::of);
+        assertEquals("Salary Deposit", cached.getDescription());
+        assertNotSame(cached, transactionCache.getTransaction(1L, id -> Optional.empty()).orElseThrow());
+        assertEquals(TransactionStatus.PENDING, listed.get(0).getStatus());
+        assertEquals("Salary Deposit", listed.get(0).getDescription());
+    }
+}
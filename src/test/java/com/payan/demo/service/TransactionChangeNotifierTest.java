@@ -0,0 +1,74 @@
+package com.payan.demo.service;
+
+import com.payan.demo.entity.Transaction;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+class TransactionChangeNotifierTest {
+
+    private final TransactionChangeListener first = mock(TransactionChangeListener.class);
+    private final TransactionChangeListener second = mock(TransactionChangeListener.class);
+    private final TransactionChangeNotifier notifier = new TransactionChangeNotifier(List.of(first, second));
+
+    @Test
+    void eachChange_shouldReachEveryListenerInOrder() {
+        // Given
+        Transaction before = transaction(1L);
+        Transaction after = transaction(1L);
+
+        // When
+        notifier.created(before);
+        notifier.updated(before, after);
+        notifier.statusChanged(before, after);
+        notifier.deleted(after);
+
+        // Then
+        InOrder inOrder = inOrder(first, second);
+        inOrder.verify(first).onCreated(List.of(before));
+        inOrder.verify(second).onCreated(List.of(before));
+        inOrder.verify(first).onUpdated(List.of(before), List.of(after));
+        inOrder.verify(second).onUpdated(List.of(before), List.of(after));
+        inOrder.verify(first).onStatusChanged(List.of(before), List.of(after));
+        inOrder.verify(second).onStatusChanged(List.of(before), List.of(after));
+        inOrder.verify(first).onDeleted(List.of(after));
+        inOrder.verify(second).onDeleted(List.of(after));
+    }
+
+    @Test
+    void created_withBatch_shouldReportItAsOneChange() {
+        // Given
+        TableVersions tableVersions = new TableVersions();
+        TransactionChangeNotifier batchNotifier = new TransactionChangeNotifier(List.of(tableVersions));
+
+        // When
+        batchNotifier.created(List.of(transaction(1L), transaction(2L), transaction(3L)));
+
+        // Then
+        assertEquals(1, tableVersions.transactions().current().version());
+    }
+
+    @Test
+    void listenerThatThrows_shouldNotKeepTheOthersFromHearingOrFailTheWrite() {
+        // Given
+        Transaction transaction = transaction(1L);
+        doThrow(new ArithmeticException("long overflow")).when(first).onCreated(anyList());
+
+        // When
+        assertDoesNotThrow(() -> notifier.created(transaction));
+
+        // Then
+        verify(second).onCreated(List.of(transaction));
+    }
+
+    private static Transaction transaction(Long id) {
+        Transaction transaction = new Transaction();
+        transaction.setId(id);
+        return transaction;
+    }
+}
@@ -0,0 +1,216 @@
+package com.payan.demo.service;
+
+import com.payan.demo.dto.TransactionAnalyticsGroup;
+import com.payan.demo.entity.Transaction;
+import com.payan.demo.entity.TransactionStatus;
+import com.payan.demo.entity.TransactionType;
+import com.payan.demo.repository.TransactionCategoryDictionary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({TransactionColumnStore.class, TransactionCategoryDictionary.class})
+class TransactionColumnStoreTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 3, 15, 0, 0);
+
+    @Autowired
+    private TransactionColumnStore transactionColumnStore;
+
+    @Autowired
+    private TransactionCategoryDictionary transactionCategoryDictionary;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void clearStore() {
+        // Each test's rows are rolled back, so this empties whatever the previous test added
+        transactionColumnStore.rebuild();
+    }
+
+    @Test
+    void rebuild_shouldLoadEveryRowFromTheTable() {
+        // Given
+        entityManager.persist(transaction(null, "100.00", TransactionType.CREDIT, TransactionStatus.COMPLETED, "Salary", DAY));
+        entityManager.persist(transaction(null, "20.50", TransactionType.DEBIT, TransactionStatus.COMPLETED, "Shopping", DAY));
+        entityManager.persist(transaction(null, "4.50", TransactionType.DEBIT, TransactionStatus.PENDING, "Shopping", DAY.plusDays(1)));
+        entityManager.flush();
+
+        // When
+        transactionColumnStore.rebuild();
+        List<TransactionAnalyticsGroup> byCategory = transactionColumnStore.aggregate(
+                TransactionColumnStore.Dimension.CATEGORY, null, null, null, null);
+
+        // Then
+        assertEquals(3, transactionColumnStore.size());
+        assertEquals(List.of(
+                        new TransactionAnalyticsGroup("Salary", 1, new BigDecimal("100.00"), new BigDecimal("100.00"), new BigDecimal("100.00")),
+                        new TransactionAnalyticsGroup("Shopping", 2, new BigDecimal("25.00"), new BigDecimal("4.50"), new BigDecimal("20.50"))),
+                byCategory);
+    }
+
+    @Test
+    void aggregate_shouldFilterByTimeRangeTypeAndStatus() {
+        // Given
+        transactionColumnStore.onSaved(transaction(1L, "10.00", TransactionType.DEBIT, TransactionStatus.COMPLETED, "Shopping", DAY.minusSeconds(1)));
+        transactionColumnStore.onSaved(transaction(2L, "20.00", TransactionType.DEBIT, TransactionStatus.COMPLETED, "Shopping", DAY));
+        transactionColumnStore.onSaved(transaction(3L, "30.00", TransactionType.DEBIT, TransactionStatus.PENDING, "Shopping", DAY.plusHours(5)));
+        transactionColumnStore.onSaved(transaction(4L, "40.00", TransactionType.CREDIT, TransactionStatus.COMPLETED, "Salary", DAY.plusHours(6)));
+        transactionColumnStore.onSaved(transaction(5L, "50.00", TransactionType.DEBIT, TransactionStatus.COMPLETED, "Shopping", DAY.plusDays(1)));
+
+        // When
+        List<TransactionAnalyticsGroup> byType = transactionColumnStore.aggregate(
+                TransactionColumnStore.Dimension.TYPE, DAY, DAY.plusDays(1), null, null);
+        List<TransactionAnalyticsGroup> completedDebits = transactionColumnStore.aggregate(
+                TransactionColumnStore.Dimension.NONE, null, null, TransactionType.DEBIT, TransactionStatus.COMPLETED);
+
+        // Then
+        assertEquals(List.of(
+                        new TransactionAnalyticsGroup("DEBIT", 2, new BigDecimal("50.00"), new BigDecimal("20.00"), new BigDecimal("30.00")),
+                        new TransactionAnalyticsGroup("CREDIT", 1, new BigDecimal("40.00"), new BigDecimal("40.00"), new BigDecimal("40.00"))),
+                byType);
+        assertEquals(List.of(new TransactionAnalyticsGroup("ALL", 3, new BigDecimal("80.00"), new BigDecimal("10.00"), new BigDecimal("50.00"))),
+                completedDebits);
+    }
+
+    @Test
+    void aggregate_byDay_shouldSkipEmptyDaysAndRespectBounds() {
+        // Given
+        transactionColumnStore.onSaved(transaction(1L, "1.00", TransactionType.DEBIT, TransactionStatus.COMPLETED, "Shopping", DAY.minusDays(3)));
+        transactionColumnStore.onSaved(transaction(2L, "2.00", TransactionType.DEBIT, TransactionStatus.COMPLETED, "Shopping", DAY.plusHours(23)));
+        transactionColumnStore.onSaved(transaction(3L, "3.00", TransactionType.DEBIT, TransactionStatus.COMPLETED, "Shopping", DAY.plusDays(2)));
+
+        // When
+        List<TransactionAnalyticsGroup> all = transactionColumnStore.aggregate(
+                TransactionColumnStore.Dimension.DAY, null, null, null, null);
+        List<TransactionAnalyticsGroup> bounded = transactionColumnStore.aggregate(
+                TransactionColumnStore.Dimension.DAY, DAY, DAY.plusDays(2), null, null);
+
+        // Then
+        assertEquals(List.of("2024-03-12", "2024-03-15", "2024-03-17"), all.stream().map(TransactionAnalyticsGroup::key).toList());
+        assertEquals(List.of("2024-03-15"), bounded.stream().map(TransactionAnalyticsGroup::key).toList());
+    }
+
+    @Test
+    void aggregate_byDay_withFarOffDates_shouldNotAllocateADayPerSlot() {
+        // Given: one row in year 1 and one in year 9999, besides two ordinary ones
+        transactionColumnStore.onSaved(transaction(1L, "1.00", TransactionType.DEBIT, TransactionStatus.COMPLETED, "Shopping", DAY));
+        transactionColumnStore.onSaved(transaction(2L, "2.00", TransactionType.CREDIT, TransactionStatus.COMPLETED, "Salary", DAY.plusDays(1)));
+        transactionColumnStore.onSaved(transaction(3L, "3.00", TransactionType.DEBIT, TransactionStatus.COMPLETED, "Shopping", LocalDateTime.of(1, 1, 1, 0, 0)));
+        transactionColumnStore.onSaved(transaction(4L, "4.00", TransactionType.DEBIT, TransactionStatus.PENDING, "Shopping", LocalDateTime.of(9999, 12, 31, 12, 0)));
+
+        // When
+        List<TransactionAnalyticsGroup> all = transactionColumnStore.aggregate(
+                TransactionColumnStore.Dimension.DAY, null, null, null, null);
+        List<TransactionAnalyticsGroup> completed = transactionColumnStore.aggregate(
+                TransactionColumnStore.Dimension.DAY, null, null, null, TransactionStatus.COMPLETED);
+        transactionColumnStore.onDeleted(transaction(3L, "3.00", TransactionType.DEBIT, TransactionStatus.COMPLETED, "Shopping", DAY));
+        transactionColumnStore.onDeleted(transaction(4L, "4.00", TransactionType.DEBIT, TransactionStatus.PENDING, "Shopping", DAY));
+        List<TransactionAnalyticsGroup> afterDelete = transactionColumnStore.aggregate(
+                TransactionColumnStore.Dimension.DAY, null, null, null, null);
+
+        // Then
+        assertEquals(List.of("0001-01-01", "2024-03-15", "2024-03-16", "9999-12-31"),
+                all.stream().map(TransactionAnalyticsGroup::key).toList());
+        assertEquals(new TransactionAnalyticsGroup("9999-12-31", 1, new BigDecimal("4.00"), new BigDecimal("4.00"), new BigDecimal("4.00")),
+                all.get(3));
+        assertEquals(List.of("0001-01-01", "2024-03-15", "2024-03-16"),
+                completed.stream().map(TransactionAnalyticsGroup::key).toList());
+        assertEquals(List.of("2024-03-15", "2024-03-16"),
+                afterDelete.stream().map(TransactionAnalyticsGroup::key).toList());
+    }
+
+    @Test
+    void onSavedAndOnDeleted_shouldReplaceAndRemoveRowsById() {
+        // Given
+        transactionColumnStore.onSaved(transaction(1L, "10.00", TransactionType.DEBIT, TransactionStatus.PENDING, "Shopping", DAY));
+        transactionColumnStore.onSaved(transaction(2L, "20.00", TransactionType.DEBIT, TransactionStatus.PENDING, "Shopping", DAY));
+        transactionColumnStore.onSaved(transaction(3L, "30.00", TransactionType.DEBIT, TransactionStatus.PENDING, "Shopping", DAY));
+
+        // When
+        transactionColumnStore.onSaved(transaction(1L, "10.00", TransactionType.DEBIT, TransactionStatus.COMPLETED, "Shopping", DAY));
+        transactionColumnStore.onDeleted(transaction(1L, "10.00", TransactionType.DEBIT, TransactionStatus.COMPLETED, "Shopping", DAY));
+        transactionColumnStore.onDeleted(transaction(1L, "10.00", TransactionType.DEBIT, TransactionStatus.COMPLETED, "Shopping", DAY));
+        transactionColumnStore.onSaved(transaction(3L, "35.00", TransactionType.DEBIT, TransactionStatus.FAILED, "Shopping", DAY));
+
+        // Then
+        assertEquals(2, transactionColumnStore.size());
+        assertEquals(List.of(
+                        new TransactionAnalyticsGroup("PENDING", 1, new BigDecimal("20.00"), new BigDecimal("20.00"), new BigDecimal("20.00")),
+                        new TransactionAnalyticsGroup("FAILED", 1, new BigDecimal("35.00"), new BigDecimal("35.00"), new BigDecimal("35.00"))),
+                transactionColumnStore.aggregate(TransactionColumnStore.Dimension.STATUS, null, null, null, null));
+    }
+
+    @Test
+    void onSaved_outOfOrderOrAfterDelete_shouldKeepTheLatestState() {
+        // Given
+        Transaction settled = transaction(1L, "10.00", TransactionType.DEBIT, TransactionStatus.COMPLETED, "Shopping", DAY);
+        settled.setVersion(2L);
+        Transaction stale = transaction(1L, "10.00", TransactionType.DEBIT, TransactionStatus.PENDING, "Shopping", DAY);
+        stale.setVersion(1L);
+        Transaction deleted = transaction(2L, "20.00", TransactionType.DEBIT, TransactionStatus.PENDING, "Shopping", DAY);
+        deleted.setVersion(0L);
+        Transaction lateUpdate = transaction(2L, "25.00", TransactionType.DEBIT, TransactionStatus.COMPLETED, "Shopping", DAY);
+        lateUpdate.setVersion(1L);
+
+        // When
+        transactionColumnStore.onSaved(settled);
+        transactionColumnStore.onSaved(stale);
+        transactionColumnStore.onSaved(deleted);
+        transactionColumnStore.onDeleted(deleted);
+        transactionColumnStore.onSaved(lateUpdate);
+
+        // Then
+        assertEquals(1, transactionColumnStore.size());
+        assertEquals(List.of(new TransactionAnalyticsGroup("COMPLETED", 1, new BigDecimal("10.00"), new BigDecimal("10.00"), new BigDecimal("10.00"))),
+                transactionColumnStore.aggregate(TransactionColumnStore.Dimension.STATUS, null, null, null, null));
+    }
+
+    @Test
+    void idIndex_shouldFindEveryKeyLeftAfterRemovals() {
+        // Given
+        TransactionColumnStore.IdIndex index = new TransactionColumnStore.IdIndex();
+        for (int i = 0; i < 10_000; i++) {
+            index.put(i * 64L, i);
+        }
+
+        // When
+        for (int i = 0; i < 10_000; i += 2) {
+            assertEquals(i, index.remove(i * 64L));
+        }
+
+        // Then
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i % 2 == 0 ? -1 : i, index.get(i * 64L));
+        }
+        assertEquals(-1, index.remove(0));
+    }
+
+    private Transaction transaction(Long id, String amount, TransactionType type, TransactionStatus status,
+                                    String category, LocalDateTime date) {
+        if (id != null) {
+            transactionCategoryDictionary.register(category);
+        }
+        Transaction transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setTransactionId("COL-" + System.nanoTime());
+        transaction.setDescription("Column store test");
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setType(type);
+        transaction.setStatus(status);
+        transaction.setCategory(category);
+        transaction.setTransactionDate(date);
+        return transaction;
+    }
+}
@@ -0,0 +1,142 @@
+package com.payan.demo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.payan.demo.controller.TransactionController;
+import com.payan.demo.entity.Transaction;
+import com.payan.demo.entity.TransactionStatus;
+import com.payan.demo.entity.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+class TransactionEventPublisherTest {
+
+    private TransactionEventPublisher publisher;
+    private MockMvc mockMvc;
+
+    /**
+     * Drain tasks handed to the sender executor, run by the test when it chooses
+     */
+    private final List<Runnable> senderTasks = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        publisher = new TransactionEventPublisher();
+        ReflectionTestUtils.setField(publisher, "objectMapper", new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(publisher, "bufferSize", 3);
+        ExecutorService senders = mock(ExecutorService.class);
+        doAnswer(invocation -> senderTasks.add(invocation.getArgument(0))).when(senders).execute(any());
+        ReflectionTestUtils.setField(publisher, "senders", senders);
+
+        TransactionController controller = new TransactionController();
+        ReflectionTestUtils.setField(controller, "transactionEventPublisher", publisher);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void publish_shouldSendEventToSubscriber() throws Exception {
+        // Given
+        MockHttpServletResponse response = subscribe();
+
+        // When
+        publisher.publishCreated(createTransaction(1L, TransactionStatus.PENDING));
+        publisher.publishDeleted(2L);
+        runSenders();
+
+        // Then
+        String body = response.getContentAsString();
+        assertTrue(body.contains(":heartbeat"), body);
+        assertTrue(body.contains("event:CREATED\ndata:{\"sequence\":1,\"type\":\"CREATED\",\"id\":1,"), body);
+        assertTrue(body.contains("event:DELETED\ndata:{\"sequence\":2,\"type\":\"DELETED\",\"id\":2,\"transaction\":null}"), body);
+        assertEquals(1, publisher.getSubscriberCount());
+    }
+
+    @Test
+    void publish_whenSameTransactionIsPending_shouldCoalesceToLatest() throws Exception {
+        // Given
+        MockHttpServletResponse response = subscribe();
+        runSenders();
+
+        // When
+        publisher.publishCreated(createTransaction(1L, TransactionStatus.PENDING));
+        publisher.publishStatusChanged(createTransaction(1L, TransactionStatus.COMPLETED));
+        runSenders();
+
+        // Then
+        String body = response.getContentAsString();
+        assertFalse(body.contains("event:CREATED"), body);
+        assertTrue(body.contains("event:STATUS_CHANGED"), body);
+        assertTrue(body.contains("\"status\":\"COMPLETED\""), body);
+    }
+
+    @Test
+    void publish_whenBufferOverflows_shouldDropEventsAndSendResync() throws Exception {
+        // Given
+        MockHttpServletResponse response = subscribe();
+        runSenders();
+
+        // When
+        for (long id = 1; id <= 4; id++) {
+            publisher.publishCreated(createTransaction(id, TransactionStatus.PENDING));
+        }
+        publisher.publishCreated(createTransaction(5L, TransactionStatus.PENDING));
+        runSenders();
+
+        // Then
+        String body = response.getContentAsString();
+        assertTrue(body.contains("event:RESYNC"), body);
+        assertFalse(body.contains("\"id\":1,"), body);
+        assertTrue(body.contains("\"id\":5,"), body);
+    }
+
+    @Test
+    void publish_withoutSubscribers_shouldNotQueueAnything() {
+        // When
+        publisher.publishCreated(createTransaction(1L, TransactionStatus.PENDING));
+
+        // Then
+        assertEquals(0, publisher.getSubscriberCount());
+        assertTrue(senderTasks.isEmpty());
+    }
+
+    private MockHttpServletResponse subscribe() throws Exception {
+        return mockMvc.perform(get("/api/transactions/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+    }
+
+    private void runSenders() {
+        while (!senderTasks.isEmpty()) {
+            senderTasks.remove(0).run();
+        }
+    }
+
+    private Transaction createTransaction(Long id, TransactionStatus status) {
+        Transaction transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setTransactionId("TXN" + id);
+        transaction.setDescription("Coffee");
+        transaction.setAmount(new BigDecimal("4.50"));
+        transaction.setType(TransactionType.DEBIT);
+        transaction.setStatus(status);
+        transaction.setCategory("Food & Dining");
+        transaction.setTransactionDate(LocalDateTime.of(2024, 3, 15, 9, 30));
+        return transaction;
+    }
+}
@@ -0,0 +1,115 @@
+package com.payan.demo.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionIngestJournalTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void open_shouldReturnRecordsLeftByThePreviousRunAndContinueTheirSequence() throws Exception {
+        // Given
+        try (TransactionIngestJournal journal = new TransactionIngestJournal(directory, 100, true)) {
+            journal.open();
+            journal.append("{\"transactionId\":\"A\"}");
+            long last = journal.append("{\"transactionId\":\"B\"}");
+            journal.sync(last);
+        }
+
+        // When
+        TransactionIngestJournal reopened = new TransactionIngestJournal(directory, 100, true);
+        List<TransactionIngestJournal.Entry> entries = reopened.open();
+        long next = reopened.append("{\"transactionId\":\"C\"}");
+        reopened.close();
+
+        // Then
+        assertEquals(List.of(
+                        new TransactionIngestJournal.Entry(1, "{\"transactionId\":\"A\"}"),
+                        new TransactionIngestJournal.Entry(2, "{\"transactionId\":\"B\"}")),
+                entries);
+        assertEquals(3, next);
+    }
+
+    @Test
+    void open_shouldDropARecordCutShortByACrash() throws Exception {
+        // Given
+        try (TransactionIngestJournal journal = new TransactionIngestJournal(directory, 100, false)) {
+            journal.open();
+            journal.append("{\"transactionId\":\"A\"}");
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            Path segment = files.findFirst().orElseThrow();
+            Files.writeString(segment, "2\t{\"transactionId\":\"B", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        }
+
+        // When
+        TransactionIngestJournal reopened = new TransactionIngestJournal(directory, 100, false);
+        List<TransactionIngestJournal.Entry> entries = reopened.open();
+        long next = reopened.append("{\"transactionId\":\"C\"}");
+        reopened.close();
+
+        // Then
+        assertEquals(List.of(new TransactionIngestJournal.Entry(1, "{\"transactionId\":\"A\"}")), entries);
+        assertEquals(2, next);
+    }
+
+    @Test
+    void release_shouldDeleteOnlyFullSegmentsWhoseRecordsWereAllWritten() throws Exception {
+        // Given: two records per segment, so five records fill two segments and start a third
+        TransactionIngestJournal journal = new TransactionIngestJournal(directory, 2, false);
+        journal.open();
+        for (int i = 0; i < 5; i++) {
+            journal.append("{\"transactionId\":\"T" + i + "\"}");
+        }
+
+        // When
+        assertFalse(journal.isReleasable(1));
+        assertTrue(journal.isReleasable(3));
+        journal.release(3);
+        int afterFirstRelease = journal.segmentCount();
+        journal.release(5);
+        int afterSecondRelease = journal.segmentCount();
+        journal.close();
+
+        // Then
+        assertEquals(2, afterFirstRelease);
+        assertEquals(1, afterSecondRelease);
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+        try (TransactionIngestJournal reopened = new TransactionIngestJournal(directory, 2, false)) {
+            assertEquals(List.of(new TransactionIngestJournal.Entry(5, "{\"transactionId\":\"T4\"}")), reopened.open());
+        }
+    }
+
+    @Test
+    void rollAndRelease_withFsync_shouldKeepTheDirectoryInStepWithTheSegments() throws Exception {
+        // Given: fsync on, so creating and deleting segments also forces the directory
+        try (TransactionIngestJournal journal = new TransactionIngestJournal(directory, 1, true)) {
+            journal.open();
+            for (int i = 0; i < 3; i++) {
+                journal.sync(journal.append("{\"transactionId\":\"T" + i + "\"}"));
+            }
+
+            // When
+            journal.release(2);
+
+            // Then
+            try (Stream<Path> files = Files.list(directory)) {
+                assertEquals(List.of("ingest-00000000000000000003.journal"),
+                        files.map(path -> path.getFileName().toString()).toList());
+            }
+        }
+    }
+}
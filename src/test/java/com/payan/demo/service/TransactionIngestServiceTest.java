@@ -0,0 +1,268 @@
+package com.payan.demo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.payan.demo.dto.BatchIngestResult;
+import com.payan.demo.dto.BatchItemResult;
+import com.payan.demo.dto.TransactionIngestStatus;
+import com.payan.demo.entity.Transaction;
+import com.payan.demo.entity.TransactionStatus;
+import com.payan.demo.entity.TransactionType;
+import com.payan.demo.repository.TransactionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TransactionIngestServiceTest {
+
+    @TempDir
+    private Path journalDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private TransactionIngestService transactionIngestService;
+    private TransactionBatchService transactionBatchService;
+    private TransactionRepository transactionRepository;
+
+    @BeforeEach
+    void setUp() {
+        transactionBatchService = mock(TransactionBatchService.class);
+        transactionRepository = mock(TransactionRepository.class);
+        when(transactionBatchService.ingest(anyList(), eq(true))).thenAnswer(invocation -> created(invocation.getArgument(0)));
+        transactionIngestService = new TransactionIngestService();
+        ReflectionTestUtils.setField(transactionIngestService, "transactionBatchService", transactionBatchService);
+        ReflectionTestUtils.setField(transactionIngestService, "transactionRepository", transactionRepository);
+        ReflectionTestUtils.setField(transactionIngestService, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(transactionIngestService, "enabled", true);
+        ReflectionTestUtils.setField(transactionIngestService, "journalDir", journalDir);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        transactionIngestService.shutdown();
+    }
+
+    @Test
+    void accept_shouldReturnQueuedThenWriteInTheBackground() throws Exception {
+        // Given
+        transactionIngestService.start();
+
+        // When
+        TransactionIngestStatus accepted = transactionIngestService.accept(createTransaction("ASYNC-1"));
+
+        // Then
+        assertEquals(TransactionIngestStatus.State.QUEUED, accepted.state());
+        assertNotNull(accepted.acceptedAt());
+        TransactionIngestStatus written = awaitFinished("ASYNC-1");
+        assertEquals(TransactionIngestStatus.State.CREATED, written.state());
+        assertEquals(100L, written.id());
+        assertEquals(accepted.acceptedAt(), written.acceptedAt());
+        assertEquals(0, transactionIngestService.getQueueSize());
+    }
+
+    @Test
+    void accept_withInvalidTransaction_shouldThrowWithoutQueueing() throws Exception {
+        // Given
+        transactionIngestService.start();
+        Transaction invalid = createTransaction("ASYNC-2");
+        when(transactionBatchService.validate(invalid)).thenReturn("amount must be positive");
+
+        // When & Then
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> transactionIngestService.accept(invalid));
+        assertEquals("amount must be positive", error.getMessage());
+        assertEquals(0, transactionIngestService.getQueueSize());
+        assertTrue(transactionIngestService.getStatus("ASYNC-2").isEmpty());
+    }
+
+    @Test
+    void accept_whenQueueIsFull_shouldRefuseUntilTheWriterCatchesUp() throws Exception {
+        // Given: the writer is stuck on the first transaction
+        ReflectionTestUtils.setField(transactionIngestService, "queueCapacity", 1);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(transactionBatchService.ingest(anyList(), eq(true))).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return created(invocation.getArgument(0));
+        });
+        transactionIngestService.start();
+        transactionIngestService.accept(createTransaction("ASYNC-3"));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+        // When & Then
+        assertThrows(TransactionIngestQueueFullException.class,
+                () -> transactionIngestService.accept(createTransaction("ASYNC-4")));
+        release.countDown();
+        awaitFinished("ASYNC-3");
+        assertEquals(TransactionIngestStatus.State.QUEUED,
+                transactionIngestService.accept(createTransaction("ASYNC-5")).state());
+    }
+
+    @Test
+    void start_shouldWriteJournaledTransactionsThatAreNotStoredYet() throws Exception {
+        // Given: a previous run journaled two transactions and stored only the first
+        try (TransactionIngestJournal journal = new TransactionIngestJournal(journalDir, 10000, false)) {
+            journal.open();
+            journal.append(objectMapper.writeValueAsString(createTransaction("ASYNC-6")));
+            journal.append(objectMapper.writeValueAsString(createTransaction("ASYNC-7")));
+        }
+        when(transactionRepository.findExistingTransactionIds(anyCollection())).thenReturn(List.of("ASYNC-6"));
+
+        // When
+        transactionIngestService.start();
+
+        // Then
+        assertEquals(TransactionIngestStatus.State.CREATED, awaitFinished("ASYNC-7").state());
+        verify(transactionBatchService).ingest(argThat(batch -> batch.size() == 1
+                && batch.get(0).getTransactionId().equals("ASYNC-7")
+                && batch.get(0).getAmount().compareTo(new BigDecimal("42.50")) == 0), eq(true));
+    }
+
+    @Test
+    void writer_whenDatabaseIsDown_shouldKeepTheBatchJournaledAndRetryIt() throws Exception {
+        // Given: one record per segment, and a database that fails the first write
+        ReflectionTestUtils.setField(transactionIngestService, "journalSegmentEntries", 1);
+        ReflectionTestUtils.setField(transactionIngestService, "retryBackoff", Duration.ofMillis(10));
+        CountDownLatch outage = new CountDownLatch(1);
+        CountDownLatch recovered = new CountDownLatch(1);
+        when(transactionBatchService.ingest(anyList(), eq(true)))
+                .thenAnswer(invocation -> {
+                    outage.countDown();
+                    throw new DataAccessResourceFailureException("Connection refused");
+                })
+                .thenAnswer(invocation -> {
+                    recovered.await(5, TimeUnit.SECONDS);
+                    return created(invocation.getArgument(0));
+                });
+        transactionIngestService.start();
+        Path firstSegment = journalDir.resolve(String.format("ingest-%020d.journal", 1));
+
+        // When
+        transactionIngestService.accept(createTransaction("ASYNC-9"));
+        transactionIngestService.accept(createTransaction("ASYNC-10"));
+        assertTrue(outage.await(5, TimeUnit.SECONDS));
+
+        // Then: nothing failed or released while the database is down
+        assertEquals(TransactionIngestStatus.State.QUEUED,
+                transactionIngestService.getStatus("ASYNC-9").orElseThrow().state());
+        assertTrue(Files.exists(firstSegment));
+        recovered.countDown();
+        assertEquals(TransactionIngestStatus.State.CREATED, awaitFinished("ASYNC-9").state());
+        assertEquals(TransactionIngestStatus.State.CREATED, awaitFinished("ASYNC-10").state());
+        for (int attempt = 0; attempt < 500 && Files.exists(firstSegment); attempt++) {
+            Thread.sleep(10);
+        }
+        assertFalse(Files.exists(firstSegment));
+    }
+
+    @Test
+    void writer_shouldForceRowsToDiskBeforeDeletingTheirJournalSegment() throws Exception {
+        // Given
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        ReflectionTestUtils.setField(transactionIngestService, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(transactionIngestService, "releaseSyncSql", "CHECKPOINT SYNC");
+        ReflectionTestUtils.setField(transactionIngestService, "journalSegmentEntries", 1);
+        Path firstSegment = journalDir.resolve(String.format("ingest-%020d.journal", 1));
+        AtomicBoolean segmentKeptUntilSync = new AtomicBoolean();
+        doAnswer(invocation -> {
+            segmentKeptUntilSync.compareAndSet(false, Files.exists(firstSegment));
+            return null;
+        }).when(jdbcTemplate).execute("CHECKPOINT SYNC");
+        transactionIngestService.start();
+
+        // When: the second record closes the first segment
+        transactionIngestService.accept(createTransaction("ASYNC-11"));
+        transactionIngestService.accept(createTransaction("ASYNC-12"));
+        awaitFinished("ASYNC-12");
+        for (int attempt = 0; attempt < 500 && Files.exists(firstSegment); attempt++) {
+            Thread.sleep(10);
+        }
+
+        // Then
+        assertFalse(Files.exists(firstSegment));
+        verify(jdbcTemplate, atLeastOnce()).execute("CHECKPOINT SYNC");
+        assertTrue(segmentKeptUntilSync.get());
+    }
+
+    @Test
+    void accept_whenJournalCannotBeSynced_shouldNeitherWriteNorAcceptMore() throws Exception {
+        // Given
+        transactionIngestService.start();
+        transactionIngestService.accept(createTransaction("ASYNC-13"));
+        awaitFinished("ASYNC-13");
+        TransactionIngestJournal journal = spy((TransactionIngestJournal)
+                ReflectionTestUtils.getField(transactionIngestService, "journal"));
+        doThrow(new IOException("Input/output error")).when(journal).sync(anyLong());
+        ReflectionTestUtils.setField(transactionIngestService, "journal", journal);
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> transactionIngestService.accept(createTransaction("ASYNC-14")));
+        assertThrows(IllegalStateException.class, () -> transactionIngestService.accept(createTransaction("ASYNC-15")));
+        Thread.sleep(300);
+        verify(transactionBatchService, times(1)).ingest(anyList(), eq(true));
+        assertTrue(transactionIngestService.getStatus("ASYNC-15").isEmpty());
+    }
+
+    @Test
+    void accept_whenDisabled_shouldThrow() {
+        // Given
+        ReflectionTestUtils.setField(transactionIngestService, "enabled", false);
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> transactionIngestService.accept(createTransaction("ASYNC-8")));
+    }
+
+    private TransactionIngestStatus awaitFinished(String transactionId) throws InterruptedException {
+        for (int attempt = 0; attempt < 500; attempt++) {
+            TransactionIngestStatus status = transactionIngestService.getStatus(transactionId).orElseThrow();
+            if (status.state() != TransactionIngestStatus.State.QUEUED) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        fail("Transaction " + transactionId + " was not written");
+        return null;
+    }
+
+    private static BatchIngestResult created(List<Transaction> batch) {
+        List<BatchItemResult> items = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            items.add(BatchItemResult.created(i, 100L + i, batch.get(i).getTransactionId()));
+        }
+        return BatchIngestResult.of(items);
+    }
+
+    private static Transaction createTransaction(String transactionId) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(transactionId);
+        transaction.setDescription("Async ingest");
+        transaction.setAmount(new BigDecimal("42.50"));
+        transaction.setType(TransactionType.DEBIT);
+        transaction.setStatus(TransactionStatus.PENDING);
+        transaction.setCategory("Shopping");
+        transaction.setTransactionDate(LocalDateTime.of(2024, 3, 15, 10, 0));
+        return transaction;
+    }
+}
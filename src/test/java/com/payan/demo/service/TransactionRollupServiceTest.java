@@ -0,0 +1,202 @@
+package com.payan.demo.service;
+
+import com.payan.demo.dto.TransactionStatsPoint;
+import com.payan.demo.entity.RollupGranularity;
+import com.payan.demo.entity.Transaction;
+import com.payan.demo.entity.TransactionStatus;
+import com.payan.demo.entity.TransactionType;
+import com.payan.demo.repository.TransactionCategoryDictionary;
+import com.payan.demo.repository.TransactionRepository;
+import com.payan.demo.repository.TransactionRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against H2 because the rollups live in a table and compaction recomputes them with SQL.
+ * Not wrapped in a test transaction so flushes and compactions commit on their own, as in production.
+ */
+@DataJpaTest
+@Import({TransactionRollupService.class, TransactionRollupRepository.class, TransactionCategoryDictionary.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransactionRollupServiceTest {
+
+    /**
+     * Recent enough that minute buckets are still retained
+     */
+    private static final LocalDateTime HOUR = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(3);
+
+    @Autowired
+    private TransactionRollupService transactionRollupService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionCategoryDictionary transactionCategoryDictionary;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void cleanUp() {
+        transactionRollupService.flush();
+        transactionRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM transaction_rollups");
+    }
+
+    @Test
+    void getStats_shouldServeEveryGranularityFromReportedWrites() {
+        // Given
+        transactionRollupService.onCreated(transaction("10.00", TransactionType.DEBIT, TransactionStatus.COMPLETED, "Shopping", HOUR.plusMinutes(5)));
+        transactionRollupService.onCreated(transaction("20.00", TransactionType.DEBIT, TransactionStatus.COMPLETED, "Shopping", HOUR.plusMinutes(50)));
+        transactionRollupService.onCreated(transaction("30.00", TransactionType.CREDIT, TransactionStatus.PENDING, "Salary", HOUR.plusMinutes(61)));
+
+        // When
+        List<TransactionStatsPoint> hourly = transactionRollupService.getStats(
+                RollupGranularity.HOUR, HOUR, HOUR.plusHours(2), null, null, null);
+        List<TransactionStatsPoint> debitsPerMinute = transactionRollupService.getStats(
+                RollupGranularity.MINUTE, HOUR, HOUR.plusHours(2), TransactionType.DEBIT, null, null);
+        List<TransactionStatsPoint> salaryPerDay = transactionRollupService.getStats(
+                RollupGranularity.DAY, HOUR.minusDays(1), HOUR.plusDays(1), null, null, "Salary");
+
+        // Then
+        assertEquals(List.of(
+                        new TransactionStatsPoint(HOUR, 2, new BigDecimal("30.00")),
+                        new TransactionStatsPoint(HOUR.plusHours(1), 1, new BigDecimal("30.00"))),
+                hourly);
+        assertEquals(List.of(
+                        new TransactionStatsPoint(HOUR.plusMinutes(5), 1, new BigDecimal("10.00")),
+                        new TransactionStatsPoint(HOUR.plusMinutes(50), 1, new BigDecimal("20.00"))),
+                debitsPerMinute);
+        assertEquals(List.of(new TransactionStatsPoint(HOUR.plusMinutes(61).truncatedTo(ChronoUnit.DAYS), 1, new BigDecimal("30.00"))),
+                salaryPerDay);
+    }
+
+    @Test
+    void onUpdatedAndOnDeleted_shouldMoveAndRemoveContributions() {
+        // Given
+        Transaction pending = transaction("10.00", TransactionType.DEBIT, TransactionStatus.PENDING, "Shopping", HOUR);
+        Transaction completed = transaction("12.50", TransactionType.DEBIT, TransactionStatus.COMPLETED, "Shopping", HOUR);
+        Transaction other = transaction("5.00", TransactionType.DEBIT, TransactionStatus.PENDING, "Shopping", HOUR);
+        transactionRollupService.onCreated(pending);
+        transactionRollupService.onCreated(other);
+        transactionRollupService.flush();
+
+        // When
+        transactionRollupService.onUpdated(pending, completed);
+        transactionRollupService.onDeleted(other);
+
+        // Then
+        assertEquals(List.of(), transactionRollupService.getStats(
+                RollupGranularity.HOUR, HOUR, HOUR.plusHours(1), null, TransactionStatus.PENDING, null));
+        assertEquals(List.of(new TransactionStatsPoint(HOUR, 1, new BigDecimal("12.50"))), transactionRollupService.getStats(
+                RollupGranularity.HOUR, HOUR, HOUR.plusHours(1), null, TransactionStatus.COMPLETED, null));
+    }
+
+    @Test
+    void compact_shouldReplaceRecentBucketsWithWhatTheTableHolds() {
+        // Given: one row written without reporting it, one reported write that never reached the table
+        transactionRepository.save(transaction("40.00", TransactionType.CREDIT, TransactionStatus.COMPLETED, "Salary", HOUR));
+        transactionRollupService.onCreated(transaction("99.00", TransactionType.CREDIT, TransactionStatus.COMPLETED, "Salary", HOUR));
+
+        // When
+        transactionRollupService.compact();
+
+        // Then
+        assertEquals(List.of(new TransactionStatsPoint(HOUR, 1, new BigDecimal("40.00"))), transactionRollupService.getStats(
+                RollupGranularity.HOUR, HOUR, HOUR.plusHours(1), null, null, null));
+        assertEquals(List.of(new TransactionStatsPoint(HOUR, 1, new BigDecimal("40.00"))), transactionRollupService.getStats(
+                RollupGranularity.MINUTE, HOUR, HOUR.plusHours(1), null, null, null));
+    }
+
+    @Test
+    void rebuild_shouldKeepDayBucketsButNotMinuteBucketsPastRetention() {
+        // Given
+        LocalDateTime old = HOUR.minusDays(10);
+        transactionRepository.save(transaction("7.00", TransactionType.DEBIT, TransactionStatus.COMPLETED, "Shopping", old));
+        transactionRollupService.onCreated(transaction("8.00", TransactionType.DEBIT, TransactionStatus.COMPLETED, "Shopping", old));
+        transactionRollupService.flush();
+
+        // When
+        transactionRollupService.rebuild();
+
+        // Then
+        assertEquals(List.of(), transactionRollupService.getStats(
+                RollupGranularity.MINUTE, old, old.plusHours(1), null, null, null));
+        assertEquals(List.of(new TransactionStatsPoint(old, 1, new BigDecimal("7.00"))), transactionRollupService.getStats(
+                RollupGranularity.HOUR, old, old.plusHours(1), null, null, null));
+        assertEquals(List.of(new TransactionStatsPoint(old.truncatedTo(ChronoUnit.DAYS), 1, new BigDecimal("7.00"))),
+                transactionRollupService.getStats(RollupGranularity.DAY, old, old.plusHours(1), null, null, null));
+    }
+
+    @Test
+    void getStats_withUnknownCategoryOrReversedRange_shouldReturnNothingOrThrow() {
+        // Given
+        transactionRollupService.onCreated(transaction("1.00", TransactionType.DEBIT, TransactionStatus.COMPLETED, "Shopping", HOUR));
+
+        // Then
+        assertEquals(List.of(), transactionRollupService.getStats(
+                RollupGranularity.HOUR, HOUR, HOUR.plusHours(1), null, null, "No such category"));
+        assertThrows(IllegalArgumentException.class, () -> transactionRollupService.getStats(
+                RollupGranularity.HOUR, HOUR.plusHours(1), HOUR, null, null, null));
+    }
+
+    @Test
+    void getStats_whileCompactionRuns_shouldNotWaitForIt() throws Exception {
+        // Given: a compaction holds the service while a write is still pending
+        transactionRollupService.onCreated(transaction("5.00", TransactionType.DEBIT, TransactionStatus.COMPLETED, "Shopping", HOUR));
+        CountDownLatch compacting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread compaction = new Thread(() -> {
+            synchronized (transactionRollupService) {
+                compacting.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        compaction.start();
+        compacting.await();
+
+        // When / Then
+        try {
+            List<TransactionStatsPoint> stats = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                    () -> transactionRollupService.getStats(RollupGranularity.HOUR, HOUR, HOUR.plusHours(1), null, null, null));
+            assertEquals(List.of(new TransactionStatsPoint(HOUR, 1, new BigDecimal("5.00"))), stats);
+        } finally {
+            release.countDown();
+            compaction.join();
+        }
+    }
+
+    private Transaction transaction(String amount, TransactionType type, TransactionStatus status,
+                                    String category, LocalDateTime date) {
+        transactionCategoryDictionary.register(category);
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId("ROLLUP-" + System.nanoTime());
+        transaction.setDescription("Rollup test");
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setType(type);
+        transaction.setStatus(status);
+        transaction.setCategory(category);
+        transaction.setTransactionDate(date);
+        return transaction;
+    }
+}
@@ -1,20 +1,56 @@
 package com.payan.demo.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.payan.demo.dto.CursorPage;
+import com.payan.demo.dto.TransactionCursor;
+import com.payan.demo.dto.TransactionExportFormat;
+import com.payan.demo.dto.TransactionFields;
+import com.payan.demo.dto.TransactionSearchCriteria;
 import com.payan.demo.entity.Transaction;
+import com.payan.demo.entity.TransactionStatus;
+import com.payan.demo.entity.TransactionType;
+import com.payan.demo.repository.TransactionCategoryDictionary;
 import com.payan.demo.repository.TransactionRepository;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.BeanUtils;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,22 +59,62 @@ class TransactionServiceTest {
     @Mock
     private TransactionRepository transactionRepository;
 
+    @Mock
+    private TransactionCategoryDictionary transactionCategoryDictionary;
+
+    @Mock
+    private TransactionSummaryService transactionSummaryService;
+
+    @Mock
+    private TransactionColumnStore transactionColumnStore;
+
+    @Mock
+    private TransactionRollupService transactionRollupService;
+
+    @Mock
+    private TransactionEventPublisher transactionEventPublisher;
+
+    @Spy
+    private TransactionCache transactionCache =
+            new TransactionCache(100, Duration.ofMinutes(1), 1000, Duration.ofMinutes(1));
+
+    @Spy
+    private TransactionIdGenerator transactionIdGenerator = new SnowflakeTransactionIdGenerator(1);
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private ObjectMapper objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    @Spy
+    private TableVersions tableVersions = new TableVersions();
+
     @InjectMocks
     private TransactionService transactionService;
 
+    @Captor
+    private ArgumentCaptor<List<Transaction>> before;
+
     private Transaction transaction1;
     private Transaction transaction2;
 
     @BeforeEach
     void setUp() {
+        ReflectionTestUtils.setField(transactionService, "transactionChangeNotifier", new TransactionChangeNotifier(List.of(
+                transactionSummaryService, transactionRollupService, transactionColumnStore,
+                transactionCache, tableVersions, transactionEventPublisher)));
         transaction1 = new Transaction();
         transaction1.setId(1L);
         transaction1.setTransactionId("TXN001");
         transaction1.setDescription("Salary Deposit");
         transaction1.setAmount(new BigDecimal("5000.00"));
-        transaction1.setType("CREDIT");
+        transaction1.setType(TransactionType.CREDIT);
         transaction1.setCategory("Salary");
-        transaction1.setStatus("COMPLETED");
+        transaction1.setStatus(TransactionStatus.COMPLETED);
         transaction1.setTransactionDate(LocalDateTime.now());
         transaction1.setReference("REF001");
 
@@ -47,9 +123,9 @@ class TransactionServiceTest {
         transaction2.setTransactionId("TXN002");
         transaction2.setDescription("Grocery Shopping");
         transaction2.setAmount(new BigDecimal("150.00"));
-        transaction2.setType("DEBIT");
+        transaction2.setType(TransactionType.DEBIT);
         transaction2.setCategory("Food & Dining");
-        transaction2.setStatus("COMPLETED");
+        transaction2.setStatus(TransactionStatus.COMPLETED);
         transaction2.setTransactionDate(LocalDateTime.now());
         transaction2.setReference("REF002");
     }
@@ -100,4 +176,485 @@ class TransactionServiceTest {
         // Verify repository method was called
         verify(transactionRepository, times(1)).findAllByOrderByTransactionDateDesc();
     }
+
+    @Test
+    void getTransactionPage_whenMoreRowsExist_shouldReturnCursorToLastItem() {
+        // Given
+        when(transactionRepository.findFirstPage(PageRequest.of(0, 2)))
+                .thenReturn(Arrays.asList(transaction1, transaction2));
+
+        // When
+        CursorPage<Transaction> page = transactionService.getTransactionPage(null, 1);
+
+        // Then
+        assertTrue(page.hasMore());
+        assertEquals(1, page.items().size());
+        assertEquals("TXN001", page.items().get(0).getTransactionId());
+        TransactionCursor cursor = TransactionCursor.decode(page.nextCursor());
+        assertEquals(transaction1.getTransactionDate(), cursor.transactionDate());
+        assertEquals(1L, cursor.id());
+    }
+
+    @Test
+    void getTransactionPage_withCursor_shouldSeekPastIt() {
+        // Given
+        String cursor = TransactionCursor.of(transaction1).encode();
+        when(transactionRepository.findPageAfter(transaction1.getTransactionDate(), 1L, PageRequest.of(0, 51)))
+                .thenReturn(Arrays.asList(transaction2));
+
+        // When
+        CursorPage<Transaction> page = transactionService.getTransactionPage(cursor, null);
+
+        // Then
+        assertFalse(page.hasMore());
+        assertNull(page.nextCursor());
+        assertEquals(1, page.items().size());
+        assertEquals("TXN002", page.items().get(0).getTransactionId());
+    }
+
+    @Test
+    void getTransactionPage_shouldClampPageSizeToMaximum() {
+        // Given
+        when(transactionRepository.findFirstPage(PageRequest.of(0, 501))).thenReturn(Arrays.asList());
+
+        // When
+        CursorPage<Transaction> page = transactionService.getTransactionPage(null, 100_000);
+
+        // Then
+        assertTrue(page.items().isEmpty());
+        verify(transactionRepository).findFirstPage(PageRequest.of(0, 501));
+    }
+
+    @Test
+    void getTransactionPage_withMalformedCursor_shouldThrow() {
+        assertThrows(IllegalArgumentException.class,
+                () -> transactionService.getTransactionPage("not-a-cursor", 10));
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void exportTransactions_asNdjson_shouldWriteOneObjectPerLineAndDetachRows() throws Exception {
+        // Given
+        when(transactionRepository.streamAllForExport()).thenReturn(Stream.of(transaction1, transaction2));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long count = transactionService.exportTransactions(TransactionExportFormat.NDJSON, out);
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, count);
+        assertEquals(2, lines.length);
+        assertEquals("TXN001", objectMapper.readTree(lines[0]).get("transactionId").asText());
+        assertEquals("TXN002", objectMapper.readTree(lines[1]).get("transactionId").asText());
+        verify(entityManager).detach(transaction1);
+        verify(entityManager).detach(transaction2);
+    }
+
+    @Test
+    void exportTransactions_asCsv_shouldWriteHeaderAndQuoteSpecialCharacters() throws Exception {
+        // Given
+        transaction2.setDescription("Groceries, \"organic\"");
+        transaction2.setReference(null);
+        when(transactionRepository.streamAllForExport()).thenReturn(Stream.of(transaction2));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long count = transactionService.exportTransactions(TransactionExportFormat.CSV, out);
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(1, count);
+        assertEquals("id,transactionId,description,amount,type,status,transactionDate,category,reference", lines[0]);
+        assertEquals("2,TXN002,\"Groceries, \"\"organic\"\"\",150.00,DEBIT,COMPLETED,"
+                + transaction2.getTransactionDate() + ",Food & Dining,", lines[1]);
+        verify(entityManager).detach(transaction2);
+    }
+
+    @Test
+    void searchTransactions_shouldDefaultToNewestFirstWithIdTieBreaker() {
+        // Given
+        TransactionSearchCriteria criteria = new TransactionSearchCriteria();
+        criteria.setStatus(TransactionStatus.COMPLETED);
+        Pageable expected = PageRequest.of(0, 20,
+                Sort.by(Sort.Direction.DESC, "transactionDate").and(Sort.by(Sort.Direction.DESC, "id")));
+        when(transactionRepository.findAll(ArgumentMatchers.<Specification<Transaction>>any(), eq(expected)))
+                .thenReturn(new PageImpl<>(Arrays.asList(transaction1, transaction2), expected, 2));
+
+        // When
+        Page<Transaction> page = transactionService.searchTransactions(criteria, PageRequest.of(0, 20));
+
+        // Then
+        assertEquals(2, page.getTotalElements());
+        verify(transactionRepository).findAll(ArgumentMatchers.<Specification<Transaction>>any(), eq(expected));
+    }
+
+    @Test
+    void searchTransactions_withUnknownSortProperty_shouldThrow() {
+        Pageable pageable = PageRequest.of(0, 20, Sort.by("description"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> transactionService.searchTransactions(new TransactionSearchCriteria(), pageable));
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void createTransaction_shouldAddSavedRowToSummary() {
+        // Given
+        when(transactionRepository.save(transaction1)).thenReturn(transaction1);
+
+        // When
+        transactionService.createTransaction(transaction1);
+
+        // Then
+        verify(transactionSummaryService).onCreated(List.of(transaction1));
+        verify(transactionRollupService).onCreated(List.of(transaction1));
+        assertEquals(1, tableVersions.transactions().current().version());
+    }
+
+    @Test
+    void updateTransactionStatus_shouldPassPreviousStateToSummary() {
+        // Given
+        transaction1.setStatus(TransactionStatus.PENDING);
+        when(transactionRepository.findById(1L)).thenReturn(Optional.of(transaction1));
+        when(transactionRepository.save(transaction1)).thenReturn(transaction1);
+
+        // When
+        transactionService.updateTransactionStatus(1L, TransactionStatus.COMPLETED);
+
+        // Then
+        verify(transactionSummaryService).onStatusChanged(before.capture(), eq(List.of(transaction1)));
+        verify(transactionRollupService).onStatusChanged(before.getValue(), List.of(transaction1));
+        assertEquals(TransactionStatus.PENDING, before.getValue().get(0).getStatus());
+        assertEquals(TransactionStatus.COMPLETED, transaction1.getStatus());
+    }
+
+    @Test
+    void updateTransaction_shouldPassPreviousAmountAndCategoryToSummary() {
+        // Given
+        Transaction details = new Transaction();
+        details.setDescription("Bonus");
+        details.setAmount(new BigDecimal("6000.00"));
+        details.setType(TransactionType.CREDIT);
+        details.setStatus(TransactionStatus.COMPLETED);
+        details.setCategory("Income");
+        when(transactionRepository.findById(1L)).thenReturn(Optional.of(transaction1));
+        when(transactionRepository.save(transaction1)).thenReturn(transaction1);
+
+        // When
+        transactionService.updateTransaction(1L, details);
+
+        // Then
+        verify(transactionSummaryService).onUpdated(before.capture(), eq(List.of(transaction1)));
+        assertEquals(new BigDecimal("5000.00"), before.getValue().get(0).getAmount());
+        assertEquals("Salary", before.getValue().get(0).getCategory());
+        assertEquals("Income", transaction1.getCategory());
+    }
+
+    @Test
+    void deleteTransaction_shouldRemoveRowFromSummary() {
+        // Given
+        when(transactionRepository.findById(2L)).thenReturn(Optional.of(transaction2));
+
+        // When
+        transactionService.deleteTransaction(2L);
+
+        // Then
+        verify(transactionRepository).delete(transaction2);
+        verify(transactionSummaryService).onDeleted(List.of(transaction2));
+        verify(transactionRollupService).onDeleted(List.of(transaction2));
+    }
+
+    @Test
+    void deleteTransaction_whenMissing_shouldThrowAndLeaveSummaryUntouched() {
+        // Given
+        when(transactionRepository.findById(99L)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(RuntimeException.class, () -> transactionService.deleteTransaction(99L));
+        verify(transactionRepository, never()).delete(any(Transaction.class));
+        verifyNoInteractions(transactionSummaryService);
+        assertEquals(0, tableVersions.transactions().current().version());
+    }
+
+    @Test
+    void getRecentTransactions_shouldReadFirstKeysetPage() {
+        // Given
+        when(transactionRepository.findFirstPage(PageRequest.of(0, 20))).thenReturn(Arrays.asList(transaction1));
+
+        // When
+        List<Transaction> recent = transactionService.getRecentTransactions(20);
+
+        // Then
+        assertEquals(1, recent.size());
+    }
+
+    @Test
+    void getTransactionById_shouldServeRepeatedLookupsFromCache() {
+        // Given
+        when(transactionRepository.findById(1L)).thenReturn(Optional.of(transaction1));
+
+        // When
+        Optional<Transaction> first = transactionService.getTransactionById(1L);
+        Optional<Transaction> second = transactionService.getTransactionById(1L);
+
+        // Then
+        assertTrue(first.isPresent());
+        assertEquals(first.get(), second.get());
+        verify(transactionRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void updateTransactionStatus_shouldInvalidateOldAndNewStatusListings() {
+        // Given
+        transaction1.setStatus(TransactionStatus.PENDING);
+        when(transactionRepository.findByStatus(TransactionStatus.PENDING)).thenReturn(Arrays.asList(transaction1));
+        when(transactionRepository.findByStatus(TransactionStatus.COMPLETED)).thenReturn(Arrays.asList(transaction2));
+        when(transactionRepository.findByType(TransactionType.CREDIT)).thenReturn(Arrays.asList(transaction1));
+        transactionService.getTransactionsByStatus(TransactionStatus.PENDING);
+        transactionService.getTransactionsByStatus(TransactionStatus.COMPLETED);
+        transactionService.getTransactionsByType(TransactionType.CREDIT);
+        when(transactionRepository.findById(1L)).thenReturn(Optional.of(transaction1));
+        when(transactionRepository.save(transaction1)).thenReturn(transaction1);
+
+        // When
+        transactionService.updateTransactionStatus(1L, TransactionStatus.COMPLETED);
+        transactionService.getTransactionsByStatus(TransactionStatus.PENDING);
+        transactionService.getTransactionsByStatus(TransactionStatus.COMPLETED);
+        transactionService.getTransactionsByType(TransactionType.CREDIT);
+
+        // Then - both status listings reload, the type listing is refreshed too since the row is in it
+        verify(transactionRepository, times(2)).findByStatus(TransactionStatus.PENDING);
+        verify(transactionRepository, times(2)).findByStatus(TransactionStatus.COMPLETED);
+        verify(transactionRepository, times(2)).findByType(TransactionType.CREDIT);
+    }
+
+    @Test
+    void getTransactionsByCategory_shouldNotReloadUnrelatedCategoryAfterWrite() {
+        // Given
+        when(transactionRepository.findByCategory("Salary")).thenReturn(Arrays.asList(transaction1));
+        transactionService.getTransactionsByCategory("Salary");
+        when(transactionRepository.save(transaction2)).thenReturn(transaction2);
+
+        // When
+        transactionService.createTransaction(transaction2);
+        List<Transaction> salary = transactionService.getTransactionsByCategory("Salary");
+
+        // Then
+        assertEquals(1, salary.size());
+        verify(transactionRepository, times(1)).findByCategory("Salary");
+    }
+
+    @Test
+    void getTransactionPage_withFields_shouldReadKeysetColumnsButReturnOnlySelectedFields() {
+        // Given
+        LocalDateTime date = LocalDateTime.of(2024, 3, 15, 9, 30);
+        when(transactionRepository.findFields(eq(List.of("amount", "transactionDate", "id")), isNull(),
+                eq(Sort.by(Sort.Direction.DESC, "transactionDate", "id")), eq(0L), eq(2)))
+                .thenReturn(List.of(row("amount", new BigDecimal("10.00"), "transactionDate", date, "id", 7L),
+                        row("amount", new BigDecimal("20.00"), "transactionDate", date, "id", 6L)));
+
+        // When
+        CursorPage<Map<String, Object>> page =
+                transactionService.getTransactionPage(null, 1, TransactionFields.parse("amount"));
+
+        // Then
+        assertTrue(page.hasMore());
+        assertEquals(List.of(Map.of("amount", new BigDecimal("10.00"))), page.items());
+        assertEquals(new TransactionCursor(date, 7L), TransactionCursor.decode(page.nextCursor()));
+    }
+
+    @Test
+    void searchTransactions_withFields_shouldSkipCountWhenPageIsNotFull() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("amount"));
+        when(transactionRepository.findFields(eq(List.of("id", "amount")), any(), any(Sort.class), eq(0L), eq(10)))
+                .thenReturn(List.of(row("id", 1L, "amount", new BigDecimal("5.00"))));
+
+        // When
+        Page<Map<String, Object>> page = transactionService.searchTransactions(
+                new TransactionSearchCriteria(), pageable, TransactionFields.parse("id,amount"));
+
+        // Then
+        assertEquals(1, page.getTotalElements());
+        verify(transactionRepository, never()).count(ArgumentMatchers.<Specification<Transaction>>any());
+        ArgumentCaptor<Sort> sort = ArgumentCaptor.forClass(Sort.class);
+        verify(transactionRepository).findFields(any(), any(), sort.capture(), anyLong(), anyInt());
+        assertEquals(Sort.by("amountMinor").and(Sort.by(Sort.Direction.DESC, "id")), sort.getValue());
+    }
+
+    @Test
+    void searchTransactions_withFields_andUnsortableColumn_shouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> transactionService.searchTransactions(
+                new TransactionSearchCriteria(), PageRequest.of(0, 10, Sort.by("description")),
+                TransactionFields.parse("id")));
+    }
+
+    @Test
+    void updateTransaction_afterConcurrentWrite_shouldReapplyChangeToFreshRow() {
+        // Given
+        transaction1.setVersion(3L);
+        Transaction fresh = new Transaction();
+        BeanUtils.copyProperties(transaction1, fresh);
+        fresh.setVersion(4L);
+        fresh.setReference("REF-OTHER");
+        Transaction details = new Transaction();
+        details.setDescription("Bonus");
+        details.setStatus(TransactionStatus.COMPLETED);
+        when(transactionRepository.findById(1L)).thenReturn(Optional.of(transaction1)).thenReturn(Optional.of(fresh));
+        when(transactionRepository.save(transaction1))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Transaction.class, 1L));
+        when(transactionRepository.save(fresh)).thenReturn(fresh);
+
+        // When
+        Transaction saved = transactionService.updateTransaction(1L, details);
+
+        // Then
+        assertSame(fresh, saved);
+        assertEquals("Bonus", saved.getDescription());
+        verify(transactionSummaryService).onUpdated(before.capture(), eq(List.of(fresh)));
+        assertEquals(4L, before.getValue().get(0).getVersion());
+        verify(transactionEventPublisher, times(1)).onUpdated(anyList(), eq(List.of(fresh)));
+    }
+
+    @Test
+    void updateTransactionStatus_whenConflictsPersist_shouldGiveUpAfterMaxAttempts() {
+        // Given
+        transaction1.setStatus(TransactionStatus.PENDING);
+        when(transactionRepository.findById(1L)).thenReturn(Optional.of(transaction1));
+        when(transactionRepository.save(transaction1))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Transaction.class, 1L));
+
+        // When / Then
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> transactionService.updateTransactionStatus(1L, TransactionStatus.FAILED));
+        verify(transactionRepository, times(3)).save(transaction1);
+        verifyNoInteractions(transactionSummaryService, transactionEventPublisher);
+    }
+
+    @Test
+    void updateTransactionStatus_withStaleExpectedVersion_shouldThrowWithoutSaving() {
+        // Given
+        transaction1.setVersion(5L);
+        when(transactionRepository.findById(1L)).thenReturn(Optional.of(transaction1));
+
+        // When / Then
+        TransactionVersionConflictException conflict = assertThrows(TransactionVersionConflictException.class,
+                () -> transactionService.updateTransactionStatus(1L, TransactionStatus.FAILED, 4L));
+        assertEquals(4L, conflict.getExpectedVersion());
+        verify(transactionRepository, never()).save(any());
+        assertEquals(TransactionStatus.COMPLETED, transaction1.getStatus());
+    }
+
+    @Test
+    void updateTransaction_withExpectedVersion_shouldNotRetryLostRace() {
+        // Given
+        transaction1.setVersion(5L);
+        when(transactionRepository.findById(1L)).thenReturn(Optional.of(transaction1));
+        when(transactionRepository.save(transaction1))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Transaction.class, 1L));
+
+        // When / Then
+        assertThrows(TransactionVersionConflictException.class,
+                () -> transactionService.updateTransaction(1L, new Transaction(), 5L));
+        verify(transactionRepository, times(1)).save(transaction1);
+    }
+
+    @Test
+    void createTransaction_shouldIgnoreClientSuppliedVersion() {
+        // Given
+        transaction1.setId(null);
+        transaction1.setVersion(9L);
+        when(transactionRepository.save(transaction1)).thenReturn(transaction1);
+
+        // When
+        transactionService.createTransaction(transaction1);
+
+        // Then
+        assertNull(transaction1.getVersion());
+    }
+
+    @Test
+    void createTransaction_shouldRegisterCategoryBeforeSaving() {
+        // Given
+        transaction1.setId(null);
+        when(transactionRepository.save(transaction1)).thenReturn(transaction1);
+
+        // When
+        transactionService.createTransaction(transaction1);
+
+        // Then
+        InOrder inOrder = inOrder(transactionCategoryDictionary, transactionRepository);
+        inOrder.verify(transactionCategoryDictionary).register("Salary");
+        inOrder.verify(transactionRepository).save(transaction1);
+    }
+
+    private static Map<String, Object> row(Object... keysAndValues) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            row.put((String) keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return row;
+    }
+
+    @Test
+    void updateTransactionStatus_toIllegalStatus_shouldThrowWithoutSaving() {
+        // Given
+        when(transactionRepository.findById(1L)).thenReturn(Optional.of(transaction1));
+
+        // When / Then
+        TransactionStatusConflictException conflict = assertThrows(TransactionStatusConflictException.class,
+                () -> transactionService.updateTransactionStatus(1L, TransactionStatus.PENDING));
+        assertEquals(TransactionStatus.COMPLETED, conflict.getCurrentStatus());
+        verify(transactionRepository, never()).save(any());
+        verifyNoInteractions(transactionSummaryService, transactionRollupService, transactionEventPublisher);
+    }
+
+    @Test
+    void updateTransaction_afterLosingRaceToSettlement_shouldNotUndoIt() {
+        // Given: read as PENDING, but a settlement run completes the row before the save
+        transaction1.setStatus(TransactionStatus.PENDING);
+        transaction1.setVersion(3L);
+        Transaction settled = new Transaction();
+        BeanUtils.copyProperties(transaction1, settled);
+        settled.setStatus(TransactionStatus.COMPLETED);
+        settled.setVersion(4L);
+        Transaction details = new Transaction();
+        details.setDescription("Still pending");
+        details.setAmount(new BigDecimal("5000.00"));
+        details.setType(TransactionType.CREDIT);
+        details.setStatus(TransactionStatus.PENDING);
+        details.setCategory("Salary");
+        when(transactionRepository.findById(1L)).thenReturn(Optional.of(transaction1)).thenReturn(Optional.of(settled));
+        when(transactionRepository.save(transaction1))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Transaction.class, 1L));
+
+        // When / Then
+        assertThrows(TransactionStatusConflictException.class,
+                () -> transactionService.updateTransaction(1L, details));
+        verify(transactionRepository, never()).save(settled);
+        assertEquals(TransactionStatus.COMPLETED, settled.getStatus());
+        verifyNoInteractions(transactionSummaryService, transactionRollupService, transactionEventPublisher);
+    }
+
+    @Test
+    void updateTransactionStatus_afterLosingRaceToSettlement_shouldNotUndoIt() {
+        // Given: read as PENDING, but a settlement run completes the row before the save
+        transaction1.setStatus(TransactionStatus.PENDING);
+        transaction1.setVersion(3L);
+        Transaction settled = new Transaction();
+        BeanUtils.copyProperties(transaction1, settled);
+        settled.setStatus(TransactionStatus.COMPLETED);
+        settled.setVersion(4L);
+        when(transactionRepository.findById(1L)).thenReturn(Optional.of(transaction1)).thenReturn(Optional.of(settled));
+        when(transactionRepository.save(transaction1))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Transaction.class, 1L));
+
+        // When / Then
+        assertThrows(TransactionStatusConflictException.class,
+                () -> transactionService.updateTransactionStatus(1L, TransactionStatus.FAILED));
+        verify(transactionRepository, never()).save(settled);
+        assertEquals(TransactionStatus.COMPLETED, settled.getStatus());
+        verifyNoInteractions(transactionSummaryService, transactionRollupService, transactionEventPublisher);
+    }
 }
@@ -1,15 +1,21 @@
 package com.payan.demo.service;
 
 import com.payan.demo.entity.Transaction;
+import com.payan.demo.entity.TransactionStatus;
+import com.payan.demo.entity.TransactionType;
+import com.payan.demo.repository.TransactionCategoryDictionary;
 import com.payan.demo.repository.TransactionRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
@@ -26,6 +32,31 @@ public class TransactionServiceTestComplete {
     @Mock
     private TransactionRepository transactionRepository;
 
+    @Mock
+    private TransactionCategoryDictionary transactionCategoryDictionary;
+
+    @Mock
+    private TransactionSummaryService transactionSummaryService;
+
+    @Mock
+    private TransactionColumnStore transactionColumnStore;
+
+    @Mock
+    private TransactionRollupService transactionRollupService;
+
+    @Mock
+    private TransactionEventPublisher transactionEventPublisher;
+
+    @Spy
+    private TransactionCache transactionCache =
+            new TransactionCache(100, Duration.ofMinutes(1), 1000, Duration.ofMinutes(1));
+
+    @Spy
+    private TransactionIdGenerator transactionIdGenerator = new SnowflakeTransactionIdGenerator(1);
+
+    @Spy
+    private TableVersions tableVersions = new TableVersions();
+
     @InjectMocks
     private TransactionService transactionService;
 
@@ -33,13 +64,16 @@ public class TransactionServiceTestComplete {
 
     @BeforeEach
     void setUp() {
+        ReflectionTestUtils.setField(transactionService, "transactionChangeNotifier", new TransactionChangeNotifier(List.of(
+                transactionSummaryService, transactionRollupService, transactionColumnStore,
+                transactionCache, tableVersions, transactionEventPublisher)));
         testTransaction = new Transaction();
         testTransaction.setId(1L);
         testTransaction.setTransactionId("TXN-12345678");
         testTransaction.setDescription("Test Transaction");
         testTransaction.setAmount(new BigDecimal("100.00"));
-        testTransaction.setType("CREDIT");
-        testTransaction.setStatus("COMPLETED");
+        testTransaction.setType(TransactionType.CREDIT);
+        testTransaction.setStatus(TransactionStatus.COMPLETED);
         testTransaction.setTransactionDate(LocalDateTime.now());
         testTransaction.setCategory("Salary");
         testTransaction.setReference("REF-001");
@@ -70,6 +104,8 @@ public class TransactionServiceTestComplete {
 
         // Assert
         assertNotNull(result);
+        assertTrue(result.getTransactionId().matches("TXN-[0-9A-Z]{13}"));
+        verify(transactionIdGenerator, times(1)).nextId();
         verify(transactionRepository, times(1)).save(any(Transaction.class));
     }
 
@@ -95,8 +131,8 @@ public class TransactionServiceTestComplete {
         transaction2.setTransactionId("TXN-87654321");
         transaction2.setDescription("Test Transaction 2");
         transaction2.setAmount(new BigDecimal("200.00"));
-        transaction2.setType("DEBIT");
-        transaction2.setStatus("PENDING");
+        transaction2.setType(TransactionType.DEBIT);
+        transaction2.setStatus(TransactionStatus.PENDING);
         transaction2.setTransactionDate(LocalDateTime.now());
         transaction2.setCategory("Shopping");
 
@@ -143,32 +179,32 @@ public class TransactionServiceTestComplete {
     void testGetTransactionsByStatus_Success() {
         // Arrange
         List<Transaction> transactions = Arrays.asList(testTransaction);
-        when(transactionRepository.findByStatus("COMPLETED")).thenReturn(transactions);
+        when(transactionRepository.findByStatus(TransactionStatus.COMPLETED)).thenReturn(transactions);
 
         // Act
-        List<Transaction> result = transactionService.getTransactionsByStatus("COMPLETED");
+        List<Transaction> result = transactionService.getTransactionsByStatus(TransactionStatus.COMPLETED);
 
         // Assert
         assertNotNull(result);
         assertEquals(1, result.size());
-        assertEquals("COMPLETED", result.get(0).getStatus());
-        verify(transactionRepository, times(1)).findByStatus("COMPLETED");
+        assertEquals(TransactionStatus.COMPLETED, result.get(0).getStatus());
+        verify(transactionRepository, times(1)).findByStatus(TransactionStatus.COMPLETED);
     }
 
     @Test
     void testGetTransactionsByType_Success() {
         // Arrange
         List<Transaction> transactions = Arrays.asList(testTransaction);
-        when(transactionRepository.findByType("CREDIT")).thenReturn(transactions);
+        when(transactionRepository.findByType(TransactionType.CREDIT)).thenReturn(transactions);
 
         // Act
-        List<Transaction> result = transactionService.getTransactionsByType("CREDIT");
+        List<Transaction> result = transactionService.getTransactionsByType(TransactionType.CREDIT);
 
         // Assert
         assertNotNull(result);
         assertEquals(1, result.size());
-        assertEquals("CREDIT", result.get(0).getType());
-        verify(transactionRepository, times(1)).findByType("CREDIT");
+        assertEquals(TransactionType.CREDIT, result.get(0).getType());
+        verify(transactionRepository, times(1)).findByType(TransactionType.CREDIT);
     }
 
     @Test
@@ -193,8 +229,8 @@ public class TransactionServiceTestComplete {
         Transaction updatedDetails = new Transaction();
         updatedDetails.setDescription("Updated Description");
         updatedDetails.setAmount(new BigDecimal("150.00"));
-        updatedDetails.setType("DEBIT");
-        updatedDetails.setStatus("PENDING");
+        updatedDetails.setType(TransactionType.DEBIT);
+        updatedDetails.setStatus(TransactionStatus.COMPLETED);
         updatedDetails.setCategory("Shopping");
         updatedDetails.setReference("REF-002");
 
@@ -242,38 +278,41 @@ public class TransactionServiceTestComplete {
     @Test
     void testDeleteTransaction_Success() {
         // Arrange
-        when(transactionRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(transactionRepository).deleteById(1L);
+        when(transactionRepository.findById(1L)).thenReturn(Optional.of(testTransaction));
+        doNothing().when(transactionRepository).delete(testTransaction);
 
         // Act
         transactionService.deleteTransaction(1L);
 
         // Assert
-        verify(transactionRepository, times(1)).existsById(1L);
-        verify(transactionRepository, times(1)).deleteById(1L);
+        verify(transactionRepository, times(1)).findById(1L);
+        verify(transactionRepository, times(1)).delete(testTransaction);
+        verify(transactionSummaryService, times(1)).onDeleted(List.of(testTransaction));
     }
 
     @Test
     void testDeleteTransaction_NotFound() {
         // Arrange
-        when(transactionRepository.existsById(anyLong())).thenReturn(false);
+        when(transactionRepository.findById(anyLong())).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(RuntimeException.class, () -> {
             transactionService.deleteTransaction(999L);
         });
-        verify(transactionRepository, times(1)).existsById(999L);
-        verify(transactionRepository, never()).deleteById(anyLong());
+        verify(transactionRepository, times(1)).findById(999L);
+        verify(transactionRepository, never()).delete(any(Transaction.class));
+        verifyNoInteractions(transactionSummaryService);
     }
 
     @Test
     void testUpdateTransactionStatus_Success() {
         // Arrange
+        testTransaction.setStatus(TransactionStatus.PENDING);
         when(transactionRepository.findById(1L)).thenReturn(Optional.of(testTransaction));
         when(transactionRepository.save(any(Transaction.class))).thenReturn(testTransaction);
 
         // Act
-        Transaction result = transactionService.updateTransactionStatus(1L, "FAILED");
+        Transaction result = transactionService.updateTransactionStatus(1L, TransactionStatus.FAILED);
 
         // Assert
         assertNotNull(result);
@@ -288,7 +327,7 @@ public class TransactionServiceTestComplete {
 
         // Act & Assert
         assertThrows(RuntimeException.class, () -> {
-            transactionService.updateTransactionStatus(999L, "FAILED");
+            transactionService.updateTransactionStatus(999L, TransactionStatus.FAILED);
         });
         verify(transactionRepository, times(1)).findById(999L);
         verify(transactionRepository, never()).save(any(Transaction.class));
@@ -0,0 +1,181 @@
+package com.payan.demo.service;
+
+import com.payan.demo.dto.StatusTransitionProgress;
+import com.payan.demo.dto.StatusTransitionRequest;
+import com.payan.demo.dto.TransactionSearchCriteria;
+import com.payan.demo.entity.Transaction;
+import com.payan.demo.entity.TransactionStatus;
+import com.payan.demo.entity.TransactionType;
+import com.payan.demo.repository.TransactionCategoryDictionary;
+import com.payan.demo.repository.TransactionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs against H2 because the row locks, the guarded UPDATE and per-chunk commits are database behaviour.
+ * The run executor is replaced so each run executes inside the test when {@link #runQueued()} is called.
+ */
+@DataJpaTest
+@Import({TransactionStatusTransitionService.class, TransactionChangeNotifier.class, TableVersions.class,
+        TransactionCategoryDictionary.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "payan.transactions.status-transition.chunk-size=2")
+class TransactionStatusTransitionServiceTest {
+
+    private static final LocalDateTime CUTOFF = LocalDateTime.of(2024, 3, 15, 0, 0);
+
+    @Autowired
+    private TransactionStatusTransitionService transactionStatusTransitionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    @MockBean
+    private TransactionSummaryService transactionSummaryService;
+
+    @MockBean
+    private TransactionColumnStore transactionColumnStore;
+
+    @MockBean
+    private TransactionRollupService transactionRollupService;
+
+    @MockBean
+    private TransactionEventPublisher transactionEventPublisher;
+
+    @MockBean
+    private TransactionCache transactionCache;
+
+    private final List<Runnable> queued = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ExecutorService executor = mock(ExecutorService.class);
+        doAnswer(invocation -> queued.add(invocation.getArgument(0))).when(executor).execute(any());
+        ReflectionTestUtils.setField(transactionStatusTransitionService, "executor", executor);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        transactionRepository.deleteAll();
+    }
+
+    @Test
+    void start_withFilter_shouldMoveOnlyMatchingPendingRowsInChunks() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            save(TransactionStatus.PENDING, CUTOFF.minusDays(i + 1));
+        }
+        Transaction recent = save(TransactionStatus.PENDING, CUTOFF.plusDays(1));
+        Transaction failed = save(TransactionStatus.FAILED, CUTOFF.minusDays(1));
+        TransactionSearchCriteria filter = new TransactionSearchCriteria();
+        filter.setToDate(CUTOFF);
+        long version = tableVersions.transactions().current().version();
+
+        // When
+        StatusTransitionProgress queuedProgress = transactionStatusTransitionService.start(
+                new StatusTransitionRequest(null, filter, TransactionStatus.COMPLETED));
+        runQueued();
+
+        // Then
+        assertEquals(StatusTransitionProgress.State.QUEUED, queuedProgress.state());
+        StatusTransitionProgress progress = transactionStatusTransitionService.getProgress(queuedProgress.id()).orElseThrow();
+        assertEquals(StatusTransitionProgress.State.COMPLETED, progress.state());
+        assertEquals(3, progress.total());
+        assertEquals(3, progress.updated());
+        assertEquals(0, progress.skipped());
+        assertEquals(2, progress.chunks());
+        assertNotNull(progress.finishedAt());
+        assertEquals(3, transactionRepository.findByStatus(TransactionStatus.COMPLETED).size());
+        assertEquals(TransactionStatus.PENDING, transactionRepository.findById(recent.getId()).orElseThrow().getStatus());
+        assertEquals(TransactionStatus.FAILED, transactionRepository.findById(failed.getId()).orElseThrow().getStatus());
+        verify(transactionSummaryService).onStatusChanged(argThat((List<Transaction> chunk) -> chunk.size() == 2), anyList());
+        verify(transactionSummaryService).onStatusChanged(argThat((List<Transaction> chunk) -> chunk.size() == 1), anyList());
+        verify(transactionEventPublisher, times(2)).onStatusChanged(anyList(), anyList());
+        assertEquals(version + 2, tableVersions.transactions().current().version());
+    }
+
+    @Test
+    void start_withIds_shouldSkipIllegalTransitionsAndMissingRows() {
+        // Given
+        Transaction pending = save(TransactionStatus.PENDING, CUTOFF);
+        Transaction completed = save(TransactionStatus.COMPLETED, CUTOFF);
+
+        // When
+        StatusTransitionProgress started = transactionStatusTransitionService.start(
+                new StatusTransitionRequest(List.of(pending.getId(), completed.getId(), 999_999L, pending.getId()), null, TransactionStatus.FAILED));
+        runQueued();
+
+        // Then
+        StatusTransitionProgress progress = transactionStatusTransitionService.getProgress(started.id()).orElseThrow();
+        assertEquals(StatusTransitionProgress.State.COMPLETED, progress.state());
+        assertEquals(3, progress.total());
+        assertEquals(1, progress.updated());
+        assertEquals(2, progress.skipped());
+        Transaction moved = transactionRepository.findById(pending.getId()).orElseThrow();
+        assertEquals(TransactionStatus.FAILED, moved.getStatus());
+        assertEquals(pending.getVersion() + 1, moved.getVersion());
+        Transaction untouched = transactionRepository.findById(completed.getId()).orElseThrow();
+        assertEquals(TransactionStatus.COMPLETED, untouched.getStatus());
+        assertEquals(completed.getVersion(), untouched.getVersion());
+    }
+
+    @Test
+    void start_withUnreachableTarget_shouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> transactionStatusTransitionService.start(
+                new StatusTransitionRequest(List.of(1L), null, TransactionStatus.PENDING)));
+        assertThrows(IllegalArgumentException.class, () -> transactionStatusTransitionService.start(
+                new StatusTransitionRequest(List.of(1L), null, null)));
+        assertTrue(queued.isEmpty());
+    }
+
+    @Test
+    void start_withoutIdsOrFilter_shouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> transactionStatusTransitionService.start(
+                new StatusTransitionRequest(List.of(), null, TransactionStatus.COMPLETED)));
+    }
+
+    @Test
+    void getProgress_withUnknownId_shouldBeEmpty() {
+        assertTrue(transactionStatusTransitionService.getProgress("unknown").isEmpty());
+    }
+
+    private void runQueued() {
+        List<Runnable> tasks = new ArrayList<>(queued);
+        queued.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    private Transaction save(TransactionStatus status, LocalDateTime date) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId("SETTLE-" + System.nanoTime());
+        transaction.setDescription("Settlement test");
+        transaction.setAmount(new BigDecimal("10.00"));
+        transaction.setType(TransactionType.DEBIT);
+        transaction.setStatus(status);
+        transaction.setCategory("Shopping");
+        transaction.setTransactionDate(date);
+        return transactionRepository.save(transaction);
+    }
+}
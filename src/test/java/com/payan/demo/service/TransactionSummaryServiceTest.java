@@ -0,0 +1,198 @@
+package com.payan.demo.service;
+
+import com.payan.demo.dto.TransactionAggregate;
+import com.payan.demo.dto.TransactionSummary;
+import com.payan.demo.entity.MinorUnits;
+import com.payan.demo.entity.Transaction;
+import com.payan.demo.entity.TransactionStatus;
+import com.payan.demo.entity.TransactionType;
+import com.payan.demo.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionSummaryServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 15);
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @InjectMocks
+    private TransactionSummaryService transactionSummaryService;
+
+    private Transaction salary;
+    private Transaction groceries;
+
+    @BeforeEach
+    void setUp() {
+        salary = createTransaction("TXN001", "5000.00", TransactionType.CREDIT, TransactionStatus.COMPLETED, "Salary");
+        groceries = createTransaction("TXN002", "150.50", TransactionType.DEBIT, TransactionStatus.PENDING, "Food & Dining");
+    }
+
+    @Test
+    void rebuild_shouldSeedTotalsFromAggregates() {
+        // Given
+        when(transactionRepository.aggregateByTypeStatusCategoryAndDay()).thenReturn(Arrays.asList(
+                new TransactionAggregate(TransactionType.CREDIT, TransactionStatus.COMPLETED, "Salary", DAY, 2, 700_000, 2),
+                new TransactionAggregate(TransactionType.DEBIT, TransactionStatus.COMPLETED, "Utilities", DAY.plusDays(1), 3, 24_000, 2)
+        ));
+
+        // When
+        transactionSummaryService.rebuild();
+        TransactionSummary summary = transactionSummaryService.getSummary();
+
+        // Then
+        assertEquals(5, summary.totalCount());
+        assertEquals(2, summary.creditCount());
+        assertEquals(3, summary.debitCount());
+        assertEquals(new BigDecimal("7000.00"), summary.creditTotal());
+        assertEquals(new BigDecimal("240.00"), summary.debitTotal());
+        assertEquals(new BigDecimal("6760.00"), summary.netBalance());
+        assertEquals(5L, summary.countsByStatus().get("COMPLETED"));
+        assertEquals(new BigDecimal("240.00"), summary.totalsByCategory().get("Utilities"));
+        assertEquals(new BigDecimal("7000.00"), summary.totalsByDay().get(DAY));
+    }
+
+    @Test
+    void onCreated_shouldAddToAllTotals() {
+        // When
+        transactionSummaryService.onCreated(salary);
+        transactionSummaryService.onCreated(groceries);
+        TransactionSummary summary = transactionSummaryService.getSummary();
+
+        // Then
+        assertEquals(2, summary.totalCount());
+        assertEquals(new BigDecimal("5000.00"), summary.creditTotal());
+        assertEquals(new BigDecimal("150.50"), summary.debitTotal());
+        assertEquals(new BigDecimal("4849.50"), summary.netBalance());
+        assertEquals(1L, summary.countsByStatus().get("PENDING"));
+        assertEquals(new BigDecimal("5150.50"), summary.totalsByDay().get(DAY));
+    }
+
+    @Test
+    void onCreated_withTwoMaximumAmounts_shouldNotOverflowTheTotals() {
+        // Given
+        String maximum = MinorUnits.MAX_TRANSACTION_AMOUNT.toPlainString();
+        Transaction first = createTransaction("TXN-MAX-1", maximum, TransactionType.CREDIT, TransactionStatus.COMPLETED, "Salary");
+        Transaction second = createTransaction("TXN-MAX-2", maximum, TransactionType.CREDIT, TransactionStatus.COMPLETED, "Salary");
+
+        // When
+        transactionSummaryService.onCreated(first);
+        transactionSummaryService.onCreated(second);
+        TransactionSummary summary = transactionSummaryService.getSummary();
+
+        // Then
+        BigDecimal doubled = MinorUnits.MAX_TRANSACTION_AMOUNT.multiply(BigDecimal.valueOf(2));
+        assertEquals(doubled, summary.creditTotal());
+        assertEquals(doubled, summary.totalsByCategory().get("Salary"));
+        assertEquals(doubled, summary.totalsByDay().get(DAY));
+    }
+
+    @Test
+    void setAmount_aboveMaximum_shouldThrow() {
+        Transaction transaction = new Transaction();
+        assertThrows(IllegalArgumentException.class, () -> transaction.setAmount(new BigDecimal("90000000000000000.00")));
+        assertThrows(IllegalArgumentException.class,
+                () -> transaction.setAmount(MinorUnits.MAX_TRANSACTION_AMOUNT.add(new BigDecimal("0.01"))));
+    }
+
+    @Test
+    void onUpdated_shouldMoveContributionBetweenGroups() {
+        // Given
+        transactionSummaryService.onCreated(groceries);
+        Transaction after = createTransaction("TXN002", "99.50", TransactionType.DEBIT, TransactionStatus.COMPLETED, "Shopping");
+
+        // When
+        transactionSummaryService.onUpdated(groceries, after);
+        TransactionSummary summary = transactionSummaryService.getSummary();
+
+        // Then
+        assertEquals(1, summary.totalCount());
+        assertEquals(new BigDecimal("99.50"), summary.debitTotal());
+        assertFalse(summary.countsByStatus().containsKey("PENDING"));
+        assertEquals(1L, summary.countsByStatus().get("COMPLETED"));
+        assertFalse(summary.totalsByCategory().containsKey("Food & Dining"));
+        assertEquals(new BigDecimal("99.50"), summary.totalsByCategory().get("Shopping"));
+    }
+
+    @Test
+    void onDeleted_shouldRemoveEmptyGroups() {
+        // Given
+        transactionSummaryService.onCreated(salary);
+        transactionSummaryService.onCreated(groceries);
+
+        // When
+        transactionSummaryService.onDeleted(salary);
+        TransactionSummary summary = transactionSummaryService.getSummary();
+
+        // Then
+        assertEquals(1, summary.totalCount());
+        assertEquals(0, summary.creditCount());
+        assertEquals(0, BigDecimal.ZERO.compareTo(summary.creditTotal()));
+        assertFalse(summary.totalsByCategory().containsKey("Salary"));
+        assertFalse(summary.countsByStatus().containsKey("COMPLETED"));
+    }
+
+    @Test
+    void getSummary_shouldReuseSnapshotUntilNextWrite() {
+        // Given
+        transactionSummaryService.onCreated(salary);
+
+        // When
+        TransactionSummary first = transactionSummaryService.getSummary();
+        TransactionSummary second = transactionSummaryService.getSummary();
+        transactionSummaryService.onCreated(groceries);
+        TransactionSummary third = transactionSummaryService.getSummary();
+
+        // Then
+        assertSame(first, second);
+        assertNotSame(second, third);
+        assertEquals(2, third.totalCount());
+    }
+
+    private Transaction createTransaction(String transactionId, String amount, TransactionType type,
+                                          TransactionStatus status, String category) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(transactionId);
+        transaction.setDescription(transactionId);
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setType(type);
+        transaction.setStatus(status);
+        transaction.setCategory(category);
+        transaction.setTransactionDate(LocalDateTime.of(DAY, LocalTime.NOON));
+        return transaction;
+    }
+
+
+    @Test
+    void rebuildOnStartup_whenAsync_shouldMakeReadersWaitForTotals() {
+        // Given
+        ReflectionTestUtils.setField(transactionSummaryService, "rebuildAsync", true);
+        when(transactionRepository.aggregateByTypeStatusCategoryAndDay()).thenAnswer(invocation -> {
+            Thread.sleep(100);
+            return Arrays.asList(new TransactionAggregate(TransactionType.CREDIT, TransactionStatus.COMPLETED, "Salary", DAY, 2, 700_000, 2));
+        });
+
+        // When
+        transactionSummaryService.rebuildOnStartup();
+        TransactionSummary summary = transactionSummaryService.getSummary();
+
+        // Then
+        assertEquals(2, summary.totalCount());
+    }
+}
@@ -7,6 +7,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
@@ -29,6 +30,12 @@ public class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private UserDetailsCache userDetailsCache;
+
+    @Spy
+    private TableVersions tableVersions = new TableVersions();
+
     @InjectMocks
     private UserService userService;
 
@@ -60,6 +67,7 @@ public class UserServiceTest {
         assertEquals("testuser", createdUser.getUsername());
         verify(passwordEncoder, times(1)).encode("password123");
         verify(userRepository, times(1)).save(any(User.class));
+        assertEquals(1, tableVersions.users().current().version());
     }
 
     @Test
@@ -159,6 +167,7 @@ public class UserServiceTest {
         verify(userRepository, times(1)).findById(1L);
         verify(userRepository, times(1)).save(any(User.class));
         verify(passwordEncoder, never()).encode(anyString()); // Password not updated when empty
+        verify(userDetailsCache, times(1)).evict("testuser", "updateduser"); // Old and new username
     }
 
     @Test
@@ -201,28 +210,31 @@ public class UserServiceTest {
     @Test
     void testDeleteUser_Success() {
         // Arrange
-        when(userRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(userRepository).deleteById(1L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        doNothing().when(userRepository).delete(testUser);
 
         // Act
         userService.deleteUser(1L);
 
         // Assert
-        verify(userRepository, times(1)).existsById(1L);
-        verify(userRepository, times(1)).deleteById(1L);
+        verify(userRepository, times(1)).findById(1L);
+        verify(userRepository, times(1)).delete(testUser);
+        verify(userDetailsCache, times(1)).evict("testuser");
     }
 
     @Test
     void testDeleteUser_NotFound() {
         // Arrange
-        when(userRepository.existsById(anyLong())).thenReturn(false);
+        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(RuntimeException.class, () -> {
             userService.deleteUser(999L);
         });
-        verify(userRepository, times(1)).existsById(999L);
-        verify(userRepository, never()).deleteById(anyLong());
+        verify(userRepository, times(1)).findById(999L);
+        verify(userRepository, never()).delete(any(User.class));
+        verifyNoInteractions(userDetailsCache);
+        assertEquals(0, tableVersions.users().current().version());
     }
 
     @Test
@@ -264,7 +276,7 @@ public class UserServiceTest {
         // Assert
         assertNotNull(result);
         verify(userRepository, times(1)).findById(1L);
-        verify(userRepository, times(1)).save(any(User.class));
+        verify(userRepository, times(1)).save(any(User.class));        verify(userDetailsCache, times(1)).evict("testuser");
     }
 
     @Test